@@ -82,17 +82,16 @@ public class DataBuilderSdg extends DefaultDataContainer {
         }
 
         HouseholdReader hhReader = new DefaultHouseholdReader(dataContainer.getHouseholdDataManager(), dataContainer.getHouseholdDataManager().getHouseholdFactory());
-        hhReader.readData(householdFile);
 
         PersonReader personReader = new DefaultPersonReader(dataContainer.getHouseholdDataManager());
-        personReader.readData(personFile);
 
         DwellingReader ddReader = new DwellingReaderTak(dataContainer.getRealEstateDataManager().getDwellingData());
-        ddReader.readData(dwellingsFile);
 
         new JobType(properties.jobData.jobTypes);
         JobReader jjReader = new DefaultJobReader(dataContainer.getJobDataManager());
-        jjReader.readData(jobsFile);
+
+        SyntheticPopulationReader.read(hhReader, householdFile, ddReader, dwellingsFile, jjReader, jobsFile,
+                personReader, personFile);
 
         SchoolReader eeReader = new SchoolReaderImpl(dataContainer.getSchoolData());
         eeReader.readData(schoolsFile);
@@ -18,6 +18,8 @@ import org.matsim.core.network.algorithms.TransportModeNetworkFilter;
 import org.matsim.core.population.PopulationUtils;
 import org.matsim.core.router.*;
 import org.matsim.core.router.costcalculators.FreespeedTravelTimeAndDisutility;
+import org.matsim.core.router.speedy.LeastCostPathTree;
+import org.matsim.core.router.speedy.SpeedyGraph;
 import org.matsim.core.router.util.LeastCostPathCalculator;
 import org.matsim.core.router.util.LeastCostPathCalculatorFactory;
 import org.matsim.core.router.util.TravelDisutility;
@@ -33,7 +35,6 @@ import java.util.Set;
 public final class MatsimData {
 
     private LeastCostPathCalculatorFactory leastCostPathCalculatorFactory;
-    private LeastCostPathCalculatorFactory multiNodeFactory = new FastMultiNodeDijkstraFactory(true);
 
     private SwissRailRaptorData raptorData;
     private SwissRailRaptorData raptorDataOneToAll;
@@ -43,6 +44,7 @@ public final class MatsimData {
 
     private Network carNetwork;
     private Network ptNetwork;
+    private SpeedyGraph carGraph;
     private final TransitSchedule schedule;
 
     private RaptorParameters raptorParameters;
@@ -109,7 +111,10 @@ public final class MatsimData {
         Network ptNetwork = NetworkUtils.createNetwork();
         filter.filter(ptNetwork, pt);
 
-        this.carNetwork = carNetwork;
+        synchronized (this) {
+            this.carNetwork = carNetwork;
+            this.carGraph = null;
+        }
         this.ptNetwork = ptNetwork;
     }
 
@@ -125,6 +130,17 @@ public final class MatsimData {
         return ptNetwork;
     }
 
+    /**
+     * @return the network on which the trip router routes the given mode. Without a transit schedule, pt is routed on
+     * the car network by a pseudo transit router.
+     */
+    Network getRoutingNetwork(String mode) {
+        if (TransportMode.pt.equals(mode) && schedule != null && config.transit().isUseTransit()) {
+            return ptNetwork;
+        }
+        return carNetwork;
+    }
+
     public void update(TravelDisutility travelDisutility, TravelTime travelTime) {
         this.travelDisutility = travelDisutility;
         this.travelTime = travelTime;
@@ -150,13 +166,24 @@ public final class MatsimData {
         }
     }
 
-    MultiNodePathCalculator createMultiNodePathCalculator() {
-        return (MultiNodePathCalculator) multiNodeFactory.createPathCalculator(carNetwork, travelDisutility, travelTime);
+    /**
+     * @return a one-to-all tree on the car network with the current travel times and disutilities. The tree
+     * must not be shared between threads, whereas the underlying graph is shared by all trees.
+     */
+    LeastCostPathTree createLeastCostPathTree() {
+        return new LeastCostPathTree(getCarGraph(), travelTime, travelDisutility);
     }
 
-    MultiNodePathCalculator createFreeSpeedMultiNodePathCalculator() {
+    LeastCostPathTree createFreeSpeedLeastCostPathTree() {
         FreespeedTravelTimeAndDisutility freespeed = new FreespeedTravelTimeAndDisutility(config.planCalcScore());
-        return (MultiNodePathCalculator) multiNodeFactory.createPathCalculator(carNetwork, freespeed, freespeed);
+        return new LeastCostPathTree(getCarGraph(), freespeed, freespeed);
+    }
+
+    private synchronized SpeedyGraph getCarGraph() {
+        if (carGraph == null) {
+            carGraph = new SpeedyGraph(carNetwork);
+        }
+        return carGraph;
     }
 
     TripRouter createTripRouter() {
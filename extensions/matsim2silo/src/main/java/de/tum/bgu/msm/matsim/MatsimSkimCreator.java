@@ -13,7 +13,9 @@ import org.matsim.api.core.v01.population.Leg;
 import org.matsim.api.core.v01.population.PlanElement;
 import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.router.*;
+import org.matsim.core.router.speedy.LeastCostPathTree;
 import org.matsim.core.utils.geometry.CoordUtils;
+import org.matsim.core.utils.misc.OptionalTime;
 import org.matsim.facilities.ActivityFacilitiesFactory;
 import org.matsim.facilities.ActivityFacilitiesFactoryImpl;
 import org.matsim.facilities.ActivityFacility;
@@ -21,6 +23,8 @@ import org.matsim.facilities.Facility;
 import org.matsim.pt.transitSchedule.api.TransitStopFacility;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 public class MatsimSkimCreator {
 
@@ -32,51 +36,30 @@ public class MatsimSkimCreator {
         this.matsimData = provider;
     }
 
+    /**
+     * Calculates congested travel times on the car network between the first connectors of all zones. Distances
+     * and generalized costs are neither read from the trees nor stored.
+     */
     public IndexedDoubleMatrix2D createCarSkim(Collection<? extends de.tum.bgu.msm.data.Id> zones, int numberOfThreads, double peakHour_s) {
-        final int partitionSize = (int) ((double) zones.size() / numberOfThreads) + 1;
-        Iterable<? extends List<? extends de.tum.bgu.msm.data.Id>> partitions = Iterables.partition(zones, partitionSize);
-
-        IndexedDoubleMatrix2D skim = new IndexedDoubleMatrix2D(zones, zones);
-        Network carNetwork = matsimData.getCarNetwork();
-        ConcurrentExecutor<Void> executor = ConcurrentExecutor.fixedPoolService(numberOfThreads);
-        for (final List<? extends de.tum.bgu.msm.data.Id> partition : partitions) {
-            executor.addTaskToQueue(() -> {
-                try {
-                    MultiNodePathCalculator calculator = matsimData.createMultiNodePathCalculator();
-                    Set<InitialNode> toNodes = new HashSet<>();
-                    for (de.tum.bgu.msm.data.Id zone : zones) {
-                        for (Coord coord : matsimData.getZoneConnectorManager().getCoordsForZone(zone.getId())) {
-                            Node originNode = NetworkUtils.getNearestNode(carNetwork, coord);
-                            toNodes.add(new InitialNode(originNode, 0., 0.));
-                        }
-                    }
-
-                    ImaginaryNode aggregatedToNodes = MultiNodeDijkstra.createImaginaryNode(toNodes);
-
-                    for (de.tum.bgu.msm.data.Id origin : partition) {
-                        Node originNode = NetworkUtils.getNearestNode(carNetwork, matsimData.getZoneConnectorManager().getCoordsForZone(origin.getId()).get(0));
-                        calculator.calcLeastCostPath(originNode, aggregatedToNodes, peakHour_s, null, null);
-                        for (de.tum.bgu.msm.data.Id destination : zones) {
-                            Node destinationNode = NetworkUtils.getNearestNode(carNetwork, matsimData.getZoneConnectorManager().getCoordsForZone(destination.getId()).get(0));
-                            double travelTime = calculator.constructPath(originNode, destinationNode, peakHour_s).travelTime;
-
-                            //convert to minutes
-                            travelTime /= 60.;
-
-                            skim.setIndexed(origin.getId(), destination.getId(), travelTime);
-                        }
-                    }
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-                return null;
-            });
-        }
-        executor.execute();
+        IndexedDoubleMatrix2D skim = calculateNetworkSkims(zones, numberOfThreads, peakHour_s, 1.,
+                matsimData::createLeastCostPathTree, false).travelTimes;
         assignIntrazonals(5, Float.MAX_VALUE, 0.66f, skim);
         return skim;
     }
 
+    /**
+     * Calculates congested travel times, distances and generalized costs on the car network between the first
+     * connectors of all zones. Connectors are mapped to network nodes once, then one least cost path tree is grown
+     * per origin and all destinations are read from that tree.
+     */
+    public NetworkSkims createCarSkims(Collection<? extends de.tum.bgu.msm.data.Id> zones, int numberOfThreads, double peakHour_s) {
+        NetworkSkims skims = calculateNetworkSkims(zones, numberOfThreads, peakHour_s, 1., matsimData::createLeastCostPathTree, true);
+        assignIntrazonals(5, Float.MAX_VALUE, 0.66f, skims.travelTimes);
+        assignIntrazonals(5, Float.MAX_VALUE, 0.66f, skims.distances);
+        assignIntrazonals(5, Float.MAX_VALUE, 0.66f, skims.costs);
+        return skims;
+    }
+
     public IndexedDoubleMatrix2D createPtSkim(Collection<? extends de.tum.bgu.msm.data.Id> zones, int numberOfThreads,
                                               double peakHour_s) {
         final int partitionSize = (int) ((double) zones.size() / numberOfThreads) + 1;
@@ -211,40 +194,61 @@ public class MatsimSkimCreator {
 
     public IndexedDoubleMatrix2D createFreeSpeedFactorSkim(Collection<? extends de.tum.bgu.msm.data.Id> zones,
                                                            double factor, int numberOfThreads, double peakHour_s) {
-        final int partitionSize = (int) ((double) zones.size() / numberOfThreads) + 1;
-        Iterable<? extends List<? extends de.tum.bgu.msm.data.Id>> partitions = Iterables.partition(zones, partitionSize);
+        IndexedDoubleMatrix2D skim = calculateNetworkSkims(zones, numberOfThreads, peakHour_s, factor,
+                matsimData::createFreeSpeedLeastCostPathTree, false).travelTimes;
+        assignIntrazonals(5, Float.MAX_VALUE, 0.66f, skim);
+        return skim;
+    }
 
-        IndexedDoubleMatrix2D skim = new IndexedDoubleMatrix2D(zones, zones);
+    /**
+     * @param timeFactor factor applied to the travel times, e.g. the free speed factor of a teleported mode
+     * @param treeFactory creates one tree per task, as trees keep the state of the last calculation
+     * @param withDistancesAndCosts whether distance and cost matrices are filled as well, otherwise only travel times
+     */
+    private NetworkSkims calculateNetworkSkims(Collection<? extends de.tum.bgu.msm.data.Id> zones, int numberOfThreads,
+                                               double peakHour_s, double timeFactor, Supplier<LeastCostPathTree> treeFactory,
+                                               boolean withDistancesAndCosts) {
         Network carNetwork = matsimData.getCarNetwork();
+        Map<de.tum.bgu.msm.data.Id, Node> nodeByZone = new LinkedHashMap<>();
+        for (de.tum.bgu.msm.data.Id zone : zones) {
+            Coord coord = matsimData.getZoneConnectorManager().getCoordsForZone(zone.getId()).get(0);
+            nodeByZone.put(zone, NetworkUtils.getNearestNode(carNetwork, coord));
+        }
+
+        NetworkSkims skims = new NetworkSkims(zones, withDistancesAndCosts);
+        final int partitionSize = (int) ((double) zones.size() / numberOfThreads) + 1;
+        Iterable<? extends List<? extends de.tum.bgu.msm.data.Id>> partitions = Iterables.partition(zones, partitionSize);
+        AtomicInteger unreachable = new AtomicInteger();
         ConcurrentExecutor<Void> executor = ConcurrentExecutor.fixedPoolService(numberOfThreads);
         for (final List<? extends de.tum.bgu.msm.data.Id> partition : partitions) {
             executor.addTaskToQueue(() -> {
                 try {
-                    MultiNodePathCalculator calculator = matsimData.createFreeSpeedMultiNodePathCalculator();
-                    Set<InitialNode> toNodes = new HashSet<>();
-                    for (de.tum.bgu.msm.data.Id zone : zones) {
-                        for (Coord coord : matsimData.getZoneConnectorManager().getCoordsForZone(zone.getId())) {
-                            Node originNode = NetworkUtils.getNearestNode(carNetwork, coord);
-                            toNodes.add(new InitialNode(originNode, 0., 0.));
-                        }
-                    }
-
-                    ImaginaryNode aggregatedToNodes = MultiNodeDijkstra.createImaginaryNode(toNodes);
-
+                    LeastCostPathTree tree = treeFactory.get();
                     for (de.tum.bgu.msm.data.Id origin : partition) {
-                        Node originNode = NetworkUtils.getNearestNode(carNetwork, matsimData.getZoneConnectorManager().getCoordsForZone(origin.getId()).get(0));
-                        calculator.calcLeastCostPath(originNode, aggregatedToNodes, peakHour_s, null, null);
-                        for (de.tum.bgu.msm.data.Id destination : zones) {
-                            Node destinationNode = NetworkUtils.getNearestNode(carNetwork, matsimData.getZoneConnectorManager().getCoordsForZone(destination.getId()).get(0));
-                            double travelTime = calculator.constructPath(originNode, destinationNode, peakHour_s).travelTime;
-
-                            //adjust by factor
-                            travelTime *= factor;
+                        tree.calculate(nodeByZone.get(origin).getId().index(), peakHour_s, null, null);
+                        for (Map.Entry<de.tum.bgu.msm.data.Id, Node> destination : nodeByZone.entrySet()) {
+                            final int nodeIndex = destination.getValue().getId().index();
+                            final OptionalTime arrivalTime = tree.getTime(nodeIndex);
+                            final int destinationId = destination.getKey().getId();
+                            if (arrivalTime.isUndefined()) {
+                                unreachable.incrementAndGet();
+                                skims.travelTimes.setIndexed(origin.getId(), destinationId, Double.MAX_VALUE);
+                                if (withDistancesAndCosts) {
+                                    skims.distances.setIndexed(origin.getId(), destinationId, Double.MAX_VALUE);
+                                    skims.costs.setIndexed(origin.getId(), destinationId, Double.MAX_VALUE);
+                                }
+                                continue;
+                            }
+                            double travelTime = (arrivalTime.seconds() - peakHour_s) * timeFactor;
 
                             //convert to minutes
                             travelTime /= 60.;
 
-                            skim.setIndexed(origin.getId(), destination.getId(), travelTime);
+                            skims.travelTimes.setIndexed(origin.getId(), destinationId, travelTime);
+                            if (withDistancesAndCosts) {
+                                skims.distances.setIndexed(origin.getId(), destinationId, tree.getDistance(nodeIndex));
+                                skims.costs.setIndexed(origin.getId(), destinationId, tree.getCost(nodeIndex));
+                            }
                         }
                     }
                 } catch (Exception e) {
@@ -254,8 +258,38 @@ public class MatsimSkimCreator {
             });
         }
         executor.execute();
-        assignIntrazonals(5, Float.MAX_VALUE, 0.66f, skim);
-        return skim;
+        if (unreachable.get() > 0) {
+            logger.warn(unreachable.get() + " zone pairs are not connected on the car network.");
+        }
+        return skims;
+    }
+
+    /**
+     * Travel times in minutes, distances in meters and generalized costs between zones on a network.
+     */
+    public static final class NetworkSkims {
+
+        private final IndexedDoubleMatrix2D travelTimes;
+        private final IndexedDoubleMatrix2D distances;
+        private final IndexedDoubleMatrix2D costs;
+
+        private NetworkSkims(Collection<? extends de.tum.bgu.msm.data.Id> zones, boolean withDistancesAndCosts) {
+            this.travelTimes = new IndexedDoubleMatrix2D(zones, zones);
+            this.distances = withDistancesAndCosts ? new IndexedDoubleMatrix2D(zones, zones) : null;
+            this.costs = withDistancesAndCosts ? new IndexedDoubleMatrix2D(zones, zones) : null;
+        }
+
+        public IndexedDoubleMatrix2D getTravelTimes() {
+            return travelTimes;
+        }
+
+        public IndexedDoubleMatrix2D getDistances() {
+            return distances;
+        }
+
+        public IndexedDoubleMatrix2D getCosts() {
+            return costs;
+        }
     }
 
     //TODO: copied from MITO car skim updater...maybe provide a utility function there
@@ -4,6 +4,7 @@ import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorRoutingModule;
 import de.tum.bgu.msm.data.Location;
 import de.tum.bgu.msm.data.MicroLocation;
 import de.tum.bgu.msm.data.Region;
+import de.tum.bgu.msm.data.RegionTravelTimeReduction;
 import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.geo.GeoData;
 import de.tum.bgu.msm.data.person.Person;
@@ -21,7 +22,6 @@ import org.matsim.api.core.v01.population.PlanElement;
 import org.matsim.api.core.v01.population.Route;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.groups.PlanCalcScoreConfigGroup;
-import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.population.routes.NetworkRoute;
 import org.matsim.core.router.*;
 import org.matsim.core.utils.geometry.CoordUtils;
@@ -53,8 +53,19 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
 
     private final Config config;
 
+    private final ActivityFacilitiesFactory activityFacilitiesFactory = new ActivityFacilitiesFactoryImpl();
+    /**
+     * shared with all duplicates created for the same network state, replaced on every update
+     */
+    private RoutedTravelTimeCache routedTravelTimeCache;
+
     public MatsimTravelTimesAndCosts(Config config) {
+        this(config, new RoutedTravelTimeCache());
+    }
+
+    private MatsimTravelTimesAndCosts(Config config, RoutedTravelTimeCache routedTravelTimeCache) {
         this.config = config;
+        this.routedTravelTimeCache = routedTravelTimeCache;
     }
 
     public void initialize(GeoData geoData, MatsimData matsimData) {
@@ -66,6 +77,10 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
     public void update(MatsimData matsimData) {
         this.matsimData = matsimData;
         this.tripRouter = matsimData.createTripRouter();
+        logger.info("Routed travel times of the previous network state: " + routedTravelTimeCache.getStatistics());
+        // duplicates created before keep the previous cache, which matches the routers they were created with
+        this.routedTravelTimeCache.invalidate();
+        this.routedTravelTimeCache = new RoutedTravelTimeCache();
         this.skimsByMode.clear();
         this.travelTimesFromRegion.clear();
         this.travelTimesToRegion.clear();
@@ -81,69 +96,42 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
 
     private void updateRegionalTravelTimes() {
         logger.info("Updating minimal zone to region travel times...");
-        IndexedDoubleMatrix2D travelTimesFromRegionCar = new IndexedDoubleMatrix2D(regions, zones.values());
-        IndexedDoubleMatrix2D travelTimesToRegionCar = new IndexedDoubleMatrix2D(zones.values(), regions);
-        IndexedDoubleMatrix2D travelTimesFromRegionPt = new IndexedDoubleMatrix2D(regions, zones.values());
-        IndexedDoubleMatrix2D travelTimesToRegionPt = new IndexedDoubleMatrix2D(zones.values(), regions);
-
-        regions.parallelStream().forEach( r -> {
-            for(Zone zone: zones.values()) {
-                int zoneId = zone.getZoneId();
-                double minFromCar = Double.MAX_VALUE;
-                double minToCar = Double.MAX_VALUE;
-                double minFromPt = Double.MAX_VALUE;
-                double minToPt = Double.MAX_VALUE;
-
-                for (Zone zoneInRegion : r.getZones()) {
-                    double travelTimeFromRegionCar = getPeakSkim(TransportMode.car).getIndexed(zoneInRegion.getZoneId(), zoneId);
-                    if (travelTimeFromRegionCar < minFromCar) {
-                        minFromCar = travelTimeFromRegionCar;
-                    }
-                    double travelTimeToRegionCar = getPeakSkim(TransportMode.car).getIndexed(zoneId, zoneInRegion.getZoneId());
-                    if (travelTimeToRegionCar < minToCar) {
-                        minToCar = travelTimeToRegionCar;
-                    }
-                    double travelTimeFromRegionPt = getPeakSkim(TransportMode.pt).getIndexed(zoneInRegion.getZoneId(), zoneId);
-                    if (travelTimeFromRegionPt < minFromPt) {
-                        minFromPt = travelTimeFromRegionPt;
-                    }
-                    double travelTimeToRegionPt = getPeakSkim(TransportMode.pt).getIndexed(zoneId, zoneInRegion.getZoneId());
-                    if (travelTimeToRegionPt < minToPt) {
-                        minToPt = travelTimeToRegionPt;
-                    }
-                }
-                travelTimesFromRegionCar.setIndexed(r.getId(), zoneId, minFromCar);
-                travelTimesToRegionCar.setIndexed(zoneId, r.getId(), minToCar);
-                travelTimesFromRegionPt.setIndexed(r.getId(), zoneId, minFromPt);
-                travelTimesToRegionPt.setIndexed(zoneId, r.getId(), minToPt);
-            }
-        });
-        travelTimesFromRegion.put(TransportMode.car, travelTimesFromRegionCar);
-        travelTimesFromRegion.put(TransportMode.pt, travelTimesFromRegionPt);
-        travelTimesToRegion.put(TransportMode.car, travelTimesToRegionCar);
-        travelTimesToRegion.put(TransportMode.pt, travelTimesToRegionPt);
+        for (String mode : Arrays.asList(TransportMode.car, TransportMode.pt)) {
+            final RegionTravelTimeReduction reduction = RegionTravelTimeReduction.reduce(getPeakSkim(mode), regions, zones.values());
+            travelTimesFromRegion.put(mode, reduction.getMinimumFromRegion());
+            travelTimesToRegion.put(mode, reduction.getMinimumToRegion());
+        }
     }
 
+    /**
+     * Travel times of modes routed from link to link are cached by the nearest links of origin and destination and
+     * by departure time bins until the next update. Cached values are routed between the coordinates of these links at
+     * the start of the bin, such that they do not depend on which location or departure time within the bin is queried
+     * first. Nearest links are looked up on the network the mode is routed on. All duplicates of this object share
+     * the cache until the next update.
+     * Modes with access and egress legs depend on the exact coordinates and are routed on every call.
+     */
     @Override
     public double getTravelTime(Location origin, Location destination, double timeOfDay_s, String mode) {
-        List<? extends PlanElement> planElements = getRoute(origin, destination, timeOfDay_s, mode, null);
-        double arrivalTime = timeOfDay_s;
-
-        if (!planElements.isEmpty()) {
-            final Leg lastLeg = (Leg) planElements.get(planElements.size() - 1);
-            arrivalTime = lastLeg.getDepartureTime().seconds() + lastLeg.getTravelTime().seconds();
+        final Coord[] coords = getCoords(origin, destination);
+        if (!isRoutedBetweenLinks(mode)) {
+            return calculateTravelTime(coords[0], coords[1], timeOfDay_s, mode, null);
         }
-
-        double time = arrivalTime - timeOfDay_s;
-
-        //convert to minutes
-        time /= 60.;
-        return time;
+        final Network network = matsimData.getRoutingNetwork(mode);
+        final Id<Link> fromLink = routedTravelTimeCache.getNearestLink(network, coords[0]);
+        final Id<Link> toLink = routedTravelTimeCache.getNearestLink(network, coords[1]);
+        return routedTravelTimeCache.getTravelTime(fromLink, toLink, mode, timeOfDay_s,
+                binStart_s -> calculateTravelTime(network.getLinks().get(fromLink).getCoord(),
+                        network.getLinks().get(toLink).getCoord(), binStart_s, mode, null));
     }
 
     public double getTravelTime(Location origin, Location destination, double timeOfDay_s, String mode, Person siloPerson) {
+        final Coord[] coords = getCoords(origin, destination);
+        return calculateTravelTime(coords[0], coords[1], timeOfDay_s, mode, siloPerson);
+    }
 
-        List<? extends PlanElement> planElements = getRoute(origin, destination, timeOfDay_s, mode, siloPerson);
+    private double calculateTravelTime(Coord originCoord, Coord destinationCoord, double timeOfDay_s, String mode, Person siloPerson) {
+        List<? extends PlanElement> planElements = getRoute(originCoord, destinationCoord, timeOfDay_s, mode, siloPerson);
         double arrivalTime = timeOfDay_s;
 
         if (!planElements.isEmpty()) {
@@ -159,7 +147,8 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
     }
 
     public double getGeneralizedTravelCosts(Location origin, Location destination, double timeOfDay_s, String mode) {
-        List<? extends PlanElement> planElements = getRoute(origin, destination, timeOfDay_s, mode, null);
+        final Coord[] coords = getCoords(origin, destination);
+        List<? extends PlanElement> planElements = getRoute(coords[0], coords[1], timeOfDay_s, mode, null);
         RoutingModule routingModule = tripRouter.getRoutingModule(mode);
         PlanCalcScoreConfigGroup cnScoringGroup = config.planCalcScore();
 
@@ -195,7 +184,20 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
         return -utility;
     }
 
-    private List<? extends PlanElement> getRoute(Location origin, Location destination, double timeOfDay_s, String mode, Person siloPerson) {
+    /**
+     * @return whether the route of the mode only depends on the links of origin and destination, i.e. it is routed
+     * on the network without access and egress legs
+     */
+    private boolean isRoutedBetweenLinks(String mode) {
+        final RoutingModule routingModule = tripRouter.getRoutingModule(mode);
+        return routingModule instanceof NetworkRoutingModule
+                || routingModule instanceof FreespeedFactorRoutingModule;
+    }
+
+    /**
+     * @return coordinates of origin and destination
+     */
+    private Coord[] getCoords(Location origin, Location destination) {
         Coord originCoord;
         Coord destinationCoord;
         if (origin instanceof MicroLocation && destination instanceof MicroLocation) {
@@ -209,18 +211,20 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
         } else {
             throw new IllegalArgumentException("Origin and destination have to be consistent in location type!");
         }
+        return new Coord[]{originCoord, destinationCoord};
+    }
 
+    private List<? extends PlanElement> getRoute(Coord originCoord, Coord destinationCoord, double timeOfDay_s, String mode, Person siloPerson) {
         Id<Link> fromLink = null;
         Id<Link> toLink = null;
         if(tripRouter.getRoutingModule(mode) instanceof FreespeedFactorRoutingModule) {
-            final Network carNetwork = matsimData.getCarNetwork();
-            fromLink = NetworkUtils.getNearestLink(carNetwork, originCoord).getId();
-            toLink = NetworkUtils.getNearestLink(carNetwork, destinationCoord).getId();
+            final Network network = matsimData.getRoutingNetwork(mode);
+            fromLink = routedTravelTimeCache.getNearestLink(network, originCoord);
+            toLink = routedTravelTimeCache.getNearestLink(network, destinationCoord);
         }
 
-        ActivityFacilitiesFactoryImpl activityFacilitiesFactory = new ActivityFacilitiesFactoryImpl();
-        Facility fromFacility = ((ActivityFacilitiesFactory) activityFacilitiesFactory).createActivityFacility(Id.create(1, ActivityFacility.class), originCoord, fromLink);
-        Facility toFacility = ((ActivityFacilitiesFactory) activityFacilitiesFactory).createActivityFacility(Id.create(2, ActivityFacility.class), destinationCoord, toLink);
+        Facility fromFacility = activityFacilitiesFactory.createActivityFacility(Id.create(1, ActivityFacility.class), originCoord, fromLink);
+        Facility toFacility = activityFacilitiesFactory.createActivityFacility(Id.create(2, ActivityFacility.class), destinationCoord, toLink);
 
         org.matsim.api.core.v01.population.Person matsimPerson = null;
         if (siloPerson != null) {
@@ -279,7 +283,7 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
     @Override
     public TravelTimes duplicate() {
         logger.warn("Creating another TravelTimes object.");
-        MatsimTravelTimesAndCosts matsimTravelTimesAndCosts = new MatsimTravelTimesAndCosts(config);
+        MatsimTravelTimesAndCosts matsimTravelTimesAndCosts = new MatsimTravelTimesAndCosts(config, routedTravelTimeCache);
         matsimTravelTimesAndCosts.zones = this.zones;
         matsimTravelTimesAndCosts.regions = this.regions;
         matsimTravelTimesAndCosts.matsimData = matsimData;
@@ -0,0 +1,142 @@
+package de.tum.bgu.msm.matsim;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.network.NetworkUtils;
+
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Bounded cache of routed travel times by origin link, destination link, mode and departure time bin, and of
+ * the nearest links of coordinates per network, such that dwellings, jobs and zone connectors are resolved to links
+ * only once.
+ *
+ * Cached values are only valid for one state of the network and its travel times. {@link #invalidate()} has to be
+ * called whenever the routers are updated. The cache is thread-safe and least recently used entries are dropped
+ * once it is full.
+ */
+final class RoutedTravelTimeCache {
+
+    private static final long MAXIMUM_NUMBER_OF_ROUTES = 2_000_000;
+    private static final long MAXIMUM_NUMBER_OF_LOCATIONS = 2_000_000;
+    private static final double TIME_BIN_S = 15 * 60;
+
+    private final Cache<RouteKey, Double> travelTimes = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_NUMBER_OF_ROUTES)
+            .recordStats()
+            .build();
+
+    private final Cache<LinkKey, Id<Link>> nearestLinks = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_NUMBER_OF_LOCATIONS)
+            .recordStats()
+            .build();
+
+    Id<Link> getNearestLink(Network network, Coord coord) {
+        final LinkKey key = new LinkKey(network, coord);
+        Id<Link> link = nearestLinks.getIfPresent(key);
+        if (link == null) {
+            link = NetworkUtils.getNearestLink(network, coord).getId();
+            nearestLinks.put(key, link);
+        }
+        return link;
+    }
+
+    /**
+     * @param router calculates the travel time between the links for the given departure time if it is not cached
+     *               yet. It is called with the start of the time bin, not with the queried time of day.
+     */
+    double getTravelTime(Id<Link> fromLink, Id<Link> toLink, String mode, double timeOfDay_s, DoubleUnaryOperator router) {
+        final int timeBin = (int) (timeOfDay_s / TIME_BIN_S);
+        final RouteKey key = new RouteKey(fromLink, toLink, mode, timeBin);
+        Double time = travelTimes.getIfPresent(key);
+        if (time == null) {
+            // the value only depends on the key, so concurrent misses of the same route yield the same value
+            time = router.applyAsDouble(timeBin * TIME_BIN_S);
+            travelTimes.put(key, time);
+        }
+        return time;
+    }
+
+    void invalidate() {
+        travelTimes.invalidateAll();
+        nearestLinks.invalidateAll();
+    }
+
+    String getStatistics() {
+        final CacheStats routes = travelTimes.stats();
+        final CacheStats locations = nearestLinks.stats();
+        return String.format("%d routes cached, %d hits, %d routed (hit rate %.3f). %d locations resolved to links (hit rate %.3f).",
+                travelTimes.size(), routes.hitCount(), routes.missCount(), routes.hitRate(),
+                nearestLinks.size(), locations.hitRate());
+    }
+
+    /**
+     * The nearest link of a coordinate depends on the network, which is compared by identity.
+     */
+    private static final class LinkKey {
+
+        private final Network network;
+        private final Coord coord;
+
+        private LinkKey(Network network, Coord coord) {
+            this.network = network;
+            this.coord = coord;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LinkKey)) {
+                return false;
+            }
+            final LinkKey other = (LinkKey) o;
+            return network == other.network && coord.equals(other.coord);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(network) + coord.hashCode();
+        }
+    }
+
+    private static final class RouteKey {
+
+        private final Id<Link> fromLink;
+        private final Id<Link> toLink;
+        private final String mode;
+        private final int timeBin;
+
+        private RouteKey(Id<Link> fromLink, Id<Link> toLink, String mode, int timeBin) {
+            this.fromLink = fromLink;
+            this.toLink = toLink;
+            this.mode = mode;
+            this.timeBin = timeBin;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RouteKey)) {
+                return false;
+            }
+            final RouteKey other = (RouteKey) o;
+            return timeBin == other.timeBin && fromLink.equals(other.fromLink)
+                    && toLink.equals(other.toLink) && mode.equals(other.mode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fromLink, toLink, mode, timeBin);
+        }
+    }
+}
@@ -21,16 +21,21 @@ import de.tum.bgu.msm.container.ModelContainer;
 import de.tum.bgu.msm.data.SummarizeData;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.events.MicroEvent;
+import de.tum.bgu.msm.io.output.AsyncCsvWriter;
 import de.tum.bgu.msm.io.output.ResultsMonitor;
 import de.tum.bgu.msm.models.EventModel;
 import de.tum.bgu.msm.models.ModelUpdateListener;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.SimulationCheckpoint;
 import de.tum.bgu.msm.simulator.Simulator;
+import de.tum.bgu.msm.utils.PopulationCache;
 import de.tum.bgu.msm.utils.SiloUtil;
 import de.tum.bgu.msm.utils.TimeTracker;
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -51,6 +56,8 @@ public final class SiloModel {
     private Simulator simulator;
     private final TimeTracker timeTracker = new TimeTracker();
 	private Set<ResultsMonitor> resultsMonitors = new HashSet<>();
+	private final List<PopulationCache.Extension> checkpointExtensions = new ArrayList<>();
+	private SimulationCheckpoint restartCheckpoint;
 
 	/**
      * @param properties
@@ -70,6 +77,14 @@ public final class SiloModel {
   		resultsMonitors.add(resultsMonitor);
 	}
 
+	/**
+	 * Adds attributes and entities of the use case to the micro data of checkpoints. Use cases with own entity
+	 * classes cannot write checkpoints without an extension.
+	 */
+	public void addCheckpointExtension(PopulationCache.Extension extension) {
+		checkpointExtensions.add(extension);
+	}
+
 	public void runModel() {
 		logger.info("Scenario: " + properties.main.scenarioName + ", Simulation start year: " + properties.main.startYear);
 		long startTime = System.currentTimeMillis();
@@ -79,6 +94,7 @@ public final class SiloModel {
 			endSimulation();
 		} catch (Exception e){
 			logger.error("Error running SILO.");
+			flushFilesAfterError();
 			throw new RuntimeException(e);
 		} finally {
 			SiloUtil.closeAllFiles(startTime, timeTracker);
@@ -108,8 +124,38 @@ public final class SiloModel {
 
         setupScalingYears();
 
+        if (!properties.main.checkpointRestartFile.isEmpty()) {
+            restartCheckpoint = SimulationCheckpoint.read(properties.main.baseDirectory + properties.main.checkpointRestartFile,
+                    dataContainer, checkpointExtensions);
+        }
+        if (!properties.main.checkpointYears.isEmpty()) {
+            SimulationCheckpoint.checkExtensions(dataContainer, checkpointExtensions);
+        }
         dataContainer.setup();
         simulator.setup();
+        SiloUtil.finishSetupOfRandoms();
+        if (restartCheckpoint != null) {
+            restartCheckpoint.restoreState(getCheckpointComponents());
+            logger.info("Restarting simulation after year " + restartCheckpoint.getYear());
+        }
+	}
+
+	/**
+	 * Components whose state is saved in checkpoints, in a fixed order.
+	 */
+	private List<Object> getCheckpointComponents() {
+		List<Object> components = new ArrayList<>();
+		components.add(dataContainer);
+		components.add(dataContainer.getHouseholdDataManager());
+		components.add(dataContainer.getRealEstateDataManager());
+		components.add(dataContainer.getJobDataManager());
+		components.add(dataContainer.getGeoData());
+		components.add(dataContainer.getTravelTimes());
+		components.add(dataContainer.getAccessibility());
+		components.add(dataContainer.getCommutingTimeProbability());
+		components.addAll(modelContainer.getEventModels().values());
+		components.addAll(modelContainer.getModelUpdateListeners());
+		return components;
 	}
 
 	private void setupScalingYears() {
@@ -122,7 +168,8 @@ public final class SiloModel {
 	private void runYearByYear() {
 
         final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
-        for (int year = properties.main.startYear; year < properties.main.endYear; year++) {
+        final int firstYear = restartCheckpoint != null ? restartCheckpoint.getYear() + 1 : properties.main.startYear;
+        for (int year = firstYear; year < properties.main.endYear; year++) {
 
             logger.info("Simulating changes from year " + year + " to year " + (year + 1));
             long time = System.currentTimeMillis();
@@ -141,6 +188,13 @@ public final class SiloModel {
             }
             simulator.simulate(year);
 			dataContainer.endYear(year);
+			if (properties.main.checkpointYears.contains(year)) {
+				// the files of the year have to be complete before a restart continues after this checkpoint
+				AsyncCsvWriter.flush();
+				SimulationCheckpoint.write(properties.main.baseDirectory + "scenOutput/" + properties.main.scenarioName
+								+ "/checkpoints/checkpoint_" + year + ".bin", year, properties.main.scenarioName,
+						dataContainer, checkpointExtensions, getCheckpointComponents());
+			}
 
 			logger.info("  Finished this simulation period with " + householdDataManager.getPersons().size() +
 					" persons, " + householdDataManager.getHouseholds().size() + " households and "  +
@@ -154,9 +208,22 @@ public final class SiloModel {
 		}
 	}
 
+	/**
+	 * Completes the files that are still written in the background, such that the output of the years before the
+	 * error is available. Failures are logged, as they must not hide the error of the simulation.
+	 */
+	private void flushFilesAfterError() {
+		try {
+			AsyncCsvWriter.flush();
+		} catch (RuntimeException e) {
+			logger.error("Micro data files written before the error may be incomplete.", e);
+		}
+	}
+
 	private void endSimulation() {
   	    simulator.endSimulation();
   	    dataContainer.endSimulation();
+  	    AsyncCsvWriter.flush();
 
   	    if (scalingYears.contains(properties.main.endYear)) {
             SummarizeData.scaleMicroDataToExogenousForecast(properties.main.endYear, dataContainer);
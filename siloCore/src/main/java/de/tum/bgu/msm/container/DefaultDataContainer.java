@@ -9,8 +9,13 @@ import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.data.job.JobDataManager;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.Checkpointable;
 import org.apache.log4j.Logger;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
 /**
  * @author moeckel
  * The Silo Data Container holds all the various Data classes used by the SILO events.
@@ -18,7 +23,7 @@ import org.apache.log4j.Logger;
  * using the respective getter.  \n
  * All the data items are constructed within the ModelContainer
  */
-public class DefaultDataContainer implements DataContainer {
+public class DefaultDataContainer implements DataContainer, Checkpointable {
 
     private final static Logger logger = Logger.getLogger(DefaultDataContainer.class);
 
@@ -124,4 +129,17 @@ public class DefaultDataContainer implements DataContainer {
         accessibility.endSimulation();
         commutingTimeProbability.endSimulation();
     }
+
+    /**
+     * Writes the skim year of the travel times, which are only accessible through their wrapper.
+     */
+    @Override
+    public void writeCheckpoint(DataOutputStream out) throws IOException {
+        travelTimes.writeCheckpoint(out);
+    }
+
+    @Override
+    public void readCheckpoint(DataInputStream in) throws IOException {
+        travelTimes.readCheckpoint(in);
+    }
 }
@@ -0,0 +1,188 @@
+package de.tum.bgu.msm.data;
+
+import cern.colt.map.tint.OpenIntIntHashMap;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Book keeping for micro data that is stored in columns, i.e. one array per attribute. Assigns a
+ * dense row to every stored entity, maps ids to rows and keeps the single view object of every row.
+ * Rows of removed entities are reused before the columns grow, which keeps occupied rows dense for
+ * scans over all entities.
+ *
+ * The attributes themselves are owned by the caller, which is notified through the grow callback
+ * whenever the columns have to be enlarged. Additions and removals are synchronized, lookups are not
+ * and must not happen concurrently with additions.
+ */
+public final class ColumnarIndex<T extends Id> {
+
+    /**
+     * row + 1 by id, such that the default value 0 of the map means absent
+     */
+    private final OpenIntIntHashMap rows = new OpenIntIntHashMap();
+    private final IntSupplier capacity;
+    private final IntConsumer grow;
+    private final IntConsumer remover;
+
+    private Object[] views;
+    private int[] freeRows = new int[16];
+    private int numberOfFreeRows = 0;
+    private int highestRow = -1;
+    private int size = 0;
+
+    private final Collection<T> values = new Values();
+
+    /**
+     * @param capacity supplies the current capacity of the columns
+     * @param grow     enlarges the columns to the given capacity
+     * @param remover  removes the entity with the given id from the owner of the columns,
+     *                 used for removals through iterators of {@link #values()}
+     */
+    public ColumnarIndex(IntSupplier capacity, IntConsumer grow, IntConsumer remover) {
+        this.capacity = capacity;
+        this.grow = grow;
+        this.remover = remover;
+        this.views = new Object[capacity.getAsInt()];
+    }
+
+    /**
+     * @return the row of the entity with the given id or -1 if it is not stored
+     */
+    public int rowOf(int id) {
+        return rows.get(id) - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int id) {
+        final int row = rows.get(id) - 1;
+        return row < 0 ? null : (T) views[row];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getAt(int row) {
+        return (T) views[row];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the highest row that was ever occupied. Rows up to this one may be free.
+     */
+    public int getHighestRow() {
+        return highestRow;
+    }
+
+    /**
+     * Assigns a row to the given view. The caller has to move the attributes of the entity into the row.
+     * @return the row of the entity
+     */
+    public synchronized int add(T view) {
+        if (rows.containsKey(view.getId())) {
+            throw new IllegalArgumentException("Entity " + view.getId() + " is already stored.");
+        }
+        final int row;
+        if (numberOfFreeRows > 0) {
+            row = freeRows[--numberOfFreeRows];
+        } else {
+            row = ++highestRow;
+            if (row == capacity.getAsInt()) {
+                final int newCapacity = row + (row >> 1) + 1;
+                grow.accept(newCapacity);
+                views = Arrays.copyOf(views, newCapacity);
+            }
+        }
+        views[row] = view;
+        rows.put(view.getId(), row + 1);
+        size++;
+        return row;
+    }
+
+    /**
+     * Releases the row of the entity with the given id. The caller has to move the attributes out
+     * of the row before it is reused by the next call of {@link #add(Id)}.
+     * @return the row the entity occupied or -1 if it was not stored
+     */
+    public synchronized int remove(int id) {
+        final int row = rows.get(id) - 1;
+        if (row >= 0) {
+            rows.removeKey(id);
+            views[row] = null;
+            if (numberOfFreeRows == freeRows.length) {
+                freeRows = Arrays.copyOf(freeRows, freeRows.length * 2);
+            }
+            freeRows[numberOfFreeRows++] = row;
+            size--;
+        }
+        return row;
+    }
+
+    /**
+     * @return a live collection of all stored views in row order. Like the views of concurrent maps,
+     * iterators do not fail on concurrent modification: removed entities are skipped, entities added
+     * to new rows during the iteration are not returned.
+     */
+    public Collection<T> values() {
+        return values;
+    }
+
+    private final class Values extends AbstractCollection<T> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            final int lastRow = highestRow;
+            return new Iterator<T>() {
+
+                private int row = -1;
+                private T next = advance();
+                private T last;
+
+                private T advance() {
+                    while (++row <= lastRow) {
+                        final T view = getAt(row);
+                        if (view != null) {
+                            return view;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public T next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next;
+                    next = advance();
+                    return last;
+                }
+
+                @Override
+                public void remove() {
+                    if (last == null) {
+                        throw new IllegalStateException();
+                    }
+                    remover.accept(last.getId());
+                    last = null;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package de.tum.bgu.msm.data;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Map of micro data entities by their id. Entities are kept in pages of consecutive ids, such that lookups
+ * neither box nor hash the id. Ids have to be non-negative and should be dense, as every page in use takes
+ * the memory of all its ids.
+ *
+ * Iteration follows ascending ids, independent of the order of additions and removals. Runs that start
+ * from the same micro data, e.g. read from files, a cache or a checkpoint, therefore iterate the same way.
+ *
+ * Lookups and iteration do not lock and may run concurrently with additions and removals, which are
+ * synchronized. Entities are written with release and read with acquire semantics, new pages are
+ * stored in the directory of pages the same way, and grown directories are only published through a
+ * volatile field once they are complete. A lookup concurrent to an addition or removal of the same id
+ * therefore either sees the entity or not, like the lookups of concurrent maps.
+ */
+public final class IdMap<T extends Id> {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private volatile AtomicReferenceArray<AtomicReferenceArray<Object>> pages;
+
+    /**
+     * number of stored entities
+     */
+    private volatile int size = 0;
+
+    private final Collection<T> values = new Values();
+
+    public IdMap() {
+        this(PAGE_SIZE);
+    }
+
+    /**
+     * @param expectedMaxId highest id that can be stored before the directory of pages is grown
+     */
+    public IdMap(int expectedMaxId) {
+        this.pages = new AtomicReferenceArray<>(Math.max(1, (expectedMaxId >>> PAGE_BITS) + 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int id) {
+        if (id < 0) {
+            return null;
+        }
+        final AtomicReferenceArray<AtomicReferenceArray<Object>> pages = this.pages;
+        final int pageIndex = id >>> PAGE_BITS;
+        if (pageIndex >= pages.length()) {
+            return null;
+        }
+        final AtomicReferenceArray<Object> page = pages.getAcquire(pageIndex);
+        return page == null ? null : (T) page.getAcquire(id & PAGE_MASK);
+    }
+
+    /**
+     * Stores the given entity, replacing a stored entity with the same id.
+     * @return the replaced entity or null
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized T put(T entity) {
+        final int id = entity.getId();
+        if (id < 0) {
+            throw new IllegalArgumentException("Id " + id + " is negative and cannot be stored.");
+        }
+        final int pageIndex = id >>> PAGE_BITS;
+        if (pageIndex >= pages.length()) {
+            grow(pageIndex);
+        }
+        AtomicReferenceArray<Object> page = pages.getPlain(pageIndex);
+        if (page == null) {
+            page = new AtomicReferenceArray<>(PAGE_SIZE);
+            pages.setRelease(pageIndex, page);
+        }
+        final T previous = (T) page.getPlain(id & PAGE_MASK);
+        page.setRelease(id & PAGE_MASK, entity);
+        if (previous == null) {
+            size++;
+        }
+        return previous;
+    }
+
+    /**
+     * @return the removed entity or null if no entity with the given id was stored
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized T remove(int id) {
+        if (id < 0 || (id >>> PAGE_BITS) >= pages.length()) {
+            return null;
+        }
+        final AtomicReferenceArray<Object> page = pages.getPlain(id >>> PAGE_BITS);
+        if (page == null) {
+            return null;
+        }
+        final T previous = (T) page.getPlain(id & PAGE_MASK);
+        if (previous != null) {
+            page.setRelease(id & PAGE_MASK, null);
+            size--;
+        }
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a live collection of all stored entities in ascending order of their ids. Like the views of
+     * concurrent maps, iterators do not fail on concurrent modification and support removal.
+     */
+    public Collection<T> values() {
+        return values;
+    }
+
+    /**
+     * Copies the directory of pages into a new one with room for at least the given page.
+     */
+    private void grow(int pageIndex) {
+        final AtomicReferenceArray<AtomicReferenceArray<Object>> old = pages;
+        final int length = Math.max(pageIndex + 1, old.length() * 2);
+        final AtomicReferenceArray<AtomicReferenceArray<Object>> grown = new AtomicReferenceArray<>(length);
+        for (int i = 0; i < old.length(); i++) {
+            grown.setPlain(i, old.getPlain(i));
+        }
+        // the volatile write publishes the plain writes to the grown directory
+        pages = grown;
+    }
+
+    private final class Values extends AbstractCollection<T> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            final AtomicReferenceArray<AtomicReferenceArray<Object>> snapshot = pages;
+            return new Iterator<T>() {
+
+                private int pageIndex = 0;
+                private int offset = -1;
+                private T next = advance();
+                private T last;
+
+                @SuppressWarnings("unchecked")
+                private T advance() {
+                    for (; pageIndex < snapshot.length(); pageIndex++, offset = -1) {
+                        final AtomicReferenceArray<Object> page = snapshot.getAcquire(pageIndex);
+                        if (page == null) {
+                            continue;
+                        }
+                        while (++offset < PAGE_SIZE) {
+                            final Object value = page.getAcquire(offset);
+                            if (value != null) {
+                                return (T) value;
+                            }
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public T next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next;
+                    next = advance();
+                    return last;
+                }
+
+                @Override
+                public void remove() {
+                    if (last == null) {
+                        throw new IllegalStateException();
+                    }
+                    IdMap.this.remove(last.getId());
+                    last = null;
+                }
+            };
+        }
+    }
+}
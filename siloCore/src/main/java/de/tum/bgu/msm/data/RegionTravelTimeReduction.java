@@ -0,0 +1,172 @@
+package de.tum.bgu.msm.data;
+
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Reduces a zone to zone skim to travel times between zones and regions. The skim is copied once into dense rows
+ * ordered by zone, then every row is reduced over the regions in parallel. Minimum times from regions are reduced
+ * row by row over the zones of each region, such that the dense rows are always traversed in memory order.
+ *
+ * Besides the minimum times from regions to zones and from zones to regions, the minimum and average times
+ * between regions are derived in the same pass. Times involving regions without zones are {@link Double#MAX_VALUE}
+ * for minimums and {@link Double#NaN} for averages.
+ */
+public final class RegionTravelTimeReduction {
+
+    private final IndexedDoubleMatrix2D minimumFromRegion;
+    private final IndexedDoubleMatrix2D minimumToRegion;
+    private final IndexedDoubleMatrix2D minimumBetweenRegions;
+    private final IndexedDoubleMatrix2D averageBetweenRegions;
+
+    private RegionTravelTimeReduction(IndexedDoubleMatrix2D minimumFromRegion, IndexedDoubleMatrix2D minimumToRegion,
+                                      IndexedDoubleMatrix2D minimumBetweenRegions, IndexedDoubleMatrix2D averageBetweenRegions) {
+        this.minimumFromRegion = minimumFromRegion;
+        this.minimumToRegion = minimumToRegion;
+        this.minimumBetweenRegions = minimumBetweenRegions;
+        this.averageBetweenRegions = averageBetweenRegions;
+    }
+
+    /**
+     * @param skim travel times between all zones
+     * @throws IllegalArgumentException if a region contains a zone that is not part of the given zones
+     */
+    public static RegionTravelTimeReduction reduce(IndexedDoubleMatrix2D skim, Collection<? extends Region> regions,
+                                                   Collection<? extends Zone> zones) {
+        final int numberOfZones = zones.size();
+        final int numberOfRegions = regions.size();
+        final int[] zoneIds = new int[numberOfZones];
+        final Map<Integer, Integer> indexByZone = new HashMap<>();
+        int index = 0;
+        for (Zone zone : zones) {
+            zoneIds[index] = zone.getZoneId();
+            indexByZone.put(zone.getZoneId(), index++);
+        }
+
+        final List<Region> regionList = new ArrayList<>(regions);
+        final int[] regionOfZone = new int[numberOfZones];
+        Arrays.fill(regionOfZone, -1);
+        final int[][] zonesOfRegion = new int[numberOfRegions][];
+        for (int r = 0; r < numberOfRegions; r++) {
+            final Collection<Zone> zonesInRegion = regionList.get(r).getZones();
+            zonesOfRegion[r] = new int[zonesInRegion.size()];
+            int i = 0;
+            for (Zone zone : zonesInRegion) {
+                final Integer zoneIndex = indexByZone.get(zone.getZoneId());
+                if (zoneIndex == null) {
+                    throw new IllegalArgumentException("Zone " + zone.getZoneId() + " of region "
+                            + regionList.get(r).getId() + " is not part of the zones.");
+                }
+                zonesOfRegion[r][i++] = zoneIndex;
+                regionOfZone[zoneIndex] = r;
+            }
+        }
+
+        final double[][] times = new double[numberOfZones][];
+        IntStream.range(0, numberOfZones).parallel().forEach(i -> {
+            final double[] row = new double[numberOfZones];
+            for (int j = 0; j < numberOfZones; j++) {
+                row[j] = skim.getIndexed(zoneIds[i], zoneIds[j]);
+            }
+            times[i] = row;
+        });
+
+        // zone to region, one row per origin zone
+        final double[][] minimumTo = new double[numberOfZones][];
+        final double[][] sumTo = new double[numberOfZones][];
+        IntStream.range(0, numberOfZones).parallel().forEach(i -> {
+            final double[] minimum = new double[numberOfRegions];
+            final double[] sum = new double[numberOfRegions];
+            Arrays.fill(minimum, Double.MAX_VALUE);
+            final double[] row = times[i];
+            for (int j = 0; j < numberOfZones; j++) {
+                final int r = regionOfZone[j];
+                if (r < 0) {
+                    continue;
+                }
+                if (row[j] < minimum[r]) {
+                    minimum[r] = row[j];
+                }
+                sum[r] += row[j];
+            }
+            minimumTo[i] = minimum;
+            sumTo[i] = sum;
+        });
+
+        // region to zone, element-wise minimum of the rows of all zones in the region
+        final double[][] minimumFrom = new double[numberOfRegions][];
+        IntStream.range(0, numberOfRegions).parallel().forEach(r -> {
+            final double[] minimum = new double[numberOfZones];
+            Arrays.fill(minimum, Double.MAX_VALUE);
+            for (int i : zonesOfRegion[r]) {
+                final double[] row = times[i];
+                for (int j = 0; j < numberOfZones; j++) {
+                    if (row[j] < minimum[j]) {
+                        minimum[j] = row[j];
+                    }
+                }
+            }
+            minimumFrom[r] = minimum;
+        });
+
+        final IndexedDoubleMatrix2D minimumFromRegion = new IndexedDoubleMatrix2D(regionList, zones);
+        final IndexedDoubleMatrix2D minimumToRegion = new IndexedDoubleMatrix2D(zones, regionList);
+        final IndexedDoubleMatrix2D minimumBetweenRegions = new IndexedDoubleMatrix2D(regionList, regionList);
+        final IndexedDoubleMatrix2D averageBetweenRegions = new IndexedDoubleMatrix2D(regionList, regionList);
+        for (int r = 0; r < numberOfRegions; r++) {
+            final int regionId = regionList.get(r).getId();
+            for (int j = 0; j < numberOfZones; j++) {
+                minimumFromRegion.setIndexed(regionId, zoneIds[j], minimumFrom[r][j]);
+            }
+            for (int s = 0; s < numberOfRegions; s++) {
+                double minimum = Double.MAX_VALUE;
+                double sum = 0;
+                for (int i : zonesOfRegion[r]) {
+                    minimum = Math.min(minimum, minimumTo[i][s]);
+                    sum += sumTo[i][s];
+                }
+                final long pairs = (long) zonesOfRegion[r].length * zonesOfRegion[s].length;
+                minimumBetweenRegions.setIndexed(regionId, regionList.get(s).getId(), minimum);
+                averageBetweenRegions.setIndexed(regionId, regionList.get(s).getId(), pairs == 0 ? Double.NaN : sum / pairs);
+            }
+        }
+        for (int i = 0; i < numberOfZones; i++) {
+            for (int s = 0; s < numberOfRegions; s++) {
+                minimumToRegion.setIndexed(zoneIds[i], regionList.get(s).getId(), minimumTo[i][s]);
+            }
+        }
+        return new RegionTravelTimeReduction(minimumFromRegion, minimumToRegion, minimumBetweenRegions, averageBetweenRegions);
+    }
+
+    /**
+     * @return minimum travel times from any zone of a region (rows) to a zone (columns)
+     */
+    public IndexedDoubleMatrix2D getMinimumFromRegion() {
+        return minimumFromRegion;
+    }
+
+    /**
+     * @return minimum travel times from a zone (rows) to any zone of a region (columns)
+     */
+    public IndexedDoubleMatrix2D getMinimumToRegion() {
+        return minimumToRegion;
+    }
+
+    public IndexedDoubleMatrix2D getMinimumBetweenRegions() {
+        return minimumBetweenRegions;
+    }
+
+    /**
+     * @return travel times between regions averaged over all pairs of their zones
+     */
+    public IndexedDoubleMatrix2D getAverageBetweenRegions() {
+        return averageBetweenRegions;
+    }
+}
@@ -54,7 +54,8 @@ public final class SummarizeData {
             case "open":
                 String directory = Properties.get().main.baseDirectory + "scenOutput/" + Properties.get().main.scenarioName;
                 spatialResultWriter = SiloUtil.openFileForSequentialWriting(directory + "/" + RESULT_FILE_SPATIAL +
-                        ".csv", Properties.get().main.startYear != Properties.get().main.baseYear);
+                        ".csv", Properties.get().main.startYear != Properties.get().main.baseYear
+                        || Properties.get().main.isRestartedFromCheckpoint());
                 break;
             case "close":
                 spatialResultWriter.close();
@@ -71,7 +72,8 @@ public final class SummarizeData {
             case "open":
                 String directory = Properties.get().main.baseDirectory + "scenOutput/" + Properties.get().main.scenarioName;
                 spatialResultWriter_2 = SiloUtil.openFileForSequentialWriting(directory + "/siloResults/" + RESULT_FILE_SPATIAL +
-                        ".csv", Properties.get().main.startYear != Properties.get().main.baseYear);
+                        ".csv", Properties.get().main.startYear != Properties.get().main.baseYear
+                        || Properties.get().main.isRestartedFromCheckpoint());
                 break;
             case "close":
                 spatialResultWriter_2.close();
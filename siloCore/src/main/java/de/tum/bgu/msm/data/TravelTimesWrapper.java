@@ -7,10 +7,15 @@ import de.tum.bgu.msm.data.travelTimes.TravelTimes;
 import de.tum.bgu.msm.models.ModelUpdateListener;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.properties.modules.TransportModelPropertiesModule;
+import de.tum.bgu.msm.simulator.Checkpointable;
 import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
 import de.tum.bgu.msm.utils.TravelTimeUtil;
 
-public class TravelTimesWrapper implements TravelTimes, ModelUpdateListener {
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public class TravelTimesWrapper implements TravelTimes, ModelUpdateListener, Checkpointable {
 
     @Deprecated
     public TravelTimes getDelegate() {
@@ -21,6 +26,11 @@ public class TravelTimesWrapper implements TravelTimes, ModelUpdateListener {
     private final Properties properties;
     private final GeoData geoData;
 
+    /**
+     * year of the skims that were read last, -1 if none were read
+     */
+    private int skimYear = -1;
+
     public TravelTimesWrapper(TravelTimes travelTimes, Properties properties, GeoData geoData) {
         delegate = travelTimes;
         this.properties = properties;
@@ -82,6 +92,23 @@ public class TravelTimesWrapper implements TravelTimes, ModelUpdateListener {
             TravelTimeUtil.updateCarSkim((SkimTravelTimes) delegate, year, properties);
             TravelTimeUtil.updateTransitSkim((SkimTravelTimes) delegate, year, properties);
             ((SkimTravelTimes) delegate).updateRegionalTravelTimes(geoData.getRegions().values(), geoData.getZones().values());
+            skimYear = year;
+        }
+    }
+
+    @Override
+    public void writeCheckpoint(DataOutputStream out) throws IOException {
+        out.writeInt(skimYear);
+    }
+
+    /**
+     * Reads the skims of the year that were in use when writing the checkpoint, if they differ from the skims read in the setup.
+     */
+    @Override
+    public void readCheckpoint(DataInputStream in) throws IOException {
+        final int year = in.readInt();
+        if (year != skimYear) {
+            updateSkims(year);
         }
     }
 }
\ No newline at end of file
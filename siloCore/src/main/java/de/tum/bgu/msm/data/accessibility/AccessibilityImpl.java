@@ -1,13 +1,10 @@
 package de.tum.bgu.msm.data.accessibility;
 
 import cern.jet.math.tdouble.DoubleFunctions;
-import de.tum.bgu.msm.data.Location;
 import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.Zone;
-import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.dwelling.DwellingData;
 import de.tum.bgu.msm.data.geo.GeoData;
-import de.tum.bgu.msm.data.job.Job;
 import de.tum.bgu.msm.data.job.JobData;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
 import de.tum.bgu.msm.properties.Properties;
@@ -17,9 +14,6 @@ import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.TransportMode;
 
 import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Calculates and stores accessibilities
@@ -39,6 +33,9 @@ public class AccessibilityImpl implements Accessibility {
     private IndexedDoubleMatrix1D transitAccessibilities;
     private IndexedDoubleMatrix1D regionalAccessibilities;
 
+    private HansenKernel autoKernel;
+    private HansenKernel transitKernel;
+
     private final float alphaAuto;
     private final float betaAuto;
     private final float alphaTransit;
@@ -82,38 +79,23 @@ public class AccessibilityImpl implements Accessibility {
     public void calculateHansenAccessibilities(int year) {
 
         logger.info("  Calculating accessibilities for " + year);
-        final Map<Integer, List<Job>> jobsByZone = jobData.getJobs().stream().collect(Collectors.groupingBy(Location::getZoneId));
-        IndexedDoubleMatrix1D employment = new IndexedDoubleMatrix1D(geoData.getZones().values());
-        for(int zoneId : geoData.getZones().keySet()){
-            if (jobsByZone.keySet().contains(zoneId)){
-                employment.setIndexed(zoneId, jobsByZone.get(zoneId).size());
-            } else {
-                employment.setIndexed(zoneId, 0.);
-            }
-
-        }
-
-        final Map<Integer, List<Dwelling>> dwellingsByZone = dwellingData.getDwellings().stream().collect(Collectors.groupingBy(Location::getZoneId));
+        final int[] zoneIds = geoData.getZones().keySet().stream().mapToInt(Integer::intValue).toArray();
+        final double[] attractionAuto = new double[zoneIds.length];
+        final double[] attractionTransit = new double[zoneIds.length];
         IndexedDoubleMatrix1D popDensity = new IndexedDoubleMatrix1D(geoData.getZones().values());
-        for(Map.Entry<Integer, List<Dwelling>> entry: dwellingsByZone.entrySet()) {
-            popDensity.setIndexed(entry.getKey(), entry.getValue().size());
+        for (int i = 0; i < zoneIds.length; i++) {
+            final int employment = jobData.getNumberOfJobsInZone(zoneIds[i]);
+            attractionAuto[i] = Math.pow(employment, alphaAuto);
+            attractionTransit[i] = Math.pow(employment, alphaTransit);
+            popDensity.setIndexed(zoneIds[i], dwellingData.getNumberOfDwellingsInZone(zoneIds[i]));
         }
 
-        logger.info("  Calculating zone zone accessibilities: auto");
-        final IndexedDoubleMatrix2D peakTravelTimeMatrixCar =
-                travelTimes.getPeakSkim(TransportMode.car);
-        final IndexedDoubleMatrix2D autoAccessZoneToZone =
-                calculateZoneToZoneAccessibilities(employment, peakTravelTimeMatrixCar, alphaAuto, betaAuto);
-        logger.info("  Calculating zone zone accessibilities: transit");
-        final IndexedDoubleMatrix2D peakTravelTimeMatrixTransit =
-                travelTimes.getPeakSkim(TransportMode.pt);
-        final IndexedDoubleMatrix2D transitAccessZoneToZone =
-                calculateZoneToZoneAccessibilities(employment,
-                        peakTravelTimeMatrixTransit, alphaTransit, betaTransit);
-
-        logger.info("  Aggregating zone accessibilities");
-        aggregateAccessibilities(autoAccessZoneToZone, transitAccessZoneToZone,
-                autoAccessibilities, transitAccessibilities, geoData.getZones().keySet());
+        logger.info("  Calculating zone accessibilities: auto");
+        autoKernel = updateKernel(autoKernel, travelTimes.getPeakSkim(TransportMode.car), zoneIds, betaAuto);
+        setAccessibilities(autoAccessibilities, zoneIds, autoKernel.multiply(attractionAuto));
+        logger.info("  Calculating zone accessibilities: transit");
+        transitKernel = updateKernel(transitKernel, travelTimes.getPeakSkim(TransportMode.pt), zoneIds, betaTransit);
+        setAccessibilities(transitAccessibilities, zoneIds, transitKernel.multiply(attractionTransit));
 
         logger.info("  Scaling zone accessibilities");
         scaleAccessibility(autoAccessibilities);
@@ -123,6 +105,23 @@ public class AccessibilityImpl implements Accessibility {
          regionalAccessibilities.assign(calculateRegionalAccessibility(geoData.getRegions().values(), autoAccessibilities, popDensity));
     }
 
+    /**
+     * Keeps the given kernel as long as the skim has not been replaced, otherwise evaluates the impedances again.
+     */
+    private static HansenKernel updateKernel(HansenKernel kernel, IndexedDoubleMatrix2D skim, int[] zoneIds, double beta) {
+        if (kernel != null && kernel.isValidFor(skim, beta)) {
+            return kernel;
+        }
+        logger.info("  Evaluating impedances of updated skim");
+        return new HansenKernel(skim, zoneIds, beta);
+    }
+
+    private static void setAccessibilities(IndexedDoubleMatrix1D accessibilities, int[] zoneIds, double[] values) {
+        for (int i = 0; i < zoneIds.length; i++) {
+            accessibilities.setIndexed(zoneIds[i], values[i]);
+        }
+    }
+
     /**
      * Calculates regional accessibilities for the given regions and zonal accessibilities and returns them in a vector
      *
@@ -163,39 +162,6 @@ public class AccessibilityImpl implements Accessibility {
         accessibility.assign(DoubleFunctions.mult(sumScaleFactor));
     }
 
-    /**
-     * Aggregates the zone to zone accessibilities into the given vectors, only considering the given keys.
-     *
-     * @param autoAcessibilities     zone to zone accessibility matrix for auto
-     * @param transitAccessibilities zone to zone accessibility matrix for transit
-     * @param aggregatedAuto         vector to which the the aggregated auto accessibilities  will be written to
-     * @param aggregatedTransit      vector to which the the aggregated transit accessibilities will be written to
-     * @param keys                   zone ids that will be considered for aggregation
-     */
-    static void aggregateAccessibilities(IndexedDoubleMatrix2D autoAcessibilities, IndexedDoubleMatrix2D transitAccessibilities,
-                                         IndexedDoubleMatrix1D aggregatedAuto, IndexedDoubleMatrix1D aggregatedTransit, Collection<Integer> keys) {
-        keys.forEach(i -> {
-            aggregatedAuto.setIndexed(i, autoAcessibilities.viewRow(i).zSum());
-            aggregatedTransit.setIndexed(i, transitAccessibilities.viewRow(i).zSum());
-        });
-    }
-
-    /**
-     * Aggregates the zone to zone Hansen accessibilities into the given vectors, only considering the given keys.
-     * Formula for origin i to destinations j:
-     * accessibility_i = population_j^alpha * e^(beta * traveltime_ij)
-     *
-     * @param employment  a vector containing the employment by zone
-     * @param travelTimes zone to zone travel time matrix
-     * @param alpha       alpha parameter used for the hansen calculation
-     * @param beta        beta parameter used for the hansen calculation
-     */
-    static IndexedDoubleMatrix2D calculateZoneToZoneAccessibilities(IndexedDoubleMatrix1D employment, IndexedDoubleMatrix2D travelTimes, double alpha, double beta) {
-        final IndexedDoubleMatrix2D travelTimesCopy = travelTimes.copy();
-        return travelTimesCopy.forEachNonZero((origin, destination, travelTime) ->
-                travelTime > 0 ? Math.pow(employment.getIndexed(travelTimesCopy.getIdForInternalColumnIndex(destination)), alpha) * Math.exp(beta * travelTime) : 0);
-    }
-
     @Override
     public double getAutoAccessibilityForZone(Zone zone) {
     	// Can be combined with getTransitAccessibilityForZone into one method which get the mode
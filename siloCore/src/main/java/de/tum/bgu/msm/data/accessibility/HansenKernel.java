@@ -0,0 +1,61 @@
+package de.tum.bgu.msm.data.accessibility;
+
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+
+import java.util.stream.IntStream;
+
+/**
+ * Impedance e^(beta * traveltime_ij) of a Hansen accessibility between all zones, evaluated once per skim.
+ * Accessibilities for changing zone attractions are then a product of this matrix and the attraction vector,
+ * which avoids evaluating the exponential function for every zone pair and year. Pairs with a travel time
+ * of 0 or less do not contribute.
+ */
+final class HansenKernel {
+
+    private final IndexedDoubleMatrix2D travelTimes;
+    private final double beta;
+    private final int[] zoneIds;
+    private final double[][] impedances;
+
+    /**
+     * @param zoneIds zones of origins and destinations, in the order of attractions and results
+     */
+    HansenKernel(IndexedDoubleMatrix2D travelTimes, int[] zoneIds, double beta) {
+        this.travelTimes = travelTimes;
+        this.beta = beta;
+        this.zoneIds = zoneIds;
+        this.impedances = new double[zoneIds.length][];
+        IntStream.range(0, zoneIds.length).parallel().forEach(i -> {
+            final double[] row = new double[zoneIds.length];
+            for (int j = 0; j < zoneIds.length; j++) {
+                final double travelTime = travelTimes.getIndexed(zoneIds[i], zoneIds[j]);
+                row[j] = travelTime > 0 ? Math.exp(beta * travelTime) : 0;
+            }
+            impedances[i] = row;
+        });
+    }
+
+    /**
+     * @return true if this kernel has been evaluated for the given skim instance and beta
+     */
+    boolean isValidFor(IndexedDoubleMatrix2D travelTimes, double beta) {
+        return this.travelTimes == travelTimes && this.beta == beta;
+    }
+
+    /**
+     * @param attractions weight of every destination in the order of the zone ids, e.g. employment^alpha
+     * @return accessibility of every origin in the order of the zone ids
+     */
+    double[] multiply(double[] attractions) {
+        final double[] accessibilities = new double[zoneIds.length];
+        IntStream.range(0, zoneIds.length).parallel().forEach(i -> {
+            final double[] row = impedances[i];
+            double sum = 0;
+            for (int j = 0; j < row.length; j++) {
+                sum += row[j] * attractions[j];
+            }
+            accessibilities[i] = sum;
+        });
+        return accessibilities;
+    }
+}
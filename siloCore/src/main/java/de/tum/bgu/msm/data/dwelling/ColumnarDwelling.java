@@ -0,0 +1,259 @@
+package de.tum.bgu.msm.data.dwelling;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.matsim.utils.objectattributes.attributable.Attributes;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Flyweight {@link Dwelling} that reads and writes its attributes from a row of {@link Columns}.
+ * While the dwelling is part of a {@link ColumnarDwellingData} the row belongs to the columns of the
+ * store. Before it is added and after it was removed, the dwelling owns a private set of columns
+ * with a single row, such that references held by models stay valid.
+ *
+ * Coordinates are stored as x and y values. {@link #getCoordinate()} returns a new coordinate on
+ * every call, changes to it are not written back.
+ */
+final class ColumnarDwelling implements Dwelling {
+
+    private static final DwellingUsage[] USAGES = DwellingUsage.values();
+
+    Columns columns;
+    int row;
+    ColumnarDwellingData store;
+
+    ColumnarDwelling(int id, int zoneId, Coordinate coordinate, int hhId, DwellingType type, int bedrooms,
+                     int quality, int price, int year) {
+        this.columns = new Columns(1);
+        this.row = 0;
+        columns.id[0] = id;
+        columns.zoneId[0] = zoneId;
+        setCoordinate(coordinate);
+        columns.residentId[0] = hhId;
+        columns.type[0] = type;
+        columns.bedrooms[0] = (short) bedrooms;
+        columns.quality[0] = (short) quality;
+        columns.price[0] = price;
+        columns.yearBuilt[0] = (short) year;
+        columns.usage[0] = (byte) DwellingUsage.GROUP_QUARTER_OR_DEFAULT.ordinal();
+    }
+
+    @Override
+    public Coordinate getCoordinate() {
+        final double x = columns.x[row];
+        return Double.isNaN(x) ? null : new Coordinate(x, columns.y[row]);
+    }
+
+    @Override
+    public int getZoneId() {
+        return columns.zoneId[row];
+    }
+
+    @Override
+    public int getId() {
+        return columns.id[row];
+    }
+
+    @Override
+    public int getQuality() {
+        return columns.quality[row];
+    }
+
+    @Override
+    public int getResidentId() {
+        return columns.residentId[row];
+    }
+
+    @Override
+    public int getPrice() {
+        return columns.price[row];
+    }
+
+    @Override
+    public DwellingType getType() {
+        return columns.type[row];
+    }
+
+    @Override
+    public int getBedrooms() {
+        return columns.bedrooms[row];
+    }
+
+    @Override
+    public int getYearBuilt() {
+        return columns.yearBuilt[row];
+    }
+
+    @Override
+    public void setResidentID(int residentID) {
+        columns.residentId[row] = residentID;
+    }
+
+    @Override
+    public void setQuality(int quality) {
+        columns.quality[row] = (short) quality;
+    }
+
+    @Override
+    public void setPrice(int price) {
+        columns.price[row] = price;
+    }
+
+    @Override
+    public void setFloorSpace(int floorSpace) {
+        columns.floorSpace[row] = floorSpace;
+    }
+
+    @Override
+    public int getFloorSpace() {
+        return columns.floorSpace[row];
+    }
+
+    @Override
+    public void setCoordinate(Coordinate coordinate) {
+        if (coordinate == null) {
+            columns.x[row] = Double.NaN;
+            columns.y[row] = Double.NaN;
+        } else {
+            columns.x[row] = coordinate.x;
+            columns.y[row] = coordinate.y;
+        }
+    }
+
+    @Override
+    public void setUsage(DwellingUsage usage) {
+        columns.usage[row] = (byte) usage.ordinal();
+    }
+
+    @Override
+    public DwellingUsage getUsage() {
+        return USAGES[columns.usage[row]];
+    }
+
+    @Override
+    public Optional<Object> getAttribute(String key) {
+        final Attributes attributes = columns.attributes[row];
+        return attributes == null ? Optional.empty() : Optional.ofNullable(attributes.getAttribute(key));
+    }
+
+    @Override
+    public void setAttribute(String key, Object value) {
+        if (columns.attributes[row] == null) {
+            columns.attributes[row] = new Attributes();
+        }
+        columns.attributes[row].putAttribute(key, value);
+    }
+
+    /**
+     * Moves the attributes of this dwelling into the given row of the given columns.
+     */
+    void moveTo(Columns target, int targetRow) {
+        columns.copy(row, target, targetRow);
+        columns.clear(row);
+        columns = target;
+        row = targetRow;
+    }
+
+    @Override
+    public String toString() {
+        return "Attributes of dwelling  " + getId()
+                + "\nLocated in zone         " + getZoneId()
+                + "\nLocated at		        " + getCoordinate()
+                + "\nOccupied by household   " + getResidentId()
+                + "\nDwelling type           " + getType()
+                + "\nNumber of bedrooms      " + getBedrooms()
+                + "\nQuality (1 low, 4 high) " + getQuality()
+                + "\nMonthly price in US$    " + getPrice()
+                + "\nYear dwelling was built " + getYearBuilt();
+    }
+
+    @Override
+    public int hashCode() {
+        return getId();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Dwelling && ((Dwelling) o).getId() == getId();
+    }
+
+    /**
+     * Dwelling attributes stored as one array per attribute. Bedrooms, quality and year are small
+     * numbers and stored as shorts. Coordinates are stored as x and y, NaN encodes a missing coordinate.
+     * Dwelling types are shared instances and kept by reference.
+     */
+    static final class Columns {
+
+        int[] id;
+        int[] zoneId;
+        double[] x;
+        double[] y;
+        DwellingType[] type;
+        short[] bedrooms;
+        short[] yearBuilt;
+        int[] residentId;
+        short[] quality;
+        int[] price;
+        int[] floorSpace;
+        byte[] usage;
+        Attributes[] attributes;
+
+        Columns(int capacity) {
+            id = new int[capacity];
+            zoneId = new int[capacity];
+            x = new double[capacity];
+            y = new double[capacity];
+            type = new DwellingType[capacity];
+            bedrooms = new short[capacity];
+            yearBuilt = new short[capacity];
+            residentId = new int[capacity];
+            quality = new short[capacity];
+            price = new int[capacity];
+            floorSpace = new int[capacity];
+            usage = new byte[capacity];
+            attributes = new Attributes[capacity];
+        }
+
+        int capacity() {
+            return id.length;
+        }
+
+        void grow(int capacity) {
+            id = Arrays.copyOf(id, capacity);
+            zoneId = Arrays.copyOf(zoneId, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            type = Arrays.copyOf(type, capacity);
+            bedrooms = Arrays.copyOf(bedrooms, capacity);
+            yearBuilt = Arrays.copyOf(yearBuilt, capacity);
+            residentId = Arrays.copyOf(residentId, capacity);
+            quality = Arrays.copyOf(quality, capacity);
+            price = Arrays.copyOf(price, capacity);
+            floorSpace = Arrays.copyOf(floorSpace, capacity);
+            usage = Arrays.copyOf(usage, capacity);
+            attributes = Arrays.copyOf(attributes, capacity);
+        }
+
+        void copy(int from, Columns target, int to) {
+            target.id[to] = id[from];
+            target.zoneId[to] = zoneId[from];
+            target.x[to] = x[from];
+            target.y[to] = y[from];
+            target.type[to] = type[from];
+            target.bedrooms[to] = bedrooms[from];
+            target.yearBuilt[to] = yearBuilt[from];
+            target.residentId[to] = residentId[from];
+            target.quality[to] = quality[from];
+            target.price[to] = price[from];
+            target.floorSpace[to] = floorSpace[from];
+            target.usage[to] = usage[from];
+            target.attributes[to] = attributes[from];
+        }
+
+        void clear(int row) {
+            type[row] = null;
+            attributes[row] = null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package de.tum.bgu.msm.data.dwelling;
+
+import cern.colt.map.tint.OpenIntIntHashMap;
+import de.tum.bgu.msm.data.ColumnarIndex;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.util.Collection;
+
+/**
+ * {@link DwellingData} that stores dwellings in primitive columns instead of one object per dwelling.
+ * Rows are assigned by a {@link ColumnarIndex}, models access the data through one flyweight
+ * {@link Dwelling} view per dwelling. Iterating {@link #getDwellings()} walks the rows in order.
+ *
+ * Only dwellings created by {@link #getDwellingFactory()} can be stored. Dwellings keep their own single
+ * row until they are added and get it back when they are removed.
+ *
+ * Additions and removals are synchronized. Lookups and attribute changes are not and must not happen
+ * concurrently with additions.
+ */
+public final class ColumnarDwellingData implements DwellingData {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final ColumnarDwelling.Columns dwellings;
+    private final ColumnarIndex<Dwelling> index;
+    private final OpenIntIntHashMap dwellingsByZone = new OpenIntIntHashMap();
+
+    private final DwellingFactory factory = new ColumnarDwellingFactory();
+
+    public ColumnarDwellingData() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedDwellings initial capacity of the columns
+     */
+    public ColumnarDwellingData(int expectedDwellings) {
+        this.dwellings = new ColumnarDwelling.Columns(Math.max(1, expectedDwellings));
+        this.index = new ColumnarIndex<>(dwellings::capacity, dwellings::grow, this::removeDwelling);
+    }
+
+    /**
+     * @return the factory for dwellings that can be added to this data. Has to be handed to the
+     * real estate data manager together with this data.
+     */
+    public DwellingFactory getDwellingFactory() {
+        return factory;
+    }
+
+    @Override
+    public Dwelling getDwelling(int dwellingId) {
+        return index.get(dwellingId);
+    }
+
+    @Override
+    public Collection<Dwelling> getDwellings() {
+        return index.values();
+    }
+
+    @Override
+    public synchronized void removeDwelling(int id) {
+        final ColumnarDwelling dwelling = (ColumnarDwelling) index.get(id);
+        if (dwelling != null) {
+            dwellingsByZone.put(dwelling.getZoneId(), dwellingsByZone.get(dwelling.getZoneId()) - 1);
+            index.remove(id);
+            dwelling.moveTo(new ColumnarDwelling.Columns(1), 0);
+            dwelling.store = null;
+        }
+    }
+
+    @Override
+    public synchronized void addDwelling(Dwelling dwelling) {
+        if (!(dwelling instanceof ColumnarDwelling)) {
+            throw new IllegalArgumentException("Dwelling " + dwelling.getId() + " of type " + dwelling.getClass().getName()
+                    + " cannot be stored in columnar dwelling data. Use its dwelling factory to create dwellings.");
+        }
+        final ColumnarDwelling columnarDwelling = (ColumnarDwelling) dwelling;
+        if (columnarDwelling.store == this) {
+            return;
+        }
+        if (columnarDwelling.store != null) {
+            throw new IllegalArgumentException("Dwelling " + dwelling.getId() + " is already stored in other dwelling data.");
+        }
+        removeDwelling(dwelling.getId());
+        columnarDwelling.moveTo(dwellings, index.add(columnarDwelling));
+        columnarDwelling.store = this;
+        dwellingsByZone.put(columnarDwelling.getZoneId(), dwellingsByZone.get(columnarDwelling.getZoneId()) + 1);
+    }
+
+    @Override
+    public int getNumberOfDwellingsInZone(int zoneId) {
+        return dwellingsByZone.get(zoneId);
+    }
+
+    private static final class ColumnarDwellingFactory implements DwellingFactory {
+
+        @Override
+        public Dwelling createDwelling(int id, int zoneId, Coordinate coordinate, int hhId, DwellingType type,
+                                       int bedrooms, int quality, int price, int year) {
+            return new ColumnarDwelling(id, zoneId, coordinate, hhId, type, bedrooms, quality, price, year);
+        }
+    }
+}
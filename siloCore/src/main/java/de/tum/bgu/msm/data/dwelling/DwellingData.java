@@ -10,4 +10,9 @@ public interface DwellingData {
     void removeDwelling(int id);
 
     void addDwelling(Dwelling dwelling);
+
+    /**
+     * @return the number of stored dwellings in the given zone, maintained with every addition and removal
+     */
+    int getNumberOfDwellingsInZone(int zoneId);
 }
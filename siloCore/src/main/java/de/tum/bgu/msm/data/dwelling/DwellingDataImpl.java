@@ -1,12 +1,14 @@
 package de.tum.bgu.msm.data.dwelling;
 
+import cern.colt.map.tint.OpenIntIntHashMap;
+import de.tum.bgu.msm.data.IdMap;
+
 import java.util.Collection;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class DwellingDataImpl implements DwellingData {
 
-    private final Map<Integer, Dwelling> dwellings = new ConcurrentHashMap<>();
+    private final IdMap<Dwelling> dwellings = new IdMap<>();
+    private final OpenIntIntHashMap dwellingsByZone = new OpenIntIntHashMap();
 
     @Override
     public Dwelling getDwelling(int dwellingId) {
@@ -19,12 +21,24 @@ public class DwellingDataImpl implements DwellingData {
     }
 
     @Override
-    public void removeDwelling(int id) {
-        dwellings.remove(id);
+    public synchronized void removeDwelling(int id) {
+        final Dwelling removed = dwellings.remove(id);
+        if (removed != null) {
+            dwellingsByZone.put(removed.getZoneId(), dwellingsByZone.get(removed.getZoneId()) - 1);
+        }
+    }
+
+    @Override
+    public synchronized void addDwelling(Dwelling dwelling) {
+        final Dwelling replaced = dwellings.put(dwelling);
+        if (replaced != null) {
+            dwellingsByZone.put(replaced.getZoneId(), dwellingsByZone.get(replaced.getZoneId()) - 1);
+        }
+        dwellingsByZone.put(dwelling.getZoneId(), dwellingsByZone.get(dwelling.getZoneId()) + 1);
     }
 
     @Override
-    public void addDwelling(Dwelling dwelling) {
-        dwellings.put(dwelling.getId(), dwelling);
+    public int getNumberOfDwellingsInZone(int zoneId) {
+        return dwellingsByZone.get(zoneId);
     }
 }
@@ -6,6 +6,7 @@ import de.tum.bgu.msm.models.ModelUpdateListener;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 public interface RealEstateDataManager extends ModelUpdateListener {
 
@@ -15,6 +16,14 @@ public interface RealEstateDataManager extends ModelUpdateListener {
 
     Map<Integer, Float> getRentPaymentsForIncomeGroup(IncomeCategory incomeCategory);
 
+    /**
+     * Share of households of the given income category that pay rents of the given rent category
+     * (rent / 200, see {@link RealEstateUtils#RENT_CATEGORIES}) or less. Equals the sum of the shares of
+     * {@link #getRentPaymentsForIncomeGroup(IncomeCategory)} up to the rent category, but is read from a
+     * precomputed table.
+     */
+    double getCumulativeRentShare(IncomeCategory incomeCategory, int rentCategory);
+
     int getNextDwellingId();
 
     Map<Integer, Double> getInitialQualShares();
@@ -25,6 +34,15 @@ public interface RealEstateDataManager extends ModelUpdateListener {
 
     int getNumberOfVacantDDinRegion(int region);
 
+    /**
+     * Draws up to {@code target.length} distinct vacant dwellings of the region uniformly at random
+     * without copying the vacancy list.
+     * @return the number of dwellings written into target
+     */
+    int sampleVacantDwellingsInRegion(int region, Random random, Dwelling[] target);
+
+    VacantDwellingIndex getVacantDwellingIndex();
+
     DwellingTypes getDwellingTypes();
 
     Dwelling getDwelling(int dwellingId);
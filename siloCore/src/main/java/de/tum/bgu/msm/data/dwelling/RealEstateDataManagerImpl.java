@@ -12,9 +12,13 @@ import de.tum.bgu.msm.data.household.HouseholdUtil;
 import de.tum.bgu.msm.data.household.IncomeCategory;
 import de.tum.bgu.msm.io.output.DefaultDwellingWriter;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.Checkpointable;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
 import java.util.*;
@@ -27,7 +31,7 @@ import static de.tum.bgu.msm.data.dwelling.RealEstateUtils.RENT_CATEGORIES;
  * Author: Rolf Moeckel, PB Albuquerque
  * Created on 7 January 2010 in Rhede
  **/
-public class RealEstateDataManagerImpl implements RealEstateDataManager {
+public class RealEstateDataManagerImpl implements RealEstateDataManager, Checkpointable {
 
     private final static Logger logger = Logger.getLogger(RealEstateDataManagerImpl.class);
 
@@ -52,8 +56,12 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
 
     private int highestDwellingIdInUse;
     private static final Map<IncomeCategory, Map<Integer, Float>> ddPriceByIncomeCategory = new EnumMap<>(IncomeCategory.class);
+    /**
+     * Cumulative shares of {@link #ddPriceByIncomeCategory} by income category ordinal and rent category.
+     */
+    private double[][] cumulativeRentSharesByIncomeCategory = new double[IncomeCategory.values().length][RENT_CATEGORIES + 1];
 
-    private Map<Integer, List<Dwelling>> vacDwellingsByRegion = new LinkedHashMap<>();
+    private final VacantDwellingIndex vacantDwellings = new VacantDwellingIndex(true, true);
 
     private double[] avePrice;
     private double[] aveVac;
@@ -109,7 +117,7 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
                     + "_"
                     + year
                     + ".csv";
-            new DefaultDwellingWriter(this.dwellingData.getDwellings()).writeDwellings(filedd);
+            new DefaultDwellingWriter(this.dwellingData.getDwellings()).writeDwellingsAsync(filedd);
         }
     }
 
@@ -121,7 +129,7 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
                 + "_"
                 + properties.main.endYear
                 + ".csv";
-        new DefaultDwellingWriter(this.dwellingData.getDwellings()).writeDwellings(filedd);
+        new DefaultDwellingWriter(this.dwellingData.getDwellings()).writeDwellingsAsync(filedd);
     }
 
     @Override
@@ -129,6 +137,11 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
         return ddPriceByIncomeCategory.get(incomeCategory);
     }
 
+    @Override
+    public double getCumulativeRentShare(IncomeCategory incomeCategory, int rentCategory) {
+        return cumulativeRentSharesByIncomeCategory[incomeCategory.ordinal()][rentCategory];
+    }
+
     @Override
     public int getNextDwellingId() {
         // increase highestDwellingIdInUse by 1 and return value
@@ -152,13 +165,22 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
      */
     @Override
     public List<Dwelling> getListOfVacantDwellingsInRegion(int region) {
-        return Collections.unmodifiableList(vacDwellingsByRegion.getOrDefault(region,
-                new ArrayList<>()));
+        return vacantDwellings.getVacantDwellingsInRegion(region);
     }
 
     @Override
     public int getNumberOfVacantDDinRegion(int region) {
-        return vacDwellingsByRegion.getOrDefault(region, new ArrayList<>()).size();
+        return vacantDwellings.getNumberOfVacantDwellingsInRegion(region);
+    }
+
+    @Override
+    public int sampleVacantDwellingsInRegion(int region, Random random, Dwelling[] target) {
+        return vacantDwellings.sampleInRegion(region, random, target);
+    }
+
+    @Override
+    public VacantDwellingIndex getVacantDwellingIndex() {
+        return vacantDwellings;
     }
 
     @Override
@@ -198,8 +220,7 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
                 int dwellingId = dd.getId();
                 //logger.info(dwellingId);
                 int region = geoData.getZones().get(dd.getZoneId()).getRegion().getId();
-                vacDwellingsByRegion.putIfAbsent(region, new ArrayList<>());
-                vacDwellingsByRegion.get(region).add(dd);
+                vacantDwellings.add(dd, region);
                 if (dwellingId == SiloUtil.trackDd) {
                     SiloUtil.trackWriter.println("Added dwelling " + dwellingId + " to list of vacant dwelling.");
                 }
@@ -260,20 +281,72 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
         }
         IncomeCategory highestIncCat = IncomeCategory.values()[IncomeCategory.values().length - 1];
         countOfHouseholdsByIncomeAndRentCategory.get(highestIncCat).add(RENT_CATEGORIES);  // make sure that most expensive category can be afforded by richest households
+        final double[][] cumulativeShares = new double[IncomeCategory.values().length][RENT_CATEGORIES + 1];
         for (IncomeCategory incomeCategory : IncomeCategory.values()) {
             float sum = countOfHouseholdsByIncomeAndRentCategory.get(incomeCategory).size();
             Map<Integer, Float> shareOfRentsForThisIncCat = new HashMap<>();
+            double cumulativeShare = 0;
             for (int rentCategory = 0; rentCategory <= RENT_CATEGORIES; rentCategory++) {
                 int thisRentAndIncomeCat = countOfHouseholdsByIncomeAndRentCategory.get(incomeCategory).count(rentCategory);
+                final float share;
                 if (sum != 0) {
-                    shareOfRentsForThisIncCat.put(rentCategory, thisRentAndIncomeCat / sum);
+                    share = thisRentAndIncomeCat / sum;
                 } else {
                     //todo if there is not a househould of this rent and this category the shares should be zero?
-                    shareOfRentsForThisIncCat.put(rentCategory, 0.f);
+                    share = 0.f;
                 }
+                shareOfRentsForThisIncCat.put(rentCategory, share);
+                // summed up in the same order and precision as the housing strategies did before
+                cumulativeShare += share;
+                cumulativeShares[incomeCategory.ordinal()][rentCategory] = cumulativeShare;
             }
             ddPriceByIncomeCategory.put(incomeCategory, shareOfRentsForThisIncCat);
         }
+        cumulativeRentSharesByIncomeCategory = cumulativeShares;
+    }
+
+    /**
+     * Saves the ids in use and the distributions that were calculated from the dwellings of the base year.
+     */
+    @Override
+    public void writeCheckpoint(DataOutputStream out) throws IOException {
+        out.writeInt(highestDwellingIdInUse);
+        out.writeInt(largestNoBedrooms);
+        out.writeInt(initialQualityShares.size());
+        for (Map.Entry<Integer, Double> share : initialQualityShares.entrySet()) {
+            out.writeInt(share.getKey());
+            out.writeDouble(share.getValue());
+        }
+        for (IncomeCategory incomeCategory : IncomeCategory.values()) {
+            final Map<Integer, Float> shares = ddPriceByIncomeCategory.get(incomeCategory);
+            for (int rentCategory = 0; rentCategory <= RENT_CATEGORIES; rentCategory++) {
+                out.writeFloat(shares.get(rentCategory));
+            }
+        }
+    }
+
+    @Override
+    public void readCheckpoint(DataInputStream in) throws IOException {
+        highestDwellingIdInUse = in.readInt();
+        largestNoBedrooms = in.readInt();
+        initialQualityShares.clear();
+        final int qualityLevels = in.readInt();
+        for (int i = 0; i < qualityLevels; i++) {
+            initialQualityShares.put(in.readInt(), in.readDouble());
+        }
+        final double[][] cumulativeShares = new double[IncomeCategory.values().length][RENT_CATEGORIES + 1];
+        for (IncomeCategory incomeCategory : IncomeCategory.values()) {
+            Map<Integer, Float> shareOfRentsForThisIncCat = new HashMap<>();
+            double cumulativeShare = 0;
+            for (int rentCategory = 0; rentCategory <= RENT_CATEGORIES; rentCategory++) {
+                final float share = in.readFloat();
+                shareOfRentsForThisIncCat.put(rentCategory, share);
+                cumulativeShare += share;
+                cumulativeShares[incomeCategory.ordinal()][rentCategory] = cumulativeShare;
+            }
+            ddPriceByIncomeCategory.put(incomeCategory, shareOfRentsForThisIncCat);
+        }
+        cumulativeRentSharesByIncomeCategory = cumulativeShares;
     }
 
 
@@ -284,22 +357,15 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
     @Override
     public void removeDwellingFromVacancyList(int ddId) {
 
-        boolean found = false;
-
-        Dwelling dwelling = dwellingData.getDwelling(ddId);
-        int region = geoData.getZones().get(dwelling.getZoneId()).getRegion().getId();
-        List<Dwelling> vacDwellings = vacDwellingsByRegion.get(region);
-        if (vacDwellings != null) {
-            found = vacDwellings.remove(dwelling);
-            if (ddId == SiloUtil.trackDd) {
-                SiloUtil.trackWriter.println("Removed dwelling " + ddId +
-                        " from list of vacant dwellings.");
-            }
+        boolean found = vacantDwellings.remove(ddId) != null;
+        if (found && ddId == SiloUtil.trackDd) {
+            SiloUtil.trackWriter.println("Removed dwelling " + ddId +
+                    " from list of vacant dwellings.");
         }
 
         if (!found) {
             logger.warn("Consistency error: Could not find vacant dwelling "
-                    + ddId + " in vacDwellingsByRegion.");
+                    + ddId + " in vacancy index.");
         }
     }
 
@@ -311,8 +377,7 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
     public void addDwellingToVacancyList(Dwelling dd) {
 
         int region = geoData.getZones().get(dd.getZoneId()).getRegion().getId();
-        vacDwellingsByRegion.putIfAbsent(region, new ArrayList<>());
-        vacDwellingsByRegion.get(region).add(dd);
+        vacantDwellings.add(dd, region);
         if (dd.getId() == SiloUtil.trackDd) {
             SiloUtil.trackWriter.println("Added dwelling " + dd.getId() +
                     " to list of vacant dwellings.");
@@ -0,0 +1,275 @@
+package de.tum.bgu.msm.data.dwelling;
+
+import cern.colt.map.tint.OpenIntIntHashMap;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.RandomAccess;
+
+/**
+ * Index of vacant dwellings that supports constant time insertion, removal and uniform
+ * random selection by region. Dwellings of one key are kept in a dense array; a removed
+ * dwelling is replaced by the last element of the array and an id-to-slot map keeps
+ * track of the positions.
+ * Optionally, vacant dwellings are additionally indexed by zone and by dwelling type.
+ *
+ * The index is not thread-safe for writes. Concurrent reads are safe as long as no
+ * dwelling is added or removed at the same time.
+ */
+public final class VacantDwellingIndex {
+
+    private final Map<Integer, Bucket> byRegion = new HashMap<>();
+    private final Map<Integer, Bucket> byZone;
+    private final Map<DwellingType, Bucket> byType;
+
+    /**
+     * region of each indexed dwelling, allows removal by id only
+     */
+    private final OpenIntIntHashMap regionByDwelling = new OpenIntIntHashMap();
+
+    public VacantDwellingIndex() {
+        this(false, false);
+    }
+
+    /**
+     * @param indexByZone whether vacant dwellings should additionally be indexed by zone
+     * @param indexByType whether vacant dwellings should additionally be indexed by dwelling type
+     */
+    public VacantDwellingIndex(boolean indexByZone, boolean indexByType) {
+        this.byZone = indexByZone ? new HashMap<>() : null;
+        this.byType = indexByType ? new HashMap<>() : null;
+    }
+
+    /**
+     * Adds the dwelling to the index.
+     * @return false if the dwelling was already indexed
+     */
+    public boolean add(Dwelling dwelling, int region) {
+        if (regionByDwelling.containsKey(dwelling.getId())) {
+            return false;
+        }
+        regionByDwelling.put(dwelling.getId(), region);
+        byRegion.computeIfAbsent(region, r -> new Bucket()).add(dwelling);
+        if (byZone != null) {
+            byZone.computeIfAbsent(dwelling.getZoneId(), z -> new Bucket()).add(dwelling);
+        }
+        if (byType != null) {
+            byType.computeIfAbsent(dwelling.getType(), t -> new Bucket()).add(dwelling);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the dwelling with the given id from the index.
+     * @return the removed dwelling or null if the dwelling was not indexed
+     */
+    public Dwelling remove(int dwellingId) {
+        if (!regionByDwelling.containsKey(dwellingId)) {
+            return null;
+        }
+        final int region = regionByDwelling.get(dwellingId);
+        regionByDwelling.removeKey(dwellingId);
+        final Dwelling dwelling = byRegion.get(region).remove(dwellingId);
+        if (byZone != null) {
+            byZone.get(dwelling.getZoneId()).remove(dwellingId);
+        }
+        if (byType != null) {
+            byType.get(dwelling.getType()).remove(dwellingId);
+        }
+        return dwelling;
+    }
+
+    public boolean contains(int dwellingId) {
+        return regionByDwelling.containsKey(dwellingId);
+    }
+
+    /**
+     * @return total number of indexed vacant dwellings
+     */
+    public int size() {
+        return regionByDwelling.size();
+    }
+
+    public void clear() {
+        regionByDwelling.clear();
+        byRegion.clear();
+        if (byZone != null) {
+            byZone.clear();
+        }
+        if (byType != null) {
+            byType.clear();
+        }
+    }
+
+    public int getNumberOfVacantDwellingsInRegion(int region) {
+        return size(byRegion.get(region));
+    }
+
+    /**
+     * @return an unmodifiable live view of the vacant dwellings in the region. The order of the
+     * elements is arbitrary and changes whenever dwellings are removed.
+     */
+    public List<Dwelling> getVacantDwellingsInRegion(int region) {
+        return view(byRegion.get(region));
+    }
+
+    /**
+     * Draws one vacant dwelling of the region uniformly at random.
+     * @return the dwelling or null if there is no vacant dwelling in the region
+     */
+    public Dwelling sampleInRegion(int region, Random random) {
+        return sample(byRegion.get(region), random);
+    }
+
+    /**
+     * Draws up to {@code target.length} distinct vacant dwellings of the region uniformly at
+     * random without modifying the index.
+     * @return the number of dwellings written into target
+     */
+    public int sampleInRegion(int region, Random random, Dwelling[] target) {
+        return sample(byRegion.get(region), random, target);
+    }
+
+    public int getNumberOfVacantDwellingsInZone(int zone) {
+        return size(zoneBuckets().get(zone));
+    }
+
+    public List<Dwelling> getVacantDwellingsInZone(int zone) {
+        return view(zoneBuckets().get(zone));
+    }
+
+    public Dwelling sampleInZone(int zone, Random random) {
+        return sample(zoneBuckets().get(zone), random);
+    }
+
+    public int getNumberOfVacantDwellingsOfType(DwellingType type) {
+        return size(typeBuckets().get(type));
+    }
+
+    public List<Dwelling> getVacantDwellingsOfType(DwellingType type) {
+        return view(typeBuckets().get(type));
+    }
+
+    public Dwelling sampleOfType(DwellingType type, Random random) {
+        return sample(typeBuckets().get(type), random);
+    }
+
+    private Map<Integer, Bucket> zoneBuckets() {
+        if (byZone == null) {
+            throw new IllegalStateException("Vacant dwellings are not indexed by zone.");
+        }
+        return byZone;
+    }
+
+    private Map<DwellingType, Bucket> typeBuckets() {
+        if (byType == null) {
+            throw new IllegalStateException("Vacant dwellings are not indexed by dwelling type.");
+        }
+        return byType;
+    }
+
+    private static int size(Bucket bucket) {
+        return bucket == null ? 0 : bucket.size;
+    }
+
+    private static List<Dwelling> view(Bucket bucket) {
+        return bucket == null ? Collections.emptyList() : bucket.view;
+    }
+
+    private static Dwelling sample(Bucket bucket, Random random) {
+        if (bucket == null || bucket.size == 0) {
+            return null;
+        }
+        return bucket.elements[random.nextInt(bucket.size)];
+    }
+
+    /**
+     * Robert Floyd's algorithm for sampling k out of n distinct slots. Membership
+     * of already drawn slots is checked linearly, which is cheap for the small
+     * sample sizes this is intended for.
+     */
+    private static int sample(Bucket bucket, Random random, Dwelling[] target) {
+        final int n = size(bucket);
+        final int k = Math.min(n, target.length);
+        if (k == 0) {
+            return 0;
+        }
+        final int[] drawn = new int[k];
+        int count = 0;
+        for (int j = n - k; j < n; j++) {
+            int slot = random.nextInt(j + 1);
+            for (int i = 0; i < count; i++) {
+                if (drawn[i] == slot) {
+                    slot = j;
+                    break;
+                }
+            }
+            drawn[count] = slot;
+            target[count] = bucket.elements[slot];
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Dense array of dwellings with swap-with-last removal.
+     */
+    private static final class Bucket {
+
+        private Dwelling[] elements = new Dwelling[16];
+        private int size = 0;
+        private final OpenIntIntHashMap slots = new OpenIntIntHashMap();
+        private final List<Dwelling> view = new BucketView(this);
+
+        private void add(Dwelling dwelling) {
+            if (size == elements.length) {
+                Dwelling[] grown = new Dwelling[elements.length * 2];
+                System.arraycopy(elements, 0, grown, 0, size);
+                elements = grown;
+            }
+            elements[size] = dwelling;
+            slots.put(dwelling.getId(), size);
+            size++;
+        }
+
+        private Dwelling remove(int dwellingId) {
+            final int slot = slots.get(dwellingId);
+            final Dwelling removed = elements[slot];
+            final int last = --size;
+            if (slot != last) {
+                final Dwelling moved = elements[last];
+                elements[slot] = moved;
+                slots.put(moved.getId(), slot);
+            }
+            elements[last] = null;
+            slots.removeKey(dwellingId);
+            return removed;
+        }
+    }
+
+    private static final class BucketView extends AbstractList<Dwelling> implements RandomAccess {
+
+        private final Bucket bucket;
+
+        private BucketView(Bucket bucket) {
+            this.bucket = bucket;
+        }
+
+        @Override
+        public Dwelling get(int index) {
+            if (index < 0 || index >= bucket.size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bucket.size);
+            }
+            return bucket.elements[index];
+        }
+
+        @Override
+        public int size() {
+            return bucket.size;
+        }
+    }
+}
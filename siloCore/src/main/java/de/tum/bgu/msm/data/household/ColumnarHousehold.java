@@ -0,0 +1,316 @@
+package de.tum.bgu.msm.data.household;
+
+import de.tum.bgu.msm.data.person.Person;
+import org.matsim.utils.objectattributes.attributable.Attributes;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Flyweight {@link Household} that reads and writes its attributes from a row of {@link Columns}.
+ * See {@link ColumnarPerson} for how rows are owned before and after the household is part of a
+ * {@link ColumnarHouseholdData}.
+ *
+ * Members are kept in an array in the order they were added, which is replaced on every change.
+ * Views returned by {@link #getPersons()} therefore reflect the members at the time of the call.
+ */
+final class ColumnarHousehold implements Household {
+
+    private static final HouseholdType[] TYPES = HouseholdType.values();
+    private static final Person[] NO_PERSONS = new Person[0];
+
+    Columns columns;
+    int row;
+    ColumnarHouseholdData store;
+
+    ColumnarHousehold(int id, int dwellingId, int autos) {
+        this.columns = new Columns(1);
+        this.row = 0;
+        columns.id[0] = id;
+        columns.dwellingId[0] = dwellingId;
+        columns.autos[0] = autos;
+        columns.type[0] = -1;
+        columns.persons[0] = NO_PERSONS;
+    }
+
+    @Override
+    public int getId() {
+        return columns.id[row];
+    }
+
+    @Override
+    public int getHhSize() {
+        return columns.persons[row].length;
+    }
+
+    @Override
+    public int getDwellingId() {
+        return columns.dwellingId[row];
+    }
+
+    @Override
+    public int getAutos() {
+        return columns.autos[row];
+    }
+
+    @Override
+    public Map<Integer, ? extends Person> getPersons() {
+        return new Members(columns.persons[row]);
+    }
+
+    @Override
+    public HouseholdType getHouseholdType() {
+        return ColumnarPerson.value(TYPES, columns.type[row]);
+    }
+
+    @Override
+    public void updateHouseholdType() {
+        columns.type[row] = ColumnarPerson.ordinal(HouseholdUtil.defineHouseholdType(this));
+    }
+
+    @Override
+    public void setDwelling(int id) {
+        columns.dwellingId[row] = id;
+    }
+
+    @Override
+    public void addPerson(Person person) {
+        if (person != null) {
+            final Person[] members = columns.persons[row];
+            final int index = indexOf(members, person.getId());
+            final Person[] updated;
+            if (index < 0) {
+                updated = Arrays.copyOf(members, members.length + 1);
+                updated[members.length] = person;
+            } else {
+                updated = members.clone();
+                updated[index] = person;
+            }
+            columns.persons[row] = updated;
+            updateHouseholdType();
+        }
+    }
+
+    @Override
+    public void removePerson(int personId) {
+        final Person[] members = columns.persons[row];
+        final int index = indexOf(members, personId);
+        if (index >= 0) {
+            final Person[] updated = new Person[members.length - 1];
+            System.arraycopy(members, 0, updated, 0, index);
+            System.arraycopy(members, index + 1, updated, index, members.length - index - 1);
+            columns.persons[row] = updated;
+        }
+        updateHouseholdType();
+    }
+
+    @Override
+    public void setAutos(int autos) {
+        columns.autos[row] = autos;
+    }
+
+    @Override
+    public Optional<Object> getAttribute(String key) {
+        final Attributes attributes = columns.attributes[row];
+        return attributes == null ? Optional.empty() : Optional.ofNullable(attributes.getAttribute(key));
+    }
+
+    @Override
+    public void setAttribute(String key, Object value) {
+        if (columns.attributes[row] == null) {
+            columns.attributes[row] = new Attributes();
+        }
+        columns.attributes[row].putAttribute(key, value);
+    }
+
+    /**
+     * Moves the attributes of this household into the given row of the given columns.
+     */
+    void moveTo(Columns target, int targetRow) {
+        columns.copy(row, target, targetRow);
+        columns.clear(row);
+        columns = target;
+        row = targetRow;
+    }
+
+    @Override
+    public String toString() {
+        return "Attributes of household " + getId()
+                + "\nDwelling ID             " + getDwellingId()
+                + "\nHousehold size          " + getHhSize();
+    }
+
+    @Override
+    public int hashCode() {
+        return getId();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Household && ((Household) o).getId() == getId();
+    }
+
+    private static int indexOf(Person[] members, int personId) {
+        for (int i = 0; i < members.length; i++) {
+            if (members[i].getId() == personId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Household attributes stored as one array per attribute. The household type is stored by
+     * its ordinal, -1 encodes an undefined type.
+     */
+    static final class Columns {
+
+        int[] id;
+        int[] dwellingId;
+        int[] autos;
+        byte[] type;
+        Person[][] persons;
+        Attributes[] attributes;
+
+        Columns(int capacity) {
+            id = new int[capacity];
+            dwellingId = new int[capacity];
+            autos = new int[capacity];
+            type = new byte[capacity];
+            persons = new Person[capacity][];
+            attributes = new Attributes[capacity];
+        }
+
+        int capacity() {
+            return id.length;
+        }
+
+        void grow(int capacity) {
+            id = Arrays.copyOf(id, capacity);
+            dwellingId = Arrays.copyOf(dwellingId, capacity);
+            autos = Arrays.copyOf(autos, capacity);
+            type = Arrays.copyOf(type, capacity);
+            persons = Arrays.copyOf(persons, capacity);
+            attributes = Arrays.copyOf(attributes, capacity);
+        }
+
+        void copy(int from, Columns target, int to) {
+            target.id[to] = id[from];
+            target.dwellingId[to] = dwellingId[from];
+            target.autos[to] = autos[from];
+            target.type[to] = type[from];
+            target.persons[to] = persons[from];
+            target.attributes[to] = attributes[from];
+        }
+
+        void clear(int row) {
+            persons[row] = null;
+            attributes[row] = null;
+        }
+    }
+
+    /**
+     * Unmodifiable map view of a member array. Lookups by id scan the array, which is faster
+     * than hashing for the typical household sizes.
+     */
+    private static final class Members extends AbstractMap<Integer, Person> {
+
+        private final Person[] members;
+
+        private Members(Person[] members) {
+            this.members = members;
+        }
+
+        @Override
+        public int size() {
+            return members.length;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return members.length == 0;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Integer && indexOf(members, (Integer) key) >= 0;
+        }
+
+        @Override
+        public Person get(Object key) {
+            if (key instanceof Integer) {
+                final int index = indexOf(members, (Integer) key);
+                return index < 0 ? null : members[index];
+            }
+            return null;
+        }
+
+        @Override
+        public Collection<Person> values() {
+            return new AbstractCollection<Person>() {
+                @Override
+                public Iterator<Person> iterator() {
+                    return new MemberIterator<Person>() {
+                        @Override
+                        Person element(Person person) {
+                            return person;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return members.length;
+                }
+            };
+        }
+
+        @Override
+        public Set<Entry<Integer, Person>> entrySet() {
+            return new AbstractSet<Entry<Integer, Person>>() {
+                @Override
+                public Iterator<Entry<Integer, Person>> iterator() {
+                    return new MemberIterator<Entry<Integer, Person>>() {
+                        @Override
+                        Entry<Integer, Person> element(Person person) {
+                            return new SimpleImmutableEntry<>(person.getId(), person);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return members.length;
+                }
+            };
+        }
+
+        private abstract class MemberIterator<T> implements Iterator<T> {
+
+            private int next = 0;
+
+            abstract T element(Person person);
+
+            @Override
+            public boolean hasNext() {
+                return next < members.length;
+            }
+
+            @Override
+            public T next() {
+                if (next >= members.length) {
+                    throw new NoSuchElementException();
+                }
+                return element(members[next++]);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package de.tum.bgu.msm.data.household;
+
+import de.tum.bgu.msm.data.ColumnarIndex;
+import de.tum.bgu.msm.data.person.Gender;
+import de.tum.bgu.msm.data.person.Occupation;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonFactory;
+import de.tum.bgu.msm.data.person.PersonRole;
+
+import java.util.Collection;
+
+/**
+ * {@link HouseholdData} that stores persons and households in primitive columns instead of one
+ * object (plus maps) per entity. Rows are assigned by a {@link ColumnarIndex}. Models access the data
+ * through flyweight {@link Person} and {@link Household} views, of which there is exactly one per entity.
+ *
+ * Only persons and households created by {@link #getPersonFactory()} and {@link #getHouseholdFactory()}
+ * can be stored. Entities keep their own single row until they are added and get it back when they are
+ * removed, so references held elsewhere (e.g. household mementos or removed persons) stay valid.
+ *
+ * Additions and removals are synchronized. Lookups and attribute changes are not and must not happen
+ * concurrently with additions, as growing the columns may otherwise lose changes.
+ */
+public final class ColumnarHouseholdData implements HouseholdData {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final ColumnarPerson.Columns persons;
+    private final ColumnarIndex<Person> personIndex;
+
+    private final ColumnarHousehold.Columns households;
+    private final ColumnarIndex<Household> householdIndex;
+
+    private final PersonFactory personFactory = new ColumnarPersonFactory();
+    private final HouseholdFactory householdFactory = new ColumnarHouseholdFactory();
+
+    public ColumnarHouseholdData() {
+        this(DEFAULT_CAPACITY, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedPersons    initial capacity of the person columns
+     * @param expectedHouseholds initial capacity of the household columns
+     */
+    public ColumnarHouseholdData(int expectedPersons, int expectedHouseholds) {
+        this.persons = new ColumnarPerson.Columns(Math.max(1, expectedPersons));
+        this.personIndex = new ColumnarIndex<>(persons::capacity, persons::grow, this::removePerson);
+        this.households = new ColumnarHousehold.Columns(Math.max(1, expectedHouseholds));
+        this.householdIndex = new ColumnarIndex<>(households::capacity, households::grow, this::removeHousehold);
+    }
+
+    /**
+     * @return the factory for persons that can be added to this data. Has to be handed to the
+     * household data manager together with this data.
+     */
+    public PersonFactory getPersonFactory() {
+        return personFactory;
+    }
+
+    /**
+     * @return the factory for households that can be added to this data. Has to be handed to the
+     * household data manager together with this data.
+     */
+    public HouseholdFactory getHouseholdFactory() {
+        return householdFactory;
+    }
+
+    @Override
+    public Household getHousehold(int householdId) {
+        return householdIndex.get(householdId);
+    }
+
+    @Override
+    public Collection<Household> getHouseholds() {
+        return householdIndex.values();
+    }
+
+    @Override
+    public Person getPerson(int id) {
+        return personIndex.get(id);
+    }
+
+    @Override
+    public Collection<Person> getPersons() {
+        return personIndex.values();
+    }
+
+    @Override
+    public synchronized void removePerson(int id) {
+        final ColumnarPerson person = (ColumnarPerson) personIndex.get(id);
+        if (person != null) {
+            personIndex.remove(id);
+            person.moveTo(new ColumnarPerson.Columns(1), 0);
+            person.store = null;
+        }
+    }
+
+    @Override
+    public synchronized void removeHousehold(int householdId) {
+        final ColumnarHousehold household = (ColumnarHousehold) householdIndex.get(householdId);
+        if (household != null) {
+            householdIndex.remove(householdId);
+            household.moveTo(new ColumnarHousehold.Columns(1), 0);
+            household.store = null;
+        }
+    }
+
+    @Override
+    public synchronized void addPerson(Person person) {
+        if (!(person instanceof ColumnarPerson)) {
+            throw new IllegalArgumentException("Person " + person.getId() + " of type " + person.getClass().getName()
+                    + " cannot be stored in columnar household data. Use its person factory to create persons.");
+        }
+        final ColumnarPerson columnarPerson = (ColumnarPerson) person;
+        if (columnarPerson.store == this) {
+            return;
+        }
+        if (columnarPerson.store != null) {
+            throw new IllegalArgumentException("Person " + person.getId() + " is already stored in other household data.");
+        }
+        removePerson(person.getId());
+        columnarPerson.moveTo(persons, personIndex.add(columnarPerson));
+        columnarPerson.store = this;
+    }
+
+    @Override
+    public synchronized void addHousehold(Household household) {
+        if (!(household instanceof ColumnarHousehold)) {
+            throw new IllegalArgumentException("Household " + household.getId() + " of type " + household.getClass().getName()
+                    + " cannot be stored in columnar household data. Use its household factory to create households.");
+        }
+        final ColumnarHousehold columnarHousehold = (ColumnarHousehold) household;
+        if (columnarHousehold.store == this) {
+            return;
+        }
+        if (columnarHousehold.store != null) {
+            throw new IllegalArgumentException("Household " + household.getId() + " is already stored in other household data.");
+        }
+        removeHousehold(household.getId());
+        columnarHousehold.moveTo(households, householdIndex.add(columnarHousehold));
+        columnarHousehold.store = this;
+    }
+
+    private static final class ColumnarPersonFactory implements PersonFactory {
+
+        @Override
+        public Person createPerson(int id, int age, Gender gender, Occupation occupation, PersonRole role,
+                                   int workplace, int income) {
+            return new ColumnarPerson(id, age, gender, occupation, role, workplace, income);
+        }
+
+        @Override
+        public Person giveBirth(Person parent, int id, Gender gender) {
+            return new ColumnarPerson(id, 0, gender, Occupation.TODDLER, PersonRole.CHILD, 0, 0);
+        }
+
+        @Override
+        public Person duplicate(Person originalPerson, int id) {
+            ColumnarPerson duplicate = new ColumnarPerson(id,
+                    originalPerson.getAge(),
+                    originalPerson.getGender(),
+                    originalPerson.getOccupation(),
+                    originalPerson.getRole(),
+                    -1,
+                    originalPerson.getAnnualIncome());
+            duplicate.setDriverLicense(originalPerson.hasDriverLicense());
+            return duplicate;
+        }
+    }
+
+    private static final class ColumnarHouseholdFactory implements HouseholdFactory {
+
+        @Override
+        public Household createHousehold(int id, int dwellingID, int autos) {
+            return new ColumnarHousehold(id, dwellingID, autos);
+        }
+
+        @Override
+        public Household duplicate(Household original, int nextHouseholdId) {
+            return new ColumnarHousehold(nextHouseholdId, original.getDwellingId(), original.getAutos());
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package de.tum.bgu.msm.data.household;
+
+import de.tum.bgu.msm.data.person.Gender;
+import de.tum.bgu.msm.data.person.Occupation;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonRole;
+import de.tum.bgu.msm.data.person.PersonType;
+import org.matsim.utils.objectattributes.attributable.Attributes;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Flyweight {@link Person} that reads and writes its attributes from a row of {@link Columns}.
+ * While the person is part of a {@link ColumnarHouseholdData} the row belongs to the columns of the
+ * store. Before it is added and after it was removed, the person owns a private set of columns
+ * with a single row, such that references held by models stay valid.
+ */
+final class ColumnarPerson implements Person {
+
+    private static final Gender[] GENDERS = Gender.values();
+    private static final Occupation[] OCCUPATIONS = Occupation.values();
+    private static final PersonRole[] ROLES = PersonRole.values();
+    private static final PersonType[] TYPES = PersonType.values();
+
+    Columns columns;
+    int row;
+    ColumnarHouseholdData store;
+
+    ColumnarPerson(int id, int age, Gender gender, Occupation occupation, PersonRole role, int jobId, int income) {
+        this.columns = new Columns(1);
+        this.row = 0;
+        columns.id[0] = id;
+        columns.age[0] = (short) age;
+        columns.gender[0] = ordinal(gender);
+        columns.occupation[0] = ordinal(occupation);
+        columns.role[0] = ordinal(role);
+        columns.jobId[0] = jobId;
+        columns.income[0] = income;
+        setType();
+    }
+
+    private void setType() {
+        columns.type[row] = ordinal(PersonType.defineType(this));
+    }
+
+    @Override
+    public void setHousehold(Household household) {
+        columns.household[row] = household;
+    }
+
+    @Override
+    public Household getHousehold() {
+        return columns.household[row];
+    }
+
+    @Override
+    public void setRole(PersonRole pr) {
+        columns.role[row] = ordinal(pr);
+    }
+
+    @Override
+    public void birthday() {
+        columns.age[row]++;
+        setType();
+    }
+
+    @Override
+    public void setIncome(int newIncome) {
+        columns.income[row] = newIncome;
+        columns.household[row].updateHouseholdType();
+    }
+
+    @Override
+    public void setWorkplace(int newWorkplace) {
+        columns.jobId[row] = newWorkplace;
+    }
+
+    @Override
+    public void setOccupation(Occupation newOccupation) {
+        columns.occupation[row] = ordinal(newOccupation);
+    }
+
+    @Override
+    public int getId() {
+        return columns.id[row];
+    }
+
+    @Override
+    public int getAge() {
+        return columns.age[row];
+    }
+
+    @Override
+    public Gender getGender() {
+        return value(GENDERS, columns.gender[row]);
+    }
+
+    @Override
+    public Occupation getOccupation() {
+        return value(OCCUPATIONS, columns.occupation[row]);
+    }
+
+    @Override
+    public int getAnnualIncome() {
+        return columns.income[row];
+    }
+
+    @Override
+    public PersonType getType() {
+        return value(TYPES, columns.type[row]);
+    }
+
+    @Override
+    public PersonRole getRole() {
+        return value(ROLES, columns.role[row]);
+    }
+
+    @Override
+    public int getJobId() {
+        return columns.jobId[row];
+    }
+
+    @Override
+    public void setDriverLicense(boolean driverLicense) {
+        columns.driverLicense[row] = driverLicense;
+    }
+
+    @Override
+    public boolean hasDriverLicense() {
+        return columns.driverLicense[row];
+    }
+
+    @Override
+    public Optional<Object> getAttribute(String key) {
+        final Attributes attributes = columns.attributes[row];
+        return attributes == null ? Optional.empty() : Optional.ofNullable(attributes.getAttribute(key));
+    }
+
+    @Override
+    public void setAttribute(String key, Object value) {
+        if (columns.attributes[row] == null) {
+            columns.attributes[row] = new Attributes();
+        }
+        columns.attributes[row].putAttribute(key, value);
+    }
+
+    /**
+     * Moves the attributes of this person into the given row of the given columns.
+     */
+    void moveTo(Columns target, int targetRow) {
+        columns.copy(row, target, targetRow);
+        columns.clear(row);
+        columns = target;
+        row = targetRow;
+    }
+
+    @Override
+    public String toString() {
+        final Household household = getHousehold();
+        final PersonType type = getType();
+        return "+++ Person " + getId()
+                + "\nHousehold id         " + (household == null ? "null" : household.getId())
+                + "\nAge                  " + getAge()
+                + "\nGender               " + getGender()
+                + "\nRole in household    " + getRole()
+                + "\nOccupation           " + getOccupation()
+                + "\nWorkplace ID         " + getJobId()
+                + "\nIncome               " + getAnnualIncome()
+                + "\nPerson type          " + (type == null ? "null" : type.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return getId();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Person && ((Person) o).getId() == getId();
+    }
+
+    static byte ordinal(Enum<?> value) {
+        return value == null ? -1 : (byte) value.ordinal();
+    }
+
+    static <E> E value(E[] values, byte ordinal) {
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+    /**
+     * Person attributes stored as one array per attribute. Enums are stored by their ordinal, -1 encodes null.
+     * Object references are kept only for the household and the rarely used additional attributes.
+     */
+    static final class Columns {
+
+        int[] id;
+        short[] age;
+        byte[] gender;
+        byte[] occupation;
+        byte[] role;
+        byte[] type;
+        int[] jobId;
+        int[] income;
+        boolean[] driverLicense;
+        Household[] household;
+        Attributes[] attributes;
+
+        Columns(int capacity) {
+            id = new int[capacity];
+            age = new short[capacity];
+            gender = new byte[capacity];
+            occupation = new byte[capacity];
+            role = new byte[capacity];
+            type = new byte[capacity];
+            jobId = new int[capacity];
+            income = new int[capacity];
+            driverLicense = new boolean[capacity];
+            household = new Household[capacity];
+            attributes = new Attributes[capacity];
+        }
+
+        int capacity() {
+            return id.length;
+        }
+
+        void grow(int capacity) {
+            id = Arrays.copyOf(id, capacity);
+            age = Arrays.copyOf(age, capacity);
+            gender = Arrays.copyOf(gender, capacity);
+            occupation = Arrays.copyOf(occupation, capacity);
+            role = Arrays.copyOf(role, capacity);
+            type = Arrays.copyOf(type, capacity);
+            jobId = Arrays.copyOf(jobId, capacity);
+            income = Arrays.copyOf(income, capacity);
+            driverLicense = Arrays.copyOf(driverLicense, capacity);
+            household = Arrays.copyOf(household, capacity);
+            attributes = Arrays.copyOf(attributes, capacity);
+        }
+
+        void copy(int from, Columns target, int to) {
+            target.id[to] = id[from];
+            target.age[to] = age[from];
+            target.gender[to] = gender[from];
+            target.occupation[to] = occupation[from];
+            target.role[to] = role[from];
+            target.type[to] = type[from];
+            target.jobId[to] = jobId[from];
+            target.income[to] = income[from];
+            target.driverLicense[to] = driverLicense[from];
+            target.household[to] = household[from];
+            target.attributes[to] = attributes[from];
+        }
+
+        void clear(int row) {
+            household[row] = null;
+            attributes[row] = null;
+        }
+    }
+}
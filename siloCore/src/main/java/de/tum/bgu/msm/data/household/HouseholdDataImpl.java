@@ -1,15 +1,14 @@
 package de.tum.bgu.msm.data.household;
 
+import de.tum.bgu.msm.data.IdMap;
 import de.tum.bgu.msm.data.person.Person;
 
 import java.util.Collection;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class HouseholdDataImpl implements HouseholdData {
 
-    private final Map<Integer, Person> persons = new ConcurrentHashMap<>();
-    private final Map<Integer, Household> households = new ConcurrentHashMap<>();
+    private final IdMap<Person> persons = new IdMap<>();
+    private final IdMap<Household> households = new IdMap<>();
 
 
     @Override
@@ -44,11 +43,11 @@ public class HouseholdDataImpl implements HouseholdData {
 
     @Override
     public void addPerson(Person person) {
-        persons.put(person.getId(), person);
+        persons.put(person);
     }
 
     @Override
     public void addHousehold(Household household) {
-        households.put(household.getId(), household);
+        households.put(household);
     }
 }
@@ -26,10 +26,14 @@ import de.tum.bgu.msm.data.person.PersonFactory;
 import de.tum.bgu.msm.io.output.DefaultHouseholdWriter;
 import de.tum.bgu.msm.io.output.DefaultPersonWriter;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.Checkpointable;
 import de.tum.bgu.msm.util.concurrent.ConcurrentExecutor;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -39,7 +43,7 @@ import java.util.Map;
  * @author Greg Erhardt
  * Created on Dec 2, 2009
  */
-public class HouseholdDataManagerImpl implements HouseholdDataManager {
+public class HouseholdDataManagerImpl implements HouseholdDataManager, Checkpointable {
 
     private final static Logger logger = Logger.getLogger(HouseholdDataManagerImpl.class);
 
@@ -92,14 +96,14 @@ public class HouseholdDataManagerImpl implements HouseholdDataManager {
             String filehh = outputDirectory + "/" + properties.householdData.householdFinalFileName + "_"
                     + year
                     + ".csv";
-            new DefaultHouseholdWriter(this.householdData.getHouseholds()).writeHouseholds(filehh);
+            new DefaultHouseholdWriter(this.householdData.getHouseholds()).writeHouseholdsAsync(filehh);
         }
 
         if (!Properties.get().householdData.personIntermediatesFileName.equals("")) {
             String filepp = outputDirectory + "/" + properties.householdData.personIntermediatesFileName + "_"
                     + year
                     + ".csv";
-            new DefaultPersonWriter(householdData).writePersons(filepp);
+            new DefaultPersonWriter(householdData).writePersonsAsync(filepp);
         }
     }
 
@@ -109,12 +113,12 @@ public class HouseholdDataManagerImpl implements HouseholdDataManager {
         String filehh = outputDirectory +"/"+ properties.householdData.householdFinalFileName + "_"
                 + properties.main.endYear
                 + ".csv";
-        new DefaultHouseholdWriter(this.householdData.getHouseholds()).writeHouseholds(filehh);
+        new DefaultHouseholdWriter(this.householdData.getHouseholds()).writeHouseholdsAsync(filehh);
 
         String filepp = outputDirectory +"/"+ properties.householdData.personFinalFileName + "_"
                 + properties.main.endYear
                 + ".csv";
-        new DefaultPersonWriter(householdData).writePersons(filepp);
+        new DefaultPersonWriter(householdData).writePersonsAsync(filepp);
     }
 
     @Override
@@ -301,7 +305,35 @@ public class HouseholdDataManagerImpl implements HouseholdDataManager {
         executor.execute();
     }
 
+    /**
+     * Saves the ids in use, which may exceed the ids of the current persons due to mementos,
+     * and the income distribution of the base year used to adjust incomes.
+     */
+    @Override
+    public void writeCheckpoint(DataOutputStream out) throws IOException {
+        out.writeInt(highestHouseholdIdInUse);
+        out.writeInt(highestPersonIdInUse);
+        for (float[][] byAge : avgIncomeByGenderByAgeByOccupation) {
+            for (float[] byOccupation : byAge) {
+                for (float income : byOccupation) {
+                    out.writeFloat(income);
+                }
+            }
+        }
+    }
 
+    @Override
+    public void readCheckpoint(DataInputStream in) throws IOException {
+        highestHouseholdIdInUse = in.readInt();
+        highestPersonIdInUse = in.readInt();
+        for (float[][] byAge : avgIncomeByGenderByAgeByOccupation) {
+            for (float[] byOccupation : byAge) {
+                for (int i = 0; i < byOccupation.length; i++) {
+                    byOccupation[i] = in.readFloat();
+                }
+            }
+        }
+    }
 
 
     @Override
@@ -0,0 +1,187 @@
+package de.tum.bgu.msm.data.job;
+
+import de.tum.bgu.msm.data.Zone;
+import org.locationtech.jts.geom.Coordinate;
+import org.matsim.utils.objectattributes.attributable.Attributes;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Flyweight {@link Job} that reads and writes its attributes from a row of {@link Columns}.
+ * While the job is part of a {@link ColumnarJobData} the row belongs to the columns of the
+ * store. Before it is added and after it was removed, the job owns a private set of columns
+ * with a single row, such that references held by models stay valid.
+ *
+ * Coordinates are stored as x and y values. {@link #getCoordinate()} returns a new coordinate on
+ * every call, changes to it are not written back.
+ */
+final class ColumnarJob implements Job {
+
+    Columns columns;
+    int row;
+    ColumnarJobData store;
+
+    ColumnarJob(int id, int zoneId, Coordinate coordinate, int workerId, String type) {
+        this.columns = new Columns(1);
+        this.row = 0;
+        columns.id[0] = id;
+        columns.zoneId[0] = zoneId;
+        setCoordinate(coordinate);
+        columns.workerId[0] = workerId;
+        columns.type[0] = type;
+    }
+
+    @Override
+    public int getId() {
+        return columns.id[row];
+    }
+
+    @Override
+    public int getWorkerId() {
+        return columns.workerId[row];
+    }
+
+    @Override
+    public String getType() {
+        return columns.type[row];
+    }
+
+    public void setCoordinate(Coordinate coordinate) {
+        if (coordinate == null) {
+            columns.x[row] = Double.NaN;
+            columns.y[row] = Double.NaN;
+        } else {
+            columns.x[row] = coordinate.x;
+            columns.y[row] = coordinate.y;
+        }
+    }
+
+    @Override
+    public void setWorkerID(int personID) {
+        columns.workerId[row] = personID;
+    }
+
+    @Override
+    public void relocateJob(Zone newZone, Coordinate newCoordinate) {
+        columns.zoneId[row] = newZone.getZoneId();
+        setCoordinate(newCoordinate);
+    }
+
+    @Override
+    public Optional<Integer> getStartTimeInSeconds() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Integer> getWorkingTimeInSeconds() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Object> getAttribute(String key) {
+        final Attributes attributes = columns.attributes[row];
+        return attributes == null ? Optional.empty() : Optional.ofNullable(attributes.getAttribute(key));
+    }
+
+    @Override
+    public void setAttribute(String key, Object value) {
+        if (columns.attributes[row] == null) {
+            columns.attributes[row] = new Attributes();
+        }
+        columns.attributes[row].putAttribute(key, value);
+    }
+
+    @Override
+    public int getZoneId() {
+        return columns.zoneId[row];
+    }
+
+    @Override
+    public Coordinate getCoordinate() {
+        final double x = columns.x[row];
+        return Double.isNaN(x) ? null : new Coordinate(x, columns.y[row]);
+    }
+
+    /**
+     * Moves the attributes of this job into the given row of the given columns.
+     */
+    void moveTo(Columns target, int targetRow) {
+        columns.copy(row, target, targetRow);
+        columns.clear(row);
+        columns = target;
+        row = targetRow;
+    }
+
+    @Override
+    public String toString() {
+        return "Attributes of job       " + getId()
+                + "\nLocated at         " + getCoordinate()
+                + "\nFilled by person        " + getWorkerId()
+                + "\nJob type                " + getType();
+    }
+
+    @Override
+    public int hashCode() {
+        return getId();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Job && ((Job) o).getId() == getId();
+    }
+
+    /**
+     * Job attributes stored as one array per attribute. Coordinates are stored as x and y, NaN encodes
+     * a missing coordinate. Job types are shared strings and kept by reference.
+     */
+    static final class Columns {
+
+        int[] id;
+        int[] zoneId;
+        double[] x;
+        double[] y;
+        int[] workerId;
+        String[] type;
+        Attributes[] attributes;
+
+        Columns(int capacity) {
+            id = new int[capacity];
+            zoneId = new int[capacity];
+            x = new double[capacity];
+            y = new double[capacity];
+            workerId = new int[capacity];
+            type = new String[capacity];
+            attributes = new Attributes[capacity];
+        }
+
+        int capacity() {
+            return id.length;
+        }
+
+        void grow(int capacity) {
+            id = Arrays.copyOf(id, capacity);
+            zoneId = Arrays.copyOf(zoneId, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            workerId = Arrays.copyOf(workerId, capacity);
+            type = Arrays.copyOf(type, capacity);
+            attributes = Arrays.copyOf(attributes, capacity);
+        }
+
+        void copy(int from, Columns target, int to) {
+            target.id[to] = id[from];
+            target.zoneId[to] = zoneId[from];
+            target.x[to] = x[from];
+            target.y[to] = y[from];
+            target.workerId[to] = workerId[from];
+            target.type[to] = type[from];
+            target.attributes[to] = attributes[from];
+        }
+
+        void clear(int row) {
+            type[row] = null;
+            attributes[row] = null;
+        }
+    }
+}
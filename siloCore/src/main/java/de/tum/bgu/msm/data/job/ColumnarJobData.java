@@ -0,0 +1,120 @@
+package de.tum.bgu.msm.data.job;
+
+import cern.colt.map.tint.OpenIntIntHashMap;
+import de.tum.bgu.msm.data.ColumnarIndex;
+import de.tum.bgu.msm.data.Zone;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.util.Collection;
+
+/**
+ * {@link JobData} that stores jobs in primitive columns instead of one object per job.
+ * Rows are assigned by a {@link ColumnarIndex}, models access the data through one flyweight
+ * {@link Job} view per job. Iterating {@link #getJobs()} walks the rows in order.
+ *
+ * Jobs created by {@link #getJobFactory()} are stored as they are. They keep their own single
+ * row until they are added and get it back when they are removed. Jobs of the default
+ * {@link JobImpl} type, e.g. created by {@link JobUtils#getFactory()}, are copied into a new
+ * row, so changes to the added object do not reach the stored job.
+ *
+ * Additions and removals are synchronized. Lookups and attribute changes are not and must not happen
+ * concurrently with additions.
+ */
+public final class ColumnarJobData implements JobData {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final ColumnarJob.Columns jobs;
+    private final ColumnarIndex<Job> index;
+    private final OpenIntIntHashMap jobsByZone = new OpenIntIntHashMap();
+
+    private final JobFactory factory = new ColumnarJobFactory();
+
+    public ColumnarJobData() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedJobs initial capacity of the columns
+     */
+    public ColumnarJobData(int expectedJobs) {
+        this.jobs = new ColumnarJob.Columns(Math.max(1, expectedJobs));
+        this.index = new ColumnarIndex<>(jobs::capacity, jobs::grow, this::removeJob);
+    }
+
+    /**
+     * @return the factory for jobs that can be added to this data. Has to be handed to the
+     * job data manager together with this data.
+     */
+    public JobFactory getJobFactory() {
+        return factory;
+    }
+
+    @Override
+    public Job get(int jobId) {
+        return index.get(jobId);
+    }
+
+    @Override
+    public Collection<Job> getJobs() {
+        return index.values();
+    }
+
+    @Override
+    public synchronized void removeJob(int id) {
+        final ColumnarJob job = (ColumnarJob) index.get(id);
+        if (job != null) {
+            jobsByZone.put(job.getZoneId(), jobsByZone.get(job.getZoneId()) - 1);
+            index.remove(id);
+            job.moveTo(new ColumnarJob.Columns(1), 0);
+            job.store = null;
+        }
+    }
+
+    @Override
+    public synchronized void addJob(Job jj) {
+        final ColumnarJob job;
+        if (jj instanceof ColumnarJob) {
+            job = (ColumnarJob) jj;
+        } else if (jj.getClass() == JobImpl.class) {
+            job = new ColumnarJob(jj.getId(), jj.getZoneId(), jj.getCoordinate(), jj.getWorkerId(), jj.getType());
+        } else {
+            throw new IllegalArgumentException("Job " + jj.getId() + " of type " + jj.getClass().getName()
+                    + " cannot be stored in columnar job data. Use its job factory to create jobs.");
+        }
+        if (job.store == this) {
+            return;
+        }
+        if (job.store != null) {
+            throw new IllegalArgumentException("Job " + jj.getId() + " is already stored in other job data.");
+        }
+        removeJob(jj.getId());
+        job.moveTo(jobs, index.add(job));
+        job.store = this;
+        jobsByZone.put(job.getZoneId(), jobsByZone.get(job.getZoneId()) + 1);
+    }
+
+    @Override
+    public synchronized void relocateJob(int id, Zone newZone, Coordinate newCoordinate) {
+        final Job job = index.get(id);
+        if (job == null) {
+            throw new IllegalArgumentException("Job " + id + " is not stored and cannot be relocated.");
+        }
+        jobsByZone.put(job.getZoneId(), jobsByZone.get(job.getZoneId()) - 1);
+        job.relocateJob(newZone, newCoordinate);
+        jobsByZone.put(newZone.getZoneId(), jobsByZone.get(newZone.getZoneId()) + 1);
+    }
+
+    @Override
+    public int getNumberOfJobsInZone(int zoneId) {
+        return jobsByZone.get(zoneId);
+    }
+
+    private static final class ColumnarJobFactory implements JobFactory {
+
+        @Override
+        public Job createJob(int id, int zoneId, Coordinate coordinate, int workerId, String type) {
+            return new ColumnarJob(id, zoneId, coordinate, workerId, type);
+        }
+    }
+}
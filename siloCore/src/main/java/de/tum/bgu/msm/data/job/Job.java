@@ -44,6 +44,10 @@ public interface Job extends MicroLocation, Id {
 
     void setAttribute(String key, Object value);
 
-     void relocateJob(Zone newZone, Coordinate newCoordinate);
+    /**
+     * Changes zone and coordinate of this job only. Jobs that are stored in {@link JobData} have to be relocated
+     * through {@link JobDataManager#relocateJob(int, Zone, Coordinate)}, which also updates the jobs by zone.
+     */
+    void relocateJob(Zone newZone, Coordinate newCoordinate);
 
 }
@@ -1,5 +1,8 @@
 package de.tum.bgu.msm.data.job;
 
+import de.tum.bgu.msm.data.Zone;
+import org.locationtech.jts.geom.Coordinate;
+
 import java.util.Collection;
 
 public interface JobData {
@@ -10,4 +13,15 @@ public interface JobData {
     void removeJob(int id);
 
     void addJob(Job jj);
+
+    /**
+     * Moves a stored job to another zone and updates the number of jobs by zone. Stored jobs must not be
+     * relocated through {@link Job#relocateJob(Zone, Coordinate)} directly.
+     */
+    void relocateJob(int id, Zone newZone, Coordinate newCoordinate);
+
+    /**
+     * @return the number of stored jobs in the given zone, maintained with every addition and removal
+     */
+    int getNumberOfJobsInZone(int zoneId);
 }
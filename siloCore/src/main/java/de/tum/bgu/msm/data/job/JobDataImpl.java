@@ -1,12 +1,16 @@
 package de.tum.bgu.msm.data.job;
 
+import cern.colt.map.tint.OpenIntIntHashMap;
+import de.tum.bgu.msm.data.IdMap;
+import de.tum.bgu.msm.data.Zone;
+import org.locationtech.jts.geom.Coordinate;
+
 import java.util.Collection;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class JobDataImpl implements JobData {
 
-    private final Map<Integer, Job> jobs = new ConcurrentHashMap<>();
+    private final IdMap<Job> jobs = new IdMap<>();
+    private final OpenIntIntHashMap jobsByZone = new OpenIntIntHashMap();
 
     @Override
     public Job get(int jobId) {
@@ -19,12 +23,35 @@ public class JobDataImpl implements JobData {
     }
 
     @Override
-    public void removeJob(int id) {
-        jobs.remove(id);
+    public synchronized void removeJob(int id) {
+        final Job removed = jobs.remove(id);
+        if (removed != null) {
+            jobsByZone.put(removed.getZoneId(), jobsByZone.get(removed.getZoneId()) - 1);
+        }
+    }
+
+    @Override
+    public synchronized void addJob(Job jj) {
+        final Job replaced = jobs.put(jj);
+        if (replaced != null) {
+            jobsByZone.put(replaced.getZoneId(), jobsByZone.get(replaced.getZoneId()) - 1);
+        }
+        jobsByZone.put(jj.getZoneId(), jobsByZone.get(jj.getZoneId()) + 1);
+    }
+
+    @Override
+    public synchronized void relocateJob(int id, Zone newZone, Coordinate newCoordinate) {
+        final Job job = jobs.get(id);
+        if (job == null) {
+            throw new IllegalArgumentException("Job " + id + " is not stored and cannot be relocated.");
+        }
+        jobsByZone.put(job.getZoneId(), jobsByZone.get(job.getZoneId()) - 1);
+        job.relocateJob(newZone, newCoordinate);
+        jobsByZone.put(newZone.getZoneId(), jobsByZone.get(newZone.getZoneId()) + 1);
     }
 
     @Override
-    public void addJob(Job jj) {
-        jobs.put(jj.getId(), jj);
+    public int getNumberOfJobsInZone(int zoneId) {
+        return jobsByZone.get(zoneId);
     }
 }
@@ -4,6 +4,7 @@ import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.models.ModelUpdateListener;
+import org.locationtech.jts.geom.Coordinate;
 
 import java.util.Collection;
 import java.util.List;
@@ -32,6 +33,8 @@ public interface JobDataManager extends ModelUpdateListener {
 
     void addJob(Job jj);
 
+    void relocateJob(int id, Zone newZone, Coordinate newCoordinate);
+
     JobFactory getFactory();
 
     Map<Integer, List<Job>> getVacantJobsByRegion();
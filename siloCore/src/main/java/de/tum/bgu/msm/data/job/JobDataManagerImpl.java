@@ -17,6 +17,7 @@
 package de.tum.bgu.msm.data.job;
 
 
+import cern.colt.map.tdouble.OpenIntDoubleHashMap;
 import com.google.common.collect.ConcurrentHashMultiset;
 import com.google.common.collect.Multiset;
 import de.tum.bgu.msm.common.datafile.TableDataSet;
@@ -30,13 +31,17 @@ import de.tum.bgu.msm.data.travelTimes.TravelTimes;
 import de.tum.bgu.msm.io.output.DefaultJobWriter;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.properties.modules.JobDataProperties;
+import de.tum.bgu.msm.simulator.Checkpointable;
 import de.tum.bgu.msm.simulator.UpdateListener;
-import de.tum.bgu.msm.utils.SampleException;
-import de.tum.bgu.msm.utils.Sampler;
+import de.tum.bgu.msm.utils.CumulativeDistribution;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
+import org.locationtech.jts.geom.Coordinate;
 import org.matsim.api.core.v01.TransportMode;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -47,7 +52,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * Author: Rolf Moeckel, PB Albuquerque
  * Created on 22 February 2013 in Rhede
  **/
-public class JobDataManagerImpl implements UpdateListener, JobDataManager {
+public class JobDataManagerImpl implements UpdateListener, JobDataManager, Checkpointable {
     
     private final static Logger logger = Logger.getLogger(JobDataManagerImpl.class);
 
@@ -62,7 +67,7 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
     private int highestJobIdInUse;
 
     private final Map<Integer, List<Job>> vacantJobsByRegion = new LinkedHashMap<>();
-    private final Map<Integer, Double> zonalJobDensity;
+    private final OpenIntDoubleHashMap zonalJobDensity;
 
     private final Map<Integer, Map<Integer,Map<String,Float>>> jobsByYearByZoneByIndustry = new ConcurrentHashMap<>();
 
@@ -75,7 +80,7 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
         this.jobData = jobData;
         this.travelTimes = travelTimes;
         this.commutingTimeProbability = commutingTimeProbability;
-        this.zonalJobDensity = new HashMap<>();
+        this.zonalJobDensity = new OpenIntDoubleHashMap();
     }
 
     @Override
@@ -99,7 +104,7 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
                     + properties.jobData.jobsIntermediatesFileName
                     + "_"
                     + year + ".csv";
-            new DefaultJobWriter(this.jobData.getJobs()).writeJobs(filejj);
+            new DefaultJobWriter(this.jobData.getJobs()).writeJobsAsync(filejj);
         }
     }
 
@@ -110,7 +115,7 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
                 + properties.jobData.jobsFinalFileName
                 + "_"
                 + properties.main.endYear + ".csv";
-        new DefaultJobWriter(this.jobData.getJobs()).writeJobs(filejj);
+        new DefaultJobWriter(this.jobData.getJobs()).writeJobsAsync(filejj);
     }
 
     @Override
@@ -128,6 +133,11 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
         jobData.removeJob(id);
     }
 
+    @Override
+    public void relocateJob(int id, Zone newZone, Coordinate newCoordinate) {
+        jobData.relocateJob(id, newZone, newCoordinate);
+    }
+
     private void identifyHighestJobId() {
         highestJobIdInUse = 0;
         for (Job job: jobData.getJobs()) {
@@ -151,6 +161,16 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
         return ids;
     }
 
+    @Override
+    public void writeCheckpoint(DataOutputStream out) throws IOException {
+        out.writeInt(highestJobIdInUse);
+    }
+
+    @Override
+    public void readCheckpoint(DataInputStream in) throws IOException {
+        highestJobIdInUse = in.readInt();
+    }
+
     private void calculateEmploymentForecast() {
         if (properties.jobData.jobForecastMethod.equals(JobDataProperties.JobForecastMethod.INTERPOLATION)) {
             interpolateEmploymentForecast();
@@ -350,54 +370,65 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
     public Job findVacantJob(Zone homeZone, Collection<Region> regions) {
         // select vacant job for person living in homeZone
 
-        Sampler<Region> regionSampler = new Sampler<>(regions.size(), Region.class, SiloUtil.getRandomObject());
+        final Region[] candidates = regions.toArray(new Region[0]);
+        final double[] weights = new double[candidates.length];
+        double sum = 0;
 
         if (homeZone != null) {
             // person has home location (i.e., is not inmigrating right now)
-            for (Region reg : regions) {
+            for (int i = 0; i < candidates.length; i++) {
+                final Region reg = candidates[i];
                 int numberOfVacantJobs = getNumberOfVacantJobsByRegion(reg.getId());
                 if (numberOfVacantJobs > 0) {
                     int travelTime_min = (int) ((travelTimes.getTravelTimeToRegion(homeZone, reg,
                             properties.transportModel.peakHour_s, TransportMode.car) + 0.5));
                     //todo make region probability sensitve to mode choice to find a vacant job
                     final double prob = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, travelTime_min), TransportMode.car) * (double) numberOfVacantJobs;
-                    regionSampler.incrementalAdd(reg, prob);
+                    weights[i] = prob;
+                    sum += weights[i];
                 }
             }
-            if (regionSampler.getCumulatedProbability() == 0) {
+            if (sum == 0) {
                 // could not find job in reasonable distance. Person will have to commute far and is likely to relocate in the future
-                for (Region reg : regions) {
+                for (int i = 0; i < candidates.length; i++) {
+                    final Region reg = candidates[i];
                     if (getNumberOfVacantJobsByRegion(reg.getId()) > 0) {
                         int travelTime_min = (int) ((travelTimes.getTravelTimeToRegion(homeZone, reg,
                                 properties.transportModel.peakHour_s, TransportMode.car) + 0.5));
                         final double prob = 1. / Math.max(1, travelTime_min);
-                        regionSampler.incrementalAdd(reg, prob);
+                        weights[i] = prob;
+                        sum += weights[i];
                     }
                 }
             }
         } else {
             // person has no home location because (s)he is inmigrating right now and a dwelling has not been chosen yet
-            for (Region reg : regions) {
+            for (int i = 0; i < candidates.length; i++) {
+                final Region reg = candidates[i];
                 int numberOfJobs = getNumberOfVacantJobsByRegion(reg.getId());
                 if (numberOfJobs > 0) {
-                    regionSampler.incrementalAdd(reg, (double) numberOfJobs);
+                    weights[i] = (double) numberOfJobs;
+                    sum += weights[i];
                 }
             }
         }
 
-        if (regionSampler.getCumulatedProbability() == 0) {
+        if (sum == 0) {
             logger.warn("No jobs remaining. Could not find new job.");
             return null;
         }
-        int selectedRegion = -1;
+        final CumulativeDistribution distribution;
         try {
-            selectedRegion = regionSampler.sampleObject().getId();
-        } catch (SampleException e) {
-            e.printStackTrace();
+            distribution = new CumulativeDistribution(weights);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Could not find new job: " + e.getMessage());
+            return null;
         }
+        final Random random = SiloUtil.getRandomObject();
+        final int selectedRegion = candidates[distribution.sample(random)].getId();
 
         List<Job> eligibleJobs = vacantJobsByRegion.get(selectedRegion);
-        Job selectedJob = eligibleJobs.remove(SiloUtil.getRandomObject().nextInt(eligibleJobs.size()));
+        Job selectedJob = eligibleJobs.remove(random.nextInt(eligibleJobs.size()));
 
         if (selectedJob.getId() == SiloUtil.trackJj) {
             SiloUtil.trackWriter.println("Removed job " + selectedJob.getId() + " from list of vacant jobs.");
@@ -427,7 +458,7 @@ public class JobDataManagerImpl implements UpdateListener, JobDataManager {
     private void calculateJobDensityByZone() {
         final Multiset<Integer> counter = ConcurrentHashMultiset.create();
         jobData.getJobs().parallelStream().forEach(j -> counter.add(j.getZoneId()));
-        geoData.getZones().forEach((id, zone) -> zonalJobDensity.put(id, (double) (counter.count(id) / zone.getArea_sqmi())));
+        geoData.getZones().forEach((id, zone) -> zonalJobDensity.put(id, counter.count(id) / zone.getArea_sqmi()));
     }
 
 
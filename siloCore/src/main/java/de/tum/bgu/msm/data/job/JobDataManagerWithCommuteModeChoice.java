@@ -17,6 +17,7 @@
 package de.tum.bgu.msm.data.job;
 
 
+import cern.colt.map.tdouble.OpenIntDoubleHashMap;
 import com.google.common.collect.ConcurrentHashMultiset;
 import com.google.common.collect.Multiset;
 import de.tum.bgu.msm.common.datafile.TableDataSet;
@@ -32,13 +33,17 @@ import de.tum.bgu.msm.models.modeChoice.CommuteModeChoice;
 import de.tum.bgu.msm.models.modeChoice.CommuteModeChoiceMapping;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.properties.modules.JobDataProperties;
+import de.tum.bgu.msm.simulator.Checkpointable;
 import de.tum.bgu.msm.simulator.UpdateListener;
-import de.tum.bgu.msm.utils.SampleException;
-import de.tum.bgu.msm.utils.Sampler;
+import de.tum.bgu.msm.utils.CumulativeDistribution;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
+import org.locationtech.jts.geom.Coordinate;
 import org.matsim.api.core.v01.TransportMode;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -49,7 +54,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * Author: Rolf Moeckel, PB Albuquerque
  * Created on 22 February 2013 in Rhede
  **/
-public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobDataManager {
+public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobDataManager, Checkpointable {
 
     private final static Logger logger = Logger.getLogger(JobDataManagerWithCommuteModeChoice.class);
 
@@ -64,7 +69,7 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
     private int highestJobIdInUse;
 
     private final Map<Integer, List<Job>> vacantJobsByRegion = new LinkedHashMap<>();
-    private final Map<Integer, Double> zonalJobDensity;
+    private final OpenIntDoubleHashMap zonalJobDensity;
 
     private final Map<Integer, Map<Integer, Map<String, Float>>> jobsByYearByZoneByIndustry = new ConcurrentHashMap<>();
 
@@ -80,7 +85,7 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
         this.travelTimes = travelTimes;
         this.commutingTimeProbability = commutingTimeProbability;
         this.commuteModeChoice = commuteModeChoice;
-        this.zonalJobDensity = new HashMap<>();
+        this.zonalJobDensity = new OpenIntDoubleHashMap();
     }
 
     @Override
@@ -104,7 +109,7 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
                     + properties.jobData.jobsIntermediatesFileName
                     + "_"
                     + year + ".csv";
-            new DefaultJobWriter(this.jobData.getJobs()).writeJobs(filejj);
+            new DefaultJobWriter(this.jobData.getJobs()).writeJobsAsync(filejj);
         }
     }
 
@@ -115,7 +120,7 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
                 + properties.jobData.jobsFinalFileName
                 + "_"
                 + properties.main.endYear + ".csv";
-        new DefaultJobWriter(this.jobData.getJobs()).writeJobs(filejj);
+        new DefaultJobWriter(this.jobData.getJobs()).writeJobsAsync(filejj);
     }
 
     @Override
@@ -133,6 +138,11 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
         jobData.removeJob(id);
     }
 
+    @Override
+    public void relocateJob(int id, Zone newZone, Coordinate newCoordinate) {
+        jobData.relocateJob(id, newZone, newCoordinate);
+    }
+
     private void identifyHighestJobId() {
         highestJobIdInUse = 0;
         for (Job job : jobData.getJobs()) {
@@ -156,6 +166,16 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
         return ids;
     }
 
+    @Override
+    public void writeCheckpoint(DataOutputStream out) throws IOException {
+        out.writeInt(highestJobIdInUse);
+    }
+
+    @Override
+    public void readCheckpoint(DataInputStream in) throws IOException {
+        highestJobIdInUse = in.readInt();
+    }
+
     private void calculateEmploymentForecast() {
         if (properties.jobData.jobForecastMethod.equals(JobDataProperties.JobForecastMethod.INTERPOLATION)) {
             interpolateEmploymentForecast();
@@ -356,11 +376,14 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
     public Job findVacantJob(Zone homeZone, Collection<Region> regions) {
         // select vacant job for person living in homeZone
         //todo move find vacant job to a model
-        Sampler<Region> regionSampler = new Sampler<>(regions.size(), Region.class, SiloUtil.getRandomObject());
+        final Region[] candidates = regions.toArray(new Region[0]);
+        final double[] weights = new double[candidates.length];
+        double sum = 0;
 
         if (homeZone != null) {
             // person has home location (i.e., is not inmigrating right now)
-            for (Region reg : regions) {
+            for (int i = 0; i < candidates.length; i++) {
+                final Region reg = candidates[i];
                 int numberOfVacantJobs = getNumberOfVacantJobsByRegion(reg.getId());
                 if (numberOfVacantJobs > 0) {
 
@@ -372,43 +395,51 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
 
 
                     final double prob = mapping.getMode(OneWorker()).utility;
-                            regionSampler.incrementalAdd(reg, prob);
+                    weights[i] = prob;
+                    sum += weights[i];
                 }
             }
-            if (regionSampler.getCumulatedProbability() == 0) {
+            if (sum == 0) {
                 // could not find job in reasonable distance. Person will have to commute far and is likely to relocate in the future
-                for (Region reg : regions) {
+                for (int i = 0; i < candidates.length; i++) {
+                    final Region reg = candidates[i];
                     if (getNumberOfVacantJobsByRegion(reg.getId()) > 0) {
                         int travelTime_min = (int) ((travelTimes.getTravelTimeToRegion(homeZone, reg,
                                 properties.transportModel.peakHour_s, TransportMode.car) + 0.5));
                         final double prob = 1. / Math.max(1, travelTime_min);
-                        regionSampler.incrementalAdd(reg, prob);
+                        weights[i] = prob;
+                        sum += weights[i];
                     }
                 }
             }
         } else {
             // person has no home location because (s)he is inmigrating right now and a dwelling has not been chosen yet
-            for (Region reg : regions) {
+            for (int i = 0; i < candidates.length; i++) {
+                final Region reg = candidates[i];
                 int numberOfJobs = getNumberOfVacantJobsByRegion(reg.getId());
                 if (numberOfJobs > 0) {
-                    regionSampler.incrementalAdd(reg, (double) numberOfJobs);
+                    weights[i] = (double) numberOfJobs;
+                    sum += weights[i];
                 }
             }
         }
 
-        if (regionSampler.getCumulatedProbability() == 0) {
+        if (sum == 0) {
             logger.warn("No jobs remaining. Could not find new job.");
             return null;
         }
-        int selectedRegion = -1;
+        final CumulativeDistribution distribution;
         try {
-            selectedRegion = regionSampler.sampleObject().getId();
-        } catch (SampleException e) {
-            e.printStackTrace();
+            distribution = new CumulativeDistribution(weights);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Could not find new job: " + e.getMessage());
+            return null;
         }
+        final Random random = SiloUtil.getRandomObject();
+        final int selectedRegion = candidates[distribution.sample(random)].getId();
 
         List<Job> eligibleJobs = vacantJobsByRegion.get(selectedRegion);
-        Job selectedJob = eligibleJobs.remove(SiloUtil.getRandomObject().nextInt(eligibleJobs.size()));
+        Job selectedJob = eligibleJobs.remove(random.nextInt(eligibleJobs.size()));
 
         if (selectedJob.getId() == SiloUtil.trackJj) {
             SiloUtil.trackWriter.println("Removed job " + selectedJob.getId() + " from list of vacant jobs.");
@@ -438,7 +469,7 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
     private void calculateJobDensityByZone() {
         final Multiset<Integer> counter = ConcurrentHashMultiset.create();
         jobData.getJobs().parallelStream().forEach(j -> counter.add(j.getZoneId()));
-        geoData.getZones().forEach((id, zone) -> zonalJobDensity.put(id, (double) (counter.count(id) / zone.getArea_sqmi())));
+        geoData.getZones().forEach((id, zone) -> zonalJobDensity.put(id, counter.count(id) / zone.getArea_sqmi()));
     }
 
 
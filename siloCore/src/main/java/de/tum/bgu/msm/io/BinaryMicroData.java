@@ -0,0 +1,255 @@
+package de.tum.bgu.msm.io;
+
+import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.data.dwelling.DwellingImpl;
+import de.tum.bgu.msm.data.dwelling.DwellingFactory;
+import de.tum.bgu.msm.data.dwelling.DwellingType;
+import de.tum.bgu.msm.data.dwelling.DwellingUsage;
+import de.tum.bgu.msm.data.dwelling.RealEstateDataManager;
+import de.tum.bgu.msm.data.household.Household;
+import de.tum.bgu.msm.data.household.HouseholdDataManager;
+import de.tum.bgu.msm.data.household.HouseholdFactory;
+import de.tum.bgu.msm.data.household.HouseholdImpl;
+import de.tum.bgu.msm.data.job.Job;
+import de.tum.bgu.msm.data.job.JobDataManager;
+import de.tum.bgu.msm.data.job.JobFactory;
+import de.tum.bgu.msm.data.job.JobImpl;
+import de.tum.bgu.msm.data.person.Gender;
+import de.tum.bgu.msm.data.person.Occupation;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonFactory;
+import de.tum.bgu.msm.data.person.PersonImpl;
+import de.tum.bgu.msm.data.person.PersonRole;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact binary form of the dwellings, jobs, households and persons of a data container, restricted to the
+ * attributes of the core entity interfaces. Entities are written in the iteration order of their data managers
+ * and created again with the factories of the data managers.
+ */
+public final class BinaryMicroData {
+
+    /**
+     * Entity classes of the core, which have no attributes beyond their interfaces. The columnar classes are not visible here.
+     */
+    private static final Set<String> CORE_ENTITY_CLASSES = new HashSet<>(Arrays.asList(
+            DwellingImpl.class.getName(), JobImpl.class.getName(), HouseholdImpl.class.getName(), PersonImpl.class.getName(),
+            "de.tum.bgu.msm.data.dwelling.ColumnarDwelling", "de.tum.bgu.msm.data.job.ColumnarJob",
+            "de.tum.bgu.msm.data.household.ColumnarHousehold", "de.tum.bgu.msm.data.household.ColumnarPerson"));
+
+    private BinaryMicroData() {
+    }
+
+    /**
+     * @return the class of the first entity of the data container that is not a core entity and may have attributes
+     * this format does not contain, or null if all entities are core entities
+     */
+    public static Class<?> findUseCaseEntityClass(DataContainer dataContainer) {
+        final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
+        for (Iterable<?> entities : Arrays.<Iterable<?>>asList(dataContainer.getRealEstateDataManager().getDwellings(),
+                dataContainer.getJobDataManager().getJobs(), householdDataManager.getHouseholds(), householdDataManager.getPersons())) {
+            Class<?> checked = null;
+            for (Object entity : entities) {
+                if (entity.getClass() != checked) {
+                    if (!CORE_ENTITY_CLASSES.contains(entity.getClass().getName())) {
+                        return entity.getClass();
+                    }
+                    checked = entity.getClass();
+                }
+            }
+        }
+        return null;
+    }
+
+    public static void write(DataOutputStream out, DataContainer dataContainer) throws IOException {
+        writeDwellings(out, dataContainer.getRealEstateDataManager());
+        writeJobs(out, dataContainer.getJobDataManager());
+        writeHouseholds(out, dataContainer.getHouseholdDataManager());
+        writePersons(out, dataContainer.getHouseholdDataManager());
+    }
+
+    /**
+     * Adds the entities to the data container and links persons to their households in the original order.
+     */
+    public static void read(DataInputStream in, DataContainer dataContainer) throws IOException {
+        final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
+        if (!householdDataManager.getHouseholds().isEmpty() || !householdDataManager.getPersons().isEmpty()
+                || !dataContainer.getRealEstateDataManager().getDwellings().isEmpty()
+                || !dataContainer.getJobDataManager().getJobs().isEmpty()) {
+            throw new RuntimeException("Micro data can only be added to an empty data container.");
+        }
+        readDwellings(in, dataContainer.getRealEstateDataManager());
+        readJobs(in, dataContainer.getJobDataManager());
+        final Map<Household, int[]> membersByHousehold = readHouseholds(in, householdDataManager);
+        readPersons(in, householdDataManager);
+        for (Map.Entry<Household, int[]> members : membersByHousehold.entrySet()) {
+            for (int personId : members.getValue()) {
+                householdDataManager.addPersonToHousehold(householdDataManager.getPersonFromId(personId), members.getKey());
+            }
+        }
+    }
+
+    private static void writeDwellings(DataOutputStream out, RealEstateDataManager realEstateDataManager) throws IOException {
+        final List<DwellingType> types = realEstateDataManager.getDwellingTypes().getTypes();
+        out.writeInt(realEstateDataManager.getDwellings().size());
+        for (Dwelling dd : realEstateDataManager.getDwellings()) {
+            final int typeIndex = types.indexOf(dd.getType());
+            if (typeIndex < 0) {
+                throw new RuntimeException("Dwelling type " + dd.getType() + " of dwelling " + dd.getId() + " is not defined.");
+            }
+            out.writeInt(dd.getId());
+            out.writeInt(dd.getZoneId());
+            writeCoordinate(out, dd.getCoordinate());
+            out.writeInt(dd.getResidentId());
+            out.writeByte(typeIndex);
+            out.writeByte(dd.getBedrooms());
+            out.writeByte(dd.getQuality());
+            out.writeInt(dd.getPrice());
+            out.writeShort(dd.getYearBuilt());
+            out.writeInt(dd.getFloorSpace());
+            out.writeByte(dd.getUsage().ordinal());
+        }
+    }
+
+    private static void readDwellings(DataInputStream in, RealEstateDataManager realEstateDataManager) throws IOException {
+        final List<DwellingType> types = realEstateDataManager.getDwellingTypes().getTypes();
+        final DwellingFactory factory = realEstateDataManager.getDwellingFactory();
+        final int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            final int id = in.readInt();
+            final int zone = in.readInt();
+            final Coordinate coordinate = readCoordinate(in);
+            final int residentId = in.readInt();
+            final DwellingType type = types.get(in.readUnsignedByte());
+            final int bedrooms = in.readByte();
+            final int quality = in.readByte();
+            final int price = in.readInt();
+            final int yearBuilt = in.readShort();
+            final Dwelling dd = factory.createDwelling(id, zone, coordinate, residentId, type, bedrooms, quality, price, yearBuilt);
+            dd.setFloorSpace(in.readInt());
+            dd.setUsage(DwellingUsage.values()[in.readByte()]);
+            realEstateDataManager.addDwelling(dd);
+        }
+    }
+
+    private static void writeJobs(DataOutputStream out, JobDataManager jobDataManager) throws IOException {
+        final Map<String, Integer> types = new LinkedHashMap<>();
+        for (Job jj : jobDataManager.getJobs()) {
+            types.putIfAbsent(jj.getType(), types.size());
+        }
+        out.writeInt(types.size());
+        for (String type : types.keySet()) {
+            out.writeUTF(type);
+        }
+        out.writeInt(jobDataManager.getJobs().size());
+        for (Job jj : jobDataManager.getJobs()) {
+            out.writeInt(jj.getId());
+            out.writeInt(jj.getZoneId());
+            writeCoordinate(out, jj.getCoordinate());
+            out.writeInt(jj.getWorkerId());
+            out.writeShort(types.get(jj.getType()));
+        }
+    }
+
+    private static void readJobs(DataInputStream in, JobDataManager jobDataManager) throws IOException {
+        final String[] types = new String[in.readInt()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = in.readUTF();
+        }
+        final JobFactory factory = jobDataManager.getFactory();
+        final int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            final int id = in.readInt();
+            final int zone = in.readInt();
+            final Coordinate coordinate = readCoordinate(in);
+            final int workerId = in.readInt();
+            jobDataManager.addJob(factory.createJob(id, zone, coordinate, workerId, types[in.readShort()]));
+        }
+    }
+
+    private static void writeHouseholds(DataOutputStream out, HouseholdDataManager householdDataManager) throws IOException {
+        out.writeInt(householdDataManager.getHouseholds().size());
+        for (Household hh : householdDataManager.getHouseholds()) {
+            out.writeInt(hh.getId());
+            out.writeInt(hh.getDwellingId());
+            out.writeByte(hh.getAutos());
+            out.writeByte(hh.getPersons().size());
+            for (Person pp : hh.getPersons().values()) {
+                out.writeInt(pp.getId());
+            }
+        }
+    }
+
+    private static Map<Household, int[]> readHouseholds(DataInputStream in, HouseholdDataManager householdDataManager) throws IOException {
+        final HouseholdFactory factory = householdDataManager.getHouseholdFactory();
+        final int count = in.readInt();
+        final Map<Household, int[]> membersByHousehold = new LinkedHashMap<>(count * 4 / 3 + 1);
+        for (int i = 0; i < count; i++) {
+            final Household hh = factory.createHousehold(in.readInt(), in.readInt(), in.readByte());
+            final int[] members = new int[in.readUnsignedByte()];
+            for (int j = 0; j < members.length; j++) {
+                members[j] = in.readInt();
+            }
+            householdDataManager.addHousehold(hh);
+            membersByHousehold.put(hh, members);
+        }
+        return membersByHousehold;
+    }
+
+    private static void writePersons(DataOutputStream out, HouseholdDataManager householdDataManager) throws IOException {
+        out.writeInt(householdDataManager.getPersons().size());
+        for (Person pp : householdDataManager.getPersons()) {
+            out.writeInt(pp.getId());
+            out.writeByte(pp.getAge());
+            out.writeByte(pp.getGender().ordinal());
+            out.writeByte(pp.getOccupation().ordinal());
+            out.writeByte(pp.getRole().ordinal());
+            out.writeInt(pp.getJobId());
+            out.writeInt(pp.getAnnualIncome());
+            out.writeBoolean(pp.hasDriverLicense());
+        }
+    }
+
+    private static void readPersons(DataInputStream in, HouseholdDataManager householdDataManager) throws IOException {
+        final PersonFactory factory = householdDataManager.getPersonFactory();
+        final int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            final int id = in.readInt();
+            final int age = in.readUnsignedByte();
+            final Gender gender = Gender.values()[in.readByte()];
+            final Occupation occupation = Occupation.values()[in.readByte()];
+            final PersonRole role = PersonRole.values()[in.readByte()];
+            final int jobId = in.readInt();
+            final int income = in.readInt();
+            final Person pp = factory.createPerson(id, age, gender, occupation, role, jobId, income);
+            pp.setDriverLicense(in.readBoolean());
+            householdDataManager.addPerson(pp);
+        }
+    }
+
+    private static void writeCoordinate(DataOutputStream out, Coordinate coordinate) throws IOException {
+        out.writeBoolean(coordinate != null);
+        if (coordinate != null) {
+            out.writeDouble(coordinate.x);
+            out.writeDouble(coordinate.y);
+        }
+    }
+
+    private static Coordinate readCoordinate(DataInputStream in) throws IOException {
+        if (in.readBoolean()) {
+            return new Coordinate(in.readDouble(), in.readDouble());
+        }
+        return null;
+    }
+}
@@ -5,9 +5,9 @@ import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 import org.locationtech.jts.geom.Coordinate;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.List;
 
 public class DefaultDwellingReader implements DwellingReader {
 
@@ -45,67 +45,58 @@ public class DefaultDwellingReader implements DwellingReader {
     @Override
     public void readData(String path) {
         logger.info("Reading dwelling micro data from ascii file");
-        String recString = "";
         int recCount = 0;
-        try {
-            BufferedReader in = new BufferedReader(new FileReader(path));
-            recString = in.readLine();
-
-            String[] header = recString.split(",");
-            int posId = SiloUtil.findPositionInArray("id", header);
-            int posZone = SiloUtil.findPositionInArray("zone", header);
-            int posHh = SiloUtil.findPositionInArray("hhID", header);
-            int posType = SiloUtil.findPositionInArray("type", header);
-            int posRooms = SiloUtil.findPositionInArray("bedrooms", header);
-            int posQuality = SiloUtil.findPositionInArray("quality", header);
-            int posCosts = SiloUtil.findPositionInArray("monthlyCost", header);
-            int posYear = SiloUtil.findPositionInArray("yearBuilt", header);
-
-            int posCoordX = -1;
-            int posCoordY = -1;
-            try {
-                posCoordX = SiloUtil.findPositionInArray("coordX", header);
-                posCoordY = SiloUtil.findPositionInArray("coordY", header);
-            } catch (Exception e) {
+        try (DelimitedRecordReader in = DelimitedRecordReader.open(path)) {
+            final int posId = in.getColumn("id");
+            final int posZone = in.getColumn("zone");
+            final int posHh = in.getColumn("hhID");
+            final int posType = in.getColumn("type");
+            final int posRooms = in.getColumn("bedrooms");
+            final int posQuality = in.getColumn("quality");
+            final int posCosts = in.getColumn("monthlyCost");
+            final int posYear = in.getColumn("yearBuilt");
+            final int posCoordX = in.getColumn("coordX");
+            final int posCoordY = in.getColumn("coordY");
+            if (posCoordX < 0 || posCoordY < 0) {
                 logger.warn("No coords given in dwelling input file. Models using microlocations will not work.");
             }
 
-            int noCoordCounter = 0;
-            while ((recString = in.readLine()) != null) {
-                recCount++;
-                String[] lineElements = recString.split(",");
-                int id = Integer.parseInt(lineElements[posId]);
-                int zoneId = Integer.parseInt(lineElements[posZone]);
-                int hhId = Integer.parseInt(lineElements[posHh]);
-                String tp = lineElements[posType].replace("\"", "");
-                DwellingType type = dwellingTypes.valueOf(tp);
-                int price = Integer.parseInt(lineElements[posCosts]);
-                int area = Integer.parseInt(lineElements[posRooms]);
-                int quality = Integer.parseInt(lineElements[posQuality]);
-                int yearBuilt = Integer.parseInt(lineElements[posYear]);
+            final AtomicInteger noCoordCounter = new AtomicInteger();
+            final List<Dwelling> dwellings = in.parseAll(record -> {
+                int id = record.getInt(posId);
+                int zoneId = record.getInt(posZone);
+                int hhId = record.getInt(posHh);
+                DwellingType type = dwellingTypes.valueOf(record.getPooledString(posType));
+                int price = record.getInt(posCosts);
+                int area = record.getInt(posRooms);
+                int quality = record.getInt(posQuality);
+                int yearBuilt = record.getInt(posYear);
 
                 Coordinate coordinate = null;
                 if (posCoordX >= 0 && posCoordY >= 0) {
                     try {
-                        coordinate = new Coordinate(Double.parseDouble(lineElements[posCoordX]), Double.parseDouble(lineElements[posCoordY]));
+                        coordinate = new Coordinate(record.getDouble(posCoordX), record.getDouble(posCoordY));
                     } catch (Exception e) {
-                        noCoordCounter++;
+                        noCoordCounter.incrementAndGet();
                     }
                 }
+                return dwellingFactory.createDwelling(id, zoneId, coordinate, hhId, type, area, quality, price, yearBuilt);
+            });
 
-                Dwelling dwelling = dwellingFactory.createDwelling(id, zoneId, coordinate, hhId, type, area, quality, price, yearBuilt);
+            for (Dwelling dwelling : dwellings) {
+                recCount++;
                 dwellingData.addDwelling(dwelling);
-                if (id == SiloUtil.trackDd) {
+                if (dwelling.getId() == SiloUtil.trackDd) {
                     SiloUtil.trackWriter.println("Read dwelling with following attributes from " + path);
                     SiloUtil.trackWriter.println(dwelling.toString());
                 }
             }
-            if(noCoordCounter > 0) {
+            if(noCoordCounter.get() > 0) {
                 logger.warn("There were " + noCoordCounter + " dwellings without coordinates.");
             }
         } catch (IOException e) {
             logger.fatal("IO Exception caught reading synpop dwelling file: " + path);
-            logger.fatal("recCount = " + recCount + ", recString = <" + recString + ">");
+            logger.fatal("recCount = " + recCount);
         }
         logger.info("Finished reading " + recCount + " dwellings.");
     }
@@ -5,9 +5,9 @@ import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 import org.locationtech.jts.geom.Coordinate;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.List;
 
 public class DefaultJobReader implements JobReader {
 
@@ -23,63 +23,50 @@ public class DefaultJobReader implements JobReader {
 
         logger.info("Reading job micro data from ascii file");
         JobFactory factory = JobUtils.getFactory();
-        String recString = "";
         int recCount = 0;
-        try {
-            BufferedReader in = new BufferedReader(new FileReader(fileName));
-            recString = in.readLine();
-
-            // read header
-            String[] header = recString.split(",");
-            int posId = SiloUtil.findPositionInArray("id", header);
-            int posZone = SiloUtil.findPositionInArray("zone", header);
-            int posWorker = SiloUtil.findPositionInArray("personId", header);
-            int posType = SiloUtil.findPositionInArray("type", header);
-
-            int posCoordX = -1;
-            int posCoordY = -1;
-            try {
-                posCoordX = SiloUtil.findPositionInArray("coordX", header);
-                posCoordY = SiloUtil.findPositionInArray("coordY", header);
-            } catch (Exception e) {
+        try (DelimitedRecordReader in = DelimitedRecordReader.open(fileName)) {
+            final int posId = in.getColumn("id");
+            final int posZone = in.getColumn("zone");
+            final int posWorker = in.getColumn("personId");
+            final int posType = in.getColumn("type");
+            final int posCoordX = in.getColumn("coordX");
+            final int posCoordY = in.getColumn("coordY");
+            if (posCoordX < 0 || posCoordY < 0) {
                 logger.warn("No coords given in dwelling input file. Models using microlocations will not work.");
             }
 
-            int noCoordCounter = 0;
-
-
-            // read line
-            while ((recString = in.readLine()) != null) {
-                recCount++;
-                String[] lineElements = recString.split(",");
-                int id = Integer.parseInt(lineElements[posId]);
-                int zoneId = Integer.parseInt(lineElements[posZone]);
-                int worker = Integer.parseInt(lineElements[posWorker]);
-                String type = lineElements[posType].replace("\"", "");
+            final AtomicInteger noCoordCounter = new AtomicInteger();
+            final List<Job> jobs = in.parseAll(record -> {
+                int id = record.getInt(posId);
+                int zoneId = record.getInt(posZone);
+                int worker = record.getInt(posWorker);
+                String type = record.getPooledString(posType);
 
                 Coordinate coordinate = null;
                 if (posCoordX >= 0 && posCoordY >= 0) {
                     try {
-                        coordinate = new Coordinate(Double.parseDouble(lineElements[posCoordX]), Double.parseDouble(lineElements[posCoordY]));
+                        coordinate = new Coordinate(record.getDouble(posCoordX), record.getDouble(posCoordY));
                     } catch (Exception e) {
-                        noCoordCounter++;
+                        noCoordCounter.incrementAndGet();
                     }
                 }
+                return factory.createJob(id, zoneId, coordinate, worker, type);
+            });
 
-                Job jj = factory.createJob(id, zoneId, coordinate, worker, type);
-
+            for (Job jj : jobs) {
+                recCount++;
                 jobData.addJob(jj);
-                if (id == SiloUtil.trackJj) {
+                if (jj.getId() == SiloUtil.trackJj) {
                     SiloUtil.trackWriter.println("Read job with following attributes from " + fileName);
                     SiloUtil.trackWriter.println(jj.toString());
                 }
             }
-            if(noCoordCounter > 0) {
+            if(noCoordCounter.get() > 0) {
                 logger.warn("There were " + noCoordCounter + " dwellings without coordinates.");
             }
         } catch (IOException e) {
             logger.fatal("IO Exception caught reading synpop job file: " + fileName, new RuntimeException());
-            logger.fatal("recCount = " + recCount + ", recString = <" + recString + ">", new RuntimeException());
+            logger.fatal("recCount = " + recCount, new RuntimeException());
         }
         logger.info("Finished reading " + recCount + " jobs.");
     }
@@ -6,9 +6,8 @@ import de.tum.bgu.msm.data.person.*;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.util.List;
 
 public class DefaultPersonReader implements PersonReader{
 
@@ -23,43 +22,34 @@ public class DefaultPersonReader implements PersonReader{
     public void readData(String path) {
         logger.info("Reading person micro data from ascii file");
 
-        PersonFactory ppFactory = PersonUtils.getFactory();
-        String recString = "";
+        PersonFactory ppFactory = householdDataManager.getPersonFactory();
         int recCount = 0;
-        try {
-            BufferedReader in = new BufferedReader(new FileReader(path));
-            recString = in.readLine();
+        try (DelimitedRecordReader in = DelimitedRecordReader.open(path)) {
+            final int posId = in.getColumn("id");
+            final int posHhId = in.getColumn("hhID");
+            final int posAge = in.getColumn("age");
+            final int posGender = in.getColumn("gender");
+            final int posRelShp = in.getColumn("relationShip");
+            final int posOccupation = in.getColumn("occupation");
+            final int posWorkplace = in.getColumn("workplace");
+            final int posIncome = in.getColumn("income");
+            final int posDriver = in.getColumn("driversLicense");
 
-            // read header
-            String[] header = recString.split(",");
-            int posId = SiloUtil.findPositionInArray("id", header);
-            int posHhId = SiloUtil.findPositionInArray("hhID",header);
-            int posAge = SiloUtil.findPositionInArray("age",header);
-            int posGender = SiloUtil.findPositionInArray("gender",header);
-            int posRelShp = SiloUtil.findPositionInArray("relationShip",header);
-            int posOccupation = SiloUtil.findPositionInArray("occupation",header);
-            int posWorkplace = SiloUtil.findPositionInArray("workplace",header);
-            int posIncome = SiloUtil.findPositionInArray("income",header);
-            int posDriver = SiloUtil.findPositionInArray("driversLicense", header);
-
-            // read line
-            while ((recString = in.readLine()) != null) {
-                recCount++;
-                String[] lineElements = recString.split(",");
-                int id         = Integer.parseInt(lineElements[posId]);
-                int hhid       = Integer.parseInt(lineElements[posHhId]);
-                int age        = Integer.parseInt(lineElements[posAge]);
-                Gender gender     = Gender.valueOf(Integer.parseInt(lineElements[posGender]));
-                String relShp  = lineElements[posRelShp].replace("\"", "");
-                PersonRole pr  = PersonRole.valueOf(relShp.toUpperCase());
-                Occupation occupation = Occupation.valueOf(Integer.parseInt(lineElements[posOccupation]));
-                int workplace  = Integer.parseInt(lineElements[posWorkplace]);
+            // households are complete, so persons are created concurrently and only linked to them afterwards
+            final List<Person> persons = in.parseAll(record -> {
+                int id         = record.getInt(posId);
+                int hhid       = record.getInt(posHhId);
+                int age        = record.getInt(posAge);
+                Gender gender     = Gender.valueOf(record.getInt(posGender));
+                PersonRole pr  = record.getEnum(posRelShp, PersonRole.class);
+                Occupation occupation = Occupation.valueOf(record.getInt(posOccupation));
+                int workplace  = record.getInt(posWorkplace);
                 //todo remove the workplace if they are not employed - temporary if school ids or zones are stored there
                 if (!occupation.equals(Occupation.EMPLOYED)){
                     workplace = -1;
                 }
-                int income     = Integer.parseInt(lineElements[posIncome]);
-                boolean license = Boolean.parseBoolean(lineElements[posDriver]);
+                int income     = record.getInt(posIncome);
+                boolean license = record.getBoolean(posDriver);
                 //todo temporary assign driving license since this is not in the current SP version
                 //boolean license = MicroDataManager.obtainLicense(gender, age);
                 Household household = householdDataManager.getHouseholdFromId(hhid);
@@ -67,18 +57,22 @@ public class DefaultPersonReader implements PersonReader{
                     throw new RuntimeException("Person " + id + " refers to non existing household " + hhid + "!");
                 }
                 Person pp = ppFactory.createPerson(id, age, gender, occupation,pr, workplace, income);
-                householdDataManager.addPerson(pp);
-                householdDataManager.addPersonToHousehold(pp, household);
                 pp.setDriverLicense(license);
+                pp.setHousehold(household);
+                return pp;
+            });
 
-                if (id == SiloUtil.trackPp) {
+            SyntheticPopulationReader.addPersons(householdDataManager, persons);
+            for (Person pp : persons) {
+                recCount++;
+                if (pp.getId() == SiloUtil.trackPp) {
                     SiloUtil.trackWriter.println("Read person with following attributes from " + path);
                     SiloUtil.trackWriter.println(pp.toString());
                 }
             }
         } catch (IOException e) {
             logger.fatal("IO Exception caught reading synpop household file: " + path);
-            logger.fatal("recCount = " + recCount + ", recString = <" + recString + ">");
+            logger.fatal("recCount = " + recCount);
         }
         logger.info("Finished reading " + recCount + " persons.");
     }
@@ -0,0 +1,587 @@
+package de.tum.bgu.msm.io.input;
+
+import de.tum.bgu.msm.utils.SiloUtil;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads delimited micro data files such as the synthetic population record by record. Plain files are memory-mapped,
+ * gzip compressed files are recognized by their magic number and decompressed on the fly. Records are scanned on the
+ * byte level and numbers are parsed directly from the bytes, so reading a record does not allocate any strings unless
+ * text columns are requested.
+ *
+ * Like the former readLine/split readers, fields are separated by the delimiter without any quoting rules and quotes
+ * are removed from text fields. The first line is the header; column positions are resolved once with
+ * {@link #getColumn(String)} and used for every record.
+ *
+ * Instances are not thread safe.
+ */
+public final class DelimitedRecordReader implements Closeable {
+
+    private static final int MAX_WINDOW_SIZE = 1 << 30;
+    private static final int STREAM_BUFFER_SIZE = 1 << 20;
+    private static final int MAX_POOLED_STRINGS = 256;
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final String path;
+    private final byte delimiter;
+    private final FileChannel channel;
+    private final InputStream stream;
+    private final String[] header;
+
+    private final long rangeEnd;
+
+    private ByteBuffer buffer;
+    private long windowStart;
+    private boolean endOfInput = false;
+    private int position = 0;
+
+    private int recordStart;
+    private int recordEnd;
+    private int fieldCount;
+    private int[] fieldStarts = new int[32];
+    private int[] fieldEnds = new int[32];
+
+    private final Map<Class<?>, Enum<?>[]> enumConstants = new HashMap<>();
+    private final List<byte[]> pooledKeys = new ArrayList<>();
+    private final List<String> pooledStrings = new ArrayList<>();
+
+    private DelimitedRecordReader(String path, char delimiter, FileChannel channel, InputStream stream) throws IOException {
+        this.path = path;
+        this.delimiter = (byte) delimiter;
+        this.channel = channel;
+        this.stream = stream;
+        this.windowStart = 0;
+        if (channel != null) {
+            rangeEnd = channel.size();
+            mapWindow();
+        } else {
+            rangeEnd = -1;
+            buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+            buffer.limit(0);
+        }
+        skipByteOrderMark();
+        if (!next()) {
+            throw new IOException("File " + path + " does not contain a header.");
+        }
+        header = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            header[i] = getString(i);
+        }
+    }
+
+    /**
+     * Reader of the records between the given offsets of a plain file, which both are at the start of a line.
+     */
+    private DelimitedRecordReader(DelimitedRecordReader file, long start, long end) throws IOException {
+        this.path = file.path;
+        this.delimiter = file.delimiter;
+        this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        this.stream = null;
+        this.header = file.header;
+        this.windowStart = start;
+        this.rangeEnd = end;
+        mapWindow();
+    }
+
+    /**
+     * Opens a comma separated file and reads its header.
+     */
+    public static DelimitedRecordReader open(String path) throws IOException {
+        return open(path, ',');
+    }
+
+    public static DelimitedRecordReader open(String path, char delimiter) throws IOException {
+        final Path file = Paths.get(path);
+        if (isGzipped(file)) {
+            return new DelimitedRecordReader(path, delimiter, null,
+                    new GZIPInputStream(new FileInputStream(file.toFile()), 1 << 16));
+        } else {
+            return new DelimitedRecordReader(path, delimiter, FileChannel.open(file, StandardOpenOption.READ), null);
+        }
+    }
+
+    private static boolean isGzipped(Path file) throws IOException {
+        try (InputStream in = new FileInputStream(file.toFile())) {
+            return in.read() == 0x1f && in.read() == 0x8b;
+        }
+    }
+
+    public String[] getHeader() {
+        return header.clone();
+    }
+
+    /**
+     * Parses all remaining records. The rest of a plain file is split into newline-aligned chunks, which are parsed on
+     * several threads by readers of their own. Parsed values are returned in the order of the file, independent of the
+     * number of chunks. Compressed files are parsed on the calling thread.
+     *
+     * As records are parsed concurrently, the parser must only depend on the record and on data that is not modified
+     * meanwhile. Entities should be created by side-effect free factories and be added to the data stores afterwards.
+     *
+     * @return the parsed values in the order of the file, except null values
+     */
+    public <T> List<T> parseAll(RecordParser<T> parser) throws IOException {
+        final List<T> values = new ArrayList<>();
+        if (channel == null) {
+            parseRemaining(parser, values);
+            return values;
+        }
+        final long[] boundaries = findChunkBoundaries(Runtime.getRuntime().availableProcessors());
+        final List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < boundaries.length - 1; i++) {
+            chunks.add(new ArrayList<>());
+        }
+        try {
+            IntStream.range(0, chunks.size()).parallel().forEach(i -> {
+                try (DelimitedRecordReader chunk = new DelimitedRecordReader(this, boundaries[i], boundaries[i + 1])) {
+                    chunk.parseRemaining(parser, chunks.get(i));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (List<T> chunk : chunks) {
+            values.addAll(chunk);
+        }
+        position = buffer.limit();
+        endOfInput = true;
+        return values;
+    }
+
+    /**
+     * @return position of the column with the given name, ignoring case, or -1 if the header does not contain it
+     */
+    public int getColumn(String name) {
+        return SiloUtil.findPositionInArray(name, header);
+    }
+
+    /**
+     * Advances to the next record. Empty lines are skipped.
+     *
+     * @return false if there are no more records
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            int lineEnd = findLineEnd();
+            if (lineEnd < 0) {
+                return false;
+            }
+            recordStart = position;
+            position = lineEnd + 1;
+            if (lineEnd > recordStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            recordEnd = lineEnd;
+            if (recordEnd > recordStart) {
+                splitFields();
+                return true;
+            }
+        }
+    }
+
+    public int getNumberOfFields() {
+        return fieldCount;
+    }
+
+    public int getInt(int column) {
+        final int end = fieldEnds[checkColumn(column)];
+        int i = fieldStarts[column];
+        if (i == end) {
+            throw numberFormatException(column);
+        }
+        boolean negative = false;
+        final byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == end) {
+                throw numberFormatException(column);
+            }
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            final int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw numberFormatException(column);
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw numberFormatException(column);
+            }
+        }
+        if (negative) {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE) {
+            throw numberFormatException(column);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses decimal numbers with up to 18 significant digits and small exponents directly from the bytes. The result is
+     * exact, as both the digits and the power of ten are exactly representable. All other numbers are parsed by
+     * {@link Double#parseDouble(String)}.
+     */
+    public double getDouble(int column) {
+        final int end = fieldEnds[checkColumn(column)];
+        int i = fieldStarts[column];
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        boolean anyDigit = false;
+        for (; i < end; i++) {
+            final byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                anyDigit = true;
+                if (mantissa == 0 && b == '0') {
+                    if (fraction) {
+                        exponent--;
+                    }
+                    continue;
+                }
+                if (++digits > 18) {
+                    return parseDouble(column);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (fraction) {
+                    exponent--;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else if (b == 'e' || b == 'E') {
+                break;
+            } else {
+                return parseDouble(column);
+            }
+        }
+        if (!anyDigit) {
+            return parseDouble(column);
+        }
+        if (i < end) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negativeExponent = buffer.get(i) == '-';
+                i++;
+            }
+            if (i == end || end - i > 3) {
+                return parseDouble(column);
+            }
+            int explicitExponent = 0;
+            for (; i < end; i++) {
+                final int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return parseDouble(column);
+                }
+                explicitExponent = explicitExponent * 10 + digit;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        double value;
+        if (mantissa == 0) {
+            value = 0;
+        } else if (mantissa < (1L << 53) && exponent >= -22 && exponent <= 22) {
+            value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        } else {
+            return parseDouble(column);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return true if the field equals "true", ignoring case, as {@link Boolean#parseBoolean(String)}
+     */
+    public boolean getBoolean(int column) {
+        checkColumn(column);
+        return equalsUnquoted(column, "true", true);
+    }
+
+    /**
+     * @return the field without quotes
+     */
+    public String getString(int column) {
+        final int start = fieldStarts[checkColumn(column)];
+        final int end = fieldEnds[column];
+        final byte[] bytes = new byte[end - start];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            final byte b = buffer.get(i);
+            if (b != '"') {
+                bytes[length++] = b;
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Same as {@link #getString(int)}, but returns the same instance for equal values. Meant for columns with few
+     * distinct values such as types, for which no string is allocated once every value has been seen.
+     */
+    public String getPooledString(int column) {
+        checkColumn(column);
+        for (int k = 0; k < pooledKeys.size(); k++) {
+            if (equalsUnquoted(column, pooledKeys.get(k))) {
+                return pooledStrings.get(k);
+            }
+        }
+        final String value = getString(column);
+        if (pooledStrings.size() < MAX_POOLED_STRINGS) {
+            pooledKeys.add(value.getBytes(StandardCharsets.UTF_8));
+            pooledStrings.add(value);
+        }
+        return value;
+    }
+
+    /**
+     * @return the constant whose name equals the unquoted field, ignoring case
+     * @throws IllegalArgumentException if there is no such constant
+     */
+    public <E extends Enum<E>> E getEnum(int column, Class<E> type) {
+        checkColumn(column);
+        final Enum<?>[] constants = enumConstants.computeIfAbsent(type, key -> type.getEnumConstants());
+        for (Enum<?> constant : constants) {
+            if (equalsUnquoted(column, constant.name(), true)) {
+                return type.cast(constant);
+            }
+        }
+        throw new IllegalArgumentException("No enum constant " + type.getName() + " for " + getString(column)
+                + " in record <" + getRecord() + "> of " + path);
+    }
+
+    /**
+     * @return the current record as text, e.g. for error messages
+     */
+    public String getRecord() {
+        final byte[] bytes = new byte[recordEnd - recordStart];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(recordStart + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private <T> void parseRemaining(RecordParser<T> parser, List<T> values) throws IOException {
+        while (next()) {
+            final T value = parser.parse(this);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+    }
+
+    /**
+     * @return offsets of the first line of every chunk of the unread part of the file, followed by its end
+     */
+    private long[] findChunkBoundaries(int numberOfChunks) throws IOException {
+        final long start = windowStart + position;
+        final int chunks = (int) Math.max(1, Math.min(numberOfChunks, (rangeEnd - start) / MIN_CHUNK_SIZE));
+        final long[] boundaries = new long[chunks + 1];
+        boundaries[0] = start;
+        boundaries[chunks] = rangeEnd;
+        final ByteBuffer scan = ByteBuffer.allocate(1 << 16);
+        for (int i = 1; i < chunks; i++) {
+            long offset = Math.max(boundaries[i - 1], start + (rangeEnd - start) / chunks * i);
+            boundaries[i] = rangeEnd;
+            search:
+            while (offset < rangeEnd) {
+                scan.clear();
+                final int read = channel.read(scan, offset);
+                if (read <= 0) {
+                    break;
+                }
+                for (int j = 0; j < read; j++) {
+                    if (scan.get(j) == '\n') {
+                        boundaries[i] = offset + j + 1;
+                        break search;
+                    }
+                }
+                offset += read;
+            }
+        }
+        return boundaries;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        } else {
+            stream.close();
+        }
+    }
+
+    private int checkColumn(int column) {
+        if (column < 0 || column >= fieldCount) {
+            throw new IllegalArgumentException("Column " + column + " does not exist in record <" + getRecord() + "> of " + path);
+        }
+        return column;
+    }
+
+    private NumberFormatException numberFormatException(int column) {
+        return new NumberFormatException("For input string: \"" + getString(column) + "\" in record <" + getRecord() + "> of " + path);
+    }
+
+    private double parseDouble(int column) {
+        return Double.parseDouble(getString(column));
+    }
+
+    private boolean equalsUnquoted(int column, String value, boolean ignoreCase) {
+        int i = fieldStarts[column];
+        final int end = fieldEnds[column];
+        int j = 0;
+        for (; i < end; i++) {
+            final byte b = buffer.get(i);
+            if (b == '"') {
+                continue;
+            }
+            if (j == value.length() || b < 0) {
+                return false;
+            }
+            final char c = value.charAt(j++);
+            if (b != c && !(ignoreCase && Character.toUpperCase((char) b) == Character.toUpperCase(c))) {
+                return false;
+            }
+        }
+        return j == value.length();
+    }
+
+    private boolean equalsUnquoted(int column, byte[] value) {
+        int j = 0;
+        for (int i = fieldStarts[column]; i < fieldEnds[column]; i++) {
+            final byte b = buffer.get(i);
+            if (b == '"') {
+                continue;
+            }
+            if (j == value.length || b != value[j++]) {
+                return false;
+            }
+        }
+        return j == value.length;
+    }
+
+    private void splitFields() {
+        fieldCount = 0;
+        int start = recordStart;
+        for (int i = recordStart; i <= recordEnd; i++) {
+            if (i == recordEnd || buffer.get(i) == delimiter) {
+                if (fieldCount == fieldStarts.length) {
+                    fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+                    fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+                }
+                fieldStarts[fieldCount] = start;
+                fieldEnds[fieldCount] = i;
+                fieldCount++;
+                start = i + 1;
+            }
+        }
+    }
+
+    /**
+     * @return index of the line feed ending the next line, the end of the input if the last line has none, or -1 if
+     * there are no more lines. Loads more input if the next line is not complete in the buffer.
+     */
+    private int findLineEnd() throws IOException {
+        int scanned = position;
+        while (true) {
+            final int limit = buffer.limit();
+            for (int i = scanned; i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    return i;
+                }
+            }
+            if (endOfInput) {
+                return position < limit ? limit : -1;
+            }
+            final int consumed = position;
+            scanned = limit - consumed;
+            loadMore();
+            scanned = Math.min(scanned, buffer.limit());
+        }
+    }
+
+    /**
+     * Moves the unread part of the input to the start of the buffer and appends further input.
+     */
+    private void loadMore() throws IOException {
+        if (channel != null) {
+            if (position == 0) {
+                throw new IOException("Line in " + path + " exceeds " + MAX_WINDOW_SIZE + " bytes.");
+            }
+            windowStart += position;
+            position = 0;
+            mapWindow();
+        } else {
+            buffer.position(position);
+            buffer.compact();
+            position = 0;
+            if (!buffer.hasRemaining()) {
+                final ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+            final int read = stream.read(buffer.array(), buffer.position(), buffer.remaining());
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                buffer.position(buffer.position() + read);
+            }
+            buffer.flip();
+        }
+    }
+
+    private void mapWindow() throws IOException {
+        final long length = Math.min(rangeEnd - windowStart, MAX_WINDOW_SIZE);
+        if (windowStart + length == rangeEnd) {
+            endOfInput = true;
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        while (buffer.limit() - position < 3 && !endOfInput) {
+            loadMore();
+        }
+        if (buffer.limit() - position >= 3 && buffer.get(position) == (byte) 0xEF
+                && buffer.get(position + 1) == (byte) 0xBB && buffer.get(position + 2) == (byte) 0xBF) {
+            position += 3;
+        }
+    }
+
+    /**
+     * Creates a value, e.g. an entity, from the current record of the given reader.
+     */
+    @FunctionalInterface
+    public interface RecordParser<T> {
+
+        T parse(DelimitedRecordReader record);
+    }
+}
@@ -0,0 +1,61 @@
+package de.tum.bgu.msm.io.input;
+
+import de.tum.bgu.msm.data.household.Household;
+import de.tum.bgu.msm.data.household.HouseholdDataManager;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.util.concurrent.ConcurrentExecutor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the synthetic population of the base year. Households, dwellings and jobs are independent of each other and
+ * are read concurrently, each file in parallel chunks, see {@link DelimitedRecordReader#parseAll}. Persons refer to
+ * their households and are read once all households are complete.
+ */
+public final class SyntheticPopulationReader {
+
+    private SyntheticPopulationReader() {
+    }
+
+    public static void read(HouseholdReader householdReader, String householdFile,
+                            DwellingReader dwellingReader, String dwellingFile,
+                            JobReader jobReader, String jobFile,
+                            PersonReader personReader, String personFile) {
+        final ConcurrentExecutor<Void> executor = ConcurrentExecutor.fixedPoolService(3);
+        executor.addTaskToQueue(() -> {
+            householdReader.readData(householdFile);
+            return null;
+        });
+        executor.addTaskToQueue(() -> {
+            dwellingReader.readData(dwellingFile);
+            return null;
+        });
+        executor.addTaskToQueue(() -> {
+            jobReader.readData(jobFile);
+            return null;
+        });
+        executor.execute();
+        personReader.readData(personFile);
+    }
+
+    /**
+     * Adds persons that already refer to their households to the data store in the given order, then links them to
+     * their households. Each household only links its own persons, so households are linked in parallel, while the
+     * persons of a household are linked in the given order.
+     */
+    public static void addPersons(HouseholdDataManager householdDataManager, List<? extends Person> persons) {
+        final Map<Household, List<Person>> personsByHousehold = new LinkedHashMap<>();
+        for (Person pp : persons) {
+            householdDataManager.addPerson(pp);
+            personsByHousehold.computeIfAbsent(pp.getHousehold(), household -> new ArrayList<>()).add(pp);
+        }
+        personsByHousehold.entrySet().parallelStream().forEach(entry -> {
+            for (Person pp : entry.getValue()) {
+                householdDataManager.addPersonToHousehold(pp, entry.getKey());
+            }
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package de.tum.bgu.msm.io.output;
+
+/**
+ * Partial result of one indicator over entities of one type, e.g. persons by age and gender. Every thread of a
+ * {@link SinglePassAggregation} feeds its own accumulator, partial results are merged afterwards.
+ *
+ * @param <T> the type of the entities
+ * @param <A> the type of the accumulator itself, which is merged with accumulators of the same indicator
+ */
+public interface Accumulator<T, A extends Accumulator<T, A>> {
+
+    void add(T entity);
+
+    void merge(A other);
+}
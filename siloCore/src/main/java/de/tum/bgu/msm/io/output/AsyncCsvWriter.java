@@ -0,0 +1,188 @@
+package de.tum.bgu.msm.io.output;
+
+import org.apache.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes csv files of micro data on background threads. Writers copy the columns of their entities into a
+ * {@link Snapshot} on the simulation thread, such that the simulation may continue to change the entities while
+ * the snapshot is formatted and written. Files ending with .gz are compressed.
+ *
+ * Failures are thrown by the next submission or at the latest by {@link #flush()}, which waits for all pending
+ * files and has to be called before the simulation ends, also if it ends with an exception. Once no files are
+ * pending, flushing stops the background threads, which are started again by the next submission.
+ *
+ * Pending files are kept per JVM. Several simulations running in the same JVM wait for the files of each other
+ * when flushing.
+ */
+public final class AsyncCsvWriter {
+
+    private final static Logger logger = Logger.getLogger(AsyncCsvWriter.class);
+
+    /**
+     * Limits the memory held by snapshots if files are written slower than the simulation produces them.
+     */
+    private static final int MAXIMUM_PENDING_FILES = 8;
+
+    private static final Semaphore pendingPermits = new Semaphore(MAXIMUM_PENDING_FILES);
+    private static final List<Future<?>> pendingFiles = new ArrayList<>();
+    private static ExecutorService executor;
+
+    /**
+     * Columns of micro data copied from the entities, which are formatted when writing the file.
+     */
+    @FunctionalInterface
+    public interface Snapshot {
+        void writeTo(Writer out) throws IOException;
+    }
+
+    private AsyncCsvWriter() {
+    }
+
+    /**
+     * Writes the snapshot on the calling thread.
+     */
+    public static void write(String path, Snapshot snapshot) {
+        try {
+            writeFile(path, snapshot);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write file " + path, e);
+        }
+    }
+
+    /**
+     * Writes the snapshot on a background thread. Blocks while {@link #MAXIMUM_PENDING_FILES} files are pending.
+     */
+    public static void submit(String path, Snapshot snapshot) {
+        checkCompletedFiles();
+        pendingPermits.acquireUninterruptibly();
+        try {
+            synchronized (pendingFiles) {
+                pendingFiles.add(getExecutor().submit(() -> {
+                    try {
+                        writeFile(path, snapshot);
+                    } catch (IOException e) {
+                        throw new RuntimeException("Could not write file " + path, e);
+                    } finally {
+                        pendingPermits.release();
+                    }
+                    return null;
+                }));
+            }
+        } catch (RuntimeException e) {
+            pendingPermits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until all submitted files are written and stops the background threads if no further files were
+     * submitted meanwhile.
+     * @throws RuntimeException if writing any of them failed
+     */
+    public static void flush() {
+        final List<Future<?>> files;
+        synchronized (pendingFiles) {
+            files = new ArrayList<>(pendingFiles);
+            pendingFiles.clear();
+        }
+        try {
+            waitFor(files);
+        } finally {
+            synchronized (pendingFiles) {
+                if (pendingFiles.isEmpty()) {
+                    shutdownExecutor();
+                }
+            }
+        }
+    }
+
+    private static void waitFor(List<Future<?>> files) {
+        RuntimeException failure = null;
+        for (Future<?> file : files) {
+            try {
+                file.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for micro data files.", e);
+            } catch (ExecutionException e) {
+                logger.error("Writing micro data file failed.", e.getCause());
+                if (failure == null) {
+                    failure = new RuntimeException(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void checkCompletedFiles() {
+        synchronized (pendingFiles) {
+            for (Iterator<Future<?>> iterator = pendingFiles.iterator(); iterator.hasNext(); ) {
+                final Future<?> file = iterator.next();
+                if (file.isDone()) {
+                    iterator.remove();
+                    try {
+                        file.get();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException(e);
+                    } catch (ExecutionException e) {
+                        throw new RuntimeException(e.getCause());
+                    }
+                }
+            }
+        }
+    }
+
+    private static synchronized void shutdownExecutor() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            final int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+            final AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                final Thread thread = new Thread(runnable, "csv-writer-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    private static void writeFile(String path, Snapshot snapshot) throws IOException {
+        final Path file = Paths.get(path).toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        OutputStream stream = Files.newOutputStream(file);
+        if (path.endsWith(".gz")) {
+            stream = new GZIPOutputStream(stream, 1 << 16);
+        }
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(stream), 1 << 16)) {
+            snapshot.writeTo(out);
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package de.tum.bgu.msm.io.output;
 
 import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.data.dwelling.DwellingType;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
+import org.locationtech.jts.geom.Coordinate;
 
-import java.io.PrintWriter;
 import java.util.Collection;
 
 public class DefaultDwellingWriter implements DwellingWriter {
@@ -19,40 +20,82 @@ public class DefaultDwellingWriter implements DwellingWriter {
     @Override
     public void writeDwellings(String path) {
         logger.info("  Writing dwelling file to " + path);
-        PrintWriter pwd = SiloUtil.openFileForSequentialWriting(path, false);
-        pwd.print("id,zone,type,hhID,bedrooms,quality,monthlyCost,yearBuilt,coordX,coordY");
-        pwd.println();
+        AsyncCsvWriter.write(path, snapshot());
+    }
+
+    /**
+     * Copies the dwellings and writes them on a background thread, see {@link AsyncCsvWriter}.
+     */
+    public void writeDwellingsAsync(String path) {
+        logger.info("  Writing dwelling file to " + path + " in background");
+        AsyncCsvWriter.submit(path, snapshot());
+    }
 
+    private AsyncCsvWriter.Snapshot snapshot() {
+        final int size = dwellings.size();
+        final int[] ids = new int[size];
+        final int[] zones = new int[size];
+        final DwellingType[] types = new DwellingType[size];
+        final int[] residentIds = new int[size];
+        final int[] bedrooms = new int[size];
+        final int[] qualities = new int[size];
+        final int[] prices = new int[size];
+        final int[] yearsBuilt = new int[size];
+        final boolean[] hasCoordinate = new boolean[size];
+        final double[] coordX = new double[size];
+        final double[] coordY = new double[size];
+        int i = 0;
         for (Dwelling dd : dwellings) {
-            pwd.print(dd.getId());
-            pwd.print(",");
-            pwd.print(dd.getZoneId());
-            pwd.print(",\"");
-            pwd.print(dd.getType());
-            pwd.print("\",");
-            pwd.print(dd.getResidentId());
-            pwd.print(",");
-            pwd.print(dd.getBedrooms());
-            pwd.print(",");
-            pwd.print(dd.getQuality());
-            pwd.print(",");
-            pwd.print(dd.getPrice());
-            pwd.print(",");
-            pwd.print(dd.getYearBuilt());
-            pwd.print(",");
-            if(dd.getCoordinate() != null) {
-                pwd.print(dd.getCoordinate().x);
-                pwd.print(",");
-                pwd.print(dd.getCoordinate().y);
-            } else {
-                pwd.print("NULL,NULL");
+            ids[i] = dd.getId();
+            zones[i] = dd.getZoneId();
+            types[i] = dd.getType();
+            residentIds[i] = dd.getResidentId();
+            bedrooms[i] = dd.getBedrooms();
+            qualities[i] = dd.getQuality();
+            prices[i] = dd.getPrice();
+            yearsBuilt[i] = dd.getYearBuilt();
+            final Coordinate coordinate = dd.getCoordinate();
+            if (coordinate != null) {
+                hasCoordinate[i] = true;
+                coordX[i] = coordinate.x;
+                coordY[i] = coordinate.y;
             }
-            pwd.println();
+            i++;
             if (dd.getId() == SiloUtil.trackDd) {
                 SiloUtil.trackingFile("Writing dd " + dd.getId() + " to micro data file.");
                 SiloUtil.trackWriter.println(dd.toString());
             }
         }
-        pwd.close();
+        final int count = i;
+        return out -> {
+            out.write("id,zone,type,hhID,bedrooms,quality,monthlyCost,yearBuilt,coordX,coordY");
+            out.write(System.lineSeparator());
+            for (int j = 0; j < count; j++) {
+                out.write(Integer.toString(ids[j]));
+                out.write(',');
+                out.write(Integer.toString(zones[j]));
+                out.write(",\"");
+                out.write(String.valueOf(types[j]));
+                out.write("\",");
+                out.write(Integer.toString(residentIds[j]));
+                out.write(',');
+                out.write(Integer.toString(bedrooms[j]));
+                out.write(',');
+                out.write(Integer.toString(qualities[j]));
+                out.write(',');
+                out.write(Integer.toString(prices[j]));
+                out.write(',');
+                out.write(Integer.toString(yearsBuilt[j]));
+                out.write(',');
+                if (hasCoordinate[j]) {
+                    out.write(Double.toString(coordX[j]));
+                    out.write(',');
+                    out.write(Double.toString(coordY[j]));
+                } else {
+                    out.write("NULL,NULL");
+                }
+                out.write(System.lineSeparator());
+            }
+        };
     }
 }
@@ -4,7 +4,6 @@ import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 
-import java.io.PrintWriter;
 import java.util.Collection;
 
 public class DefaultHouseholdWriter implements HouseholdWriter {
@@ -18,21 +17,49 @@ public class DefaultHouseholdWriter implements HouseholdWriter {
     @Override
     public void writeHouseholds(String path) {
         logger.info("  Writing household file to " + path);
-        PrintWriter pwh = SiloUtil.openFileForSequentialWriting(path, false);
-        pwh.println("id,dwelling,hhSize,autos");
+        AsyncCsvWriter.write(path, snapshot());
+    }
+
+    /**
+     * Copies the households and writes them on a background thread, see {@link AsyncCsvWriter}.
+     */
+    public void writeHouseholdsAsync(String path) {
+        logger.info("  Writing household file to " + path + " in background");
+        AsyncCsvWriter.submit(path, snapshot());
+    }
+
+    private AsyncCsvWriter.Snapshot snapshot() {
+        final int size = householdData.size();
+        final int[] ids = new int[size];
+        final int[] dwellingIds = new int[size];
+        final int[] sizes = new int[size];
+        final int[] autos = new int[size];
+        int i = 0;
         for (Household hh : householdData) {
             if (hh.getId() == SiloUtil.trackHh) {
                 SiloUtil.trackingFile("Writing hh " + hh.getId() + " to micro data file.");
                 SiloUtil.trackWriter.println(hh.toString());
             }
-            pwh.print(hh.getId());
-            pwh.print(",");
-            pwh.print(hh.getDwellingId());
-            pwh.print(",");
-            pwh.print(hh.getHhSize());
-            pwh.print(",");
-            pwh.println(hh.getAutos());
+            ids[i] = hh.getId();
+            dwellingIds[i] = hh.getDwellingId();
+            sizes[i] = hh.getHhSize();
+            autos[i] = hh.getAutos();
+            i++;
         }
-        pwh.close();
+        final int count = i;
+        return out -> {
+            out.write("id,dwelling,hhSize,autos");
+            out.write(System.lineSeparator());
+            for (int j = 0; j < count; j++) {
+                out.write(Integer.toString(ids[j]));
+                out.write(',');
+                out.write(Integer.toString(dwellingIds[j]));
+                out.write(',');
+                out.write(Integer.toString(sizes[j]));
+                out.write(',');
+                out.write(Integer.toString(autos[j]));
+                out.write(System.lineSeparator());
+            }
+        };
     }
 }
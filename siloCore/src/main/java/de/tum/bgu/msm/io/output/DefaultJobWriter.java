@@ -1,14 +1,15 @@
 package de.tum.bgu.msm.io.output;
 
 import de.tum.bgu.msm.data.job.Job;
-import de.tum.bgu.msm.data.job.JobData;
 import de.tum.bgu.msm.utils.SiloUtil;
+import org.apache.log4j.Logger;
+import org.locationtech.jts.geom.Coordinate;
 
-import java.io.PrintWriter;
 import java.util.Collection;
 
 public class DefaultJobWriter implements JobWriter {
 
+    private final static Logger logger = Logger.getLogger(DefaultJobWriter.class);
     private final Collection<Job> jobs;
 
     public DefaultJobWriter(Collection<Job> jobs) {
@@ -17,32 +18,66 @@ public class DefaultJobWriter implements JobWriter {
 
     @Override
     public void writeJobs(String path) {
-        PrintWriter pwj = SiloUtil.openFileForSequentialWriting(path, false);
-        pwj.print("id,zone,personId,type,coordX,coordY");
-        pwj.println();
+        AsyncCsvWriter.write(path, snapshot());
+    }
+
+    /**
+     * Copies the jobs and writes them on a background thread, see {@link AsyncCsvWriter}.
+     */
+    public void writeJobsAsync(String path) {
+        logger.info("  Writing job file to " + path + " in background");
+        AsyncCsvWriter.submit(path, snapshot());
+    }
+
+    private AsyncCsvWriter.Snapshot snapshot() {
+        final int size = jobs.size();
+        final int[] ids = new int[size];
+        final int[] zones = new int[size];
+        final int[] workerIds = new int[size];
+        final String[] types = new String[size];
+        final boolean[] hasCoordinate = new boolean[size];
+        final double[] coordX = new double[size];
+        final double[] coordY = new double[size];
+        int i = 0;
         for (Job jj : jobs) {
-            pwj.print(jj.getId());
-            pwj.print(",");
-            pwj.print(jj.getZoneId());
-            pwj.print(",");
-            pwj.print(jj.getWorkerId());
-            pwj.print(",\"");
-            pwj.print(jj.getType());
-            pwj.print("\"");
-            pwj.print(",");
-            if(jj.getCoordinate() != null) {
-                pwj.print(jj.getCoordinate().x);
-                pwj.print(",");
-                pwj.print(jj.getCoordinate().y);
-            } else {
-                pwj.print("NULL,NULL");
+            ids[i] = jj.getId();
+            zones[i] = jj.getZoneId();
+            workerIds[i] = jj.getWorkerId();
+            types[i] = jj.getType();
+            final Coordinate coordinate = jj.getCoordinate();
+            if (coordinate != null) {
+                hasCoordinate[i] = true;
+                coordX[i] = coordinate.x;
+                coordY[i] = coordinate.y;
             }
-            pwj.println();
+            i++;
             if (jj.getId() == SiloUtil.trackJj) {
                 SiloUtil.trackingFile("Writing jj " + jj.getId() + " to micro data file.");
                 SiloUtil.trackWriter.println(jj.toString());
             }
         }
-        pwj.close();
+        final int count = i;
+        return out -> {
+            out.write("id,zone,personId,type,coordX,coordY");
+            out.write(System.lineSeparator());
+            for (int j = 0; j < count; j++) {
+                out.write(Integer.toString(ids[j]));
+                out.write(',');
+                out.write(Integer.toString(zones[j]));
+                out.write(',');
+                out.write(Integer.toString(workerIds[j]));
+                out.write(",\"");
+                out.write(String.valueOf(types[j]));
+                out.write("\",");
+                if (hasCoordinate[j]) {
+                    out.write(Double.toString(coordX[j]));
+                    out.write(',');
+                    out.write(Double.toString(coordY[j]));
+                } else {
+                    out.write("NULL,NULL");
+                }
+                out.write(System.lineSeparator());
+            }
+        };
     }
 }
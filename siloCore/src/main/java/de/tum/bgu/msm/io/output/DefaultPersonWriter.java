@@ -2,10 +2,11 @@ package de.tum.bgu.msm.io.output;
 
 import de.tum.bgu.msm.data.household.HouseholdData;
 import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonRole;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 
-import java.io.PrintWriter;
+import java.util.Collection;
 
 public class DefaultPersonWriter implements PersonWriter {
 
@@ -19,35 +20,72 @@ public class DefaultPersonWriter implements PersonWriter {
     @Override
     public void writePersons(String path) {
         logger.info("  Writing person file to " + path);
-        PrintWriter pwp = SiloUtil.openFileForSequentialWriting(path, false);
-        pwp.print("id,hhid,age,gender,relationShip,occupation,driversLicense,workplace,income");
-        pwp.println();
-        for (Person pp : householdData.getPersons()) {
-            pwp.print(pp.getId());
-            pwp.print(",");
-            pwp.print(pp.getHousehold().getId());
-            pwp.print(",");
-            pwp.print(pp.getAge());
-            pwp.print(",");
-            pwp.print(pp.getGender().getCode());
-            pwp.print(",\"");
-            String role = pp.getRole().toString();
-            pwp.print(role);
-            pwp.print("\",");
-            pwp.print(pp.getOccupation().getCode());
-            pwp.print(",");
-            pwp.print(pp.hasDriverLicense());
-            pwp.print(",");
-            pwp.print(pp.getJobId());
-            pwp.print(",");
-            pwp.print(pp.getAnnualIncome());
-            pwp.println();
+        AsyncCsvWriter.write(path, snapshot());
+    }
+
+    /**
+     * Copies the persons and writes them on a background thread, see {@link AsyncCsvWriter}.
+     */
+    public void writePersonsAsync(String path) {
+        logger.info("  Writing person file to " + path + " in background");
+        AsyncCsvWriter.submit(path, snapshot());
+    }
+
+    private AsyncCsvWriter.Snapshot snapshot() {
+        final Collection<Person> persons = householdData.getPersons();
+        final int size = persons.size();
+        final int[] ids = new int[size];
+        final int[] householdIds = new int[size];
+        final int[] ages = new int[size];
+        final int[] genders = new int[size];
+        final byte[] roles = new byte[size];
+        final int[] occupations = new int[size];
+        final boolean[] driverLicenses = new boolean[size];
+        final int[] jobIds = new int[size];
+        final int[] incomes = new int[size];
+        int i = 0;
+        for (Person pp : persons) {
+            ids[i] = pp.getId();
+            householdIds[i] = pp.getHousehold().getId();
+            ages[i] = pp.getAge();
+            genders[i] = pp.getGender().getCode();
+            roles[i] = (byte) pp.getRole().ordinal();
+            occupations[i] = pp.getOccupation().getCode();
+            driverLicenses[i] = pp.hasDriverLicense();
+            jobIds[i] = pp.getJobId();
+            incomes[i] = pp.getAnnualIncome();
+            i++;
 
             if (pp.getId() == SiloUtil.trackPp) {
                 SiloUtil.trackingFile("Writing pp " + pp.getId() + " to micro data file.");
                 SiloUtil.trackWriter.println(pp.toString());
             }
         }
-        pwp.close();
+        final int count = i;
+        final PersonRole[] personRoles = PersonRole.values();
+        return out -> {
+            out.write("id,hhid,age,gender,relationShip,occupation,driversLicense,workplace,income");
+            out.write(System.lineSeparator());
+            for (int j = 0; j < count; j++) {
+                out.write(Integer.toString(ids[j]));
+                out.write(',');
+                out.write(Integer.toString(householdIds[j]));
+                out.write(',');
+                out.write(Integer.toString(ages[j]));
+                out.write(',');
+                out.write(Integer.toString(genders[j]));
+                out.write(",\"");
+                out.write(personRoles[roles[j]].toString());
+                out.write("\",");
+                out.write(Integer.toString(occupations[j]));
+                out.write(',');
+                out.write(Boolean.toString(driverLicenses[j]));
+                out.write(',');
+                out.write(Integer.toString(jobIds[j]));
+                out.write(',');
+                out.write(Integer.toString(incomes[j]));
+                out.write(System.lineSeparator());
+            }
+        };
     }
 }
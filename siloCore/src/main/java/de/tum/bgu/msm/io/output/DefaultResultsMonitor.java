@@ -1,33 +1,29 @@
 package de.tum.bgu.msm.io.output;
 
-import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
-import com.google.common.math.Quantiles;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.Region;
-import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.dwelling.DwellingType;
 import de.tum.bgu.msm.data.geo.GeoData;
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.household.HouseholdType;
-import de.tum.bgu.msm.data.household.HouseholdUtil;
 import de.tum.bgu.msm.data.job.Job;
 import de.tum.bgu.msm.data.job.JobType;
-import de.tum.bgu.msm.data.person.Gender;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.events.MicroEvent;
+import de.tum.bgu.msm.io.output.YearlyIndicators.*;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
 import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.TransportMode;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Formatter;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class DefaultResultsMonitor implements ResultsMonitor {
 
@@ -36,9 +32,46 @@ public class DefaultResultsMonitor implements ResultsMonitor {
     private DataContainer dataContainer;
     private Properties properties;
 
+    private final SinglePassAggregation<Person> personAggregation = new SinglePassAggregation<>();
+    private final SinglePassAggregation<Household> householdAggregation = new SinglePassAggregation<>();
+    private final SinglePassAggregation<Dwelling> dwellingAggregation = new SinglePassAggregation<>();
+    private final SinglePassAggregation<Job> jobAggregation = new SinglePassAggregation<>();
+    private SinglePassAggregation.Results personResults;
+    private SinglePassAggregation.Results householdResults;
+    private SinglePassAggregation.Results dwellingResults;
+    private SinglePassAggregation.Results jobResults;
+
+    private final SinglePassAggregation.Indicator<PersonsByAgeAndGender> personsByAgeAndGender;
+    private final SinglePassAggregation.Indicator<LabourParticipation> labourParticipation;
+    private final SinglePassAggregation.Indicator<CommuteTimesByRegion> commuteTimesByRegion;
+    private final SinglePassAggregation.Indicator<HouseholdsByType> householdsByType;
+    private final SinglePassAggregation.Indicator<HouseholdsBySize> householdsBySize;
+    private final SinglePassAggregation.Indicator<HouseholdIncomes> householdIncomes;
+    private final SinglePassAggregation.Indicator<CarOwnership> carOwnership;
+    private final SinglePassAggregation.Indicator<HousingCostsByIncome> housingCostsByIncome;
+    private final SinglePassAggregation.Indicator<DwellingsByType> dwellingsByType;
+    private final SinglePassAggregation.Indicator<JobsByRegionAndType> jobsByRegionAndType;
+    private IndexedDoubleMatrix2D carSkim;
+
     public DefaultResultsMonitor(DataContainer dataContainer, Properties properties) {
         this.dataContainer = dataContainer;
         this.properties = properties;
+        personsByAgeAndGender = personAggregation.register(PersonsByAgeAndGender::new);
+        labourParticipation = personAggregation.register(LabourParticipation::new);
+        commuteTimesByRegion = personAggregation.register(() ->
+                new CommuteTimesByRegion(dataContainer, carSkim, getHighestRegionId()));
+        householdsByType = householdAggregation.register(HouseholdsByType::new);
+        householdsBySize = householdAggregation.register(HouseholdsBySize::new);
+        householdIncomes = householdAggregation.register(HouseholdIncomes::new);
+        carOwnership = householdAggregation.register(CarOwnership::new);
+        housingCostsByIncome = householdAggregation.register(() -> new HousingCostsByIncome(dataContainer));
+        dwellingsByType = dwellingAggregation.register(DwellingsByType::new);
+        jobsByRegionAndType = jobAggregation.register(() ->
+                new JobsByRegionAndType(dataContainer.getGeoData().getZones(), getHighestRegionId()));
+    }
+
+    private int getHighestRegionId() {
+        return dataContainer.getGeoData().getRegions().keySet().stream().mapToInt(Integer::intValue).max().getAsInt();
     }
 
 
@@ -47,8 +80,8 @@ public class DefaultResultsMonitor implements ResultsMonitor {
 
         String pathname = properties.main.baseDirectory + "scenOutput/" + properties.main.scenarioName + "/" + "resultFile.csv";
         try {
-            resultWriter = new PrintWriter(new File(pathname));
-        } catch (FileNotFoundException e) {
+            resultWriter = new PrintWriter(new FileWriter(pathname, properties.main.isRestartedFromCheckpoint()));
+        } catch (IOException e) {
             logger.error("Cannot write the result file: " + pathname, e);
         }
     }
@@ -57,6 +90,12 @@ public class DefaultResultsMonitor implements ResultsMonitor {
     @Override
     public void endYear(int year, Multiset<Class<? extends MicroEvent>> eventCounter, List<MicroEvent> events) {
         resultWriter.println("Year " + year);
+        carSkim = dataContainer.getTravelTimes().getPeakSkim(TransportMode.car);
+        personResults = personAggregation.aggregate(dataContainer.getHouseholdDataManager().getPersons());
+        householdResults = householdAggregation.aggregate(dataContainer.getHouseholdDataManager().getHouseholds());
+        dwellingResults = dwellingAggregation.aggregate(dataContainer.getRealEstateDataManager().getDwellings());
+        jobResults = jobAggregation.aggregate(dataContainer.getJobDataManager().getJobs());
+
         summarizePopulationByAgeAndGender();
         summarizeHouseholdsByType();
         summarizeHouseholdsBySize();
@@ -75,12 +114,7 @@ public class DefaultResultsMonitor implements ResultsMonitor {
 
 
     private void summarizePopulationByAgeAndGender() {
-        int pers[][] = new int[2][101];
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
-            Gender gender = per.getGender();
-            int age = Math.min(per.getAge(), 100);
-            pers[gender.ordinal()][age] += 1;
-        }
+        int pers[][] = personResults.get(personsByAgeAndGender).persons;
         resultWriter.println("Age,Men,Women");
         for (int i = 0; i <= 100; i++) {
             String row = i + "," + pers[0][i] + "," + pers[1][i];
@@ -103,10 +137,7 @@ public class DefaultResultsMonitor implements ResultsMonitor {
 //    }
 
     private void summarizeHouseholdsByType() {
-        int hht[] = new int[HouseholdType.values().length + 1];
-        for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
-            hht[hh.getHouseholdType().ordinal()]++;
-        }
+        int hht[] = householdResults.get(householdsByType).households;
         resultWriter.println("hhByType,hh");
         for (HouseholdType ht : HouseholdType.values()) {
             String row = ht + "," + hht[ht.ordinal()];
@@ -127,11 +158,7 @@ public class DefaultResultsMonitor implements ResultsMonitor {
 //    }
 
     private void summarizeHouseholdsBySize() {
-        int hhs[] = new int[10];
-        for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
-            int hhSize = Math.min(hh.getHhSize(), 10);
-            hhs[hhSize - 1]++;
-        }
+        int hhs[] = householdResults.get(householdsBySize).households;
 
         String row = "hhBySize";
         for (int i : hhs) row = row + "," + i;
@@ -139,83 +166,42 @@ public class DefaultResultsMonitor implements ResultsMonitor {
     }
 
     private void summarizeAverageHouseholdSize() {
-        String row = "AveHHSize," + dataContainer.getHouseholdDataManager().getHouseholds().stream().mapToInt(h -> h.getPersons().size()).average().getAsDouble();
+        String row = "AveHHSize," + householdResults.get(householdsBySize).getAverageSize();
         resultWriter.println(row);
     }
 
     private void summarizeHouseholdIncome() {
-        List<Integer> incomes = dataContainer.getHouseholdDataManager().getHouseholds().stream().map(h -> h.getPersons().values().stream().mapToInt(p -> p.getAnnualIncome()).sum()).collect(Collectors.toList());
-        double aveHHincome = incomes.stream().mapToDouble(i -> i).average().getAsDouble();
-        double medianHhIncome = Quantiles.median().compute(incomes);
+        final HouseholdIncomes incomes = householdResults.get(householdIncomes);
+        double aveHHincome = incomes.getAverage();
+        double medianHhIncome = incomes.getMedian();
         String row = "AveHHInc," + aveHHincome + ",MedianHHInc," + medianHhIncome;
         resultWriter.println(row);
     }
 
     private void summarizeLabourParticipationRates() {
-        float[][][] labP = new float[2][2][5];
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
-            int age = per.getAge();
-            Gender gender = per.getGender();
-            boolean employed = per.getJobId() > 0;
-            int ageGroup = 0;
-            if (age >= 65) {
-                ageGroup = 4;
-            } else if (age >= 50) {
-                ageGroup = 3;
-            } else if (age >= 30) {
-                ageGroup = 2;
-            } else if (age >= 18) {
-                ageGroup = 1;
-            }
-
-            if (employed) {
-                labP[1][gender.ordinal()][ageGroup]++;
-            } else {
-                labP[0][gender.ordinal()][ageGroup]++;
-            }
-
-        }
-        String[] grp = {"<18", "18-29", "30-49", "50-64", ">=65"};
+        final LabourParticipation labP = personResults.get(labourParticipation);
+        String[] grp = LabourParticipation.AGE_GROUPS;
         resultWriter.println("laborParticipationRateByAge,male,female");
         for (int ag = 0; ag < 5; ag++) {
             Formatter f = new Formatter();
-            f.format("%s,%f,%f", grp[ag], labP[1][0][ag] / (labP[0][0][ag] + labP[1][0][ag]), labP[1][1][ag] / (labP[0][1][ag] + labP[1][1][ag]));
+            f.format("%s,%f,%f", grp[ag], labP.getRate(0, ag), labP.getRate(1, ag));
             resultWriter.println(f.toString());
         }
     }
 
     private void summarizeAverageCommutingDistanceByRegion() {
-        float[][] commDist = new float[2][dataContainer.getGeoData().getRegions().keySet().stream().mapToInt(Integer::intValue).max().getAsInt() + 1];
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
-            boolean employed = per.getJobId() > 0;
-            if (employed) {
-                Zone zone = null;
-                Household household = dataContainer.getHouseholdDataManager().getHouseholdFromId(per.getHousehold().getId());
-                Dwelling dwelling = dataContainer.getRealEstateDataManager().getDwelling(household.getDwellingId());
-                if (dwelling != null) {
-                    zone = dataContainer.getGeoData().getZones().get(dwelling.getZoneId());
-                }
-                try {
-                    Zone destination = dataContainer.getGeoData().getZones().get(dataContainer.getJobDataManager().getJobFromId(per.getJobId()).getZoneId());
-                    double ds = dataContainer.getTravelTimes().getPeakSkim(TransportMode.car).getIndexed(zone.getZoneId(), destination.getZoneId());
-                    commDist[0][zone.getRegion().getId()] += ds;
-                    commDist[1][zone.getRegion().getId()]++;
-                } catch (NullPointerException e){
-                    logger.warn("Error found since hh does not have a dd? hh: " + household.getId());
-                }
-            }
+        final CommuteTimesByRegion commDist = personResults.get(commuteTimesByRegion);
+        if (commDist.getWorkersWithoutLocations() > 0) {
+            logger.warn(commDist.getWorkersWithoutLocations() + " workers without dwelling or job are not part of the commuting times.");
         }
         resultWriter.println("aveCommuteDistByRegion,minutes");
         for (int i : dataContainer.getGeoData().getRegions().keySet()) {
-            resultWriter.println(i + "," + commDist[0][i] / commDist[1][i]);
+            resultWriter.println(i + "," + commDist.getAverage(i));
         }
     }
 
     private void summarizeCarOwnership() {
-        int[] carOwnership = new int[4];
-        for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
-            carOwnership[hh.getAutos()]++;
-        }
+        int[] carOwnership = householdResults.get(this.carOwnership).households;
         resultWriter.println("carOwnershipLevel,households");
         resultWriter.println("0cars," + carOwnership[0]);
         resultWriter.println("1car," + carOwnership[1]);
@@ -235,11 +221,7 @@ public class DefaultResultsMonitor implements ResultsMonitor {
 
         List<DwellingType> dwellingTypes = dataContainer.getRealEstateDataManager().getDwellingTypes().getTypes();
 
-        Multiset<DwellingType> countsByDwellingType = HashMultiset.create(dwellingTypes.size());
-
-        for (Dwelling dd : dataContainer.getRealEstateDataManager().getDwellings()) {
-            countsByDwellingType.add(dd.getType());
-        }
+        Multiset<DwellingType> countsByDwellingType = dwellingResults.get(dwellingsByType).dwellings;
         for (DwellingType dt : dwellingTypes) {
             resultWriter.println("CountOfDD," + dt.toString() + "," + countsByDwellingType.count(dt));
         }
@@ -282,20 +264,12 @@ public class DefaultResultsMonitor implements ResultsMonitor {
         }
         header = header.concat(",averageRent");
         resultWriter.println(header);
-        int[][] rentByIncome = new int[10][10];
-        long [] rents = new long[10];
-        for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
-            try {
-                int hhInc = HouseholdUtil.getAnnualHhIncome(hh);
-                int rent = dataContainer.getRealEstateDataManager().getDwelling(hh.getDwellingId()).getPrice();
-                int incCat = Math.min((hhInc / 10000), 9);
-                int rentCat = Math.min((rent / 250), 9);
-                rentByIncome[incCat][rentCat]++;
-                rents[incCat] += rent;
-            } catch (NullPointerException e){
-                logger.warn("A household has a null dwelling");
-            }
+        final HousingCostsByIncome housingCosts = householdResults.get(housingCostsByIncome);
+        if (housingCosts.getHouseholdsWithoutDwelling() > 0) {
+            logger.warn(housingCosts.getHouseholdsWithoutDwelling() + " households have a null dwelling");
         }
+        int[][] rentByIncome = housingCosts.households;
+        long[] rents = housingCosts.rents;
         for (int i = 0; i < 10; i++) {
             String line = String.valueOf((i + 1) * 10000);
             int countThisIncome = 0;
@@ -318,11 +292,7 @@ public class DefaultResultsMonitor implements ResultsMonitor {
         }
         resultWriter.println(txt + ",total");
         Map<Integer, Region> regions = dataContainer.getGeoData().getRegions();
-        final int highestId = regions.keySet().stream().mapToInt(Integer::intValue).max().getAsInt();
-        int[][] jobsByTypeAndRegion = new int[JobType.getNumberOfJobTypes()][highestId + 1];
-        for (Job job : dataContainer.getJobDataManager().getJobs()) {
-            jobsByTypeAndRegion[JobType.getOrdinal(job.getType())][dataContainer.getGeoData().getZones().get(job.getZoneId()).getRegion().getId()]++;
-        }
+        int[][] jobsByTypeAndRegion = jobResults.get(jobsByRegionAndType).jobs;
 
         for (int region : regions.keySet()) {
             StringBuilder line = new StringBuilder(String.valueOf(region));
@@ -1,5 +1,7 @@
 package de.tum.bgu.msm.io.output;
 
+import cern.colt.map.tdouble.OpenIntDoubleHashMap;
+import cern.colt.map.tint.OpenIntIntHashMap;
 import com.google.common.collect.Multiset;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.container.ModelContainer;
@@ -11,10 +13,10 @@ import de.tum.bgu.msm.properties.Properties;
 import org.apache.log4j.Logger;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.List;
-import java.util.Map;
 
 
 public class HouseholdSatisfactionMonitor implements ResultsMonitor {
@@ -47,10 +49,11 @@ public class HouseholdSatisfactionMonitor implements ResultsMonitor {
             try {
                 File file = new File(pathname + "hhSatisfactionByRegion.csv");
                 file.getParentFile().mkdirs();
-                printWriter = new PrintWriter(file);
-                printWriter.println("year,zone,region,hh_count,hh_ave_satisfaction");
-            } catch (
-                    FileNotFoundException e) {
+                printWriter = new PrintWriter(new FileWriter(file, properties.main.isRestartedFromCheckpoint()));
+                if (!properties.main.isRestartedFromCheckpoint()) {
+                    printWriter.println("year,zone,region,hh_count,hh_ave_satisfaction");
+                }
+            } catch (IOException e) {
                 logger.error("Cannot write the result file: " + pathname, e);
             }
         }
@@ -62,11 +65,11 @@ public class HouseholdSatisfactionMonitor implements ResultsMonitor {
     @Override
     public void endYear(int year, Multiset<Class<? extends MicroEvent>> eventCounter, List<MicroEvent> events) {
         if (enabled){
-            Map<Integer, Integer> householdsByZone = movesModel.getHouseholdsByZone();
-            Map<Integer, Double> sumOfSatisfactionsByZone = movesModel.getSumOfSatisfactionsByZone();
+            OpenIntIntHashMap householdsByZone = movesModel.getHouseholdsByZone();
+            OpenIntDoubleHashMap sumOfSatisfactionsByZone = movesModel.getSumOfSatisfactionsByZone();
             for (Zone zone : dataContainer.getGeoData().getZones().values()){
-                int hhThisZone = householdsByZone.getOrDefault(zone.getZoneId(), 0);
-                double avgSatisfactionThisZone = hhThisZone != 0 ? sumOfSatisfactionsByZone.getOrDefault(zone.getZoneId(),0.)/hhThisZone : -1;
+                int hhThisZone = householdsByZone.get(zone.getZoneId());
+                double avgSatisfactionThisZone = hhThisZone != 0 ? sumOfSatisfactionsByZone.get(zone.getZoneId())/hhThisZone : -1;
                 StringBuilder stringBuilder = new StringBuilder();
                 stringBuilder.append(year).append(",").append(zone.getId()).append(",").
                         append(zone.getRegion().getId()).append(",").append(hhThisZone).
@@ -14,7 +14,8 @@ import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.TransportMode;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.HashMap;
 import java.util.List;
@@ -40,28 +41,30 @@ public class ModalSharesResultMonitor implements ResultsMonitor {
         try {
             File file = new File(pathname + "modalShares.csv");
             file.getParentFile().mkdirs();
-            pw = new PrintWriter(file);
-            pw.print("year");
-            pw.print(",");
-            pw.print("zone");
-            pw.print(",");
-            pw.print("tripsCar");
-            pw.print(",");
-            pw.print("tripsPt");
-            pw.print(",");
-            pw.print("tripsOther");
-            pw.print(",");
-            pw.print("totalTimeCar");
-            pw.print(",");
-            pw.print("totalTimePt");
-            pw.print(",");
-            pw.print("totalTimeOther");
-            pw.print(",");
-            pw.print("doNotTravel");
-            pw.println();
-
-
-        } catch (FileNotFoundException e) {
+            pw = new PrintWriter(new FileWriter(file, properties.main.isRestartedFromCheckpoint()));
+            if (!properties.main.isRestartedFromCheckpoint()) {
+                pw.print("year");
+                pw.print(",");
+                pw.print("zone");
+                pw.print(",");
+                pw.print("tripsCar");
+                pw.print(",");
+                pw.print("tripsPt");
+                pw.print(",");
+                pw.print("tripsOther");
+                pw.print(",");
+                pw.print("totalTimeCar");
+                pw.print(",");
+                pw.print("totalTimePt");
+                pw.print(",");
+                pw.print("totalTimeOther");
+                pw.print(",");
+                pw.print("doNotTravel");
+                pw.println();
+            }
+
+
+        } catch (IOException e) {
             e.printStackTrace();
         }
     }
@@ -1,32 +1,29 @@
 package de.tum.bgu.msm.io.output;
 
-import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
-import com.google.common.math.Quantiles;
 import de.tum.bgu.msm.container.DataContainer;
-import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.dwelling.DwellingType;
 import de.tum.bgu.msm.data.geo.GeoData;
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.household.HouseholdType;
 import de.tum.bgu.msm.data.job.Job;
-import de.tum.bgu.msm.data.person.Gender;
-import de.tum.bgu.msm.data.person.Occupation;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.events.MicroEvent;
 import de.tum.bgu.msm.events.impls.household.MigrationEvent;
+import de.tum.bgu.msm.io.output.YearlyIndicators.*;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
 import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.TransportMode;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.Formatter;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 public class MultiFileResultsMonitor implements ResultsMonitor {
 
@@ -48,9 +45,63 @@ public class MultiFileResultsMonitor implements ResultsMonitor {
     private PrintWriter migrantsW;
     private PrintWriter vacantJobsRegionW;
 
+    private final SinglePassAggregation<Person> personAggregation = new SinglePassAggregation<>();
+    private final SinglePassAggregation<Household> householdAggregation = new SinglePassAggregation<>();
+    private final SinglePassAggregation<Dwelling> dwellingAggregation = new SinglePassAggregation<>();
+    private SinglePassAggregation.Results personResults;
+    private SinglePassAggregation.Results householdResults;
+    private SinglePassAggregation.Results dwellingResults;
+
+    private final SinglePassAggregation.Indicator<PersonsByAgeAndGender> personsByAgeAndGender;
+    private final SinglePassAggregation.Indicator<LabourParticipation> labourParticipation;
+    private final SinglePassAggregation.Indicator<CommuteTimesByRegion> commuteTimesByRegion;
+    private final SinglePassAggregation.Indicator<HouseholdsByType> householdsByType;
+    private final SinglePassAggregation.Indicator<HouseholdsBySize> householdsBySize;
+    private final SinglePassAggregation.Indicator<HouseholdIncomes> householdIncomes;
+    private final SinglePassAggregation.Indicator<CarOwnership> carOwnership;
+    private final SinglePassAggregation.Indicator<DwellingsByType> dwellingsByType;
+    private IndexedDoubleMatrix2D carSkim;
+
     public MultiFileResultsMonitor(DataContainer dataContainer, Properties properties) {
         this.dataContainer = dataContainer;
         this.properties = properties;
+        personsByAgeAndGender = personAggregation.register(PersonsByAgeAndGender::new);
+        labourParticipation = personAggregation.register(LabourParticipation::new);
+        commuteTimesByRegion = personAggregation.register(() -> new CommuteTimesByRegion(dataContainer, carSkim,
+                dataContainer.getGeoData().getRegions().keySet().stream().mapToInt(Integer::intValue).max().getAsInt()));
+        householdsByType = householdAggregation.register(HouseholdsByType::new);
+        householdsBySize = householdAggregation.register(HouseholdsBySize::new);
+        householdIncomes = householdAggregation.register(HouseholdIncomes::new);
+        carOwnership = householdAggregation.register(CarOwnership::new);
+        dwellingsByType = dwellingAggregation.register(DwellingsByType::new);
+    }
+
+    /**
+     * Adds an indicator to the yearly pass over all persons. Its result is available from
+     * {@link #getPersonIndicator(SinglePassAggregation.Indicator)} after {@link #endYear(int, Multiset, List)} of this class.
+     */
+    protected <A extends Accumulator<Person, A>> SinglePassAggregation.Indicator<A> registerPersonIndicator(Supplier<A> factory) {
+        return personAggregation.register(factory);
+    }
+
+    protected <A> A getPersonIndicator(SinglePassAggregation.Indicator<A> indicator) {
+        return personResults.get(indicator);
+    }
+
+    protected <A extends Accumulator<Household, A>> SinglePassAggregation.Indicator<A> registerHouseholdIndicator(Supplier<A> factory) {
+        return householdAggregation.register(factory);
+    }
+
+    protected <A> A getHouseholdIndicator(SinglePassAggregation.Indicator<A> indicator) {
+        return householdResults.get(indicator);
+    }
+
+    protected <A extends Accumulator<Dwelling, A>> SinglePassAggregation.Indicator<A> registerDwellingIndicator(Supplier<A> factory) {
+        return dwellingAggregation.register(factory);
+    }
+
+    protected <A> A getDwellingIndicator(SinglePassAggregation.Indicator<A> indicator) {
+        return dwellingResults.get(indicator);
     }
 
 
@@ -58,25 +109,27 @@ public class MultiFileResultsMonitor implements ResultsMonitor {
     public void setup() {
 
         String pathname = properties.main.baseDirectory + "scenOutput/" + properties.main.scenarioName + "/siloResults/";
+        // a simulation restarted from a checkpoint continues the files of the earlier years
+        final boolean append = properties.main.isRestartedFromCheckpoint();
         try {
             File file = new File(pathname + "popYear.csv");
             //
             // file.getParentFile().mkdirs();
-            popYearW = new PrintWriter(file);
-            hhTypeW = new PrintWriter(new File(pathname + "hhType.csv"));
-            hhSizeW = new PrintWriter(new File(pathname + "hhSize.csv"));
-            hhAveSizeW = new PrintWriter(new File(pathname + "aveHhSize.csv"));
-            hhAveIncomeW = new PrintWriter(new File(pathname + "hhAveIncome.csv"));
-            labourParticipationRateW = new PrintWriter(new File(pathname + "labourParticipationRate.csv"));
-            commutingTimeW = new PrintWriter(new File(pathname + "regionAvCommutingTime.csv"));
-            carOwnW = new PrintWriter(new File(pathname + "carOwnership.csv"));
-            ddQualW = new PrintWriter(new File(pathname + "dwellingQualityLevel.csv"));
-            ddCountW = new PrintWriter(new File(pathname + "dwellings.csv"));
-            landRegionW = new PrintWriter(new File(pathname + "regionAvailableLand.csv"));
-            eventCountW = new PrintWriter(new File(pathname + "eventCounts.csv"));
-            migrantsW = new PrintWriter(new File(pathname + "persMigrants.csv"));
-            vacantJobsRegionW = new PrintWriter(new File(pathname + "vacantJobsRegion.csv"));
-        } catch (FileNotFoundException e) {
+            popYearW = new PrintWriter(new FileWriter(file, append));
+            hhTypeW = new PrintWriter(new FileWriter(pathname + "hhType.csv", append));
+            hhSizeW = new PrintWriter(new FileWriter(pathname + "hhSize.csv", append));
+            hhAveSizeW = new PrintWriter(new FileWriter(pathname + "aveHhSize.csv", append));
+            hhAveIncomeW = new PrintWriter(new FileWriter(pathname + "hhAveIncome.csv", append));
+            labourParticipationRateW = new PrintWriter(new FileWriter(pathname + "labourParticipationRate.csv", append));
+            commutingTimeW = new PrintWriter(new FileWriter(pathname + "regionAvCommutingTime.csv", append));
+            carOwnW = new PrintWriter(new FileWriter(pathname + "carOwnership.csv", append));
+            ddQualW = new PrintWriter(new FileWriter(pathname + "dwellingQualityLevel.csv", append));
+            ddCountW = new PrintWriter(new FileWriter(pathname + "dwellings.csv", append));
+            landRegionW = new PrintWriter(new FileWriter(pathname + "regionAvailableLand.csv", append));
+            eventCountW = new PrintWriter(new FileWriter(pathname + "eventCounts.csv", append));
+            migrantsW = new PrintWriter(new FileWriter(pathname + "persMigrants.csv", append));
+            vacantJobsRegionW = new PrintWriter(new FileWriter(pathname + "vacantJobsRegion.csv", append));
+        } catch (IOException e) {
             logger.error("Cannot write the result file: " + pathname, e);
         }
     }
@@ -84,6 +137,11 @@ public class MultiFileResultsMonitor implements ResultsMonitor {
 
     @Override
     public void endYear(int year, Multiset<Class<? extends MicroEvent>> eventCounter, List<MicroEvent> events) {
+        carSkim = dataContainer.getTravelTimes().getPeakSkim(TransportMode.car);
+        personResults = personAggregation.aggregate(dataContainer.getHouseholdDataManager().getPersons());
+        householdResults = householdAggregation.aggregate(dataContainer.getHouseholdDataManager().getHouseholds());
+        dwellingResults = dwellingAggregation.aggregate(dataContainer.getRealEstateDataManager().getDwellings());
+
         summarizePopulationByAgeAndGender(year);
         summarizeHouseholdsByType(year);
         summarizeHouseholdsBySize(year);
@@ -129,12 +187,7 @@ public class MultiFileResultsMonitor implements ResultsMonitor {
 
 
     private void summarizePopulationByAgeAndGender(int year) {
-        int pers[][] = new int[2][101];
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
-            Gender gender = per.getGender();
-            int age = Math.min(per.getAge(), 100);
-            pers[gender.ordinal()][age] += 1;
-        }
+        int pers[][] = personResults.get(personsByAgeAndGender).persons;
         if (year == properties.main.baseYear) {
             popYearW.println("year,age,men,women");
         }
@@ -159,10 +212,7 @@ public class MultiFileResultsMonitor implements ResultsMonitor {
 //    }
 
     private void summarizeHouseholdsByType(int year) {
-        int hht[] = new int[HouseholdType.values().length + 1];
-        for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
-            hht[hh.getHouseholdType().ordinal()]++;
-        }
+        int hht[] = householdResults.get(householdsByType).households;
         if (year == properties.main.baseYear) {
             hhTypeW.println("year,type,count");
         }
@@ -186,11 +236,7 @@ public class MultiFileResultsMonitor implements ResultsMonitor {
 //    }
 
     private void summarizeHouseholdsBySize(int year) {
-        int hhs[] = new int[10];
-        for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
-            int hhSize = Math.min(hh.getHhSize(), 10);
-            hhs[hhSize - 1]++;
-        }
+        int hhs[] = householdResults.get(householdsBySize).households;
 
         if (year == properties.main.baseYear) {
             hhSizeW.println("year,size,count");
@@ -211,14 +257,14 @@ public class MultiFileResultsMonitor implements ResultsMonitor {
         if (year == properties.main.baseYear) {
             hhAveSizeW.println("year,size");
         }
-        String row = year + "," + dataContainer.getHouseholdDataManager().getHouseholds().stream().mapToInt(h -> h.getPersons().size()).average().getAsDouble();
+        String row = year + "," + householdResults.get(householdsBySize).getAverageSize();
         hhAveSizeW.println(row);
     }
 
     private void summarizeHouseholdIncome(int year) {
-        List<Integer> incomes = dataContainer.getHouseholdDataManager().getHouseholds().stream().map(h -> h.getPersons().values().stream().mapToInt(p -> p.getAnnualIncome()).sum()).collect(Collectors.toList());
-        double aveHHincome = incomes.stream().mapToDouble(i -> i).average().getAsDouble();
-        double medianHhIncome = Quantiles.median().compute(incomes);
+        final HouseholdIncomes incomes = householdResults.get(householdIncomes);
+        double aveHHincome = incomes.getAverage();
+        double medianHhIncome = incomes.getMedian();
         if (year == properties.main.baseYear) {
             hhAveIncomeW.println("year,variable,value");
         }
@@ -231,59 +277,23 @@ public class MultiFileResultsMonitor implements ResultsMonitor {
     }
 
     private void summarizeLabourParticipationRates(int year) {
-        float[][][] labP = new float[2][2][5];
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
-            int age = per.getAge();
-            Gender gender = per.getGender();
-            boolean employed = per.getJobId() > 0;
-            int ageGroup = 0;
-            if (age >= 65) {
-                ageGroup = 4;
-            } else if (age >= 50) {
-                ageGroup = 3;
-            } else if (age >= 30) {
-                ageGroup = 2;
-            } else if (age >= 18) {
-                ageGroup = 1;
-            }
-
-            if (employed) {
-                labP[1][gender.ordinal()][ageGroup]++;
-            } else {
-                labP[0][gender.ordinal()][ageGroup]++;
-            }
-
-        }
+        final LabourParticipation labP = personResults.get(labourParticipation);
         if (year == properties.main.baseYear) {
             labourParticipationRateW.println("year,group,male,female");
         }
-        String[] grp = {"<18", "18-29", "30-49", "50-64", ">=65"};
+        String[] grp = LabourParticipation.AGE_GROUPS;
 
         for (int ag = 0; ag < 5; ag++) {
-            Formatter f = new Formatter();
-            float rateMale = labP[1][0][ag] / (labP[0][0][ag] + labP[1][0][ag]);
-            float rateFemale = labP[1][1][ag] / (labP[0][1][ag] + labP[1][1][ag]);
-            //f.format("%s,%f,%f", grp[ag], rateMale, rateFemale);
+            float rateMale = labP.getRate(0, ag);
+            float rateFemale = labP.getRate(1, ag);
             labourParticipationRateW.println(year + "," + grp[ag] + "," + rateMale + "," + rateFemale);
         }
     }
 
     private void summarizeAverageCommutingDistanceByRegion(int year) {
-        float[][] commDist = new float[2][dataContainer.getGeoData().getRegions().keySet().stream().mapToInt(Integer::intValue).max().getAsInt() + 1];
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
-            boolean employed = per.getJobId() > 0;
-            if (employed) {
-                Zone zone = null;
-                Household household = dataContainer.getHouseholdDataManager().getHouseholdFromId(per.getHousehold().getId());
-                Dwelling dwelling = dataContainer.getRealEstateDataManager().getDwelling(household.getDwellingId());
-                if (dwelling != null) {
-                    zone = dataContainer.getGeoData().getZones().get(dwelling.getZoneId());
-                }
-                Zone destination = dataContainer.getGeoData().getZones().get(dataContainer.getJobDataManager().getJobFromId(per.getJobId()).getZoneId());
-                double ds = dataContainer.getTravelTimes().getPeakSkim(TransportMode.car).getIndexed(zone.getZoneId(), destination.getZoneId());
-                commDist[0][zone.getRegion().getId()] += ds;
-                commDist[1][zone.getRegion().getId()]++;
-            }
+        final CommuteTimesByRegion commDist = personResults.get(commuteTimesByRegion);
+        if (commDist.getWorkersWithoutLocations() > 0) {
+            logger.warn(commDist.getWorkersWithoutLocations() + " workers without dwelling or job are not part of the commuting times.");
         }
 
         if (year == properties.main.baseYear) {
@@ -291,15 +301,12 @@ public class MultiFileResultsMonitor implements ResultsMonitor {
         }
 
         for (int i : dataContainer.getGeoData().getRegions().keySet()) {
-            commutingTimeW.println(year + "," + i + "," + commDist[0][i] / commDist[1][i]);
+            commutingTimeW.println(year + "," + i + "," + commDist.getAverage(i));
         }
     }
 
     private void summarizeCarOwnership(int year) {
-        int[] carOwnership = new int[4];
-        for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
-            carOwnership[hh.getAutos()]++;
-        }
+        int[] carOwnership = householdResults.get(this.carOwnership).households;
 
         if (year == properties.main.baseYear) {
             carOwnW.println("year,carOwnershipLevel,households");
@@ -333,11 +340,7 @@ public class MultiFileResultsMonitor implements ResultsMonitor {
 
         List<DwellingType> dwellingTypes = dataContainer.getRealEstateDataManager().getDwellingTypes().getTypes();
 
-        Multiset<DwellingType> countsByDwellingType = HashMultiset.create(dwellingTypes.size());
-
-        for (Dwelling dd : dataContainer.getRealEstateDataManager().getDwellings()) {
-            countsByDwellingType.add(dd.getType());
-        }
+        Multiset<DwellingType> countsByDwellingType = dwellingResults.get(dwellingsByType).dwellings;
         for (DwellingType dt : dwellingTypes) {
             double aveVac = dataContainer.getRealEstateDataManager().getAverageVacancyByDwellingType()[dwellingTypes.indexOf(dt)];
             double avePrice = dataContainer.getRealEstateDataManager().getAveragePriceByDwellingType()[dwellingTypes.indexOf(dt)];
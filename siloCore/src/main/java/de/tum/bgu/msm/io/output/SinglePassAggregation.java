@@ -0,0 +1,77 @@
+package de.tum.bgu.msm.io.output;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Aggregates any number of indicators over entities of one type in a single parallel pass. Indicators register an
+ * {@link Accumulator} factory and receive a handle, with which the merged accumulator is obtained from the results.
+ * Reporting time therefore grows with the number of entities rather than with entities times indicators.
+ *
+ * Accumulators must only read the entities and shared data, as they are fed concurrently.
+ */
+public final class SinglePassAggregation<T> {
+
+    private final List<Supplier<? extends Accumulator<T, ?>>> factories = new ArrayList<>();
+
+    public <A extends Accumulator<T, A>> Indicator<A> register(Supplier<A> factory) {
+        factories.add(factory);
+        return new Indicator<>(factories.size() - 1);
+    }
+
+    public Results aggregate(Collection<? extends T> entities) {
+        final Accumulator<T, ?>[] accumulators = entities.parallelStream().<T>map(entity -> entity)
+                .collect(this::createAccumulators, SinglePassAggregation::add, SinglePassAggregation::merge);
+        return new Results(accumulators);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Accumulator<T, ?>[] createAccumulators() {
+        final Accumulator<T, ?>[] accumulators = new Accumulator[factories.size()];
+        for (int i = 0; i < accumulators.length; i++) {
+            accumulators[i] = factories.get(i).get();
+        }
+        return accumulators;
+    }
+
+    private static <T> void add(Accumulator<T, ?>[] accumulators, T entity) {
+        for (Accumulator<T, ?> accumulator : accumulators) {
+            accumulator.add(entity);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> void merge(Accumulator<T, ?>[] accumulators, Accumulator<T, ?>[] others) {
+        for (int i = 0; i < accumulators.length; i++) {
+            ((Accumulator) accumulators[i]).merge(others[i]);
+        }
+    }
+
+    /**
+     * Handle of a registered indicator.
+     */
+    public static final class Indicator<A> {
+
+        private final int index;
+
+        private Indicator(int index) {
+            this.index = index;
+        }
+    }
+
+    public static final class Results {
+
+        private final Accumulator<?, ?>[] accumulators;
+
+        private Results(Accumulator<?, ?>[] accumulators) {
+            this.accumulators = accumulators;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <A> A get(Indicator<A> indicator) {
+            return (A) accumulators[indicator.index];
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package de.tum.bgu.msm.io.output;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.math.Quantiles;
+import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.data.dwelling.DwellingType;
+import de.tum.bgu.msm.data.household.Household;
+import de.tum.bgu.msm.data.household.HouseholdType;
+import de.tum.bgu.msm.data.household.HouseholdUtil;
+import de.tum.bgu.msm.data.job.Job;
+import de.tum.bgu.msm.data.job.JobType;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Accumulators of the indicators that the results monitors summarize every year.
+ */
+final class YearlyIndicators {
+
+    private YearlyIndicators() {
+    }
+
+    static final class PersonsByAgeAndGender implements Accumulator<Person, PersonsByAgeAndGender> {
+
+        final int[][] persons = new int[2][101];
+
+        @Override
+        public void add(Person person) {
+            persons[person.getGender().ordinal()][Math.min(person.getAge(), 100)]++;
+        }
+
+        @Override
+        public void merge(PersonsByAgeAndGender other) {
+            add(persons, other.persons);
+        }
+    }
+
+    static final class LabourParticipation implements Accumulator<Person, LabourParticipation> {
+
+        static final String[] AGE_GROUPS = {"<18", "18-29", "30-49", "50-64", ">=65"};
+
+        /**
+         * persons by employment (0 unemployed, 1 employed), gender and age group
+         */
+        private final int[][][] persons = new int[2][2][5];
+
+        @Override
+        public void add(Person person) {
+            final int age = person.getAge();
+            int ageGroup = 0;
+            if (age >= 65) {
+                ageGroup = 4;
+            } else if (age >= 50) {
+                ageGroup = 3;
+            } else if (age >= 30) {
+                ageGroup = 2;
+            } else if (age >= 18) {
+                ageGroup = 1;
+            }
+            persons[person.getJobId() > 0 ? 1 : 0][person.getGender().ordinal()][ageGroup]++;
+        }
+
+        float getRate(int gender, int ageGroup) {
+            final float employed = persons[1][gender][ageGroup];
+            return employed / (persons[0][gender][ageGroup] + employed);
+        }
+
+        @Override
+        public void merge(LabourParticipation other) {
+            for (int employment = 0; employment < 2; employment++) {
+                add(persons[employment], other.persons[employment]);
+            }
+        }
+    }
+
+    /**
+     * Car travel times of workers from their dwelling to their job, by region of the dwelling.
+     */
+    static final class CommuteTimesByRegion implements Accumulator<Person, CommuteTimesByRegion> {
+
+        private final DataContainer dataContainer;
+        private final IndexedDoubleMatrix2D carSkim;
+        private final double[] times;
+        private final int[] workers;
+        private int workersWithoutLocations = 0;
+
+        CommuteTimesByRegion(DataContainer dataContainer, IndexedDoubleMatrix2D carSkim, int highestRegionId) {
+            this.dataContainer = dataContainer;
+            this.carSkim = carSkim;
+            this.times = new double[highestRegionId + 1];
+            this.workers = new int[highestRegionId + 1];
+        }
+
+        @Override
+        public void add(Person person) {
+            if (person.getJobId() <= 0) {
+                return;
+            }
+            final Dwelling dwelling = dataContainer.getRealEstateDataManager().getDwelling(person.getHousehold().getDwellingId());
+            final Job job = dataContainer.getJobDataManager().getJobFromId(person.getJobId());
+            if (dwelling == null || job == null) {
+                workersWithoutLocations++;
+                return;
+            }
+            final Zone zone = dataContainer.getGeoData().getZones().get(dwelling.getZoneId());
+            times[zone.getRegion().getId()] += carSkim.getIndexed(zone.getZoneId(), job.getZoneId());
+            workers[zone.getRegion().getId()]++;
+        }
+
+        float getAverage(int region) {
+            return (float) (times[region] / workers[region]);
+        }
+
+        int getWorkersWithoutLocations() {
+            return workersWithoutLocations;
+        }
+
+        @Override
+        public void merge(CommuteTimesByRegion other) {
+            for (int i = 0; i < times.length; i++) {
+                times[i] += other.times[i];
+                workers[i] += other.workers[i];
+            }
+            workersWithoutLocations += other.workersWithoutLocations;
+        }
+    }
+
+    static final class HouseholdsByType implements Accumulator<Household, HouseholdsByType> {
+
+        final int[] households = new int[HouseholdType.values().length + 1];
+
+        @Override
+        public void add(Household household) {
+            households[household.getHouseholdType().ordinal()]++;
+        }
+
+        @Override
+        public void merge(HouseholdsByType other) {
+            add(households, other.households);
+        }
+    }
+
+    static final class HouseholdsBySize implements Accumulator<Household, HouseholdsBySize> {
+
+        /**
+         * households by size - 1, the last size includes all larger households
+         */
+        final int[] households = new int[10];
+        private long persons = 0;
+        private int count = 0;
+
+        @Override
+        public void add(Household household) {
+            households[Math.min(household.getHhSize(), 10) - 1]++;
+            persons += household.getPersons().size();
+            count++;
+        }
+
+        double getAverageSize() {
+            return (double) persons / count;
+        }
+
+        @Override
+        public void merge(HouseholdsBySize other) {
+            add(households, other.households);
+            persons += other.persons;
+            count += other.count;
+        }
+    }
+
+    static final class HouseholdIncomes implements Accumulator<Household, HouseholdIncomes> {
+
+        private int[] incomes = new int[1024];
+        private int count = 0;
+        private long sum = 0;
+
+        @Override
+        public void add(Household household) {
+            append(HouseholdUtil.getAnnualHhIncome(household));
+        }
+
+        double getAverage() {
+            return (double) sum / count;
+        }
+
+        double getMedian() {
+            return Quantiles.median().compute(Arrays.copyOf(incomes, count));
+        }
+
+        @Override
+        public void merge(HouseholdIncomes other) {
+            for (int i = 0; i < other.count; i++) {
+                append(other.incomes[i]);
+            }
+        }
+
+        private void append(int income) {
+            if (count == incomes.length) {
+                incomes = Arrays.copyOf(incomes, count * 2);
+            }
+            incomes[count++] = income;
+            sum += income;
+        }
+    }
+
+    static final class CarOwnership implements Accumulator<Household, CarOwnership> {
+
+        final int[] households = new int[4];
+
+        @Override
+        public void add(Household household) {
+            households[household.getAutos()]++;
+        }
+
+        @Override
+        public void merge(CarOwnership other) {
+            add(households, other.households);
+        }
+    }
+
+    /**
+     * Households by income group of 10,000 and monthly rent group of 250.
+     */
+    static final class HousingCostsByIncome implements Accumulator<Household, HousingCostsByIncome> {
+
+        private final DataContainer dataContainer;
+        final int[][] households = new int[10][10];
+        final long[] rents = new long[10];
+        private int householdsWithoutDwelling = 0;
+
+        HousingCostsByIncome(DataContainer dataContainer) {
+            this.dataContainer = dataContainer;
+        }
+
+        @Override
+        public void add(Household household) {
+            final Dwelling dwelling = dataContainer.getRealEstateDataManager().getDwelling(household.getDwellingId());
+            if (dwelling == null) {
+                householdsWithoutDwelling++;
+                return;
+            }
+            final int incomeGroup = Math.min(HouseholdUtil.getAnnualHhIncome(household) / 10000, 9);
+            final int rent = dwelling.getPrice();
+            households[incomeGroup][Math.min(rent / 250, 9)]++;
+            rents[incomeGroup] += rent;
+        }
+
+        int getHouseholdsWithoutDwelling() {
+            return householdsWithoutDwelling;
+        }
+
+        @Override
+        public void merge(HousingCostsByIncome other) {
+            add(households, other.households);
+            for (int i = 0; i < rents.length; i++) {
+                rents[i] += other.rents[i];
+            }
+            householdsWithoutDwelling += other.householdsWithoutDwelling;
+        }
+    }
+
+    static final class DwellingsByType implements Accumulator<Dwelling, DwellingsByType> {
+
+        final Multiset<DwellingType> dwellings = HashMultiset.create();
+
+        @Override
+        public void add(Dwelling dwelling) {
+            dwellings.add(dwelling.getType());
+        }
+
+        @Override
+        public void merge(DwellingsByType other) {
+            dwellings.addAll(other.dwellings);
+        }
+    }
+
+    static final class JobsByRegionAndType implements Accumulator<Job, JobsByRegionAndType> {
+
+        private final Map<Integer, Zone> zones;
+        final int[][] jobs;
+
+        JobsByRegionAndType(Map<Integer, Zone> zones, int highestRegionId) {
+            this.zones = zones;
+            this.jobs = new int[JobType.getNumberOfJobTypes()][highestRegionId + 1];
+        }
+
+        @Override
+        public void add(Job job) {
+            jobs[JobType.getOrdinal(job.getType())][zones.get(job.getZoneId()).getRegion().getId()]++;
+        }
+
+        @Override
+        public void merge(JobsByRegionAndType other) {
+            add(jobs, other.jobs);
+        }
+    }
+
+    private static void add(int[] counts, int[] others) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += others[i];
+        }
+    }
+
+    private static void add(int[][] counts, int[][] others) {
+        for (int i = 0; i < counts.length; i++) {
+            add(counts[i], others[i]);
+        }
+    }
+}
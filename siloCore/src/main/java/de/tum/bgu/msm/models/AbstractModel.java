@@ -2,12 +2,17 @@ package de.tum.bgu.msm.models;
 
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.Checkpointable;
 import de.tum.bgu.msm.simulator.UpdateListener;
+import de.tum.bgu.msm.utils.RandomState;
 import org.apache.log4j.Logger;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.Random;
 
-public class AbstractModel implements UpdateListener {
+public class AbstractModel implements UpdateListener, Checkpointable {
 
     private final static Logger logger = Logger.getLogger(AbstractModel.class);
 
@@ -41,6 +46,20 @@ public class AbstractModel implements UpdateListener {
 
     }
 
+    /**
+     * Saves the state of the random number generator. Models keeping further state between years
+     * should extend this and {@link #readCheckpoint(DataInputStream)}.
+     */
+    @Override
+    public void writeCheckpoint(DataOutputStream out) throws IOException {
+        RandomState.write(random, out);
+    }
+
+    @Override
+    public void readCheckpoint(DataInputStream in) throws IOException {
+        RandomState.read(random, in);
+    }
+
     public void logCurrentRandomState() {
         logger.info(this.getClass().getSimpleName() + " | random: " + random.nextDouble());
     }
@@ -0,0 +1,29 @@
+package de.tum.bgu.msm.models;
+
+import de.tum.bgu.msm.events.MicroEvent;
+
+import java.util.List;
+
+/**
+ * An {@link EventModel} that is able to prepare several upcoming events of its type at once,
+ * e.g. to evaluate them in parallel. The simulator still handles all events one by one in the
+ * order of the shuffled event list through {@link #handleEvent(MicroEvent)}, but before it
+ * handles an event that was not prepared yet, it hands over this event together with the
+ * next events of the same type.
+ */
+public interface BatchEventModel<T extends MicroEvent> extends EventModel<T> {
+
+    /**
+     * @return the maximum number of events prepared at once. Values smaller than 2 disable preparation.
+     */
+    int getBatchSize();
+
+    /**
+     * Prepares the given upcoming events. Other events may be handled between the preparation and
+     * the handling of each of these events, so {@link #handleEvent(MicroEvent)} has to verify that a
+     * prepared result is still valid. Results have to be reproducible for a given random seed,
+     * independent of the number of threads used.
+     * @param events the upcoming events in the order in which they will be handled
+     */
+    void prepareEvents(List<T> events);
+}
@@ -45,6 +45,7 @@ public class BirthModelImpl extends AbstractModel implements BirthModel {
     private final PersonFactory factory;
     private final BirthStrategy strategy;
     private final float localScaler = properties.demographics.localScaler;
+    private final boolean prefilterEvents = properties.eventRules.prefilterDemographicEvents;
 
 
     public BirthModelImpl(DataContainer dataContainer, PersonFactory factory,
@@ -67,7 +68,9 @@ public class BirthModelImpl extends AbstractModel implements BirthModel {
         for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
             final int id = per.getId();
             if (properties.eventRules.birth && personCanGiveBirth(per)) {
-                events.add(new BirthEvent(id));
+                if (!prefilterEvents || random.nextDouble() < calculateBirthProbability(per)) {
+                    events.add(new BirthEvent(id));
+                }
             }
         }
         return events;
@@ -88,15 +91,7 @@ public class BirthModelImpl extends AbstractModel implements BirthModel {
         final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
         final Person person = householdDataManager.getPersonFromId(perId);
         if (person != null && personCanGiveBirth(person)) {
-            // todo: distinguish birth probability by neighborhood type (such as urban, suburban, rural)
-            //now it distinguish by number of children at the household
-            double birthProb = localScaler * strategy.calculateBirthProbability(person.getAge(), HouseholdUtil.getNumberOfChildren(person.getHousehold()));
-            if (person.getRole() == PersonRole.MARRIED) {
-                birthProb *= properties.demographics.marriedScaler;
-            } else {
-                birthProb *= properties.demographics.singleScaler;
-            }
-            if (random.nextDouble() < birthProb) {
+            if (prefilterEvents || random.nextDouble() < calculateBirthProbability(person)) {
                 giveBirth(person);
                 return true;
             }
@@ -104,6 +99,18 @@ public class BirthModelImpl extends AbstractModel implements BirthModel {
         return false;
     }
 
+    private double calculateBirthProbability(Person person) {
+        // todo: distinguish birth probability by neighborhood type (such as urban, suburban, rural)
+        //now it distinguish by number of children at the household
+        double birthProb = localScaler * strategy.calculateBirthProbability(person.getAge(), HouseholdUtil.getNumberOfChildren(person.getHousehold()));
+        if (person.getRole() == PersonRole.MARRIED) {
+            birthProb *= properties.demographics.marriedScaler;
+        } else {
+            birthProb *= properties.demographics.singleScaler;
+        }
+        return birthProb;
+    }
+
     void giveBirth(Person person) {
         final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
         final Household household = person.getHousehold();
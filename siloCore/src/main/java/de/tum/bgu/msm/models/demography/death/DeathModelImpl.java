@@ -24,17 +24,21 @@ import java.util.Random;
 public class DeathModelImpl extends AbstractModel implements DeathModel {
 
     private final DeathStrategy strategy;
+    private final boolean prefilterEvents;
 
     public DeathModelImpl(DataContainer dataContainer, Properties properties, DeathStrategy strategy, Random rnd) {
         super(dataContainer, properties, rnd);
         this.strategy = strategy;
+        this.prefilterEvents = properties.eventRules.prefilterDemographicEvents;
     }
 
     @Override
     public Collection<DeathEvent> getEventsForCurrentYear(int year) {
         final List<DeathEvent> events = new ArrayList<>();
         for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
-            events.add(new DeathEvent(person.getId()));
+            if (!prefilterEvents || random.nextDouble() < strategy.calculateDeathProbability(person)) {
+                events.add(new DeathEvent(person.getId()));
+            }
         }
         return events;
     }
@@ -46,7 +50,7 @@ public class DeathModelImpl extends AbstractModel implements DeathModel {
         HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
         final Person person = householdDataManager.getPersonFromId(event.getPersonId());
         if (person != null) {
-            if (random.nextDouble() < strategy.calculateDeathProbability(person)) {
+            if (prefilterEvents || random.nextDouble() < strategy.calculateDeathProbability(person)) {
                 return die(person);
             }
         }
@@ -28,6 +28,7 @@ public class DivorceModelImpl extends AbstractModel implements DivorceModel {
     private final CreateCarOwnershipModel carOwnership;
     private final DivorceStrategy strategy;
     private final HouseholdFactory hhFactory;
+    private final boolean prefilterEvents;
     private int lackOfDwellingFailedDivorce;
 
     public DivorceModelImpl(DataContainer dataContainer, MovesModelImpl movesModel,
@@ -38,6 +39,7 @@ public class DivorceModelImpl extends AbstractModel implements DivorceModel {
         this.movesModel = movesModel;
         this.carOwnership = carOwnership;
         this.strategy = strategy;
+        this.prefilterEvents = properties.eventRules.prefilterDemographicEvents;
     }
 
 
@@ -55,7 +57,9 @@ public class DivorceModelImpl extends AbstractModel implements DivorceModel {
         final List<DivorceEvent> events = new ArrayList<>();
         for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
             if (person.getRole() == PersonRole.MARRIED) {
-                events.add(new DivorceEvent(person.getId()));
+                if (!prefilterEvents || random.nextDouble() < strategy.calculateDivorceProbability(person) / 2) {
+                    events.add(new DivorceEvent(person.getId()));
+                }
             }
         }
         return events;
@@ -85,8 +89,7 @@ public class DivorceModelImpl extends AbstractModel implements DivorceModel {
         final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
         Person per = householdDataManager.getPersonFromId(perId);
         if (per != null && per.getRole() == PersonRole.MARRIED) {
-            final double probability = strategy.calculateDivorceProbability(per) / 2;
-            if (random.nextDouble() < probability) {
+            if (prefilterEvents || random.nextDouble() < strategy.calculateDivorceProbability(per) / 2) {
                 // check if vacant dwelling is available
 
                 Household fakeHypotheticalHousehold = hhFactory.createHousehold(-1, -1, 0);
@@ -21,10 +21,12 @@ import java.util.Random;
 public class DriversLicenseModelImpl extends AbstractModel implements DriversLicenseModel {
 
     private final DriversLicenseStrategy strategy;
+    private final boolean prefilterEvents;
 
     public DriversLicenseModelImpl(DataContainer dataContainer, Properties properties, DriversLicenseStrategy strategy, Random rnd) {
         super(dataContainer, properties, rnd);
         this.strategy = strategy;
+        this.prefilterEvents = properties.eventRules.prefilterDemographicEvents;
     }
 
     @Override
@@ -37,7 +39,12 @@ public class DriversLicenseModelImpl extends AbstractModel implements DriversLic
     public Collection<LicenseEvent> getEventsForCurrentYear(int year) {
         final List<LicenseEvent> events = new ArrayList<>();
         for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
-            events.add(new LicenseEvent(person.getId()));
+            if (!prefilterEvents) {
+                events.add(new LicenseEvent(person.getId()));
+            } else if (!person.hasDriverLicense() && person.getAge() >= 18
+                    && random.nextDouble() < strategy.calculateChangeDriversLicenseProbability(person)) {
+                events.add(new LicenseEvent(person.getId()));
+            }
         }
         return events;
     }
@@ -47,8 +54,7 @@ public class DriversLicenseModelImpl extends AbstractModel implements DriversLic
         Person pp = dataContainer.getHouseholdDataManager().getPersonFromId(event.getPersonId());
         //assign new licenses to adults who does not have one, no license is revoked at any time
         if (pp != null && !pp.hasDriverLicense() && pp.getAge()>= 18) {
-            final double changeProb = strategy.calculateChangeDriversLicenseProbability(pp);
-            if (random.nextDouble() < changeProb) {
+            if (prefilterEvents || random.nextDouble() < strategy.calculateChangeDriversLicenseProbability(pp)) {
                 return createLicense(pp);
             }
         }
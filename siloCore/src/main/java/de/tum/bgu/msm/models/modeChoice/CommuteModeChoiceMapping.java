@@ -1,8 +1,13 @@
 package de.tum.bgu.msm.models.modeChoice;
 
+import cern.colt.list.tint.IntArrayList;
 import cern.colt.map.tobject.OpenIntObjectHashMap;
 import de.tum.bgu.msm.data.person.Person;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 public class CommuteModeChoiceMapping {
 
     private OpenIntObjectHashMap map;
@@ -19,6 +24,30 @@ public class CommuteModeChoiceMapping {
         return (CommuteMode) map.get(person.getId());
     }
 
+    /**
+     * Writes the modes by person id, e.g. into a simulation checkpoint.
+     */
+    public void write(DataOutput out) throws IOException {
+        final IntArrayList personIds = map.keys();
+        out.writeInt(personIds.size());
+        for (int i = 0; i < personIds.size(); i++) {
+            final CommuteMode mode = (CommuteMode) map.get(personIds.get(i));
+            out.writeInt(personIds.get(i));
+            out.writeUTF(mode.mode);
+            out.writeDouble(mode.utility);
+        }
+    }
+
+    public static CommuteModeChoiceMapping read(DataInput in) throws IOException {
+        final int numberOfPersons = in.readInt();
+        final CommuteModeChoiceMapping mapping = new CommuteModeChoiceMapping(numberOfPersons);
+        for (int i = 0; i < numberOfPersons; i++) {
+            final int personId = in.readInt();
+            mapping.map.put(personId, new CommuteMode(in.readUTF(), in.readDouble()));
+        }
+        return mapping;
+    }
+
     public final static class CommuteMode {
 
         public final String mode;
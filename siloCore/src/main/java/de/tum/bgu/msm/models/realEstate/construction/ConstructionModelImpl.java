@@ -135,9 +135,12 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
 
         DwellingType[] sortedDwellingTypes = findOrderOfDwellingTypes(dataContainer);
         int unrealizedDemandCounter = 0;
+        final int[] allZones = geoData.getZones().keySet().stream().mapToInt(Integer::intValue).toArray();
 
         for (DwellingType dt : sortedDwellingTypes) {
             int dto = dwellingTypes.indexOf(dt);
+            // choice among all zones for demand that cannot be realized in its region, evaluated on first use
+            ZoneChoiceForConstruction alternativeZoneChoice = null;
             for (int region : geoData.getRegions().keySet()) {
                 int unrealizedDwellings = 0;
                 int demand = (int) (existingDwellings[dto][region] * demandByRegion[dto][region] + 0.5);
@@ -145,41 +148,36 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
                     continue;
                 }
                 int[] zonesInThisRegion = geoData.getRegions().get(region).getZones().stream().mapToInt(Zone::getZoneId).toArray();
-                double[] prob = new double[SiloUtil.getHighestVal(zonesInThisRegion) + 1];
+                ZoneChoiceForConstruction zoneChoice = new ZoneChoiceForConstruction(zonesInThisRegion,
+                        zone -> calculateZoneWeight(realEstate, dt, dto, zone, utilitiesByDwellingTypeByZone));
                 // walk through every dwelling to be built
                 for (int i = 1; i <= demand; i++) {
-                    double probSum = 0;
-                    for (int zone : zonesInThisRegion) {
-                        Development development = dataContainer.getGeoData().getZones().get(zone).getDevelopment();
-                        boolean useDwellingsAsCapacity = development.isUseDwellingCapacity();
-                        double availableLand = realEstate.getAvailableCapacityForConstruction(zone);
-                        if ((useDwellingsAsCapacity && availableLand == 0) ||                              // capacity by dwellings is use
-                                (!useDwellingsAsCapacity && availableLand < dt.getAreaPerDwelling()) ||  // not enough land available?
-                                !development.isThisDwellingTypeAllowed(dt)) {                 // construction of this dwelling type allowed in this zone?
-                            prob[zone] = 0.;
-                        } else {
-                            prob[zone] = betaForZoneChoice * availableLand * utilitiesByDwellingTypeByZone[dto][zone];
-                            probSum += prob[zone];
-                        }
+                    int zone = zoneChoice.selectZone(random);
+                    if (zone < 0) {
+                        // capacity only decreases, so none of the remaining dwellings can be built in this region
+                        unrealizedDwellings += demand - i + 1;
+                        break;
                     }
-                    if (probSum == 0) {
-                        unrealizedDwellings++;
-                        continue;
-                    }
-                    for (int zone : zonesInThisRegion) {
-                        prob[zone] = prob[zone] / probSum;
-                    }
-                    int zone = SiloUtil.select(prob, random);
                     events.add(createNewDwelling(realEstate, aveSizeByTypeAndRegion, aveAbsolutePriceByTypeAndZone,
                             aveAbsolutePriceByTypeAndRegion, dt, dto, region, zone));
+                    zoneChoice.update(zone);
+                    if (alternativeZoneChoice != null) {
+                        alternativeZoneChoice.update(zone);
+                    }
+                }
+                if (unrealizedDwellings > 0 && alternativeZoneChoice == null) {
+                    alternativeZoneChoice = new ZoneChoiceForConstruction(allZones,
+                            zone -> calculateZoneWeightForUnrealizedDemand(realEstate, dt, dto, zone, utilitiesByDwellingTypeByZone));
                 }
                 for (int i = 1; i <= unrealizedDwellings; i++) {
-                    int zone = allocateUnrealizedDemandInDifferentRegion(realEstate, dt, dto,
-                            avePriceByTypeAndZone, avePriceByTypeAndRegion, utilitiesByDwellingTypeByZone);
+                    // Due to limited available land or zoning, not all demand can be realized in all zones. Find an alternative
+                    // region where demand can be built
+                    int zone = alternativeZoneChoice.selectZone(random);
 
                     if (zone > -1) {
                         events.add(createNewDwelling(realEstate, aveSizeByTypeAndRegion, aveAbsolutePriceByTypeAndZone,
                                 aveAbsolutePriceByTypeAndRegion, dt, dto, region, zone));
+                        alternativeZoneChoice.update(zone);
                     } else {
                         unrealizedDemandCounter++;
                     }
@@ -339,36 +337,25 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
         return (new ConstructionEvent(plannedDwelling));
     }
 
-    private int allocateUnrealizedDemandInDifferentRegion(RealEstateDataManager realEstate, DwellingType dt, int dto,
-                                                          double[][] avePriceByTypeAndZone, double[][] avePriceByTypeAndRegion, double[][] utilitiesByDwellingTypeByZone) {
-        // Due to limited available land or zoning, not all demand can be realized in all zones. Find an alternative
-        // region where demand can be built
-        int selectedZone = 1;
-        double probSum = 0;
-        double[] prob = new double[geoData.getZones().keySet().stream().max(Comparator.naturalOrder()).get() + 1];
-        for (Map.Entry<Integer, Zone> zone : geoData.getZones().entrySet()) {
-            double availableLand = realEstate.getAvailableCapacityForConstruction(zone.getValue().getId());
-            if (availableLand < dt.getAreaPerDwelling()) {
-                continue;
-            }
-            Development development = zone.getValue().getDevelopment();
-            boolean useDwellingsAsCapacity = development.isUseDwellingCapacity();
-            if ((useDwellingsAsCapacity && availableLand == 0) ||                              // capacity by dwellings is use
-                    (!useDwellingsAsCapacity && availableLand < dt.getAreaPerDwelling()) ||  // not enough land available?
-                    !development.isThisDwellingTypeAllowed(dt)) {                 // construction of this dwelling type allowed in this zone?
-                prob[zone.getValue().getId()] = 0.;
-            } else {
-                prob[zone.getValue().getId()] = betaForZoneChoice * availableLand * utilitiesByDwellingTypeByZone[dto][zone.getValue().getId()];
-                probSum += prob[zone.getValue().getId()];
-            }
-        }
-        if (probSum == 0) {
-            return -1;
+    private double calculateZoneWeight(RealEstateDataManager realEstate, DwellingType dt, int dto, int zone,
+                                       double[][] utilitiesByDwellingTypeByZone) {
+        Development development = geoData.getZones().get(zone).getDevelopment();
+        boolean useDwellingsAsCapacity = development.isUseDwellingCapacity();
+        double availableLand = realEstate.getAvailableCapacityForConstruction(zone);
+        if ((useDwellingsAsCapacity && availableLand == 0) ||                              // capacity by dwellings is use
+                (!useDwellingsAsCapacity && availableLand < dt.getAreaPerDwelling()) ||  // not enough land available?
+                !development.isThisDwellingTypeAllowed(dt)) {                 // construction of this dwelling type allowed in this zone?
+            return 0.;
         }
-        for (Map.Entry<Integer, Zone> zone : geoData.getZones().entrySet()) {
-            prob[zone.getValue().getId()] = prob[zone.getValue().getId()] / probSum;
+        return betaForZoneChoice * availableLand * utilitiesByDwellingTypeByZone[dto][zone];
+    }
+
+    private double calculateZoneWeightForUnrealizedDemand(RealEstateDataManager realEstate, DwellingType dt, int dto, int zone,
+                                                          double[][] utilitiesByDwellingTypeByZone) {
+        if (realEstate.getAvailableCapacityForConstruction(zone) < dt.getAreaPerDwelling()) {
+            return 0.;
         }
-        return SiloUtil.select(prob, random);
+        return calculateZoneWeight(realEstate, dt, dto, zone, utilitiesByDwellingTypeByZone);
     }
 
 
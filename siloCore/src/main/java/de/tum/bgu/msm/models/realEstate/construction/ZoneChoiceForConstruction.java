@@ -0,0 +1,69 @@
+package de.tum.bgu.msm.models.realEstate.construction;
+
+import cern.colt.map.tint.OpenIntIntHashMap;
+import de.tum.bgu.msm.utils.FenwickSampler;
+
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Chooses zones for the construction of dwellings of one type. Weights of all zones are evaluated once and kept
+ * in a Fenwick tree. After land has been converted in a zone, only the weight of that zone is evaluated again,
+ * such that every further dwelling is allocated in logarithmic time. Zones without capacity left get a weight of 0.
+ */
+final class ZoneChoiceForConstruction {
+
+    private final int[] zoneIds;
+    /**
+     * index of a zone in {@link #zoneIds} plus 1, as missing keys are returned as 0
+     */
+    private final OpenIntIntHashMap indexPlusOneByZone;
+    private final IntToDoubleFunction weightOfZone;
+    private final FenwickSampler<Integer> sampler;
+
+    /**
+     * @param weightOfZone non-negative weight of a zone id, given the current capacity for construction
+     */
+    ZoneChoiceForConstruction(int[] zoneIds, IntToDoubleFunction weightOfZone) {
+        this.zoneIds = zoneIds;
+        this.weightOfZone = weightOfZone;
+        this.indexPlusOneByZone = new OpenIntIntHashMap(zoneIds.length * 2);
+        final double[] weights = new double[zoneIds.length];
+        for (int i = 0; i < zoneIds.length; i++) {
+            indexPlusOneByZone.put(zoneIds[i], i + 1);
+            weights[i] = weightOfZone.applyAsDouble(zoneIds[i]);
+        }
+        this.sampler = new FenwickSampler<>(new Integer[zoneIds.length], weights);
+    }
+
+    /**
+     * @return true if at least one zone has a positive weight
+     */
+    boolean hasCapacity() {
+        return sampler.getTotalWeight() > 0;
+    }
+
+    /**
+     * Draws a zone with a probability proportional to its weight. Like {@link de.tum.bgu.msm.utils.SiloUtil#select(double[], Random)},
+     * a single float is drawn.
+     * @return the selected zone id or -1 if no zone has capacity left
+     */
+    int selectZone(Random random) {
+        final double total = sampler.getTotalWeight();
+        if (total <= 0) {
+            return -1;
+        }
+        return zoneIds[sampler.indexAt(total * random.nextFloat())];
+    }
+
+    /**
+     * Evaluates the weight of the given zone again, e.g. after land has been converted. Zones that are not
+     * part of this choice are ignored.
+     */
+    void update(int zoneId) {
+        final int index = indexPlusOneByZone.get(zoneId) - 1;
+        if (index >= 0) {
+            sampler.setWeight(index, weightOfZone.applyAsDouble(zoneId));
+        }
+    }
+}
@@ -6,7 +6,7 @@ import de.tum.bgu.msm.data.dwelling.RealEstateDataManager;
 import de.tum.bgu.msm.events.impls.realEstate.RenovationEvent;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.properties.Properties;
-import de.tum.bgu.msm.utils.SiloUtil;
+import de.tum.bgu.msm.utils.CumulativeDistribution;
 
 import java.util.*;
 
@@ -19,6 +19,10 @@ public class RenovationModelImpl extends AbstractModel implements RenovationMode
 
     private final RenovationStrategy strategy;
     private double[][] renovationProbability;
+    /**
+     * quality changes by current quality. Shares of quality levels are only updated once a year.
+     */
+    private CumulativeDistribution[] qualityChangeByQuality;
 
     private enum DdQualityChange {
         DECREASE_2 {
@@ -67,7 +71,12 @@ public class RenovationModelImpl extends AbstractModel implements RenovationMode
     }
 
     @Override
-    public void prepareYear(int year) {}
+    public void prepareYear(int year) {
+        qualityChangeByQuality = new CumulativeDistribution[properties.main.qualityLevels];
+        for (int quality = 1; quality <= properties.main.qualityLevels; quality++) {
+            qualityChangeByQuality[quality - 1] = new CumulativeDistribution(getProbabilities(quality));
+        }
+    }
 
     @Override
     public Collection<RenovationEvent> getEventsForCurrentYear(int year) {
@@ -86,7 +95,7 @@ public class RenovationModelImpl extends AbstractModel implements RenovationMode
         Dwelling dd = realEstateDataManager.getDwelling(event.getDwellingId());
         if (dd != null) {
             int currentQuality = dd.getQuality();
-            DdQualityChange change = SiloUtil.select(getProbabilities(currentQuality), random);
+            DdQualityChange change = DdQualityChange.values()[qualityChangeByQuality[currentQuality - 1].sample(random)];
             dd.setQuality(currentQuality + change.getChange());
             return true;
         }
@@ -103,13 +112,13 @@ public class RenovationModelImpl extends AbstractModel implements RenovationMode
 
     }
 
-    private Map<DdQualityChange, Double> getProbabilities(int currentQual) {
+    private double[] getProbabilities(int currentQual) {
         // return probabilities to upgrade or deteriorate based on current quality of dwelling and average
         // quality of all dwellings
         Map<Integer, Double> currentShare = dataContainer.getRealEstateDataManager().getUpdatedQualityShares();
         Map<Integer, Double> initialShare = dataContainer.getRealEstateDataManager().getInitialQualShares();
 
-        Map<DdQualityChange, Double> probs = new EnumMap<>(DdQualityChange.class);
+        double[] probs = new double[DdQualityChange.values().length];
         for (DdQualityChange change: DdQualityChange.values()) {
             int potentialNewQual = currentQual + change.getChange();
             potentialNewQual = Math.min(Math.max(1, potentialNewQual), properties.main.qualityLevels);
@@ -118,7 +127,7 @@ public class RenovationModelImpl extends AbstractModel implements RenovationMode
                     / currentShare.getOrDefault(potentialNewQual, 0.01);
 
             double prob = renovationProbability[currentQual - 1][change.ordinal()] * ratio;
-            probs.put(change, prob);
+            probs[change.ordinal()] = prob;
         }
         return probs;
     }
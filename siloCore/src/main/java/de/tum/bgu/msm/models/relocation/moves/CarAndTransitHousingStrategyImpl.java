@@ -70,6 +70,11 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
 
     private EnumMap<IncomeCategory, Map<Integer, Double>> utilityByIncomeByRegion = new EnumMap<>(IncomeCategory.class);
 
+    /**
+     * Shared with all duplicates of this strategy, cleared every year.
+     */
+    private CommuteFactorCache commuteFactors;
+
     public CarAndTransitHousingStrategyImpl(DataContainer dataContainer,
                                             Properties properties,
                                             TravelTimes travelTimes,
@@ -93,6 +98,7 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
     @Override
     public void setup() {
         hhByRegion = new IndexedDoubleMatrix1D(geoData.getRegions().values());
+        commuteFactors = new CommuteFactorCache(geoData, commutingTimeProbability, properties.transportModel.peakHour_s);
         calculateShareOfForeignersByZoneAndRegion();
     }
 
@@ -128,16 +134,12 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
                 final Job job = jobDataManager.getJobFromId(pp.getJobId());
                 if(carToWorkersRatio == 0.) {
-                    int ptTime = (int) travelTimes.getTravelTime(dwelling, job, properties.transportModel.peakHour_s, TransportMode.pt);
-                    factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, ptTime), TransportMode.pt);
+                    factorForThisZone = commuteFactors.getCommuteFactor(travelTimes, dwelling, job, TransportMode.pt);
                 } else if( carToWorkersRatio == 1.) {
-                    int carTime = (int) travelTimes.getTravelTime(dwelling, job,  properties.transportModel.peakHour_s, TransportMode.car);
-                    factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, carTime), TransportMode.car);
+                    factorForThisZone = commuteFactors.getCommuteFactor(travelTimes, dwelling, job, TransportMode.car);
                 } else {
-                    int carTime = (int) travelTimes.getTravelTime(dwelling, job,  properties.transportModel.peakHour_s, TransportMode.car);
-                    int ptTime = (int) travelTimes.getTravelTime(dwelling, job,  properties.transportModel.peakHour_s, TransportMode.pt);
-                    double factorCar = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, carTime), TransportMode.car);
-                    double factorPt = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, ptTime), TransportMode.pt);
+                    double factorCar = commuteFactors.getCommuteFactor(travelTimes, dwelling, job, TransportMode.car);
+                    double factorPt = commuteFactors.getCommuteFactor(travelTimes, dwelling, job, TransportMode.pt);
                     factorForThisZone= factorCar * carToWorkersRatio + (1 - carToWorkersRatio) * factorPt;
                 }
                 workDistanceUtility *= factorForThisZone;
@@ -160,6 +162,7 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
 
     @Override
     public void prepareYear() {
+        commuteFactors.clear();
         calculateShareOfForeignersByZoneAndRegion();
         calculateRegionalUtilities();
     }
@@ -204,6 +207,7 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
                 dwellingUtilityStrategy, dwellingProbabilityStrategy, regionUtilityStrategy, regionProbabilityStrategy);
         strategy.hhByRegion = hhByRegion;
         strategy.utilityByIncomeByRegion = utilityByIncomeByRegion;
+        strategy.commuteFactors = commuteFactors;
         return strategy;
     }
 
@@ -289,14 +293,10 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
 
     private double convertPriceToUtility(int price, IncomeCategory incCategory) {
 
-        Map<Integer, Float> shares = dataContainer.getRealEstateDataManager().getRentPaymentsForIncomeGroup(incCategory);
         // 25 rent categories are defined as <rent/200>, see RealEstateDataManager
         int priceCategory = (int) (price / 200f);
         priceCategory = Math.min(priceCategory, RENT_CATEGORIES);
-        double util = 0;
-        for (int i = 0; i <= priceCategory; i++) {
-            util += shares.get(i);
-        }
+        double util = dataContainer.getRealEstateDataManager().getCumulativeRentShare(incCategory, priceCategory);
         // invert utility, as lower price has higher utility
         return Math.max(0, 1.f - util);
     }
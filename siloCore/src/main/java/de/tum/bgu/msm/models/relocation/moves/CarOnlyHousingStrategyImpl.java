@@ -69,6 +69,11 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
 
     private EnumMap<IncomeCategory, Map<Integer, Double>> utilityByIncomeByRegion = new EnumMap<>(IncomeCategory.class);
 
+    /**
+     * Shared with all duplicates of this strategy, cleared every year.
+     */
+    private CommuteFactorCache commuteFactors;
+
     public CarOnlyHousingStrategyImpl(DataContainer dataContainer,
                                       Properties properties,
                                       TravelTimes travelTimes,
@@ -92,6 +97,7 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
     @Override
     public void setup() {
         hhByRegion = new IndexedDoubleMatrix1D(geoData.getRegions().values());
+        commuteFactors = new CommuteFactorCache(geoData, commutingTimeProbability, properties.transportModel.peakHour_s);
         calculateShareOfForeignersByZoneAndRegion();
     }
 
@@ -124,8 +130,7 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
                 final Job job = jobDataManager.getJobFromId(pp.getJobId());
                 if(job != null) {
-                    int expectedCommuteTime = (int) travelTimes.getTravelTime(dwelling, job, properties.transportModel.peakHour_s, TransportMode.car);
-                    double factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, expectedCommuteTime), TransportMode.car);
+                    double factorForThisZone = commuteFactors.getCommuteFactor(travelTimes, dwelling, job, TransportMode.car);
                     workDistanceUtility *= factorForThisZone;
                 }
             }
@@ -147,6 +152,7 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
 
     @Override
     public void prepareYear() {
+        commuteFactors.clear();
         calculateShareOfForeignersByZoneAndRegion();
         calculateRegionalUtilities();
     }
@@ -178,6 +184,7 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
                 dwellingUtilityStrategy, dwellingProbabilityStrategy, regionUtilityStrategy, regionProbabilityStrategy);
         strategy.hhByRegion = hhByRegion;
         strategy.utilityByIncomeByRegion = utilityByIncomeByRegion;
+        strategy.commuteFactors = commuteFactors;
         return strategy;
     }
 
@@ -263,14 +270,10 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
 
     private double convertPriceToUtility(int price, IncomeCategory incCategory) {
 
-        Map<Integer, Float> shares = dataContainer.getRealEstateDataManager().getRentPaymentsForIncomeGroup(incCategory);
         // 25 rent categories are defined as <rent/200>, see RealEstateDataManager
         int priceCategory = (int) (price / 200f);
         priceCategory = Math.min(priceCategory, RENT_CATEGORIES);
-        double util = 0;
-        for (int i = 0; i <= priceCategory; i++) {
-            util += shares.get(i);
-        }
+        double util = dataContainer.getRealEstateDataManager().getCumulativeRentShare(incCategory, priceCategory);
         // invert utility, as lower price has higher utility
         return Math.max(0, 1.f - util);
     }
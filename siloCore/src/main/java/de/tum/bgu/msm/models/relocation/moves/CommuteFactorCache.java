@@ -0,0 +1,108 @@
+package de.tum.bgu.msm.models.relocation.moves;
+
+import de.tum.bgu.msm.data.Location;
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.data.accessibility.CommutingTimeProbability;
+import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
+import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Memoizes the commute factors of housing strategies, i.e. the commuting time probability of the travel time
+ * from a dwelling to a job, by home zone, work zone and mode. Within a year, these factors only depend on the
+ * zones, as long as travel times are zone based.
+ *
+ * Factors are only cached if travel times are skims or both locations are zones. Other travel times,
+ * e.g. routed between micro locations, are queried on every call.
+ *
+ * A cache is meant to be shared between all duplicates of a housing strategy and may be used by several threads.
+ * Rows of factors by home zone are allocated on first use. {@link #clear()} has to be called once skims and
+ * commuting time probabilities of the year are updated.
+ */
+public final class CommuteFactorCache {
+
+    private final CommutingTimeProbability commutingTimeProbability;
+    private final double timeOfDay_s;
+
+    private final int[] indexByZoneId;
+    private final int numberOfZones;
+
+    private volatile Map<String, AtomicReferenceArray<float[]>> factorsByMode = new ConcurrentHashMap<>();
+
+    /**
+     * @param timeOfDay_s the departure time of all commute trips queried through this cache
+     */
+    public CommuteFactorCache(GeoData geoData, CommutingTimeProbability commutingTimeProbability, double timeOfDay_s) {
+        this.commutingTimeProbability = commutingTimeProbability;
+        this.timeOfDay_s = timeOfDay_s;
+        int maxZoneId = 0;
+        for (int zoneId : geoData.getZones().keySet()) {
+            maxZoneId = Math.max(maxZoneId, zoneId);
+        }
+        this.indexByZoneId = new int[maxZoneId + 1];
+        Arrays.fill(indexByZoneId, -1);
+        int index = 0;
+        for (int zoneId : geoData.getZones().keySet()) {
+            if (zoneId >= 0) {
+                indexByZoneId[zoneId] = index++;
+            }
+        }
+        this.numberOfZones = index;
+    }
+
+    /**
+     * @return the commuting time probability of the travel time between the given locations,
+     * using at least one minute of travel time
+     */
+    public double getCommuteFactor(TravelTimes travelTimes, Location home, Location work, String mode) {
+        if (!(travelTimes instanceof SkimTravelTimes) && !(home instanceof Zone && work instanceof Zone)) {
+            return calculateCommuteFactor(travelTimes, home, work, mode);
+        }
+        final int origin = indexOf(home.getZoneId());
+        final int destination = indexOf(work.getZoneId());
+        if (origin < 0 || destination < 0) {
+            return calculateCommuteFactor(travelTimes, home, work, mode);
+        }
+        final float[] factors = getRow(mode, origin);
+        float factor = factors[destination];
+        if (Float.isNaN(factor)) {
+            // concurrent calculations of the same factor yield the same value
+            factor = calculateCommuteFactor(travelTimes, home, work, mode);
+            factors[destination] = factor;
+        }
+        return factor;
+    }
+
+    /**
+     * Drops all factors. Required whenever skims or commuting time probabilities change.
+     */
+    public void clear() {
+        factorsByMode = new ConcurrentHashMap<>();
+    }
+
+    private float calculateCommuteFactor(TravelTimes travelTimes, Location home, Location work, String mode) {
+        final int time = (int) travelTimes.getTravelTime(home, work, timeOfDay_s, mode);
+        return commutingTimeProbability.getCommutingTimeProbability(Math.max(1, time), mode);
+    }
+
+    private float[] getRow(String mode, int origin) {
+        final AtomicReferenceArray<float[]> rows =
+                factorsByMode.computeIfAbsent(mode, m -> new AtomicReferenceArray<>(numberOfZones));
+        float[] row = rows.get(origin);
+        if (row == null) {
+            final float[] newRow = new float[numberOfZones];
+            Arrays.fill(newRow, Float.NaN);
+            row = rows.compareAndSet(origin, null, newRow) ? newRow : rows.get(origin);
+        }
+        return row;
+    }
+
+    private int indexOf(int zoneId) {
+        return zoneId >= 0 && zoneId < indexByZoneId.length ? indexByZoneId[zoneId] : -1;
+    }
+}
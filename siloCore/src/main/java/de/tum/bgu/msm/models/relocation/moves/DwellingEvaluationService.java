@@ -0,0 +1,121 @@
+package de.tum.bgu.msm.models.relocation.moves;
+
+import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.data.household.Household;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Evaluates dwellings with a {@link HousingStrategy} on a bounded fork/join pool.
+ * Each worker thread uses its own duplicate of the strategy, which is created lazily and
+ * renewed after {@link #update(HousingStrategy)} was called. Results are written into
+ * buffers handed over by the caller, such that several searches may run at the same time.
+ * Idle workers are parked by the pool and do not consume CPU time.
+ */
+final class DwellingEvaluationService implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+
+    private final ThreadLocal<ConfinedStrategy> strategies = ThreadLocal.withInitial(ConfinedStrategy::new);
+
+    private volatile HousingStrategy prototype;
+    private volatile int generation = 0;
+
+    DwellingEvaluationService(HousingStrategy prototype, int parallelism) {
+        this.prototype = prototype;
+        this.pool = new ForkJoinPool(Math.max(1, parallelism), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("dwelling-evaluation-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Replaces the strategy from which the worker threads duplicate their own copies,
+     * e.g. after the strategy has been prepared for a new year.
+     */
+    void update(HousingStrategy prototype) {
+        this.prototype = prototype;
+        this.generation++;
+    }
+
+    int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Calculates the selection probabilities of the first {@code numberOfDwellings} dwellings for the
+     * given household in parallel. Dwellings the household is not eligible for get a probability of 0.
+     */
+    void evaluate(Household household, Dwelling[] dwellings, int numberOfDwellings, double[] probabilities) {
+        forEach(numberOfDwellings, (strategy, i) -> {
+            final Dwelling dwelling = dwellings[i];
+            if (strategy.isHouseholdEligibleToLiveHere(household, dwelling)) {
+                double util = strategy.calculateHousingUtility(household, dwelling);
+                probabilities[i] = strategy.calculateSelectDwellingProbability(util);
+            } else {
+                probabilities[i] = 0;
+            }
+        });
+    }
+
+    /**
+     * Calls the given task for every index from 0 (inclusive) to {@code size} (exclusive) on the worker
+     * threads, handing over the strategy that is confined to the executing thread. Returns once all
+     * indices were processed.
+     */
+    void forEach(int size, ObjIntConsumer<HousingStrategy> task) {
+        if (size > 0) {
+            pool.invoke(new RangeTask(task, 0, size));
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private HousingStrategy getStrategy() {
+        final ConfinedStrategy confined = strategies.get();
+        final int currentGeneration = generation;
+        if (confined.strategy == null || confined.generation != currentGeneration) {
+            synchronized (this) {
+                confined.strategy = prototype.duplicate();
+            }
+            confined.generation = currentGeneration;
+        }
+        return confined.strategy;
+    }
+
+    private static final class ConfinedStrategy {
+        private HousingStrategy strategy;
+        private int generation;
+    }
+
+    private final class RangeTask extends RecursiveAction {
+
+        private final ObjIntConsumer<HousingStrategy> task;
+        private final int from;
+        private final int to;
+
+        private RangeTask(ObjIntConsumer<HousingStrategy> task, int from, int to) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                task.accept(getStrategy(), from);
+            } else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new RangeTask(task, from, middle), new RangeTask(task, middle, to));
+            }
+        }
+    }
+}
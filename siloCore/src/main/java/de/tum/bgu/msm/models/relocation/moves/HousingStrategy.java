@@ -60,4 +60,14 @@ public interface HousingStrategy<T extends Dwelling> {
      * @return an independent/ thread safe copy of the strategy
      */
     HousingStrategy duplicate();
+
+    /**
+     * Whether the housing utility of a household only depends on its dwelling, household, jobs, zonal
+     * accessibilities and travel times, such that {@link MovesModelImpl} may re-evaluate the housing
+     * satisfaction incrementally. Strategies that use further inputs, e.g. the composition of zones, have to
+     * return false.
+     */
+    default boolean supportsIncrementalSatisfaction() {
+        return true;
+    }
 }
@@ -1,35 +1,47 @@
 package de.tum.bgu.msm.models.relocation.moves;
 
-import com.google.common.collect.ConcurrentHashMultiset;
+import cern.colt.list.tint.IntArrayList;
+import cern.colt.map.tdouble.OpenIntDoubleHashMap;
+import cern.colt.map.tint.OpenIntIntHashMap;
+import cern.colt.map.tobject.OpenIntObjectHashMap;
 import com.google.common.collect.Iterables;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.Region;
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.data.accessibility.Accessibility;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.geo.GeoData;
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.data.household.HouseholdType;
 import de.tum.bgu.msm.data.household.HouseholdUtil;
+import de.tum.bgu.msm.data.job.Job;
+import de.tum.bgu.msm.data.job.JobDataManager;
+import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.events.impls.household.MoveEvent;
 import de.tum.bgu.msm.io.output.YearByYearCsvModelTracker;
 import de.tum.bgu.msm.models.AbstractModel;
+import de.tum.bgu.msm.models.BatchEventModel;
+import de.tum.bgu.msm.models.modeChoice.CommuteModeChoiceMapping;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.properties.modules.TransportModelPropertiesModule;
 import de.tum.bgu.msm.util.concurrent.ConcurrentExecutor;
-import de.tum.bgu.msm.utils.SampleException;
-import de.tum.bgu.msm.utils.Sampler;
+import de.tum.bgu.msm.utils.CumulativeDistribution;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.commons.math3.util.Precision;
 import org.apache.log4j.Logger;
 import org.locationtech.jts.geom.Coordinate;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.DoubleSupplier;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author Nico
@@ -37,7 +49,7 @@ import java.util.concurrent.CyclicBarrier;
  * and move logic based on housing satisfaction/utility. The actual utility calculations are defined
  * in the {@link HousingStrategy} argument.
  */
-public class MovesModelImpl extends AbstractModel implements MovesModel {
+public class MovesModelImpl extends AbstractModel implements MovesModel, BatchEventModel<MoveEvent> {
 
 //    public static BufferedWriter fileWriter;
 
@@ -46,15 +58,38 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
     protected final static Logger logger = Logger.getLogger(MovesModelImpl.class);
     private static final int MAX_NUMBER_DWELLINGS = 20;
 
+    /**
+     * Household attribute that housing strategies with commute mode choice set while evaluating a dwelling, and
+     * that result monitors read after the housing satisfactions were evaluated.
+     */
+    private static final String COMMUTE_MODE_CHOICE_MAPPING = "COMMUTE_MODE_CHOICE_MAPPING";
+
     private final MovesStrategy movesStrategy;
     private final HousingStrategy housingStrategy;
 
     private final boolean threaded;
 
+    /**
+     * Number of upcoming move events whose dwelling searches are evaluated in parallel in {@link #prepareEvents(List)}.
+     */
+    private final int batchSize;
+    private final OpenIntObjectHashMap preparedMoves = new OpenIntObjectHashMap();
+
+    /**
+     * Evaluates dwellings in parallel if the model is {@link #threaded} or prepares batches of events.
+     */
+    private DwellingEvaluationService evaluationService;
+
     private final Map<HouseholdType, Double> averageHousingSatisfaction = new ConcurrentHashMap<>();
-    private final Map<Integer, Double> satisfactionByHousehold = new ConcurrentHashMap<>();
-    private final Map<Integer, Integer> householdsByZone = new HashMap<>();
-    private final Map<Integer, Double > sumOfSatisfactionsByZone = new HashMap<>();
+    private final OpenIntDoubleHashMap satisfactionByHousehold = new OpenIntDoubleHashMap();
+
+    /**
+     * Re-evaluate housing satisfaction only for households whose inputs changed since the previous year.
+     */
+    private final boolean incrementalSatisfaction;
+    private OpenIntObjectHashMap evaluationByHousehold;
+    private final OpenIntIntHashMap householdsByZone = new OpenIntIntHashMap();
+    private final OpenIntDoubleHashMap sumOfSatisfactionsByZone = new OpenIntDoubleHashMap();
     private YearByYearCsvModelTracker relocationTracker;
 
 
@@ -71,6 +106,12 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         this.movesStrategy = movesStrategy;
         this.housingStrategy = housingStrategy;
         this.threaded = properties.transportModel.travelTimeImplIdentifier == TransportModelPropertiesModule.TravelTimeImplIdentifier.MATSIM;
+        this.batchSize = properties.moves.parallelMovesBatchSize;
+        this.incrementalSatisfaction = properties.moves.incrementalSatisfaction;
+        if (incrementalSatisfaction && !housingStrategy.supportsIncrementalSatisfaction()) {
+            throw new IllegalArgumentException("moves.satisfaction.incremental is not supported by housing strategy "
+                    + housingStrategy.getClass().getSimpleName() + ". Disable it in the properties.");
+        }
     }
 
     @Override
@@ -79,15 +120,26 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         String header = new StringJoiner(",").add("hh").add("oldDdd").add("newDd").add("oldX").add("oldY").add("newX").add("newY").add("oldZone").add("newZone").add("autos").add("licenses").add("workers").toString();
         Path basePath = Paths.get(properties.main.baseDirectory).resolve("scenOutput").resolve(properties.main.scenarioName).resolve("siloResults/relocation");
         relocationTracker = new YearByYearCsvModelTracker(basePath, "relocation", header);
+        if (threaded || batchSize > 1) {
+            evaluationService = new DwellingEvaluationService(housingStrategy, properties.main.numberOfThreads);
+            logger.info("Using " + evaluationService.getParallelism() + " threads for dwelling utility evaluation");
+        }
+        if (batchSize > 1) {
+            logger.info("Evaluating move events in batches of " + batchSize);
+        }
     }
 
     @Override
     public void prepareYear(int year) {
         housingStrategy.prepareYear();
+        if (evaluationService != null) {
+            evaluationService.update(housingStrategy);
+        }
         track = false;
-        calculateAverageHousingUtility();
+        calculateAverageHousingUtility(year);
         track = true;
         relocationTracker.newYear(year);
+        preparedMoves.clear();
     }
 
     @Override
@@ -96,23 +148,15 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
             events.add(new MoveEvent(hh.getId()));
         }
-        if (threaded) {
-            final int threads = Math.max(properties.main.numberOfThreads - 1, 1);
-            UtilityUtils.startThreads(housingStrategy, threads);
-            logger.info("Started " + threads + " background threads for dwelling utility evaluation");
-        }
-
         return events;
     }
 
-    @Override
-    public void endYear(int year) {
-        UtilityUtils.endYear();
-    }
-
     @Override
     public void endSimulation() {
         relocationTracker.end();
+        if (evaluationService != null) {
+            evaluationService.close();
+        }
 //        try {
 //            fileWriter.close();
 //        } catch (IOException e) {
@@ -120,6 +164,86 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
 //        }
     }
 
+    /**
+     * Saves the housing satisfactions of the last year in addition to the random state. With
+     * {@link #incrementalSatisfaction}, the evaluations are reused in the next year.
+     */
+    @Override
+    public void writeCheckpoint(DataOutputStream out) throws IOException {
+        super.writeCheckpoint(out);
+        out.writeInt(averageHousingSatisfaction.size());
+        for (Map.Entry<HouseholdType, Double> entry : averageHousingSatisfaction.entrySet()) {
+            out.writeInt(entry.getKey().ordinal());
+            out.writeDouble(entry.getValue());
+        }
+        final IntArrayList households = satisfactionByHousehold.keys();
+        out.writeInt(households.size());
+        for (int i = 0; i < households.size(); i++) {
+            out.writeInt(households.get(i));
+            out.writeDouble(satisfactionByHousehold.get(households.get(i)));
+        }
+        final IntArrayList zones = householdsByZone.keys();
+        out.writeInt(zones.size());
+        for (int i = 0; i < zones.size(); i++) {
+            final int zone = zones.get(i);
+            out.writeInt(zone);
+            out.writeInt(householdsByZone.get(zone));
+            out.writeDouble(sumOfSatisfactionsByZone.get(zone));
+        }
+        out.writeBoolean(evaluationByHousehold != null);
+        if (evaluationByHousehold != null) {
+            final IntArrayList evaluated = evaluationByHousehold.keys();
+            out.writeInt(evaluated.size());
+            for (int i = 0; i < evaluated.size(); i++) {
+                final Evaluation evaluation = (Evaluation) evaluationByHousehold.get(evaluated.get(i));
+                out.writeInt(evaluated.get(i));
+                out.writeLong(evaluation.inputs);
+                out.writeDouble(evaluation.satisfaction);
+                out.writeBoolean(evaluation.commuteModeChoiceMapping != null);
+                if (evaluation.commuteModeChoiceMapping != null) {
+                    evaluation.commuteModeChoiceMapping.write(out);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void readCheckpoint(DataInputStream in) throws IOException {
+        super.readCheckpoint(in);
+        averageHousingSatisfaction.clear();
+        final int numberOfTypes = in.readInt();
+        for (int i = 0; i < numberOfTypes; i++) {
+            averageHousingSatisfaction.put(HouseholdType.values()[in.readInt()], in.readDouble());
+        }
+        satisfactionByHousehold.clear();
+        final int numberOfSatisfactions = in.readInt();
+        satisfactionByHousehold.ensureCapacity(numberOfSatisfactions);
+        for (int i = 0; i < numberOfSatisfactions; i++) {
+            final int householdId = in.readInt();
+            satisfactionByHousehold.put(householdId, in.readDouble());
+        }
+        householdsByZone.clear();
+        sumOfSatisfactionsByZone.clear();
+        final int numberOfZones = in.readInt();
+        for (int i = 0; i < numberOfZones; i++) {
+            final int zone = in.readInt();
+            householdsByZone.put(zone, in.readInt());
+            sumOfSatisfactionsByZone.put(zone, in.readDouble());
+        }
+        evaluationByHousehold = null;
+        if (in.readBoolean()) {
+            final int numberOfHouseholds = in.readInt();
+            evaluationByHousehold = new OpenIntObjectHashMap(numberOfHouseholds);
+            for (int i = 0; i < numberOfHouseholds; i++) {
+                final int householdId = in.readInt();
+                final long inputs = in.readLong();
+                final double satisfaction = in.readDouble();
+                final CommuteModeChoiceMapping mapping = in.readBoolean() ? CommuteModeChoiceMapping.read(in) : null;
+                evaluationByHousehold.put(householdId, new Evaluation(inputs, satisfaction, mapping));
+            }
+        }
+    }
+
     /**
      * Simulates (a) if this household moves and (b) where this household moves
      */
@@ -127,15 +251,22 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
     public boolean handleEvent(MoveEvent event) {
 
         int hhId = event.getHouseholdId();
+        final PreparedMove prepared = (PreparedMove) preparedMoves.get(hhId);
+        if (prepared != null) {
+            preparedMoves.removeKey(hhId);
+        }
         Household household = dataContainer.getHouseholdDataManager().getHouseholdFromId(hhId);
         if (household == null) {
             // Household does not exist anymore
             return false;
         }
+        if (prepared != null) {
+            return handlePreparedMove(household, prepared);
+        }
 
         // Step 1: Consider relocation if household is not very satisfied or if
         // household income exceed restriction for low-income dwelling
-        if (!moveOrNot(household)) {
+        if (!moveOrNot(household, this.random::nextDouble)) {
             return false;
         }
 
@@ -143,9 +274,67 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         // Step 2: Choose new dwelling
         int idNewDD = searchForNewDwelling(household);
 
-        if (idNewDD > 0) {
+        // Step 3: Move household
+        return relocate(household, idOldDd, idNewDD);
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Draws the random numbers of the given move events in their order and searches new dwellings for the
+     * households that would move in their current state. The searches run in parallel against the vacancy
+     * index, which is not modified during this step, and each one draws from its own random number generator
+     * seeded from the model's random, so the outcome does not depend on thread scheduling.
+     */
+    @Override
+    public void prepareEvents(List<MoveEvent> events) {
+        final List<Household> movers = new ArrayList<>(events.size());
+        final List<PreparedMove> moves = new ArrayList<>(events.size());
+        for (MoveEvent event : events) {
+            Household household = dataContainer.getHouseholdDataManager().getHouseholdFromId(event.getHouseholdId());
+            if (household == null) {
+                continue;
+            }
+            final PreparedMove move = new PreparedMove(this.random.nextDouble(), this.random.nextLong(), fingerprintSearchInputs(household));
+            preparedMoves.put(household.getId(), move);
+            if (moveOrNot(household, () -> move.decision)) {
+                movers.add(household);
+                moves.add(move);
+            }
+        }
 
-            // Step 3: Move household
+        final int[] choices = new int[movers.size()];
+        evaluationService.forEach(movers.size(), (strategy, i) ->
+                choices[i] = searchForNewDwelling(movers.get(i), strategy, new Random(moves.get(i).seed)));
+        for (int i = 0; i < choices.length; i++) {
+            moves.get(i).choice = choices[i];
+            moves.get(i).searched = true;
+        }
+    }
+
+    /**
+     * Handles a move event at its position in the event list with the random numbers drawn in
+     * {@link #prepareEvents(List)}. The prepared dwelling is only used if the household did not change since
+     * and the dwelling is still vacant. Otherwise, the household searches again against the current vacancies.
+     */
+    private boolean handlePreparedMove(Household household, PreparedMove prepared) {
+        if (!moveOrNot(household, () -> prepared.decision)) {
+            return false;
+        }
+        int idNewDD = prepared.choice;
+        if (!prepared.searched || prepared.inputs != fingerprintSearchInputs(household)
+                || (idNewDD > 0 && !dataContainer.getRealEstateDataManager().getVacantDwellingIndex().contains(idNewDD))) {
+            idNewDD = searchForNewDwelling(household, housingStrategy, new Random(prepared.seed));
+        }
+        return relocate(household, household.getDwellingId(), idNewDD);
+    }
+
+    private boolean relocate(Household household, int idOldDd, int idNewDD) {
+        final int hhId = household.getId();
+        if (idNewDD > 0) {
             dataContainer.getHouseholdDataManager().saveHouseholdMemento(household);
             printMove(household, idOldDd, idNewDD);
             moveHousehold(household, idOldDd, idNewDD);
@@ -197,79 +386,96 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
     public int searchForNewDwelling(Household household) {
 
         // Step 1: select region
+        final Region selectedRegion = selectRegion(household, housingStrategy, this.random);
+        if (selectedRegion == null) {
+            return -1;
+        }
+
+        // Step 2: select vacant dwelling in selected region
+        return selectDwelling(household, selectedRegion, housingStrategy, this.random, threaded);
+    }
+
+    /**
+     * Searches for a new dwelling using only the given strategy and random number generator. Dwellings
+     * are evaluated sequentially. Safe to be called concurrently as long as the vacancy index is not
+     * modified meanwhile.
+     */
+    private int searchForNewDwelling(Household household, HousingStrategy strategy, Random random) {
+        final Region selectedRegion = selectRegion(household, strategy, random);
+        if (selectedRegion == null) {
+            return -1;
+        }
+        return selectDwelling(household, selectedRegion, strategy, random, false);
+    }
+
+    private Region selectRegion(Household household, HousingStrategy strategy, Random random) {
         final GeoData geoData = dataContainer.getGeoData();
-        Sampler<Region> regionSampler = new Sampler<>(geoData.getRegions().size(), Region.class, this.random);
-        for (Region region : geoData.getRegions().values()) {
-            double utility;
+        final Region[] regions = geoData.getRegions().values().toArray(new Region[0]);
+        final double[] utilities = new double[regions.length];
+        for (int i = 0; i < regions.length; i++) {
+            final Region region = regions[i];
             if (dataContainer.getRealEstateDataManager().getNumberOfVacantDDinRegion(region.getId()) == 0) {
                 // if utility it normalized by regional attibutes other than number of vacant dwellings, it could happen
                 // that a region is chosen with 0 vacant dwellings. To avoid this case, set utility to 0 if no vacant
                 // dwellings are available in that region.
-                utility = 0.;
+                utilities[i] = 0.;
             } else {
-                utility = housingStrategy.calculateRegionalUtility(household, region);
+                utilities[i] = strategy.calculateRegionalUtility(household, region);
             }
-            regionSampler.incrementalAdd(region, utility);
-        }
-        if (regionSampler.getCumulatedProbability() == 0.) {
-            return -1;
         }
-        Region selectedRegion;
+        final CumulativeDistribution distribution;
         try {
-            selectedRegion = regionSampler.sampleObject();
-        } catch (SampleException e) {
-            throw new RuntimeException(e);
+            distribution = new CumulativeDistribution(utilities);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Could not select a region for household " + household.getId() + ": " + e.getMessage());
+            return null;
         }
-
-        // Step 2: select vacant dwelling in selected region
-        List<Dwelling> vacantDwellings
-                = new ArrayList<>(dataContainer.getRealEstateDataManager().getListOfVacantDwellingsInRegion(selectedRegion.getId()));
-        if (vacantDwellings.isEmpty()) {
-            return -1;
+        if (distribution.getTotalWeight() == 0.) {
+            return null;
         }
+        return regions[distribution.sample(random)];
+    }
 
+    private int selectDwelling(Household household, Region region, HousingStrategy strategy, Random random,
+                               boolean parallel) {
         /** No household will evaluate more than {@link MAX_NUMBER_DWELLINGS} dwellings */
-        int maxNumberOfDwellings = Math.min(MAX_NUMBER_DWELLINGS, vacantDwellings.size());
-
-        UtilityUtils.reset();
-
-        Collections.shuffle(vacantDwellings, this.random);
-        for (int i = 0; i < maxNumberOfDwellings; i++) {
-            Dwelling dwelling = vacantDwellings.get(i);
-            if (housingStrategy.isHouseholdEligibleToLiveHere(household, dwelling)) {
-                if (threaded) {
-                    UtilityUtils.queue.add(new UtilityTask(i, dwelling, household));
-                } else {
-                    double util = housingStrategy.calculateHousingUtility(household, dwelling);
-                    double prob = housingStrategy.calculateSelectDwellingProbability(util);
-                    UtilityUtils.probabilities[i] = prob;
-                    UtilityUtils.dwellings[i] = dwelling;
-                }
-            } else {
-                maxNumberOfDwellings--;
-            }
+        final Dwelling[] vacantDwellings = new Dwelling[MAX_NUMBER_DWELLINGS];
+        final int numberOfDwellings = dataContainer.getRealEstateDataManager()
+                .sampleVacantDwellingsInRegion(region.getId(), random, vacantDwellings);
+        if (numberOfDwellings == 0) {
+            return -1;
         }
-
-
-        if (threaded) {
-            try {
-                UtilityUtils.barrier.await();
-                UtilityUtils.barrier.await();
-            } catch (InterruptedException | BrokenBarrierException e) {
-                e.printStackTrace();
+        final double[] probabilities = new double[numberOfDwellings];
+        if (parallel) {
+            evaluationService.evaluate(household, vacantDwellings, numberOfDwellings, probabilities);
+        } else {
+            for (int i = 0; i < numberOfDwellings; i++) {
+                Dwelling dwelling = vacantDwellings[i];
+                if (strategy.isHouseholdEligibleToLiveHere(household, dwelling)) {
+                    double util = strategy.calculateHousingUtility(household, dwelling);
+                    probabilities[i] = strategy.calculateSelectDwellingProbability(util);
+                }
             }
         }
-
-        Sampler<Dwelling> sampler = new Sampler<>(UtilityUtils.dwellings, UtilityUtils.probabilities, this.random);
+        final CumulativeDistribution distribution;
         try {
-            return sampler.sampleObject().getId();
-        } catch (SampleException e) {
-            logger.warn(e.getMessage());
+            distribution = new CumulativeDistribution(probabilities);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Could not select a dwelling for household " + household.getId() + ": " + e.getMessage());
             return -1;
         }
+        if (distribution.getTotalWeight() == 0.) {
+            logger.warn("Could not select a dwelling for household " + household.getId() + ": no eligible dwelling.");
+            return -1;
+        }
+        return vacantDwellings[distribution.sample(random)].getId();
     }
 
-    private boolean moveOrNot(Household household) {
+    /**
+     * @param decision supplies the uniform random number that is compared to the moving probability. It is only
+     *                 drawn if the household is eligible to stay in its dwelling.
+     */
+    private boolean moveOrNot(Household household, DoubleSupplier decision) {
         HouseholdType hhType = household.getHouseholdType();
         Dwelling dd = dataContainer.getRealEstateDataManager().getDwelling(household.getDwellingId());
         if (!housingStrategy.isHouseholdEligibleToLiveHere(household, dd)) {
@@ -279,20 +485,34 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         final double avgSatisfaction = averageHousingSatisfaction.getOrDefault(hhType, currentUtil);
 
         final double prop = movesStrategy.getMovingProbability(avgSatisfaction, currentUtil);
-        return this.random.nextDouble() <= prop;
+        return decision.getAsDouble() <= prop;
     }
 
 
-    private void calculateAverageHousingUtility() {
+    private void calculateAverageHousingUtility(int year) {
         HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
         logger.info("Evaluating average housing utility of " + householdDataManager.getHouseholds().size() + " households.");
+
+        // evaluations of the previous year can only be reused as long as travel times did not change since
+        final OpenIntObjectHashMap previousEvaluations =
+                incrementalSatisfaction && !travelTimesMayHaveChanged(year) ? evaluationByHousehold : null;
+        if (incrementalSatisfaction && evaluationByHousehold != null && previousEvaluations == null) {
+            logger.info("Travel times may have changed, re-evaluating all households.");
+        }
+
         satisfactionByHousehold.clear();
-        averageHousingSatisfaction.replaceAll((householdType, aDouble) -> 0.);
+        satisfactionByHousehold.ensureCapacity(householdDataManager.getHouseholds().size());
         householdsByZone.clear();
         sumOfSatisfactionsByZone.clear();
 
         final Collection<Household> households = householdDataManager.getHouseholds();
-        ConcurrentHashMultiset<HouseholdType> hhByType = ConcurrentHashMultiset.create();
+        final EnumMap<HouseholdType, DoubleAdder> satisfactionSumByType = new EnumMap<>(HouseholdType.class);
+        final EnumMap<HouseholdType, LongAdder> householdsByType = new EnumMap<>(HouseholdType.class);
+        for (HouseholdType householdType : HouseholdType.values()) {
+            satisfactionSumByType.put(householdType, new DoubleAdder());
+            householdsByType.put(householdType, new LongAdder());
+        }
+        final LongAdder reevaluated = new LongAdder();
 
         int numberOfTasks;
 
@@ -308,19 +528,39 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         logger.info("Using " + numberOfTasks + " thread(s)" +
                 " with partitions of size " + partitionSize);
 
+        // tasks only write their own arrays, which are merged into the maps afterwards
+        final List<List<Household>> evaluatedPartitions = new ArrayList<>();
+        final List<int[]> zonesByPartition = new ArrayList<>();
+        final List<Evaluation[]> evaluationsByPartition = new ArrayList<>();
         for (final List<Household> partition : partitions) {
             HousingStrategy strategy = housingStrategy.duplicate();
+            final int[] zones = new int[partition.size()];
+            final Evaluation[] evaluations = new Evaluation[partition.size()];
+            evaluatedPartitions.add(partition);
+            zonesByPartition.add(zones);
+            evaluationsByPartition.add(evaluations);
             executor.addTaskToQueue(() -> {
                 try {
+                    int i = 0;
                     for (Household hh : partition) {
                         final HouseholdType householdType = hh.getHouseholdType();
-                        hhByType.add(householdType);
                         Dwelling dd = dataContainer.getRealEstateDataManager().getDwelling(hh.getDwellingId());
-                        final double util = strategy.calculateHousingUtility(hh, dd);
-                        satisfactionByHousehold.put(hh.getId(), util);
-                        householdsByZone.put(dd.getZoneId(), householdsByZone.getOrDefault(dd.getZoneId(), 0) + 1);
-                        sumOfSatisfactionsByZone.put(dd.getZoneId(), sumOfSatisfactionsByZone.getOrDefault(dd.getZoneId(), 0.) + util);
-                        averageHousingSatisfaction.merge(householdType, util, (oldUtil, newUtil) -> oldUtil + newUtil);
+                        final long inputs = incrementalSatisfaction ? fingerprintInputs(hh, dd) : 0;
+                        Evaluation evaluation = previousEvaluations == null ? null : (Evaluation) previousEvaluations.get(hh.getId());
+                        if (evaluation == null || evaluation.inputs != inputs) {
+                            final double satisfaction = strategy.calculateHousingUtility(hh, dd);
+                            evaluation = new Evaluation(inputs, satisfaction, incrementalSatisfaction ?
+                                    (CommuteModeChoiceMapping) hh.getAttribute(COMMUTE_MODE_CHOICE_MAPPING).orElse(null) : null);
+                            reevaluated.increment();
+                        } else if (evaluation.commuteModeChoiceMapping != null) {
+                            // dwelling searches since the evaluation may have left the mapping of another dwelling
+                            hh.setAttribute(COMMUTE_MODE_CHOICE_MAPPING, evaluation.commuteModeChoiceMapping);
+                        }
+                        zones[i] = dd.getZoneId();
+                        evaluations[i] = evaluation;
+                        i++;
+                        householdsByType.get(householdType).increment();
+                        satisfactionSumByType.get(householdType).add(evaluation.satisfaction);
                     }
                 } catch (Exception e) {
                     throw new RuntimeException(e);
@@ -329,10 +569,132 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
             });
         }
         executor.execute();
-        logger.info("Done evaluating average housing utility.");
 
-        averageHousingSatisfaction.replaceAll((householdType, satisfaction) ->
-                Precision.round(satisfaction / (1. * hhByType.count(householdType)), 5));
+        final OpenIntObjectHashMap evaluations = incrementalSatisfaction ? new OpenIntObjectHashMap(households.size()) : null;
+        for (int p = 0; p < evaluatedPartitions.size(); p++) {
+            final List<Household> partition = evaluatedPartitions.get(p);
+            final int[] zones = zonesByPartition.get(p);
+            final Evaluation[] evaluationsOfPartition = evaluationsByPartition.get(p);
+            for (int i = 0; i < zones.length; i++) {
+                final int zone = zones[i];
+                final int householdId = partition.get(i).getId();
+                final double satisfaction = evaluationsOfPartition[i].satisfaction;
+                satisfactionByHousehold.put(householdId, satisfaction);
+                householdsByZone.put(zone, householdsByZone.get(zone) + 1);
+                sumOfSatisfactionsByZone.put(zone, sumOfSatisfactionsByZone.get(zone) + satisfaction);
+                if (evaluations != null) {
+                    evaluations.put(householdId, evaluationsOfPartition[i]);
+                }
+            }
+        }
+        evaluationByHousehold = evaluations;
+        logger.info("Done evaluating average housing utility. Evaluated " + reevaluated.sum() + " households.");
+
+        for (HouseholdType householdType : HouseholdType.values()) {
+            final long count = householdsByType.get(householdType).sum();
+            if (count > 0 || averageHousingSatisfaction.containsKey(householdType)) {
+                averageHousingSatisfaction.put(householdType,
+                        Precision.round(satisfactionSumByType.get(householdType).sum() / (1. * count), 5));
+            }
+        }
+    }
+
+    /**
+     * Skims are updated at the end of skim years, the transport model runs in transport model years.
+     */
+    private boolean travelTimesMayHaveChanged(int year) {
+        final Set<Integer> skimYears = properties.accessibility.skimYears;
+        final Set<Integer> transportModelYears = properties.transportModel.transportModelYears;
+        return skimYears.contains(year) || skimYears.contains(year - 1)
+                || transportModelYears.contains(year) || transportModelYears.contains(year - 1);
+    }
+
+    /**
+     * Fingerprint of the inputs to the housing utility of a household that may change between years:
+     * the dwelling and its attributes, the accessibilities of its zone, the household type and cars, and the
+     * occupation and job location of all members. Travel times are not part of the fingerprint.
+     */
+    private long fingerprintInputs(Household hh, Dwelling dd) {
+        long fingerprint = mix(0, dd.getId());
+        fingerprint = mix(fingerprint, dd.getZoneId());
+        fingerprint = mix(fingerprint, dd.getPrice());
+        fingerprint = mix(fingerprint, dd.getQuality());
+        fingerprint = mix(fingerprint, dd.getBedrooms());
+        final Zone zone = dataContainer.getGeoData().getZones().get(dd.getZoneId());
+        final Accessibility accessibility = dataContainer.getAccessibility();
+        fingerprint = mix(fingerprint, Double.doubleToLongBits(accessibility.getAutoAccessibilityForZone(zone)));
+        fingerprint = mix(fingerprint, Double.doubleToLongBits(accessibility.getTransitAccessibilityForZone(zone)));
+        fingerprint = mix(fingerprint, hh.getHouseholdType() == null ? -1 : hh.getHouseholdType().ordinal());
+        fingerprint = mix(fingerprint, hh.getAutos());
+        final JobDataManager jobDataManager = dataContainer.getJobDataManager();
+        for (Person person : hh.getPersons().values()) {
+            fingerprint = mix(fingerprint, person.getId());
+            fingerprint = mix(fingerprint, person.getOccupation() == null ? -1 : person.getOccupation().ordinal());
+            final Job job = person.getJobId() > 0 ? jobDataManager.getJobFromId(person.getJobId()) : null;
+            fingerprint = mix(fingerprint, job == null ? person.getJobId() : job.getId());
+            if (job != null) {
+                fingerprint = mix(fingerprint, job.getZoneId());
+                final Coordinate coordinate = job.getCoordinate();
+                if (coordinate != null) {
+                    fingerprint = mix(fingerprint, Double.doubleToLongBits(coordinate.x));
+                    fingerprint = mix(fingerprint, Double.doubleToLongBits(coordinate.y));
+                }
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Fingerprint of the household attributes a dwelling search depends on, used to detect households that
+     * changed between the preparation and the handling of their move event.
+     */
+    private long fingerprintSearchInputs(Household household) {
+        final Dwelling dwelling = dataContainer.getRealEstateDataManager().getDwelling(household.getDwellingId());
+        final long fingerprint = mix(fingerprintInputs(household, dwelling), household.getHhSize());
+        return mix(fingerprint, HouseholdUtil.getAnnualHhIncome(household));
+    }
+
+    private static long mix(long fingerprint, long value) {
+        long h = (fingerprint ^ value) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * Housing satisfaction of a household together with the fingerprint of the inputs it was evaluated for and
+     * the commute mode choice the strategy made for the dwelling, if any.
+     */
+    private static final class Evaluation {
+
+        private final long inputs;
+        private final double satisfaction;
+        private final CommuteModeChoiceMapping commuteModeChoiceMapping;
+
+        private Evaluation(long inputs, double satisfaction, CommuteModeChoiceMapping commuteModeChoiceMapping) {
+            this.inputs = inputs;
+            this.satisfaction = satisfaction;
+            this.commuteModeChoiceMapping = commuteModeChoiceMapping;
+        }
+    }
+
+    /**
+     * Random numbers of a move event drawn ahead of its handling, and the dwelling chosen for the household
+     * in the state it had at that time.
+     */
+    private static final class PreparedMove {
+
+        private final double decision;
+        private final long seed;
+        private final long inputs;
+        private int choice;
+        private boolean searched;
+
+        private PreparedMove(double decision, long seed, long inputs) {
+            this.decision = decision;
+            this.seed = seed;
+            this.inputs = inputs;
+        }
     }
 
     @Override
@@ -354,117 +716,17 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         }
     }
 
-    private static class UtilityTask {
-        private final int id;
-        private final Dwelling dwelling;
-        private final Household household;
-
-        private UtilityTask(int id, Dwelling dwelling, Household household) {
-            this.id = id;
-            this.dwelling = dwelling;
-            this.household = household;
-        }
-    }
-
-    private static class UtilityUtils extends Thread {
-
-        /**
-         * The queue that each thread listens to to poll for new dwelling evaluations.
-         * Tasks are put into the queue from the main thread inside the searchForNewDwelling method
-         */
-        private static final Queue<UtilityTask> queue = new ConcurrentLinkedQueue<>();
-
-        private static CyclicBarrier barrier;
-
-        /**
-         * boolean that is used to stop threads once they're running.
-         */
-        private static boolean run = false;
-
-        /**
-         * static array that is used to store probabilities of dwelling evaluations accessed
-         * from different threads
-         */
-        private static double[] probabilities;
-
-        /**
-         * static array that is used to store dwellings of evaluations accessed
-         * from different threads
-         */
-        private static Dwelling[] dwellings;
-
-        /**
-         * the strategy for each thread that is used for dwelling evaluation
-         */
-        private HousingStrategy strategy;
-
-        private UtilityUtils(HousingStrategy strategy) {
-            this.strategy = strategy;
-        }
-
-        /**
-         * reset static probability and dwelling arrays for the next dwelling search.
-         * reset the job counter.
-         */
-        private static void reset() {
-            probabilities = new double[MAX_NUMBER_DWELLINGS];
-            dwellings = new Dwelling[MAX_NUMBER_DWELLINGS];
-        }
-
-        /**
-         * start the given number of background threads with the given housing strategy.
-         * The strategy will be duplicated for each thread to ensure thread-safety.
-         */
-        private static void startThreads(HousingStrategy strategy, int threads) {
-            run = true;
-            barrier = new CyclicBarrier(threads +1);
-            for (int i = 0; i < threads; i++) {
-                UtilityUtils thread = new UtilityUtils(strategy.duplicate());
-                thread.setDaemon(true);
-                thread.start();
-            }
-        }
-
-        /**
-         * stop the background threads from running
-         */
-        private static void endYear() {
-            run = false;
-        }
-
-        /**
-         * when running, a thread polls the queue for utility tasks. for each task
-         * a dwelling has to be evaluated. after the evaluation, the probabilities
-         * are stored in the static array that is shared among the threads and the
-         * jobcounter is incremented
-         */
-        @Override
-        public void run() {
-            while (run) {
-                final UtilityTask poll = queue.poll();
-                if (poll != null) {
-                    final Dwelling dwelling = poll.dwelling;
-                    final double util = strategy.calculateHousingUtility(poll.household, dwelling);
-                    double probability = strategy.calculateSelectDwellingProbability(util);
-                    final int i = poll.id;
-                    probabilities[i] = probability;
-                    dwellings[i] = dwelling;
-                } else {
-                    try {
-                        barrier.await();
-                    } catch (InterruptedException | BrokenBarrierException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
-        }
-    }
-
-    public Map<Integer, Integer> getHouseholdsByZone() {
+    /**
+     * @return the number of households by zone id in the current year, 0 for zones without households
+     */
+    public OpenIntIntHashMap getHouseholdsByZone() {
         return householdsByZone;
     }
 
-    public Map<Integer, Double> getSumOfSatisfactionsByZone() {
+    /**
+     * @return the sum of housing satisfactions by zone id in the current year, 0 for zones without households
+     */
+    public OpenIntDoubleHashMap getSumOfSatisfactionsByZone() {
         return sumOfSatisfactionsByZone;
     }
 }
\ No newline at end of file
@@ -276,14 +276,10 @@ public class SimpleCommuteModeChoiceHousingStrategyImpl implements HousingStrate
 
     private double convertPriceToUtility(int price, IncomeCategory incCategory) {
 
-        Map<Integer, Float> shares = dataContainer.getRealEstateDataManager().getRentPaymentsForIncomeGroup(incCategory);
         // 25 rent categories are defined as <rent/200>, see RealEstateDataManager
         int priceCategory = (int) (price / 200f);
         priceCategory = Math.min(priceCategory, RENT_CATEGORIES);
-        double util = 0;
-        for (int i = 0; i <= priceCategory; i++) {
-            util += shares.get(i);
-        }
+        double util = dataContainer.getRealEstateDataManager().getCumulativeRentShare(incCategory, priceCategory);
         // invert utility, as lower price has higher utility
         return Math.max(0, 1.f - util);
     }
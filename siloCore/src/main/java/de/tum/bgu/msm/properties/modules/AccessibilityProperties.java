@@ -42,6 +42,13 @@ public class AccessibilityProperties {
     public final double skimFileFactorTransit;
     public final Set<Integer> skimYears;
 
+    /**
+     * Directory in which skims read from OMX files are cached as binary matrices, see
+     * {@link de.tum.bgu.msm.utils.BinarySkimCache}. Scenarios on the same host can share it.
+     * Default = empty, which disables the cache.
+     */
+    public final String skimCacheDirectory;
+
     public final float betaTimeCarExponentialCommutingTime;
     public final float betaTimePtExponentialCommutingTime;
 
@@ -74,6 +81,7 @@ public class AccessibilityProperties {
         skimFileFactorCar = PropertiesUtil.getDoubleProperty(bundle, "skims.factor.car", 1.);
         transitPeakSkim = PropertiesUtil.getStringProperty(bundle,"transit.peak.time.matrix.name", "travelTimeTransit");
         skimFileFactorTransit = PropertiesUtil.getDoubleProperty(bundle, "skims.factor.transit", 1/60.);
+        skimCacheDirectory = PropertiesUtil.getStringProperty(bundle, "skims.cache.directory", "");
 
         betaTimeCarExponentialCommutingTime = (float) PropertiesUtil.getDoubleProperty(bundle, "beta.time.utility.car", -0.01);
         betaTimePtExponentialCommutingTime = (float) PropertiesUtil.getDoubleProperty(bundle, "beta.time.utility.pt", -0.01);
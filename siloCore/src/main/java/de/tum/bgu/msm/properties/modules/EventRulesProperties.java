@@ -25,6 +25,13 @@ public class EventRulesProperties {
     public final boolean dwellingDemolition;
     public final boolean dwellingConstruction;
 
+    /**
+     * If true, demographic models draw the outcome of probabilistic events (death, birth, divorce,
+     * drivers license) when creating the events of a year and only schedule the events that will fire.
+     * Probabilities are then evaluated with the attributes at the beginning of the year.
+     */
+    public final boolean prefilterDemographicEvents;
+
     public EventRulesProperties(ResourceBundle bundle) {
         PropertiesUtil.newPropertySubmodule("Event rule properties");
         allDemography = PropertiesUtil.getBooleanProperty(bundle, "event.all.demography", true);
@@ -45,5 +52,6 @@ public class EventRulesProperties {
         dwellingChangeQuality = PropertiesUtil.getBooleanProperty(bundle, "event.ddChangeQual", true);
         dwellingDemolition = PropertiesUtil.getBooleanProperty(bundle, "event.ddDemolition", true);
         dwellingConstruction = PropertiesUtil.getBooleanProperty(bundle, "event.ddConstruction", true);
+        prefilterDemographicEvents = PropertiesUtil.getBooleanProperty(bundle, "event.prefilter.demography", false);
     }
 }
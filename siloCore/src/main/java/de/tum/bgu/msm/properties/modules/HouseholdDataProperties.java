@@ -12,6 +12,7 @@ public final class HouseholdDataProperties {
     public final boolean summarizeMetro;
     public final String selectedMetroStopsFile;
     public final String householdsNearMetroFile;
+    public final boolean columnarStore;
 
     public final String householdIntermediatesFileName;
     public final String householdFinalFileName;
@@ -33,5 +34,6 @@ public final class HouseholdDataProperties {
         summarizeMetro = PropertiesUtil.getBooleanProperty(bundle, "summarize.hh.near.selected.metro.stp", false);
         selectedMetroStopsFile = PropertiesUtil.getStringProperty(bundle, "selected.metro.stops","input/housingNearMetroTracer.csv" );
         householdsNearMetroFile = PropertiesUtil.getStringProperty(bundle, "hh.near.selected.metro.stops.summary", "householdNearSelectedMetroStops");
+        columnarStore = PropertiesUtil.getBooleanProperty(bundle, "household.data.columnar", false);
     }
 }
@@ -12,6 +12,7 @@ public final class JobDataProperties {
     public final String jobsFileName;
     public final String jobsIntermediatesFileName;
     public final String jobsFinalFileName;
+    public final boolean columnarStore;
     public final JobForecastMethod jobForecastMethod;
     public final String jobControlTotalsFileName;
     public final String employmentForeCastFile;
@@ -46,6 +47,7 @@ public final class JobDataProperties {
         jobsFileName = PropertiesUtil.getStringProperty(bundle, "job.file.ascii", "microData/jj");
         jobsIntermediatesFileName = PropertiesUtil.getStringProperty(bundle, "job.intermediates.file.ascii", "microData/jj");
         jobsFinalFileName = PropertiesUtil.getStringProperty(bundle, "job.final.file.ascii", "microData/jj");
+        columnarStore = PropertiesUtil.getBooleanProperty(bundle, "job.data.columnar", false);
 
         PropertiesUtil.newPropertySubmodule("Job - job time input");
         jobStartTimeDistributionFile = PropertiesUtil.getStringProperty(bundle, "job.start.distribution.file", "input/jobStartTimeDistributions.csv");
@@ -56,6 +56,12 @@ public class MainProperties {
      */
     public final int qualityLevels;
 
+    /**
+     * Directory in which the population read from the micro data files is cached, see
+     * {@link de.tum.bgu.msm.utils.PopulationCache}. Default = empty, which disables the cache.
+     */
+    public final String populationCacheDirectory;
+
     /**
      * Model seed. By default it is equal to -1 and generates a random result.
      */
@@ -65,6 +71,16 @@ public class MainProperties {
      * Print out the synthetic population nd the development capacity file at the final year
      */
     public final boolean printOutFinalSyntheticPopulation;
+
+    /**
+     * Years at the end of which the complete simulation state is written to a checkpoint file.
+     */
+    public final Set<Integer> checkpointYears;
+
+    /**
+     * Checkpoint file to restart the simulation from. Empty by default, i.e. the micro data of the start year are read.
+     */
+    public final String checkpointRestartFile;
     
     /**
      * Returns the number of logical threads available at runtime.
@@ -117,12 +133,18 @@ public class MainProperties {
         randomSeed = PropertiesUtil.getIntProperty(bundle, "random.seed", -1);
         printOutFinalSyntheticPopulation = PropertiesUtil.getBooleanProperty(bundle, "print.out.sp.final", false);
 
+        PropertiesUtil.newPropertySubmodule("Main - checkpoints");
+        checkpointYears = Arrays.stream(PropertiesUtil.getIntPropertyArray(bundle, "checkpoint.years", new int[] {-1}))
+                .boxed().filter(i -> i > 0).collect(Collectors.toSet());
+        checkpointRestartFile = PropertiesUtil.getStringProperty(bundle, "checkpoint.restart.file", "");
+
         PropertiesUtil.newPropertySubmodule("Main - runtime tracking");
         trackTime = PropertiesUtil.getBooleanProperty(bundle, "track.time", true);
 
         PropertiesUtil.newPropertySubmodule("Main - dwelling and income input data");
         incomeBrackets = PropertiesUtil.getIntPropertyArray(bundle,"income.brackets.hh.types", new int[]{20000,40000,60000}); //munich implementation
         qualityLevels = PropertiesUtil.getIntProperty(bundle, "dwelling.quality.levels.distinguished", 4);
+        populationCacheDirectory = PropertiesUtil.getStringProperty(bundle, "population.cache.directory", "");
 
         PropertiesUtil.newPropertySubmodule("Main microlocation");
 
@@ -144,4 +166,11 @@ public class MainProperties {
 
         scaleFactor = PropertiesUtil.getDoubleProperty(bundle, "scale.factor", 1.);
     }
+
+    /**
+     * @return whether the simulation continues from a checkpoint, in which case result files of earlier years are appended to
+     */
+    public boolean isRestartedFromCheckpoint() {
+        return !checkpointRestartFile.isEmpty();
+    }
 }
@@ -17,6 +17,23 @@ public final class MovesProperties {
 
     public final boolean trackRelocations;
 
+    /**
+     * Number of upcoming move events whose dwelling searches are evaluated in parallel ahead of
+     * their handling. Events are still handled in the order of the event list. Values smaller
+     * than 2 search dwellings only when a move event is handled.
+     */
+    public final int parallelMovesBatchSize;
+
+    /**
+     * Re-evaluates the housing satisfaction of a household at the beginning of a year only if its dwelling,
+     * household, jobs or zonal accessibilities changed, or travel times may have changed. Only valid for housing
+     * strategies whose utilities do not depend on further inputs, such as the racial composition of zones. The
+     * moves model refuses to start if its housing strategy does not support it, e.g. for MSTM, Cape Town and the
+     * parking based strategy of the Munich AV scenario. Households that are not evaluated again keep the satisfaction
+     * and the commute mode choice of their last evaluation, including its random draws.
+     */
+    public final boolean incrementalSatisfaction;
+
     public final float B_TIME;
     public final float B_PT;
     public final float B_EXP_HOUSING_UTILITY;
@@ -38,6 +55,8 @@ public final class MovesProperties {
         provideLowIncomeSubsidy = PropertiesUtil.getBooleanProperty(bundle, "provide.housing.subsidy.to.low.inc", false);
 
         trackRelocations = PropertiesUtil.getBooleanProperty(bundle, "track.relocations", true);
+        parallelMovesBatchSize = PropertiesUtil.getIntProperty(bundle, "moves.parallel.batch.size", 0);
+        incrementalSatisfaction = PropertiesUtil.getBooleanProperty(bundle, "moves.satisfaction.incremental", false);
 
         B_TIME = (float) PropertiesUtil.getDoubleProperty(bundle, "mode.choice.impedance.coefficient", 10f);
         B_PT = (float) PropertiesUtil.getDoubleProperty(bundle, "mode.choice.pt.asc", 0f);
@@ -9,6 +9,7 @@ public class RealEstateProperties {
     public final String dwellingsFileName;
     public final String dwellingsIntermediatesFileName;
     public final String dwellingsFinalFileName;
+    public final boolean columnarStore;
     public final boolean constructionOverwriteDwelling;
     public final boolean traceOverwriteDwellings;
     public final String overWriteDwellingsTraceFile;
@@ -25,6 +26,7 @@ public class RealEstateProperties {
         dwellingsFileName = PropertiesUtil.getStringProperty(bundle, "dwelling.file.ascii", "microData/dd");
         dwellingsIntermediatesFileName = PropertiesUtil.getStringProperty(bundle, "dwelling.intermediates.file.ascii", "microData/dd");
         dwellingsFinalFileName = PropertiesUtil.getStringProperty(bundle, "dwelling.final.file.ascii", "microData/dd");
+        columnarStore = PropertiesUtil.getBooleanProperty(bundle, "dwelling.data.columnar", false);
 
         PropertiesUtil.newPropertySubmodule("Real state - model parameters and input");
         constructionOverwriteDwelling = PropertiesUtil.getBooleanProperty(bundle, "construct.dwelling.use.overwrite", false);
@@ -0,0 +1,23 @@
+package de.tum.bgu.msm.simulator;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * State that is carried from one simulation year to the next and that cannot be rebuilt from the
+ * micro data alone, e.g. random number generators or distributions of the base year.
+ * Implementations are saved into and restored from a {@link SimulationCheckpoint}.
+ */
+public interface Checkpointable {
+
+    /**
+     * Writes the state at the end of a simulation year.
+     */
+    void writeCheckpoint(DataOutputStream out) throws IOException;
+
+    /**
+     * Restores the state written by {@link #writeCheckpoint(DataOutputStream)}. Called after {@link UpdateListener#setup()}.
+     */
+    void readCheckpoint(DataInputStream in) throws IOException;
+}
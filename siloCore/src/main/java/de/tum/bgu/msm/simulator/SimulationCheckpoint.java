@@ -0,0 +1,242 @@
+package de.tum.bgu.msm.simulator;
+
+import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.io.BinaryMicroData;
+import de.tum.bgu.msm.utils.PopulationCache;
+import de.tum.bgu.msm.utils.RandomState;
+import de.tum.bgu.msm.utils.SiloUtil;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Binary snapshot of the simulation state at the end of a year. Contains the dwellings, jobs, households and
+ * persons, the attributes and entities of the use case written by its {@link PopulationCache.Extension}s, the
+ * global random number generator, the random number generators provided during the setup (see
+ * {@link SiloUtil#getRandomsOfSetup()}) and one section per {@link Checkpointable} component.
+ * Restarting from a checkpoint of year t continues the simulation with year t+1.
+ *
+ * The micro data are stored by id, which is also the order in which the stores iterate them, so restarted runs
+ * create and shuffle the events of a year like uninterrupted runs. Skims read in skim years are read again when
+ * restoring. A restarted run differs from an uninterrupted one in the following cases:
+ * <ul>
+ *     <li>travel times of a transport model, e.g. MATSim, are not saved. The restarted run uses the travel times
+ *     after the setup until the next transport model year, so checkpoints should be written in transport model
+ *     years.</li>
+ *     <li>random number generators that are not provided by {@link SiloUtil#provideNewRandom()} during the setup
+ *     or held by a {@link Checkpointable} component, e.g. generators of strategy duplicates created while
+ *     simulating a year and kept for later years, restart with a different state.</li>
+ *     <li>other state carried from one year to the next by components that do not implement
+ *     {@link Checkpointable}.</li>
+ * </ul>
+ */
+public final class SimulationCheckpoint {
+
+    private final static Logger logger = Logger.getLogger(SimulationCheckpoint.class);
+
+    private static final int MAGIC = 0x53494C4F;
+    private static final int VERSION = 3;
+    private static final int RANDOM_STATE_BYTES = 8 + 1 + 8;
+
+    private final int year;
+    private final byte[] randomState;
+    private final int numberOfRandomsOfSetup;
+    private final byte[] randomStatesOfSetup;
+    private final Map<String, byte[]> sections;
+
+    private SimulationCheckpoint(int year, byte[] randomState, int numberOfRandomsOfSetup, byte[] randomStatesOfSetup,
+                                 Map<String, byte[]> sections) {
+        this.year = year;
+        this.randomState = randomState;
+        this.numberOfRandomsOfSetup = numberOfRandomsOfSetup;
+        this.randomStatesOfSetup = randomStatesOfSetup;
+        this.sections = sections;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * Writes the state at the end of the given year. Components that do not implement {@link Checkpointable} are skipped.
+     * @see #checkExtensions(DataContainer, List)
+     */
+    public static void write(String fileName, int year, String scenarioName, DataContainer dataContainer,
+                             List<PopulationCache.Extension> extensions, List<?> components) {
+        checkExtensions(dataContainer, extensions);
+        new File(fileName).getParentFile().mkdirs();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(fileName), 1 << 16), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(year);
+            out.writeUTF(scenarioName);
+            RandomState.write(SiloUtil.getRandomObject(), out);
+            final List<Random> randomsOfSetup = SiloUtil.getRandomsOfSetup();
+            out.writeInt(randomsOfSetup.size());
+            for (Random random : randomsOfSetup) {
+                RandomState.write(random, out);
+            }
+
+            BinaryMicroData.write(out, dataContainer);
+            out.writeInt(extensions.size());
+            for (PopulationCache.Extension extension : extensions) {
+                out.writeUTF(extension.getClass().getName());
+                extension.write(out);
+            }
+
+            final Map<String, Checkpointable> checkpointables = getCheckpointables(components);
+            out.writeInt(checkpointables.size());
+            for (Map.Entry<String, Checkpointable> checkpointable : checkpointables.entrySet()) {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (DataOutputStream section = new DataOutputStream(bytes)) {
+                    checkpointable.getValue().writeCheckpoint(section);
+                }
+                out.writeUTF(checkpointable.getKey());
+                out.writeInt(bytes.size());
+                bytes.writeTo(out);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write checkpoint " + fileName, e);
+        }
+        logger.info("  Wrote checkpoint of year " + year + " to " + fileName);
+    }
+
+    /**
+     * Fails if the micro data contain entities of the use case but no extension is given, as their attributes would
+     * be lost in a checkpoint.
+     */
+    public static void checkExtensions(DataContainer dataContainer, List<PopulationCache.Extension> extensions) {
+        if (extensions.isEmpty()) {
+            final Class<?> useCaseEntity = BinaryMicroData.findUseCaseEntityClass(dataContainer);
+            if (useCaseEntity != null) {
+                throw new RuntimeException("Checkpoints cannot contain the attributes of " + useCaseEntity.getName()
+                        + ". Add a checkpoint extension of the use case to the SiloModel.");
+            }
+        }
+    }
+
+    /**
+     * Reads a checkpoint and adds its micro data to the (empty) data container. The extensions have to be the same
+     * as when writing the checkpoint. The remaining state is kept until {@link #restoreState(List)} is called after
+     * all components have been set up.
+     */
+    public static SimulationCheckpoint read(String fileName, DataContainer dataContainer,
+                                            List<PopulationCache.Extension> extensions) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(fileName), 1 << 16), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new RuntimeException(fileName + " is not a SILO checkpoint.");
+            }
+            final int version = in.readInt();
+            if (version != VERSION) {
+                throw new RuntimeException("Checkpoint " + fileName + " has version " + version + ", expected " + VERSION);
+            }
+            final int year = in.readInt();
+            final String scenarioName = in.readUTF();
+            final byte[] randomState = new byte[RANDOM_STATE_BYTES];
+            in.readFully(randomState);
+            final int numberOfRandomsOfSetup = in.readInt();
+            final byte[] randomStatesOfSetup = new byte[numberOfRandomsOfSetup * RANDOM_STATE_BYTES];
+            in.readFully(randomStatesOfSetup);
+
+            BinaryMicroData.read(in, dataContainer);
+            final int numberOfExtensions = in.readInt();
+            if (numberOfExtensions != extensions.size()) {
+                throw new RuntimeException("Checkpoint " + fileName + " was written with " + numberOfExtensions
+                        + " checkpoint extensions, but " + extensions.size() + " were added to the SiloModel.");
+            }
+            for (PopulationCache.Extension extension : extensions) {
+                final String extensionName = in.readUTF();
+                if (!extensionName.equals(extension.getClass().getName())) {
+                    throw new RuntimeException("Checkpoint " + fileName + " was written with checkpoint extension "
+                            + extensionName + " instead of " + extension.getClass().getName());
+                }
+                extension.read(in);
+            }
+
+            final int numberOfSections = in.readInt();
+            final Map<String, byte[]> sections = new HashMap<>();
+            for (int i = 0; i < numberOfSections; i++) {
+                final String key = in.readUTF();
+                final byte[] section = new byte[in.readInt()];
+                in.readFully(section);
+                sections.put(key, section);
+            }
+            logger.info("  Read checkpoint of year " + year + " of scenario " + scenarioName + " from " + fileName);
+            return new SimulationCheckpoint(year, randomState, numberOfRandomsOfSetup, randomStatesOfSetup, sections);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read checkpoint " + fileName, e);
+        }
+    }
+
+    /**
+     * Restores the global random number generator, the random number generators provided during the setup and the
+     * state of all {@link Checkpointable} components. The components must be given in the same order as when
+     * writing the checkpoint, and the models must provide the same random number generators during the setup.
+     */
+    public void restoreState(List<?> components) {
+        try {
+            RandomState.read(SiloUtil.getRandomObject(), new DataInputStream(new ByteArrayInputStream(randomState)));
+            final List<Random> randomsOfSetup = SiloUtil.getRandomsOfSetup();
+            if (randomsOfSetup.size() != numberOfRandomsOfSetup) {
+                throw new RuntimeException("Checkpoint of year " + year + " was written with " + numberOfRandomsOfSetup
+                        + " random number generators of the setup, but " + randomsOfSetup.size() + " were provided.");
+            }
+            final DataInputStream randomStates = new DataInputStream(new ByteArrayInputStream(randomStatesOfSetup));
+            for (Random random : randomsOfSetup) {
+                RandomState.read(random, randomStates);
+            }
+            for (Map.Entry<String, Checkpointable> checkpointable : getCheckpointables(components).entrySet()) {
+                final byte[] section = sections.get(checkpointable.getKey());
+                if (section == null) {
+                    logger.warn("Checkpoint contains no state of " + checkpointable.getKey() + ". Keeping state after setup.");
+                    continue;
+                }
+                final DataInputStream in = new DataInputStream(new ByteArrayInputStream(section));
+                checkpointable.getValue().readCheckpoint(in);
+                if (in.available() > 0) {
+                    throw new RuntimeException("State of " + checkpointable.getKey() + " was not read completely.");
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not restore state of checkpoint of year " + year, e);
+        }
+    }
+
+    /**
+     * Keys the distinct checkpointable components by class name, numbered if a class occurs more than once.
+     */
+    private static Map<String, Checkpointable> getCheckpointables(List<?> components) {
+        final Map<String, Checkpointable> checkpointables = new LinkedHashMap<>();
+        final List<Object> distinct = new ArrayList<>();
+        final Map<String, Integer> occurrences = new HashMap<>();
+        for (Object component : components) {
+            if (!(component instanceof Checkpointable) || distinct.stream().anyMatch(c -> c == component)) {
+                continue;
+            }
+            distinct.add(component);
+            final String className = component.getClass().getName();
+            final int occurrence = occurrences.merge(className, 1, Integer::sum);
+            checkpointables.put(occurrence == 1 ? className : className + "#" + occurrence, (Checkpointable) component);
+        }
+        return checkpointables;
+    }
+}
@@ -6,6 +6,7 @@ import com.google.common.math.LongMath;
 import de.tum.bgu.msm.events.MicroEvent;
 import de.tum.bgu.msm.io.output.ResultsMonitor;
 import de.tum.bgu.msm.models.AbstractModel;
+import de.tum.bgu.msm.models.BatchEventModel;
 import de.tum.bgu.msm.models.EventModel;
 import de.tum.bgu.msm.models.ModelUpdateListener;
 import de.tum.bgu.msm.utils.SiloUtil;
@@ -99,6 +100,7 @@ public final class Simulator {
 
     private void processEvents() {
         logger.info("  Processing events...");
+        final Map<Class<? extends MicroEvent>, Integer> preparedUntil = new HashMap<>();
         int counter = 0;
         for (MicroEvent e: events) {
             if (LongMath.isPowerOfTwo(counter)) {
@@ -107,7 +109,12 @@ public final class Simulator {
 //            timeTracker.reset();
             Class<? extends MicroEvent> klass= e.getClass();
 
-            boolean success = this.models.get(klass).handleEvent(e);
+            final EventModel model = this.models.get(klass);
+            final int batchSize = getBatchSize(model);
+            if (batchSize > 1 && preparedUntil.getOrDefault(klass, -1) < counter) {
+                preparedUntil.put(klass, prepareEvents((BatchEventModel) model, klass, counter, batchSize));
+            }
+            boolean success = model.handleEvent(e);
             if(success) {
                 eventCounter.add(klass);
             }
@@ -116,6 +123,32 @@ public final class Simulator {
         }
     }
 
+    private static int getBatchSize(EventModel model) {
+        if (model instanceof BatchEventModel) {
+            return ((BatchEventModel) model).getBatchSize();
+        }
+        return 1;
+    }
+
+    /**
+     * Hands the next events of the given type, starting at the given position, to the model for preparation.
+     * The events are still handled at their positions in the event list.
+     * @return the position of the last prepared event
+     */
+    @SuppressWarnings("unchecked")
+    private int prepareEvents(BatchEventModel model, Class<? extends MicroEvent> klass, int from, int batchSize) {
+        final List<MicroEvent> upcoming = new ArrayList<>(batchSize);
+        int last = from;
+        for (int i = from; i < events.size() && upcoming.size() < batchSize; i++) {
+            if (events.get(i).getClass() == klass) {
+                upcoming.add(events.get(i));
+                last = i;
+            }
+        }
+        model.prepareEvents(upcoming);
+        return last;
+    }
+
     private void finishYear(int year) {
         for(ModelUpdateListener modelUpdateListener : modelUpdateListeners) {
             modelUpdateListener.endYear(year);
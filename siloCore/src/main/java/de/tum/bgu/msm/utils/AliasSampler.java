@@ -0,0 +1,108 @@
+package de.tum.bgu.msm.utils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Samples objects of a fixed discrete distribution in constant time, using the alias method by Walker
+ * as described by Vose. Building the tables takes linear time, so this sampler pays off for distributions
+ * that are sampled many times. For distributions that change between draws, see {@link FenwickSampler}.
+ *
+ * The sampler is immutable and does not lock. The random number generator is passed to every draw, such
+ * that several threads can share a sampler using their own generators.
+ */
+public final class AliasSampler<T> {
+
+    private final T[] objects;
+    private final double[] probabilities;
+    private final int[] aliases;
+    private final double totalWeight;
+
+    public AliasSampler(List<T> objects, double[] weights) {
+        this((T[]) objects.toArray(), weights);
+    }
+
+    /**
+     * @param weights non-negative weights of the objects, which do not need to sum up to 1
+     * @throws IllegalArgumentException if weights are negative or not finite, or all weights are 0
+     */
+    public AliasSampler(T[] objects, double[] weights) {
+        if (objects.length != weights.length) {
+            throw new IllegalArgumentException("Got " + objects.length + " objects but " + weights.length + " weights.");
+        }
+        double sum = 0;
+        for (double weight : weights) {
+            if (weight < 0 || !Double.isFinite(weight)) {
+                throw new IllegalArgumentException("Invalid weight " + weight + " in " + Arrays.toString(weights));
+            }
+            sum += weight;
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("Cannot sample from weights that sum up to " + sum);
+        }
+        this.objects = objects;
+        this.totalWeight = sum;
+
+        final int n = weights.length;
+        probabilities = new double[n];
+        aliases = new int[n];
+        final double[] scaled = new double[n];
+        final int[] small = new int[n];
+        final int[] large = new int[n];
+        int numberOfSmall = 0;
+        int numberOfLarge = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / sum;
+            if (scaled[i] < 1) {
+                small[numberOfSmall++] = i;
+            } else {
+                large[numberOfLarge++] = i;
+            }
+        }
+        while (numberOfSmall > 0 && numberOfLarge > 0) {
+            final int less = small[--numberOfSmall];
+            final int more = large[--numberOfLarge];
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1) {
+                small[numberOfSmall++] = more;
+            } else {
+                large[numberOfLarge++] = more;
+            }
+        }
+        // remaining columns are full up to rounding errors
+        while (numberOfLarge > 0) {
+            final int index = large[--numberOfLarge];
+            probabilities[index] = 1;
+            aliases[index] = index;
+        }
+        while (numberOfSmall > 0) {
+            final int index = small[--numberOfSmall];
+            probabilities[index] = 1;
+            aliases[index] = index;
+        }
+    }
+
+    /**
+     * Draws an index with probability proportional to its weight, using a single random number.
+     */
+    public int sampleIndex(Random random) {
+        final double position = random.nextDouble() * probabilities.length;
+        final int column = Math.min((int) position, probabilities.length - 1);
+        return position - column < probabilities[column] ? column : aliases[column];
+    }
+
+    public T sampleObject(Random random) {
+        return objects[sampleIndex(random)];
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public int size() {
+        return objects.length;
+    }
+}
@@ -0,0 +1,313 @@
+package de.tum.bgu.msm.utils;
+
+import de.tum.bgu.msm.data.Id;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Persistent cache of skim matrices read from OMX files. The first time a matrix is requested, it is read from
+ * the OMX file and stored as a flat binary matrix with the zone ids of rows and columns as header. Later requests,
+ * also by other scenarios using the same cache directory, memory-map the binary file instead of parsing the OMX file.
+ *
+ * A cached matrix is rebuilt only if the content of the OMX file changed. Size and modification time of the OMX file
+ * are compared first, its CRC32C checksum only if these differ. If only the modification time changed, size,
+ * modification time and checksum of the unchanged OMX file are stored in a validation file next to the cache file,
+ * such that the checksum is not computed again by later runs. Cache files are never modified once written. Values are
+ * stored without factor, such that the cache can be shared by scenarios using different factors, and as floats unless
+ * that would lose precision. Cache and validation files are written to a temporary file and moved into place, so
+ * concurrent runs never read partial files.
+ */
+public final class BinarySkimCache {
+
+    private final static Logger logger = Logger.getLogger(BinarySkimCache.class);
+
+    private static final int MAGIC = 0x534B494D;
+    private static final String SOURCE_SUFFIX = ".source";
+    private static final int VERSION = 1;
+    private static final int FLOAT_VALUES = 4;
+    private static final int DOUBLE_VALUES = 8;
+    private static final int MAXIMUM_MAPPED_BYTES = 1 << 30;
+
+    private final Path directory;
+
+    public BinarySkimCache(String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * @param reader reads the matrix from the OMX file without any factor, if it is not cached yet
+     * @return the skim with every value multiplied by the given factor
+     */
+    public IndexedDoubleMatrix2D getSkim(String omxFile, String matrixName, double factor, Supplier<IndexedDoubleMatrix2D> reader) {
+        final Path source = Paths.get(omxFile).toAbsolutePath().normalize();
+        final Path cacheFile = directory.resolve(source.getFileName() + "_" + matrixName + "_"
+                + Integer.toHexString(source.toString().hashCode()) + ".skim");
+        try {
+            final SourceState state = SourceState.of(source);
+            if (Files.exists(cacheFile)) {
+                final IndexedDoubleMatrix2D cached = read(cacheFile, matrixName, state, source, factor);
+                if (cached != null) {
+                    logger.info("Read skim " + matrixName + " of " + omxFile + " from cache " + cacheFile);
+                    return cached;
+                }
+                logger.info("Cached skim " + cacheFile + " is outdated. Reading " + omxFile + " again.");
+            }
+            final IndexedDoubleMatrix2D skim = reader.get();
+            Files.createDirectories(directory);
+            write(cacheFile, matrixName, state.withChecksum(checksum(source)), skim);
+            logger.info("Cached skim " + matrixName + " of " + omxFile + " in " + cacheFile);
+            if (factor != 1) {
+                multiply(skim, factor);
+            }
+            return skim;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not use skim cache " + cacheFile, e);
+        }
+    }
+
+    static void write(Path cacheFile, String matrixName, SourceState source, IndexedDoubleMatrix2D skim) throws IOException {
+        final int rows = skim.rows();
+        final int columns = skim.columns();
+        final int[] rowIds = new int[rows];
+        final int[] columnIds = new int[columns];
+        for (int i = 0; i < rows; i++) {
+            rowIds[i] = skim.getIdForInternalRowIndex(i);
+        }
+        for (int j = 0; j < columns; j++) {
+            columnIds[j] = skim.getIdForInternalColumnIndex(j);
+        }
+        final int valueBytes = isFloat(skim, rowIds, columnIds) ? FLOAT_VALUES : DOUBLE_VALUES;
+
+        writeAtomically(cacheFile, out -> {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(source.size);
+            out.writeLong(source.lastModified);
+            out.writeLong(source.checksum);
+            out.writeUTF(matrixName);
+            out.writeInt(valueBytes);
+            out.writeInt(rows);
+            out.writeInt(columns);
+            for (int id : rowIds) {
+                out.writeInt(id);
+            }
+            for (int id : columnIds) {
+                out.writeInt(id);
+            }
+            for (int rowId : rowIds) {
+                for (int columnId : columnIds) {
+                    if (valueBytes == FLOAT_VALUES) {
+                        out.writeFloat((float) skim.getIndexed(rowId, columnId));
+                    } else {
+                        out.writeDouble(skim.getIndexed(rowId, columnId));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Stores size and modification time of a source file whose checksum matches the cache file, see
+     * {@link #isConfirmedSource(Path, SourceState, long)}.
+     */
+    private static void writeSource(Path cacheFile, SourceState source) throws IOException {
+        writeAtomically(sourceFileOf(cacheFile), out -> {
+            out.writeLong(source.size);
+            out.writeLong(source.lastModified);
+            out.writeLong(source.checksum);
+        });
+    }
+
+    /**
+     * @return whether size and modification time of the source were stored for the checksum of the cache file
+     */
+    private static boolean isConfirmedSource(Path cacheFile, SourceState source, long checksum) throws IOException {
+        final Path sourceFile = sourceFileOf(cacheFile);
+        if (!Files.exists(sourceFile) || Files.size(sourceFile) != 3 * Long.BYTES) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(sourceFile))) {
+            return in.readLong() == source.size && in.readLong() == source.lastModified && in.readLong() == checksum;
+        }
+    }
+
+    private static Path sourceFileOf(Path cacheFile) {
+        return cacheFile.resolveSibling(cacheFile.getFileName() + SOURCE_SUFFIX);
+    }
+
+    private static void writeAtomically(Path file, ContentWriter writer) throws IOException {
+        final Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try (OutputStream stream = Files.newOutputStream(temporary);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            writer.write(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @param sourceFile only read to compare checksums if size or modification time differ
+     * @return the cached matrix multiplied by the factor, or null if the cache file does not belong to the source
+     */
+    static IndexedDoubleMatrix2D read(Path cacheFile, String matrixName, SourceState source, Path sourceFile,
+                                      double factor) throws IOException {
+        final IndexedDoubleMatrix2D skim;
+        SourceState confirmedSource = null;
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), MAXIMUM_MAPPED_BYTES));
+            if (header.remaining() < 36 || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                return null;
+            }
+            final long size = header.getLong();
+            final long lastModified = header.getLong();
+            final long checksum = header.getLong();
+            final byte[] name = new byte[header.getShort() & 0xFFFF];
+            header.get(name);
+            if (!matrixName.equals(new String(name, StandardCharsets.UTF_8))) {
+                return null;
+            }
+            if ((size != source.size || lastModified != source.lastModified)
+                    && !isConfirmedSource(cacheFile, source, checksum)) {
+                if (size != source.size || checksum != checksum(sourceFile)) {
+                    return null;
+                }
+                confirmedSource = source.withChecksum(checksum);
+            }
+            final int valueBytes = header.getInt();
+            final int rows = header.getInt();
+            final int columns = header.getInt();
+            final int[] rowIds = new int[rows];
+            final int[] columnIds = new int[columns];
+            header.asIntBuffer().get(rowIds).get(columnIds);
+            final long valuesStart = header.position() + 4L * (rows + columns);
+            if (channel.size() != valuesStart + (long) valueBytes * rows * columns) {
+                return null;
+            }
+
+            skim = new IndexedDoubleMatrix2D(toIds(rowIds), toIds(columnIds));
+            final long rowBytes = (long) valueBytes * columns;
+            final int rowsPerMapping = (int) Math.max(1, MAXIMUM_MAPPED_BYTES / rowBytes);
+            final float[] floatRow = new float[valueBytes == FLOAT_VALUES ? columns : 0];
+            final double[] doubleRow = new double[valueBytes == DOUBLE_VALUES ? columns : 0];
+            for (int first = 0; first < rows; first += rowsPerMapping) {
+                final int last = Math.min(rows, first + rowsPerMapping);
+                final MappedByteBuffer values = channel.map(FileChannel.MapMode.READ_ONLY,
+                        valuesStart + first * rowBytes, (last - first) * rowBytes);
+                for (int i = first; i < last; i++) {
+                    if (valueBytes == FLOAT_VALUES) {
+                        values.asFloatBuffer().get(floatRow);
+                        values.position(values.position() + FLOAT_VALUES * columns);
+                        for (int j = 0; j < columns; j++) {
+                            skim.setIndexed(rowIds[i], columnIds[j], floatRow[j] * factor);
+                        }
+                    } else {
+                        values.asDoubleBuffer().get(doubleRow);
+                        values.position(values.position() + DOUBLE_VALUES * columns);
+                        for (int j = 0; j < columns; j++) {
+                            skim.setIndexed(rowIds[i], columnIds[j], doubleRow[j] * factor);
+                        }
+                    }
+                }
+            }
+        }
+        if (confirmedSource != null) {
+            writeSource(cacheFile, confirmedSource);
+        }
+        return skim;
+    }
+
+    static long checksum(Path file) throws IOException {
+        final CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            for (long position = 0; position < size; position += MAXIMUM_MAPPED_BYTES) {
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAXIMUM_MAPPED_BYTES, size - position)));
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static boolean isFloat(IndexedDoubleMatrix2D skim, int[] rowIds, int[] columnIds) {
+        for (int rowId : rowIds) {
+            for (int columnId : columnIds) {
+                final double value = skim.getIndexed(rowId, columnId);
+                if ((float) value != value && !Double.isNaN(value)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void multiply(IndexedDoubleMatrix2D skim, double factor) {
+        for (int i = 0; i < skim.rows(); i++) {
+            final int rowId = skim.getIdForInternalRowIndex(i);
+            for (int j = 0; j < skim.columns(); j++) {
+                final int columnId = skim.getIdForInternalColumnIndex(j);
+                skim.setIndexed(rowId, columnId, skim.getIndexed(rowId, columnId) * factor);
+            }
+        }
+    }
+
+    private static List<Id> toIds(int[] ids) {
+        final List<Id> list = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            list.add(() -> id);
+        }
+        return list;
+    }
+
+    private interface ContentWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    static final class SourceState {
+
+        private final long size;
+        private final long lastModified;
+        private final long checksum;
+
+        SourceState(long size, long lastModified, long checksum) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+        }
+
+        static SourceState of(Path source) throws IOException {
+            return new SourceState(Files.size(source), Files.getLastModifiedTime(source).toMillis(), 0);
+        }
+
+        SourceState withChecksum(long checksum) {
+            return new SourceState(size, lastModified, checksum);
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        long getLastModified() {
+            return lastModified;
+        }
+    }
+}
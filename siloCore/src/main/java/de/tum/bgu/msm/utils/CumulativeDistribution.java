@@ -0,0 +1,170 @@
+package de.tum.bgu.msm.utils;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Discrete distribution prepared for repeated draws. Weights are cumulated once, every draw then
+ * finds its index by binary search. A single draw from weights that are used only once is just as fast
+ * with {@link #indexAt(double[], int, double)}, which is what the select methods of {@link SiloUtil} use.
+ *
+ * Draws select the first index whose cumulated weight exceeds the drawn position, like the select
+ * methods of {@link SiloUtil}. Instances are immutable and can be shared between threads.
+ */
+public final class CumulativeDistribution {
+
+    private final double[] cumulatedWeights;
+
+    /**
+     * @param weights non-negative weights, which do not need to sum up to 1
+     * @throws IllegalArgumentException if weights are negative or not finite
+     */
+    public CumulativeDistribution(double[] weights) {
+        cumulatedWeights = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            checkWeight(weights[i]);
+            sum += weights[i];
+            cumulatedWeights[i] = sum;
+        }
+    }
+
+    public CumulativeDistribution(float[] weights) {
+        cumulatedWeights = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            checkWeight(weights[i]);
+            sum += weights[i];
+            cumulatedWeights[i] = sum;
+        }
+    }
+
+    public double getTotalWeight() {
+        return cumulatedWeights.length == 0 ? 0 : cumulatedWeights[cumulatedWeights.length - 1];
+    }
+
+    public int size() {
+        return cumulatedWeights.length;
+    }
+
+    /**
+     * @return the first index whose cumulated weight exceeds the given position, or the last index
+     * if the position is not below the total weight
+     */
+    public int indexAt(double position) {
+        int low = 0;
+        int high = cumulatedWeights.length - 1;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (cumulatedWeights[middle] > position) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Draws an index with probability proportional to its weight.
+     */
+    public int sample(Random random) {
+        return indexAt(getTotalWeight() * random.nextDouble());
+    }
+
+    /**
+     * Draws the given number of indices with replacement, in the order of the draws.
+     */
+    public int[] sample(Random random, int draws) {
+        final int[] indices = new int[draws];
+        final double total = getTotalWeight();
+        for (int i = 0; i < draws; i++) {
+            indices[i] = indexAt(total * random.nextDouble());
+        }
+        return indices;
+    }
+
+    /**
+     * Draws the given number of distinct indices, in the order of the draws. Indices with a weight of 0 are never drawn.
+     * @throws IllegalArgumentException if fewer indices than draws have a weight
+     */
+    public int[] sampleWithoutReplacement(Random random, int draws) {
+        final double[] weights = new double[cumulatedWeights.length];
+        int numberOfIndicesWithWeight = 0;
+        double previous = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = cumulatedWeights[i] - previous;
+            previous = cumulatedWeights[i];
+            if (weights[i] > 0) {
+                numberOfIndicesWithWeight++;
+            }
+        }
+        if (draws > numberOfIndicesWithWeight) {
+            throw new IllegalArgumentException("Cannot draw " + draws + " distinct indices from "
+                    + numberOfIndicesWithWeight + " indices with a weight.");
+        }
+        final FenwickSampler<Integer> sampler = new FenwickSampler<>(new Integer[weights.length], weights);
+        final int[] indices = new int[draws];
+        for (int i = 0; i < draws; i++) {
+            indices[i] = sampler.sampleIndex(random);
+            sampler.setWeight(indices[i], 0);
+        }
+        return indices;
+    }
+
+    /**
+     * Single draw without preparation, scanning the first length weights once.
+     * @return the first index whose cumulated weight exceeds the given position, or length - 1
+     */
+    public static int indexAt(double[] weights, int length, double position) {
+        double sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += weights[i];
+            if (sum > position) {
+                return i;
+            }
+        }
+        return length - 1;
+    }
+
+    /**
+     * @see #indexAt(double[], int, double)
+     */
+    public static int indexAt(float[] weights, int length, double position) {
+        double sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += weights[i];
+            if (sum > position) {
+                return i;
+            }
+        }
+        return length - 1;
+    }
+
+    /**
+     * Like {@link #indexAt(float[], int, double)}, but cumulates the weights in float precision, such that positions
+     * close to a cumulated weight select the same index as the float based {@link SiloUtil#select(float[], float)}
+     * always did.
+     */
+    public static int indexAt(float[] weights, int length, float position) {
+        float sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += weights[i];
+            if (sum > position) {
+                return i;
+            }
+        }
+        return length - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "CumulativeDistribution" + Arrays.toString(cumulatedWeights);
+    }
+
+    private static void checkWeight(double weight) {
+        if (weight < 0 || !Double.isFinite(weight)) {
+            throw new IllegalArgumentException("Invalid weight " + weight);
+        }
+    }
+}
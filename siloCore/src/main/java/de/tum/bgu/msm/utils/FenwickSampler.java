@@ -0,0 +1,156 @@
+package de.tum.bgu.msm.utils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Samples objects of a discrete distribution whose weights change between draws. Weights are kept in a
+ * Fenwick tree (binary indexed tree), so both changing a weight and drawing an object take logarithmic time.
+ * Setting the weight of a drawn object to 0, see {@link #sampleAndRemove(Random)}, draws without replacement.
+ * For fixed distributions, see {@link AliasSampler}.
+ *
+ * Draws select the first object whose cumulated weight exceeds a uniformly drawn position, like the linear
+ * scan of {@link Sampler}. The sampler does not lock and must not be shared between threads while weights change.
+ * The random number generator is passed to every draw.
+ */
+public final class FenwickSampler<T> {
+
+    private final T[] objects;
+    private final double[] weights;
+    /**
+     * one-based Fenwick tree, tree[i] holds the sum of the weights (i - lowestOneBit(i), i]
+     */
+    private final double[] tree;
+    private final int highestStep;
+    /**
+     * number of objects with a positive weight, such that removing all weights yields a total of exactly 0
+     */
+    private int numberOfObjectsWithWeight = 0;
+
+    public FenwickSampler(List<T> objects, double[] weights) {
+        this((T[]) objects.toArray(), weights);
+    }
+
+    /**
+     * @param weights non-negative weights of the objects, which do not need to sum up to 1. The array is copied.
+     * @throws IllegalArgumentException if weights are negative or not finite
+     */
+    public FenwickSampler(T[] objects, double[] weights) {
+        if (objects.length != weights.length) {
+            throw new IllegalArgumentException("Got " + objects.length + " objects but " + weights.length + " weights.");
+        }
+        for (double weight : weights) {
+            checkWeight(weight);
+            if (weight > 0) {
+                numberOfObjectsWithWeight++;
+            }
+        }
+        this.objects = objects;
+        this.weights = Arrays.copyOf(weights, weights.length);
+        this.tree = new double[weights.length + 1];
+        for (int i = 1; i <= weights.length; i++) {
+            tree[i] += weights[i - 1];
+            final int parent = i + Integer.lowestOneBit(i);
+            if (parent <= weights.length) {
+                tree[parent] += tree[i];
+            }
+        }
+        this.highestStep = weights.length == 0 ? 0 : Integer.highestOneBit(weights.length);
+    }
+
+    public double getWeight(int index) {
+        return weights[index];
+    }
+
+    public void setWeight(int index, double weight) {
+        checkWeight(weight);
+        final double delta = weight - weights[index];
+        if (weights[index] > 0) {
+            numberOfObjectsWithWeight--;
+        }
+        if (weight > 0) {
+            numberOfObjectsWithWeight++;
+        }
+        weights[index] = weight;
+        for (int i = index + 1; i < tree.length; i += Integer.lowestOneBit(i)) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * @return the sum of all weights. Zero if there is nothing left to draw.
+     */
+    public double getTotalWeight() {
+        if (numberOfObjectsWithWeight == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = weights.length; i > 0; i -= Integer.lowestOneBit(i)) {
+            sum += tree[i];
+        }
+        return Math.max(0, sum);
+    }
+
+    /**
+     * Draws an index with probability proportional to its weight, using a single random number.
+     * @throws IllegalStateException if all weights are 0
+     */
+    public int sampleIndex(Random random) {
+        final double total = getTotalWeight();
+        if (total <= 0) {
+            throw new IllegalStateException("Cannot sample from " + weights.length + " objects with a total weight of 0.");
+        }
+        return indexAt(random.nextDouble() * total);
+    }
+
+    /**
+     * @return the first index whose cumulated weight exceeds the given position, or the last index with a weight
+     * if the position is not below the total weight
+     * @throws IllegalStateException if all weights are 0
+     */
+    public int indexAt(double position) {
+        double remaining = position;
+        int index = 0;
+        for (int step = highestStep; step > 0; step >>= 1) {
+            final int next = index + step;
+            if (next < tree.length && tree[next] <= remaining) {
+                index = next;
+                remaining -= tree[next];
+            }
+        }
+        if (index < weights.length && weights[index] > 0) {
+            return index;
+        }
+        // rounding errors of the tree sums may point past the last object with a weight
+        for (int i = Math.min(index, weights.length - 1); i >= 0; i--) {
+            if (weights[i] > 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Cannot sample from " + weights.length + " objects with a total weight of 0.");
+    }
+
+    public T sampleObject(Random random) {
+        return objects[sampleIndex(random)];
+    }
+
+    /**
+     * Draws an object and sets its weight to 0, such that it is not drawn again.
+     */
+    public T sampleAndRemove(Random random) {
+        final int index = sampleIndex(random);
+        setWeight(index, 0);
+        return objects[index];
+    }
+
+    public int size() {
+        return objects.length;
+    }
+
+    private static void checkWeight(double weight) {
+        if (weight < 0 || !Double.isFinite(weight)) {
+            throw new IllegalArgumentException("Invalid weight " + weight);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package de.tum.bgu.msm.utils;
+
+import org.apache.log4j.Logger;
+import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.triangulate.ConformingDelaunayTriangulationBuilder;
+
+import java.util.Random;
+
+/**
+ * Draws uniformly distributed random points within a polygonal geometry. The geometry is triangulated once, then
+ * every draw selects a triangle by its area in logarithmic time and a point within that triangle. Unlike rejection
+ * sampling within the envelope, no draws are lost for irregular or sparse geometries.
+ *
+ * If the geometry cannot be triangulated, e.g. because it is invalid, points are drawn by rejection sampling within
+ * the envelope against an indexed point locator instead.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class GeometryPointSampler {
+
+    private final static Logger logger = Logger.getLogger(GeometryPointSampler.class);
+
+    /**
+     * relative difference between the area of the triangles and the area of the geometry that is accepted
+     */
+    private static final double AREA_TOLERANCE = 1e-6;
+
+    /**
+     * corners of all triangles within the geometry as x0, y0, x1, y1, x2, y2 per triangle
+     */
+    private final double[] triangles;
+    private final CumulativeDistribution triangleByArea;
+
+    private final Geometry geometry;
+    private final IndexedPointInAreaLocator locator;
+
+    public GeometryPointSampler(Geometry geometry) {
+        this.geometry = geometry;
+        double[] triangulated = null;
+        CumulativeDistribution distribution = null;
+        try {
+            triangulated = triangulate(geometry);
+            final double[] areas = new double[triangulated.length / 6];
+            double sum = 0;
+            for (int i = 0; i < areas.length; i++) {
+                areas[i] = triangleArea(triangulated, i * 6);
+                sum += areas[i];
+            }
+            if (sum > 0 && Math.abs(sum - geometry.getArea()) <= AREA_TOLERANCE * geometry.getArea()) {
+                distribution = new CumulativeDistribution(areas);
+            } else {
+                logger.warn("Triangles cover an area of " + sum + " instead of " + geometry.getArea()
+                        + ". Using rejection sampling for geometry with " + geometry.getNumPoints() + " points.");
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not triangulate geometry with " + geometry.getNumPoints() + " points. Using rejection sampling. "
+                    + e.getMessage());
+        }
+        if (distribution != null) {
+            this.triangles = triangulated;
+            this.triangleByArea = distribution;
+            this.locator = null;
+        } else {
+            this.triangles = null;
+            this.triangleByArea = null;
+            this.locator = new IndexedPointInAreaLocator(geometry);
+        }
+    }
+
+    public Coordinate getRandomCoordinate(Random random) {
+        if (triangleByArea != null) {
+            final int offset = triangleByArea.sample(random) * 6;
+            double r1 = random.nextDouble();
+            double r2 = random.nextDouble();
+            if (r1 + r2 > 1) {
+                // reflect points of the other half of the parallelogram into the triangle
+                r1 = 1 - r1;
+                r2 = 1 - r2;
+            }
+            final double x = triangles[offset] + r1 * (triangles[offset + 2] - triangles[offset])
+                    + r2 * (triangles[offset + 4] - triangles[offset]);
+            final double y = triangles[offset + 1] + r1 * (triangles[offset + 3] - triangles[offset + 1])
+                    + r2 * (triangles[offset + 5] - triangles[offset + 1]);
+            return new Coordinate(x, y);
+        }
+        return getRandomCoordinateByRejection(random);
+    }
+
+    private Coordinate getRandomCoordinateByRejection(Random random) {
+        if (geometry.getArea() <= 0) {
+            return new Coordinate(geometry.getInteriorPoint().getCoordinate());
+        }
+        final Envelope envelope = geometry.getEnvelopeInternal();
+        final Coordinate coordinate = new Coordinate();
+        do {
+            coordinate.x = envelope.getMinX() + envelope.getWidth() * random.nextDouble();
+            coordinate.y = envelope.getMinY() + envelope.getHeight() * random.nextDouble();
+        } while (locator.locate(coordinate) != Location.INTERIOR);
+        return coordinate;
+    }
+
+    private static double[] triangulate(Geometry geometry) {
+        final ConformingDelaunayTriangulationBuilder builder = new ConformingDelaunayTriangulationBuilder();
+        builder.setSites(geometry);
+        builder.setConstraints(geometry);
+        final Geometry triangulation = builder.getTriangles(new GeometryFactory());
+        final IndexedPointInAreaLocator locator = new IndexedPointInAreaLocator(geometry);
+
+        final double[] corners = new double[triangulation.getNumGeometries() * 6];
+        int length = 0;
+        final Coordinate centroid = new Coordinate();
+        for (int i = 0; i < triangulation.getNumGeometries(); i++) {
+            final Coordinate[] coordinates = triangulation.getGeometryN(i).getCoordinates();
+            centroid.x = (coordinates[0].x + coordinates[1].x + coordinates[2].x) / 3;
+            centroid.y = (coordinates[0].y + coordinates[1].y + coordinates[2].y) / 3;
+            // constraint edges are part of the triangulation, so triangles are either within the geometry or outside
+            if (locator.locate(centroid) == Location.INTERIOR) {
+                for (int corner = 0; corner < 3; corner++) {
+                    corners[length++] = coordinates[corner].x;
+                    corners[length++] = coordinates[corner].y;
+                }
+            }
+        }
+        final double[] triangles = new double[length];
+        System.arraycopy(corners, 0, triangles, 0, length);
+        return triangles;
+    }
+
+    private static double triangleArea(double[] triangles, int offset) {
+        return Math.abs((triangles[offset + 2] - triangles[offset]) * (triangles[offset + 5] - triangles[offset + 1])
+                - (triangles[offset + 4] - triangles[offset]) * (triangles[offset + 3] - triangles[offset + 1])) / 2;
+    }
+}
@@ -0,0 +1,140 @@
+package de.tum.bgu.msm.utils;
+
+import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.io.BinaryMicroData;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persistent cache of the linked base-year population. After the micro data were read from their input files, the
+ * dwellings, jobs, households and persons are stored in one binary file, which later runs read sequentially instead
+ * of parsing the input files again. Use cases add their own attributes and entities with {@link Extension}s.
+ *
+ * Like the {@link BinarySkimCache}, a cache file is only used if the input files did not change, comparing size and
+ * modification time first and the CRC32C checksum only if these differ. The key combines the input files with all
+ * properties that influence reading, such that runs with different inputs in the same cache directory do not
+ * overwrite each other's files.
+ */
+public final class PopulationCache {
+
+    private final static Logger logger = Logger.getLogger(PopulationCache.class);
+
+    private static final int MAGIC = 0x504F5055;
+    private static final int VERSION = 2;
+
+    /**
+     * Attributes and entities of a use case that are written after and read after the core micro data.
+     */
+    public interface Extension {
+
+        void write(DataOutputStream out) throws IOException;
+
+        void read(DataInputStream in) throws IOException;
+    }
+
+    private final Path cacheFile;
+    private final List<Path> inputFiles = new ArrayList<>();
+    private final String key;
+
+    /**
+     * @param inputFiles  all files the population is read from
+     * @param keyProperties values of properties that change how the input files are read
+     */
+    public PopulationCache(String directory, List<String> inputFiles, String... keyProperties) {
+        final StringBuilder key = new StringBuilder();
+        for (String inputFile : inputFiles) {
+            final Path path = Paths.get(inputFile).toAbsolutePath().normalize();
+            this.inputFiles.add(path);
+            key.append(path).append('\n');
+        }
+        for (String property : keyProperties) {
+            key.append(property).append('\n');
+        }
+        this.key = key.toString();
+        this.cacheFile = Paths.get(directory).resolve("population_" + Integer.toHexString(this.key.hashCode()) + ".bin");
+    }
+
+    /**
+     * Adds the cached population to the given empty data container.
+     * @return false if there is no cache file for the current input files, in which case nothing is added
+     */
+    public boolean load(DataContainer dataContainer, Extension... extensions) {
+        if (!Files.exists(cacheFile)) {
+            return false;
+        }
+        try (InputStream stream = Files.newInputStream(cacheFile);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 20))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !key.equals(in.readUTF())) {
+                logger.info("Cached population " + cacheFile + " belongs to other input files. Reading input files again.");
+                return false;
+            }
+            for (Path inputFile : inputFiles) {
+                final long size = in.readLong();
+                final long lastModified = in.readLong();
+                final long checksum = in.readLong();
+                final BinarySkimCache.SourceState current = BinarySkimCache.SourceState.of(inputFile);
+                if (size != current.getSize() || (lastModified != current.getLastModified()
+                        && checksum != BinarySkimCache.checksum(inputFile))) {
+                    logger.info("Cached population " + cacheFile + " is outdated. Reading input files again.");
+                    return false;
+                }
+            }
+            BinaryMicroData.read(in, dataContainer);
+            for (Extension extension : extensions) {
+                extension.read(in);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read cached population " + cacheFile, e);
+        }
+        logger.info("Read population from cache " + cacheFile);
+        return true;
+    }
+
+    /**
+     * Stores the population of the data container, which must have just been read from the input files. Entities are
+     * written in the iteration order of the stores, i.e. by ascending id or in the order of the input files for columnar
+     * stores, such that a population loaded from the cache iterates like one read from the input files.
+     */
+    public void save(DataContainer dataContainer, Extension... extensions) {
+        try {
+            Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+            final Path temporary = Files.createTempFile(cacheFile.toAbsolutePath().getParent(), cacheFile.getFileName().toString(), ".tmp");
+            try (OutputStream stream = Files.newOutputStream(temporary);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 20))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(key);
+                for (Path inputFile : inputFiles) {
+                    final BinarySkimCache.SourceState state = BinarySkimCache.SourceState.of(inputFile);
+                    out.writeLong(state.getSize());
+                    out.writeLong(state.getLastModified());
+                    out.writeLong(BinarySkimCache.checksum(inputFile));
+                }
+                BinaryMicroData.write(out, dataContainer);
+                for (Extension extension : extensions) {
+                    extension.write(out);
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not cache population in " + cacheFile, e);
+        }
+        logger.info("Cached population in " + cacheFile);
+    }
+}
@@ -0,0 +1,37 @@
+package de.tum.bgu.msm.utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Saves and restores the internal state of a {@link Random} in place, so that objects holding on to
+ * the instance continue with exactly the same sequence of numbers. Only {@link RestorableRandom}s,
+ * as created by {@link SiloUtil}, can be saved.
+ */
+public final class RandomState {
+
+    private RandomState() {
+    }
+
+    public static void write(Random random, DataOutput out) throws IOException {
+        getRestorable(random).writeState(out);
+    }
+
+    /**
+     * Resets the given random to the state read from the input, including a pending Gaussian value
+     * of {@link Random#nextGaussian()}.
+     */
+    public static void read(Random random, DataInput in) throws IOException {
+        getRestorable(random).readState(in);
+    }
+
+    private static RestorableRandom getRestorable(Random random) {
+        if (!(random instanceof RestorableRandom)) {
+            throw new IllegalArgumentException("Cannot save or restore state of " + random.getClass().getName()
+                    + ". Use random number generators provided by SiloUtil.");
+        }
+        return (RestorableRandom) random;
+    }
+}
@@ -0,0 +1,76 @@
+package de.tum.bgu.msm.utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * {@link Random} whose state can be saved and restored in place, so that objects holding on to the instance
+ * continue with exactly the same sequence of numbers. It keeps the seed and the pending Gaussian value itself and
+ * implements {@link #next(int)} and {@link #nextGaussian()} with the algorithms specified by {@link Random}. For a
+ * given seed, it therefore returns the same numbers as {@link Random}.
+ */
+public class RestorableRandom extends Random {
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // not initialized here, as the constructor of Random sets the seed before initializers of this class run
+    private long seed;
+    private double nextNextGaussian;
+    private boolean haveNextNextGaussian;
+
+    public RestorableRandom() {
+        super();
+    }
+
+    public RestorableRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        this.seed = (seed ^ MULTIPLIER) & MASK;
+        this.haveNextNextGaussian = false;
+    }
+
+    @Override
+    protected synchronized int next(int bits) {
+        seed = (seed * MULTIPLIER + ADDEND) & MASK;
+        return (int) (seed >>> (48 - bits));
+    }
+
+    @Override
+    public synchronized double nextGaussian() {
+        if (haveNextNextGaussian) {
+            haveNextNextGaussian = false;
+            return nextNextGaussian;
+        }
+        double v1;
+        double v2;
+        double s;
+        do {
+            v1 = 2 * nextDouble() - 1;
+            v2 = 2 * nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        final double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+        nextNextGaussian = v2 * multiplier;
+        haveNextNextGaussian = true;
+        return v1 * multiplier;
+    }
+
+    public synchronized void writeState(DataOutput out) throws IOException {
+        out.writeLong(seed);
+        out.writeBoolean(haveNextNextGaussian);
+        out.writeDouble(nextNextGaussian);
+    }
+
+    public synchronized void readState(DataInput in) throws IOException {
+        seed = in.readLong();
+        haveNextNextGaussian = in.readBoolean();
+        nextNextGaussian = in.readDouble();
+    }
+}
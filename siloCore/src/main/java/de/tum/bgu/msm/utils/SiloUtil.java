@@ -37,6 +37,11 @@ public class SiloUtil {
 
     private static final String TIME_TRACKER_FILE = "timeTracker.csv";
     private static Random rand;
+    /**
+     * random number generators provided until the setup of the simulation is finished, saved in checkpoints
+     */
+    private static List<Random> randomsOfSetup = new ArrayList<>();
+    private static boolean setupFinished = false;
     public static int trackHh;
     public static int trackPp;
     public static int trackDd;
@@ -174,21 +179,43 @@ public class SiloUtil {
 
     private static void initializeRandomNumber(int seed) {
         if (seed == -1)
-            rand = new Random();
+            rand = new RestorableRandom();
         else
-            rand = new Random(seed);
+            rand = new RestorableRandom(seed);
+        randomsOfSetup = new ArrayList<>();
+        setupFinished = false;
     }
 
 
     public static Random getRandomObject() {
         if(rand == null) {
-            rand = new Random(42);
+            rand = new RestorableRandom(42);
         }
         return rand;
     }
 
     public static Random provideNewRandom() {
-        return new Random(getRandomObject().nextInt());
+        final Random random = new RestorableRandom(getRandomObject().nextInt());
+        if (!setupFinished) {
+            randomsOfSetup.add(random);
+        }
+        return random;
+    }
+
+    /**
+     * Marks the end of the setup of models and strategies. Random number generators provided afterwards are
+     * seeded from the global random number generator while simulating and are not kept track of.
+     */
+    public static void finishSetupOfRandoms() {
+        setupFinished = true;
+    }
+
+    /**
+     * @return the random number generators provided by {@link #provideNewRandom()} before
+     * {@link #finishSetupOfRandoms()}, in the order they were provided
+     */
+    public static List<Random> getRandomsOfSetup() {
+        return Collections.unmodifiableList(randomsOfSetup);
     }
 
     public static float getRandomNumberAsFloat() {
@@ -308,7 +335,8 @@ public class SiloUtil {
                 String fileName = Properties.get().track.trackFile;
                 String baseDirectory = Properties.get().main.baseDirectory;
                 int startYear = Properties.get().main.startYear;
-                trackWriter = openFileForSequentialWriting(baseDirectory + "scenOutput/" + Properties.get().main.scenarioName + "/" + fileName + ".txt", startYear != Properties.get().main.baseYear);
+                trackWriter = openFileForSequentialWriting(baseDirectory + "scenOutput/" + Properties.get().main.scenarioName + "/" + fileName + ".txt",
+                        startYear != Properties.get().main.baseYear || Properties.get().main.isRestartedFromCheckpoint());
                 if (trackHh != -1) trackWriter.println("Tracking household " + trackHh);
                 if (trackPp != -1) trackWriter.println("Tracking person " + trackPp);
                 if (trackDd != -1) trackWriter.println("Tracking dwelling " + trackDd);
@@ -374,15 +402,7 @@ public class SiloUtil {
     @Deprecated
     public static int select (double[] probabilities, double sumProb, Random random) {
         // select item based on probabilities (for zero-based double array)
-        double selPos = sumProb * random.nextFloat();
-        double sum = 0;
-        for (int i = 0; i < probabilities.length; i++) {
-            sum += probabilities[i];
-            if (sum > selPos) {
-                return i;
-            }
-        }
-        return probabilities.length - 1;
+        return CumulativeDistribution.indexAt(probabilities, probabilities.length, sumProb * random.nextFloat());
     }
 
     public static int select (float[] probabilities) {
@@ -393,29 +413,14 @@ public class SiloUtil {
     public static int select (float[] probabilities, float sum) {
         // select item based on probabilities (for zero-based float array)
         float selPos = sum * getRandomNumberAsFloat();
-        float temp = 0;
-        for (int i = 0; i < probabilities.length; i++) {
-            temp += probabilities[i];
-            if (temp > selPos) {
-                return i;
-            }
-        }
-        return probabilities.length - 1;
+        return CumulativeDistribution.indexAt(probabilities, probabilities.length, selPos);
     }
 
     @Deprecated
     public static int select (double[] probabilities, int[] id) {
         // select item based on probabilities (for zero-based float array)
         double selPos = getSum(probabilities) * getRandomNumberAsFloat();
-        double sum = 0;
-        for (int i = 0; i < probabilities.length; i++) {
-            sum += probabilities[i];
-            if (sum > selPos) {
-                //return i;
-                return id[i];
-            }
-        }
-        return id[probabilities.length - 1];
+        return id[CumulativeDistribution.indexAt(probabilities, probabilities.length, selPos)];
     }
 
     @Deprecated
@@ -423,15 +428,7 @@ public class SiloUtil {
         //select item based on probabilities and return the name
         //probabilities and name have more items than the required (max number of required items is set on "length")
         double selPos = getSum(probabilities) * getRandomNumberAsFloat();
-        double sum = 0;
-        for (int i = 0; i < length; i++) {
-            sum += probabilities[i];
-            if (sum > selPos) {
-                //return i;
-                return name[i];
-            }
-        }
-        return name[length - 1];
+        return name[CumulativeDistribution.indexAt(probabilities, length, selPos)];
     }
 
 
@@ -1158,7 +1155,8 @@ public class SiloUtil {
 
         int startYear = Properties.get().main.startYear;
         PrintWriter pw = openFileForSequentialWriting(Properties.get().main.baseDirectory + "scenOutput/" +
-                Properties.get().main.scenarioName + "/" + TIME_TRACKER_FILE, startYear != Properties.get().main.baseYear);
+                Properties.get().main.scenarioName + "/" + TIME_TRACKER_FILE,
+                startYear != Properties.get().main.baseYear || Properties.get().main.isRestartedFromCheckpoint());
         pw.write(timeTracker.toString());
         pw.close();
     }
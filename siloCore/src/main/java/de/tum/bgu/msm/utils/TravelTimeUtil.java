@@ -2,6 +2,7 @@ package de.tum.bgu.msm.utils;
 
 import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
 import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.TransportMode;
 
@@ -9,13 +10,28 @@ public class TravelTimeUtil {
 
     public static void updateTransitSkim(SkimTravelTimes travelTimes, int year, Properties properties) {
         final String transitSkimFile = properties.accessibility.transitSkimFile(year);
-        travelTimes.readSkim(TransportMode.pt, transitSkimFile,
-                properties.accessibility.transitPeakSkim, properties.accessibility.skimFileFactorTransit);
+        readSkim(travelTimes, TransportMode.pt, transitSkimFile,
+                properties.accessibility.transitPeakSkim, properties.accessibility.skimFileFactorTransit, properties);
     }
 
     public static void updateCarSkim(SkimTravelTimes travelTimes, int year, Properties properties) {
         final String carSkimFile = properties.accessibility.autoSkimFile(year);
-        travelTimes.readSkim(TransportMode.car, carSkimFile,
-                properties.accessibility.autoPeakSkim, properties.accessibility.skimFileFactorCar);
+        readSkim(travelTimes, TransportMode.car, carSkimFile,
+                properties.accessibility.autoPeakSkim, properties.accessibility.skimFileFactorCar, properties);
+    }
+
+    private static void readSkim(SkimTravelTimes travelTimes, String mode, String file, String matrixName,
+                                 double factor, Properties properties) {
+        final String cacheDirectory = properties.accessibility.skimCacheDirectory;
+        if (cacheDirectory == null || cacheDirectory.isEmpty()) {
+            travelTimes.readSkim(mode, file, matrixName, factor);
+            return;
+        }
+        final IndexedDoubleMatrix2D skim = new BinarySkimCache(cacheDirectory).getSkim(file, matrixName, factor, () -> {
+            final SkimTravelTimes omxReader = new SkimTravelTimes();
+            omxReader.readSkim(mode, file, matrixName, 1.);
+            return omxReader.getPeakSkim(mode);
+        });
+        travelTimes.updateSkimMatrix(skim, mode);
     }
 }
@@ -0,0 +1,128 @@
+package de.tum.bgu.msm.data;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class IdMapTest {
+
+    private IdMap<Entity> map;
+
+    @Before
+    public void init() {
+        map = new IdMap<>(2);
+        for (int id = 0; id < 100; id++) {
+            map.put(new Entity(id));
+        }
+    }
+
+    @Test
+    public void testLookupAfterGrowing() {
+        Assert.assertEquals(100, map.size());
+        for (int id = 0; id < 100; id++) {
+            Assert.assertEquals(id, map.get(id).getId());
+        }
+        Assert.assertNull(map.get(100));
+        Assert.assertNull(map.get(-1));
+    }
+
+    @Test
+    public void testPutReplacesEntityWithSameId() {
+        final Entity replacement = new Entity(42);
+        final Entity previous = map.put(replacement);
+        Assert.assertEquals(42, previous.getId());
+        Assert.assertNotSame(replacement, previous);
+        Assert.assertSame(replacement, map.get(42));
+        Assert.assertEquals(100, map.size());
+    }
+
+    @Test
+    public void testRemoveAndAddAgain() {
+        for (int id = 0; id < 100; id += 2) {
+            Assert.assertNotNull(map.remove(id));
+        }
+        Assert.assertNull(map.remove(0));
+        Assert.assertEquals(50, map.size());
+        Assert.assertNull(map.get(10));
+        Assert.assertEquals(11, map.get(11).getId());
+
+        // slots of removed ids have to be reused or dropped instead of filling the table
+        for (int round = 0; round < 1000; round++) {
+            map.put(new Entity(1000 + round));
+            map.remove(1000 + round);
+        }
+        map.put(new Entity(10));
+        Assert.assertEquals(10, map.get(10).getId());
+        Assert.assertEquals(51, map.size());
+    }
+
+    @Test
+    public void testValuesIteratorRemoves() {
+        final Set<Integer> ids = new HashSet<>();
+        for (Iterator<Entity> iterator = map.values().iterator(); iterator.hasNext(); ) {
+            final Entity entity = iterator.next();
+            Assert.assertTrue(ids.add(entity.getId()));
+            if (entity.getId() % 3 == 0) {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(100, ids.size());
+        Assert.assertEquals(66, map.size());
+        Assert.assertEquals(66, map.values().size());
+        for (Entity entity : map.values()) {
+            Assert.assertNotEquals(0, entity.getId() % 3);
+        }
+    }
+
+    @Test
+    public void testIterationFollowsIds() {
+        final IdMap<Entity> shuffled = new IdMap<>();
+        final List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < 5000; id += 3) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids, new Random(42));
+        for (int id : ids) {
+            shuffled.put(new Entity(id));
+        }
+        for (int id = 0; id < 5000; id += 6) {
+            shuffled.remove(id);
+        }
+        shuffled.put(new Entity(6));
+        shuffled.put(new Entity(1));
+
+        int previous = -1;
+        for (Entity entity : shuffled.values()) {
+            Assert.assertTrue(entity.getId() > previous);
+            previous = entity.getId();
+        }
+        Assert.assertEquals(1667 - 834 + 2, shuffled.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeIdsAreRejected() {
+        map.put(new Entity(-1));
+    }
+
+    private static final class Entity implements Id {
+
+        private final int id;
+
+        private Entity(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+    }
+}
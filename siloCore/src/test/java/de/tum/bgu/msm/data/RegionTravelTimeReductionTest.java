@@ -0,0 +1,62 @@
+package de.tum.bgu.msm.data;
+
+import de.tum.bgu.msm.data.geo.DefaultGeoData;
+import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.RegionImpl;
+import de.tum.bgu.msm.data.geo.ZoneImpl;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class RegionTravelTimeReductionTest {
+
+    @Test
+    public void testReductionMatchesNestedLoops() {
+        GeoData geoData = new DefaultGeoData();
+        Random random = new Random(42);
+        for (int r = 1; r <= 4; r++) {
+            final RegionImpl region = new RegionImpl(r);
+            geoData.addRegion(region);
+        }
+        for (int z = 1; z <= 30; z++) {
+            final Region region = geoData.getRegions().get(1 + random.nextInt(3));
+            final ZoneImpl zone = new ZoneImpl(z, 10, region);
+            region.addZone(zone);
+            geoData.addZone(zone);
+        }
+
+        IndexedDoubleMatrix2D skim = new IndexedDoubleMatrix2D(geoData.getZones().values(), geoData.getZones().values());
+        skim.assign(argument -> random.nextDouble() * 10);
+        final RegionTravelTimeReduction reduction = RegionTravelTimeReduction.reduce(skim,
+                geoData.getRegions().values(), geoData.getZones().values());
+
+        for (Region region : geoData.getRegions().values()) {
+            for (Zone zone : geoData.getZones().values()) {
+                double minFrom = Double.MAX_VALUE;
+                double minTo = Double.MAX_VALUE;
+                for (Zone zoneInRegion : region.getZones()) {
+                    minFrom = Math.min(minFrom, skim.getIndexed(zoneInRegion.getZoneId(), zone.getZoneId()));
+                    minTo = Math.min(minTo, skim.getIndexed(zone.getZoneId(), zoneInRegion.getZoneId()));
+                }
+                Assert.assertEquals(minFrom, reduction.getMinimumFromRegion().getIndexed(region.getId(), zone.getZoneId()), 0.);
+                Assert.assertEquals(minTo, reduction.getMinimumToRegion().getIndexed(zone.getZoneId(), region.getId()), 0.);
+            }
+            for (Region other : geoData.getRegions().values()) {
+                double minimum = Double.MAX_VALUE;
+                double sum = 0;
+                for (Zone origin : region.getZones()) {
+                    for (Zone destination : other.getZones()) {
+                        minimum = Math.min(minimum, skim.getIndexed(origin.getZoneId(), destination.getZoneId()));
+                        sum += skim.getIndexed(origin.getZoneId(), destination.getZoneId());
+                    }
+                }
+                final int pairs = region.getZones().size() * other.getZones().size();
+                Assert.assertEquals(minimum, reduction.getMinimumBetweenRegions().getIndexed(region.getId(), other.getId()), 0.);
+                Assert.assertEquals(pairs == 0 ? Double.NaN : sum / pairs,
+                        reduction.getAverageBetweenRegions().getIndexed(region.getId(), other.getId()), 1e-9);
+            }
+        }
+    }
+}
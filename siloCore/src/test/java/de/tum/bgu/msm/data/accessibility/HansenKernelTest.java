@@ -0,0 +1,53 @@
+package de.tum.bgu.msm.data.accessibility;
+
+import de.tum.bgu.msm.data.Id;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class HansenKernelTest {
+
+    private final List<Id> zones = Arrays.asList(() -> 2, () -> 5, () -> 9, () -> 14);
+    private final int[] zoneIds = {2, 5, 9, 14};
+
+    @Test
+    public void testProductMatchesHansenFormula() {
+        Random random = new Random(42);
+        IndexedDoubleMatrix2D travelTimes = new IndexedDoubleMatrix2D(zones, zones);
+        travelTimes.assign(argument -> random.nextDouble() * 10);
+        travelTimes.setIndexed(5, 9, 0);
+        final double[] employment = {3, 0, 10, 1};
+        final double alpha = 1.2;
+        final double beta = -0.3;
+
+        final double[] attractions = new double[employment.length];
+        for (int j = 0; j < employment.length; j++) {
+            attractions[j] = Math.pow(employment[j], alpha);
+        }
+        final double[] accessibilities = new HansenKernel(travelTimes, zoneIds, beta).multiply(attractions);
+
+        for (int i = 0; i < zoneIds.length; i++) {
+            double expected = 0;
+            for (int j = 0; j < zoneIds.length; j++) {
+                final double travelTime = travelTimes.getIndexed(zoneIds[i], zoneIds[j]);
+                if (travelTime > 0) {
+                    expected += Math.pow(employment[j], alpha) * Math.exp(beta * travelTime);
+                }
+            }
+            Assert.assertEquals(expected, accessibilities[i], 1e-12);
+        }
+    }
+
+    @Test
+    public void testKernelIsOnlyValidForItsSkim() {
+        IndexedDoubleMatrix2D travelTimes = new IndexedDoubleMatrix2D(zones, zones);
+        final HansenKernel kernel = new HansenKernel(travelTimes, zoneIds, -0.3);
+        Assert.assertTrue(kernel.isValidFor(travelTimes, -0.3));
+        Assert.assertFalse(kernel.isValidFor(travelTimes, -0.2));
+        Assert.assertFalse(kernel.isValidFor(new IndexedDoubleMatrix2D(zones, zones), -0.3));
+    }
+}
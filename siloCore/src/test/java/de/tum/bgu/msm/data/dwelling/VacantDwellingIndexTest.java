@@ -0,0 +1,84 @@
+package de.tum.bgu.msm.data.dwelling;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class VacantDwellingIndexTest {
+
+    private final DwellingFactory factory = new DwellingFactoryImpl();
+    private VacantDwellingIndex index;
+
+    @Before
+    public void init() {
+        index = new VacantDwellingIndex(true, true);
+        for (int id = 1; id <= 10; id++) {
+            DwellingType type = id % 2 == 0 ? DefaultDwellingTypes.DefaultDwellingTypeImpl.SFD
+                    : DefaultDwellingTypes.DefaultDwellingTypeImpl.MF5plus;
+            Dwelling dwelling = factory.createDwelling(id, id % 3, null, -1, type, 2, 1, 500, 2000);
+            index.add(dwelling, id <= 6 ? 1 : 2);
+        }
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        Assert.assertEquals(10, index.size());
+        Assert.assertEquals(6, index.getNumberOfVacantDwellingsInRegion(1));
+        Assert.assertEquals(4, index.getNumberOfVacantDwellingsInRegion(2));
+        Assert.assertEquals(0, index.getNumberOfVacantDwellingsInRegion(3));
+
+        Dwelling duplicate = factory.createDwelling(3, 0, null, -1,
+                DefaultDwellingTypes.DefaultDwellingTypeImpl.MF5plus, 2, 1, 500, 2000);
+        Assert.assertFalse(index.add(duplicate, 1));
+
+        Assert.assertNotNull(index.remove(3));
+        Assert.assertNull(index.remove(3));
+        Assert.assertFalse(index.contains(3));
+        Assert.assertEquals(5, index.getNumberOfVacantDwellingsInRegion(1));
+        Assert.assertEquals(4, index.getNumberOfVacantDwellingsInZone(0));
+        Assert.assertEquals(4, index.getNumberOfVacantDwellingsOfType(DefaultDwellingTypes.DefaultDwellingTypeImpl.MF5plus));
+
+        Set<Integer> ids = new HashSet<>();
+        for (Dwelling dwelling : index.getVacantDwellingsInRegion(1)) {
+            ids.add(dwelling.getId());
+        }
+        Assert.assertEquals(Set.of(1, 2, 4, 5, 6), ids);
+    }
+
+    @Test
+    public void testViewIsLiveAndUnmodifiable() {
+        List<Dwelling> view = index.getVacantDwellingsInRegion(2);
+        index.remove(7);
+        Assert.assertEquals(3, view.size());
+        try {
+            view.remove(0);
+            Assert.fail("View should not be modifiable.");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void testSampleDistinct() {
+        Random random = new Random(42);
+        Dwelling[] target = new Dwelling[4];
+        for (int i = 0; i < 100; i++) {
+            int n = index.sampleInRegion(1, random, target);
+            Assert.assertEquals(4, n);
+            Set<Integer> ids = new HashSet<>();
+            for (int j = 0; j < n; j++) {
+                Assert.assertTrue(target[j].getId() <= 6);
+                ids.add(target[j].getId());
+            }
+            Assert.assertEquals(4, ids.size());
+        }
+        Dwelling[] large = new Dwelling[20];
+        Assert.assertEquals(4, index.sampleInRegion(2, random, large));
+        Assert.assertEquals(0, index.sampleInRegion(3, random, large));
+        Assert.assertNull(index.sampleInRegion(3, random));
+    }
+}
@@ -0,0 +1,119 @@
+package de.tum.bgu.msm.data.household;
+
+import de.tum.bgu.msm.data.person.Gender;
+import de.tum.bgu.msm.data.person.Occupation;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonFactory;
+import de.tum.bgu.msm.data.person.PersonImpl;
+import de.tum.bgu.msm.data.person.PersonRole;
+import de.tum.bgu.msm.data.person.PersonType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+public class ColumnarHouseholdDataTest {
+
+    private ColumnarHouseholdData data;
+    private PersonFactory factory;
+
+    @Before
+    public void init() {
+        data = new ColumnarHouseholdData(2, 2);
+        factory = data.getPersonFactory();
+        for (int id = 1; id <= 10; id++) {
+            data.addPerson(factory.createPerson(id, 20 + id, id % 2 == 0 ? Gender.FEMALE : Gender.MALE,
+                    Occupation.EMPLOYED, PersonRole.SINGLE, 100 + id, 1000 * id));
+        }
+    }
+
+    @Test
+    public void testAttributesAreStoredAndUpdated() {
+        Assert.assertEquals(10, data.getPersons().size());
+        Person person = data.getPerson(4);
+        Assert.assertEquals(4, person.getId());
+        Assert.assertEquals(24, person.getAge());
+        Assert.assertEquals(Gender.FEMALE, person.getGender());
+        Assert.assertEquals(PersonType.WOMEN_AGE_20_TO_24, person.getType());
+        Assert.assertEquals(104, person.getJobId());
+        Assert.assertEquals(4000, person.getAnnualIncome());
+
+        person.birthday();
+        person.setOccupation(Occupation.UNEMPLOYED);
+        person.setRole(null);
+        person.setDriverLicense(true);
+        person.setAttribute("disability", "none");
+        Assert.assertSame(person, data.getPerson(4));
+        Assert.assertEquals(25, person.getAge());
+        Assert.assertEquals(PersonType.WOMEN_AGE_25_TO_29, person.getType());
+        Assert.assertEquals(Occupation.UNEMPLOYED, person.getOccupation());
+        Assert.assertNull(person.getRole());
+        Assert.assertTrue(person.hasDriverLicense());
+        Assert.assertEquals("none", person.getAttribute("disability").get());
+        Assert.assertFalse(data.getPerson(5).getAttribute("disability").isPresent());
+    }
+
+    @Test
+    public void testRemovedPersonKeepsAttributesAndRowIsReused() {
+        Person removed = data.getPerson(3);
+        data.removePerson(3);
+        Assert.assertNull(data.getPerson(3));
+        Assert.assertEquals(9, data.getPersons().size());
+        Assert.assertEquals(3, removed.getId());
+        Assert.assertEquals(23, removed.getAge());
+
+        data.addPerson(factory.createPerson(11, 50, Gender.MALE, Occupation.RETIREE, PersonRole.MARRIED, -1, 0));
+        Assert.assertEquals(23, removed.getAge());
+        Assert.assertEquals(50, data.getPerson(11).getAge());
+
+        data.addPerson(removed);
+        Assert.assertSame(removed, data.getPerson(3));
+        Assert.assertEquals(11, data.getPersons().size());
+    }
+
+    @Test
+    public void testIterationSkipsRemovedPersons() {
+        Set<Integer> ids = new HashSet<>();
+        Iterator<Person> iterator = data.getPersons().iterator();
+        while (iterator.hasNext()) {
+            Person person = iterator.next();
+            ids.add(person.getId());
+            if (person.getId() == 2) {
+                data.removePerson(5);
+            }
+            if (person.getId() == 8) {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(9, ids.size());
+        Assert.assertFalse(ids.contains(5));
+        Assert.assertEquals(8, data.getPersons().size());
+        Assert.assertNull(data.getPerson(8));
+    }
+
+    @Test
+    public void testHouseholds() {
+        HouseholdFactory householdFactory = data.getHouseholdFactory();
+        data.addHousehold(householdFactory.createHousehold(1, 10, 1));
+        data.addHousehold(householdFactory.createHousehold(2, 20, 2));
+        Household household = data.getHousehold(2);
+        household.setDwelling(21);
+        household.setAutos(0);
+        Assert.assertEquals(21, household.getDwellingId());
+        Assert.assertEquals(0, household.getAutos());
+        Assert.assertTrue(household.getPersons().isEmpty());
+
+        data.removeHousehold(1);
+        Assert.assertNull(data.getHousehold(1));
+        Assert.assertEquals(1, data.getHouseholds().size());
+        Assert.assertSame(household, data.getHouseholds().iterator().next());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForeignPersonIsRejected() {
+        data.addPerson(new PersonImpl(99, 30, Gender.MALE, Occupation.EMPLOYED, PersonRole.SINGLE, -1, 0));
+    }
+}
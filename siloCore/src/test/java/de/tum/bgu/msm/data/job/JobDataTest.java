@@ -0,0 +1,37 @@
+package de.tum.bgu.msm.data.job;
+
+import de.tum.bgu.msm.data.geo.RegionImpl;
+import de.tum.bgu.msm.data.geo.ZoneImpl;
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+
+public class JobDataTest {
+
+    @Test
+    public void testJobsByZoneFollowRelocation() {
+        final JobData jobData = new JobDataImpl();
+        relocateAndRemove(jobData, new JobFactoryImpl());
+    }
+
+    @Test
+    public void testColumnarJobsByZoneFollowRelocation() {
+        final ColumnarJobData jobData = new ColumnarJobData(2);
+        relocateAndRemove(jobData, jobData.getJobFactory());
+    }
+
+    private void relocateAndRemove(JobData jobData, JobFactory factory) {
+        final ZoneImpl zone = new ZoneImpl(2, 10, new RegionImpl(1));
+        jobData.addJob(factory.createJob(1, 1, new Coordinate(0, 0), -1, "IND"));
+        jobData.addJob(factory.createJob(2, 1, new Coordinate(0, 0), -1, "IND"));
+
+        jobData.relocateJob(1, zone, new Coordinate(10, 10));
+        Assert.assertEquals(2, jobData.get(1).getZoneId());
+        Assert.assertEquals(1, jobData.getNumberOfJobsInZone(1));
+        Assert.assertEquals(1, jobData.getNumberOfJobsInZone(2));
+
+        jobData.removeJob(1);
+        Assert.assertEquals(1, jobData.getNumberOfJobsInZone(1));
+        Assert.assertEquals(0, jobData.getNumberOfJobsInZone(2));
+    }
+}
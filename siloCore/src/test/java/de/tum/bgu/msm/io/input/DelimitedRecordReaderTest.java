@@ -0,0 +1,124 @@
+package de.tum.bgu.msm.io.input;
+
+import de.tum.bgu.msm.data.person.Gender;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+public class DelimitedRecordReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFieldsAreParsedLikeSplit() throws IOException {
+        File file = write("id,type,coordX,driversLicense,gender\r\n" +
+                "1,\"MF234\",4432.125,true,MALE\r\n" +
+                "\r\n" +
+                "-27,SFD,-1.5e3,FALSE,\"female\"\r\n" +
+                "2147483647,SFD,0.000123,no,MALE", false);
+        try (DelimitedRecordReader reader = DelimitedRecordReader.open(file.getPath())) {
+            Assert.assertArrayEquals(new String[]{"id", "type", "coordX", "driversLicense", "gender"}, reader.getHeader());
+            Assert.assertEquals(2, reader.getColumn("coordx"));
+            Assert.assertEquals(-1, reader.getColumn("zone"));
+
+            Assert.assertTrue(reader.next());
+            Assert.assertEquals(1, reader.getInt(0));
+            Assert.assertEquals("MF234", reader.getString(1));
+            Assert.assertEquals(4432.125, reader.getDouble(2), 0.);
+            Assert.assertTrue(reader.getBoolean(3));
+            Assert.assertEquals(Gender.MALE, reader.getEnum(4, Gender.class));
+
+            Assert.assertTrue(reader.next());
+            Assert.assertEquals(-27, reader.getInt(0));
+            Assert.assertSame(reader.getPooledString(1), reader.getPooledString(1));
+            Assert.assertEquals(-1500., reader.getDouble(2), 0.);
+            Assert.assertFalse(reader.getBoolean(3));
+            Assert.assertEquals(Gender.FEMALE, reader.getEnum(4, Gender.class));
+
+            Assert.assertTrue(reader.next());
+            Assert.assertEquals(Integer.MAX_VALUE, reader.getInt(0));
+            Assert.assertEquals(0.000123, reader.getDouble(2), 0.);
+            Assert.assertFalse(reader.getBoolean(3));
+
+            Assert.assertFalse(reader.next());
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testInvalidIntegerIsRejected() throws IOException {
+        File file = write("id\n2147483648\n", false);
+        try (DelimitedRecordReader reader = DelimitedRecordReader.open(file.getPath())) {
+            reader.next();
+            reader.getInt(0);
+        }
+    }
+
+    @Test
+    public void testGzipAndLargeFilesMatchDoubleParsing() throws IOException {
+        Random random = new Random(42);
+        StringBuilder content = new StringBuilder("id,value\n");
+        double[] values = new double[200000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(3) == 0 ? random.nextGaussian() * 1e6 : Math.round(random.nextDouble() * 1e5) / 100.;
+            content.append(i).append(',').append(values[i]).append('\n');
+        }
+        for (boolean gzip : new boolean[]{false, true}) {
+            File file = write(content.toString(), gzip);
+            try (DelimitedRecordReader reader = DelimitedRecordReader.open(file.getPath())) {
+                int count = 0;
+                while (reader.next()) {
+                    Assert.assertEquals(count, reader.getInt(0));
+                    Assert.assertEquals(values[count], reader.getDouble(1), 0.);
+                    count++;
+                }
+                Assert.assertEquals(values.length, count);
+            }
+        }
+    }
+
+    @Test
+    public void testParseAllKeepsFileOrder() throws IOException {
+        StringBuilder content = new StringBuilder("id,value\n");
+        for (int i = 0; i < 500000; i++) {
+            content.append(i).append(',').append(i % 7 == 0 ? "skip" : "keep").append('\n');
+        }
+        for (boolean gzip : new boolean[]{false, true}) {
+            File file = write(content.toString(), gzip);
+            try (DelimitedRecordReader reader = DelimitedRecordReader.open(file.getPath())) {
+                final int posId = reader.getColumn("id");
+                final int posValue = reader.getColumn("value");
+                List<Integer> ids = reader.parseAll(record ->
+                        record.getPooledString(posValue).equals("skip") ? null : record.getInt(posId));
+                int expected = 0;
+                for (int id : ids) {
+                    if (expected % 7 == 0) {
+                        expected++;
+                    }
+                    Assert.assertEquals(expected++, id);
+                }
+                Assert.assertEquals(500000, expected);
+                Assert.assertFalse(reader.next());
+            }
+        }
+    }
+
+    private File write(String content, boolean gzip) throws IOException {
+        File file = folder.newFile();
+        try (OutputStream out = gzip ? new GZIPOutputStream(new FileOutputStream(file)) : Files.newOutputStream(file.toPath())) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+}
@@ -0,0 +1,68 @@
+package de.tum.bgu.msm.io.output;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+
+public class AsyncCsvWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSubmittedFilesAreCompleteAfterFlush() throws IOException {
+        final File plain = new File(folder.newFolder(), "year/pp.csv");
+        final File compressed = new File(folder.newFolder(), "hh.csv.gz");
+        AsyncCsvWriter.submit(plain.getPath(), snapshotOf(1, 2, 3));
+        AsyncCsvWriter.submit(compressed.getPath(), snapshotOf(1, 2, 3));
+        AsyncCsvWriter.flush();
+
+        Assert.assertEquals("id\n1\n2\n3\n", new String(Files.readAllBytes(plain.toPath()), StandardCharsets.UTF_8));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed.toPath()))) {
+            final byte[] bytes = in.readAllBytes();
+            Assert.assertEquals("id\n1\n2\n3\n", new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testFlushThrowsIfWritingFailed() throws IOException {
+        AsyncCsvWriter.submit(new File(folder.newFolder(), "failing.csv").getPath(), out -> {
+            throw new IOException("disk full");
+        });
+        AsyncCsvWriter.flush();
+    }
+
+    @Test
+    public void testFlushStopsBackgroundThreads() throws Exception {
+        final File file = new File(folder.newFolder(), "dd.csv");
+        AsyncCsvWriter.submit(file.getPath(), snapshotOf(1));
+        AsyncCsvWriter.flush();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("csv-writer-")) {
+                thread.join(10000);
+                Assert.assertFalse(thread.isAlive());
+            }
+        }
+
+        AsyncCsvWriter.submit(file.getPath(), snapshotOf(2));
+        AsyncCsvWriter.flush();
+        Assert.assertEquals("id\n2\n", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+
+    private static AsyncCsvWriter.Snapshot snapshotOf(int... ids) {
+        return out -> {
+            out.write("id\n");
+            for (int id : ids) {
+                out.write(id + "\n");
+            }
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package de.tum.bgu.msm.io.output;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SinglePassAggregationTest {
+
+    @Test
+    public void testAllIndicatorsAreFedInOnePass() {
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            values.add(i % 97);
+        }
+        final SinglePassAggregation<Integer> aggregation = new SinglePassAggregation<>();
+        final SinglePassAggregation.Indicator<Sum> sum = aggregation.register(Sum::new);
+        final SinglePassAggregation.Indicator<Histogram> histogram = aggregation.register(Histogram::new);
+
+        final SinglePassAggregation.Results results = aggregation.aggregate(values);
+
+        long expectedSum = 0;
+        final int[] expectedCounts = new int[97];
+        for (int value : values) {
+            expectedSum += value;
+            expectedCounts[value]++;
+        }
+        Assert.assertEquals(expectedSum, results.get(sum).sum);
+        Assert.assertArrayEquals(expectedCounts, results.get(histogram).counts);
+    }
+
+    @Test
+    public void testEmptyEntitiesYieldEmptyAccumulators() {
+        final SinglePassAggregation<Integer> aggregation = new SinglePassAggregation<>();
+        final SinglePassAggregation.Indicator<Sum> sum = aggregation.register(Sum::new);
+        Assert.assertEquals(0, aggregation.aggregate(new ArrayList<>()).get(sum).sum);
+    }
+
+    private static final class Sum implements Accumulator<Integer, Sum> {
+        private long sum;
+
+        @Override
+        public void add(Integer entity) {
+            sum += entity;
+        }
+
+        @Override
+        public void merge(Sum other) {
+            sum += other.sum;
+        }
+    }
+
+    private static final class Histogram implements Accumulator<Integer, Histogram> {
+        private final int[] counts = new int[97];
+
+        @Override
+        public void add(Integer entity) {
+            counts[entity]++;
+        }
+
+        @Override
+        public void merge(Histogram other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+        }
+    }
+}
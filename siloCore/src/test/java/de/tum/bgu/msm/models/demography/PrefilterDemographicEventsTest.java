@@ -0,0 +1,114 @@
+package de.tum.bgu.msm.models.demography;
+
+import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.container.DefaultDataContainer;
+import de.tum.bgu.msm.data.dwelling.DwellingDataImpl;
+import de.tum.bgu.msm.data.geo.DefaultGeoData;
+import de.tum.bgu.msm.data.household.HouseholdDataImpl;
+import de.tum.bgu.msm.data.household.HouseholdDataManager;
+import de.tum.bgu.msm.data.household.HouseholdDataManagerImpl;
+import de.tum.bgu.msm.data.household.HouseholdFactoryImpl;
+import de.tum.bgu.msm.data.person.*;
+import de.tum.bgu.msm.events.impls.person.DeathEvent;
+import de.tum.bgu.msm.events.impls.person.LicenseEvent;
+import de.tum.bgu.msm.models.demography.death.DeathModelImpl;
+import de.tum.bgu.msm.models.demography.driversLicense.DriversLicenseModelImpl;
+import de.tum.bgu.msm.models.demography.driversLicense.DriversLicenseStrategy;
+import de.tum.bgu.msm.properties.Properties;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+public class PrefilterDemographicEventsTest {
+
+    private static final Properties PROPERTIES = Properties.initializeProperties("./test/siloDemography.properties");
+
+    private static final int NUMBER_OF_PERSONS = 20;
+
+    private DataContainer dataContainer;
+
+    /**
+     * Persons 1 to 20 aged 17 to 36 without drivers license.
+     */
+    @Before
+    public void setup() {
+        final HouseholdDataManager householdDataManager = new HouseholdDataManagerImpl(new HouseholdDataImpl(),
+                new DwellingDataImpl(), new PersonFactoryImpl(), new HouseholdFactoryImpl(), PROPERTIES, null);
+        for (int id = 1; id <= NUMBER_OF_PERSONS; id++) {
+            householdDataManager.addPerson(householdDataManager.getPersonFactory().createPerson(id, 16 + id,
+                    Gender.FEMALE, Occupation.UNEMPLOYED, PersonRole.SINGLE, -1, 1000));
+        }
+        dataContainer = new DefaultDataContainer(new DefaultGeoData(), null, null, householdDataManager,
+                null, null, null, PROPERTIES);
+    }
+
+    @Test
+    public void testOnlyLicenseEventsThatFireAreScheduled() {
+        final DriversLicenseStrategy strategy = new DriversLicenseStrategy() {
+            @Override
+            public double calculateChangeDriversLicenseProbability(Person pp) {
+                return pp.getId() % 2 == 1 ? 1 : 0;
+            }
+
+            @Override
+            public double calculateCreateDriversLicenseProbability(Person pp) {
+                return 0;
+            }
+        };
+        final CountingRandom random = new CountingRandom();
+        final DriversLicenseModelImpl model = new DriversLicenseModelImpl(dataContainer, PROPERTIES, strategy, random);
+
+        final Collection<LicenseEvent> events = model.getEventsForCurrentYear(2011);
+        Assert.assertEquals("Person 1 is underage and is not drawn.", NUMBER_OF_PERSONS - 1, random.draws);
+        Assert.assertEquals(NUMBER_OF_PERSONS / 2 - 1, events.size());
+
+        for (LicenseEvent event : events) {
+            Assert.assertEquals(1, event.getPersonId() % 2);
+            Assert.assertTrue(model.handleEvent(event));
+        }
+        Assert.assertEquals("Prefiltered events are not drawn again.", NUMBER_OF_PERSONS - 1, random.draws);
+
+        for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
+            Assert.assertEquals(person.getId() > 1 && person.getId() % 2 == 1, person.hasDriverLicense());
+        }
+    }
+
+    @Test
+    public void testDeathEventsFollowTheDrawsAtGeneration() {
+        final DeathModelImpl model = new DeathModelImpl(dataContainer, PROPERTIES, person -> 0.3, new Random(42));
+
+        final List<Integer> expected = new ArrayList<>();
+        final Random random = new Random(42);
+        for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
+            if (random.nextDouble() < 0.3) {
+                expected.add(person.getId());
+            }
+        }
+        final List<Integer> scheduled = new ArrayList<>();
+        for (DeathEvent event : model.getEventsForCurrentYear(2011)) {
+            scheduled.add(event.getPersonId());
+        }
+        Assert.assertEquals(expected, scheduled);
+        Assert.assertTrue(scheduled.size() < NUMBER_OF_PERSONS);
+    }
+
+    private static final class CountingRandom extends Random {
+
+        private int draws;
+
+        private CountingRandom() {
+            super(42);
+        }
+
+        @Override
+        public double nextDouble() {
+            draws++;
+            return super.nextDouble();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package de.tum.bgu.msm.models.realEstate.construction;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class ZoneChoiceForConstructionTest {
+
+    @Test
+    public void testCapacityIsUsedUpIncrementally() {
+        final int[] zones = {3, 7, 11};
+        final int[] capacityByZone = new int[12];
+        capacityByZone[3] = 2;
+        capacityByZone[7] = 0;
+        capacityByZone[11] = 3;
+        final ZoneChoiceForConstruction choice = new ZoneChoiceForConstruction(zones, zone -> capacityByZone[zone]);
+
+        final Random random = new Random(42);
+        final int[] built = new int[12];
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(choice.hasCapacity());
+            final int zone = choice.selectZone(random);
+            built[zone]++;
+            capacityByZone[zone]--;
+            choice.update(zone);
+        }
+        Assert.assertFalse(choice.hasCapacity());
+        Assert.assertEquals(-1, choice.selectZone(random));
+        Assert.assertEquals(2, built[3]);
+        Assert.assertEquals(0, built[7]);
+        Assert.assertEquals(3, built[11]);
+
+        // zones of other regions are ignored
+        choice.update(5);
+    }
+}
@@ -0,0 +1,137 @@
+package de.tum.bgu.msm.models.relocation.moves;
+
+import de.tum.bgu.msm.data.Location;
+import de.tum.bgu.msm.data.Region;
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.data.accessibility.CommutingTimeProbability;
+import de.tum.bgu.msm.data.dwelling.DefaultDwellingTypes;
+import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.data.dwelling.DwellingFactoryImpl;
+import de.tum.bgu.msm.data.geo.DefaultGeoData;
+import de.tum.bgu.msm.data.geo.RegionImpl;
+import de.tum.bgu.msm.data.geo.ZoneImpl;
+import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CommuteFactorCacheTest {
+
+    private DefaultGeoData geoData;
+    private CountingTravelTimes travelTimes;
+    private CommuteFactorCache cache;
+    private int probabilityQueries;
+
+    @Before
+    public void setup() {
+        geoData = new DefaultGeoData();
+        final RegionImpl region = new RegionImpl(1);
+        geoData.addRegion(region);
+        for (int zoneId = 1; zoneId <= 3; zoneId++) {
+            final ZoneImpl zone = new ZoneImpl(zoneId, 10, region);
+            region.addZone(zone);
+            geoData.addZone(zone);
+        }
+        travelTimes = new CountingTravelTimes();
+        final CommutingTimeProbability probability = new CommutingTimeProbability() {
+            @Override
+            public float getCommutingTimeProbability(int minutes, String mode) {
+                probabilityQueries++;
+                return 1.f / minutes;
+            }
+
+            @Override
+            public void setup() {
+            }
+
+            @Override
+            public void prepareYear(int year) {
+            }
+
+            @Override
+            public void endYear(int year) {
+            }
+
+            @Override
+            public void endSimulation() {
+            }
+        };
+        cache = new CommuteFactorCache(geoData, probability, 8 * 3600);
+    }
+
+    @Test
+    public void testFactorsOfZonesAreReused() {
+        final Zone home = geoData.getZones().get(1);
+        final Zone work = geoData.getZones().get(2);
+
+        Assert.assertEquals(1. / 20, cache.getCommuteFactor(travelTimes, home, work, "car"), 1e-7);
+        Assert.assertEquals(1. / 20, cache.getCommuteFactor(travelTimes, home, work, "car"), 1e-7);
+        Assert.assertEquals(1, travelTimes.queries);
+        Assert.assertEquals(1, probabilityQueries);
+
+        cache.getCommuteFactor(travelTimes, home, work, "pt");
+        cache.getCommuteFactor(travelTimes, work, home, "car");
+        Assert.assertEquals("Modes and directions are cached separately.", 3, travelTimes.queries);
+        Assert.assertEquals(3, probabilityQueries);
+    }
+
+    @Test
+    public void testClearDropsFactors() {
+        final Zone home = geoData.getZones().get(1);
+        final Zone work = geoData.getZones().get(3);
+        Assert.assertEquals(1. / 20, cache.getCommuteFactor(travelTimes, home, work, "car"), 1e-7);
+
+        travelTimes.minutes = 40;
+        Assert.assertEquals("Updated skims are only seen after clearing the cache.",
+                1. / 20, cache.getCommuteFactor(travelTimes, home, work, "car"), 1e-7);
+        cache.clear();
+        Assert.assertEquals(1. / 40, cache.getCommuteFactor(travelTimes, home, work, "car"), 1e-7);
+        Assert.assertEquals(2, travelTimes.queries);
+    }
+
+    @Test
+    public void testMicroLocationsAreNotCached() {
+        final Dwelling home = new DwellingFactoryImpl().createDwelling(1, 1, null, -1,
+                DefaultDwellingTypes.DefaultDwellingTypeImpl.MF5plus, 2, 3, 500, 1990);
+        final Zone work = geoData.getZones().get(2);
+
+        cache.getCommuteFactor(travelTimes, home, work, "car");
+        travelTimes.minutes = 0;
+        Assert.assertEquals("At least one minute of travel time is used.",
+                1., cache.getCommuteFactor(travelTimes, home, work, "car"), 0.);
+        Assert.assertEquals(2, travelTimes.queries);
+    }
+
+    private static final class CountingTravelTimes implements TravelTimes {
+
+        private int queries;
+        private double minutes = 20;
+
+        @Override
+        public double getTravelTime(Location origin, Location destination, double timeOfDay_s, String mode) {
+            queries++;
+            return minutes;
+        }
+
+        @Override
+        public double getTravelTimeFromRegion(Region region, Zone zone, double timeOfDay_s, String mode) {
+            return minutes;
+        }
+
+        @Override
+        public double getTravelTimeToRegion(Zone zone, Region region, double timeOfDay_s, String mode) {
+            return minutes;
+        }
+
+        @Override
+        public IndexedDoubleMatrix2D getPeakSkim(String mode) {
+            return null;
+        }
+
+        @Override
+        public TravelTimes duplicate() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package de.tum.bgu.msm.models.relocation.moves;
+
+import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.container.DefaultDataContainer;
+import de.tum.bgu.msm.data.Location;
+import de.tum.bgu.msm.data.Region;
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.data.accessibility.Accessibility;
+import de.tum.bgu.msm.data.dwelling.*;
+import de.tum.bgu.msm.data.geo.DefaultGeoData;
+import de.tum.bgu.msm.data.geo.RegionImpl;
+import de.tum.bgu.msm.data.geo.ZoneImpl;
+import de.tum.bgu.msm.data.household.*;
+import de.tum.bgu.msm.data.job.JobDataImpl;
+import de.tum.bgu.msm.data.job.JobDataManagerImpl;
+import de.tum.bgu.msm.data.job.JobFactoryImpl;
+import de.tum.bgu.msm.data.person.*;
+import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.events.impls.household.MoveEvent;
+import de.tum.bgu.msm.models.modeChoice.CommuteModeChoiceMapping;
+import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MovesModelImplTest {
+
+    private static final Properties PROPERTIES = Properties.initializeProperties("./test/siloMoves.properties");
+
+    private static final int NUMBER_OF_ZONES = 4;
+    private static final int NUMBER_OF_DWELLINGS = 12;
+    private static final int NUMBER_OF_HOUSEHOLDS = 8;
+
+    private DataContainer dataContainer;
+    private TestHousingStrategy strategy;
+
+    @Before
+    public void setup() {
+        dataContainer = createDataContainer();
+        strategy = new TestHousingStrategy(new AtomicInteger());
+    }
+
+    @Test
+    public void testIncrementalSatisfactionMatchesFullEvaluation() {
+        final MovesModelImpl model = new MovesModelImpl(dataContainer, PROPERTIES, (average, current) -> 0.,
+                strategy, new Random(42));
+        model.setup();
+        model.prepareYear(2011);
+        Assert.assertEquals(NUMBER_OF_HOUSEHOLDS, strategy.evaluations.get());
+        assertSatisfactionsOfFullEvaluation(model);
+
+        // a dwelling search leaves the commute mode choice of the last evaluated dwelling at the household
+        final Household searching = dataContainer.getHouseholdDataManager().getHouseholdFromId(1);
+        strategy.calculateHousingUtility(searching, dataContainer.getRealEstateDataManager().getDwelling(12));
+        dataContainer.getRealEstateDataManager().getDwelling(2).setPrice(2000);
+
+        strategy.evaluations.set(0);
+        model.prepareYear(2012);
+        Assert.assertEquals("Only the household of the changed dwelling has to be evaluated again.",
+                1, strategy.evaluations.get());
+        assertSatisfactionsOfFullEvaluation(model);
+        model.endSimulation();
+    }
+
+    @Test
+    public void testPreparedBatchesAreReproducible() {
+        final int[] dwellingByHousehold = simulateMovesInBatches(dataContainer);
+        int moved = 0;
+        for (int id = 1; id <= NUMBER_OF_HOUSEHOLDS; id++) {
+            if (dwellingByHousehold[id] != id) {
+                moved++;
+            }
+        }
+        Assert.assertTrue("All households want to move, so some have to find a vacant dwelling.", moved > 0);
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertArrayEquals(dwellingByHousehold, simulateMovesInBatches(createDataContainer()));
+        }
+    }
+
+    /**
+     * Handles the move events of one year like the simulator, preparing them in batches ahead of their handling.
+     * Households of a batch compete for the same vacant dwellings, so some prepared dwellings are taken when
+     * the event is handled.
+     * @return the dwelling of each household id after all moves
+     */
+    private int[] simulateMovesInBatches(DataContainer dataContainer) {
+        final MovesModelImpl model = new MovesModelImpl(dataContainer, PROPERTIES, (average, current) -> 1.,
+                new TestHousingStrategy(new AtomicInteger()), new Random(42));
+        model.setup();
+        model.prepareYear(2011);
+        final List<MoveEvent> events = model.getEventsForCurrentYear(2011);
+        Collections.shuffle(events, new Random(7));
+        for (int i = 0; i < events.size(); i++) {
+            if (i % model.getBatchSize() == 0) {
+                model.prepareEvents(events.subList(i, Math.min(i + model.getBatchSize(), events.size())));
+            }
+            model.handleEvent(events.get(i));
+        }
+        model.endSimulation();
+
+        final RealEstateDataManager realEstate = dataContainer.getRealEstateDataManager();
+        final int[] dwellingByHousehold = new int[NUMBER_OF_HOUSEHOLDS + 1];
+        for (Household household : dataContainer.getHouseholdDataManager().getHouseholds()) {
+            dwellingByHousehold[household.getId()] = household.getDwellingId();
+            Assert.assertEquals(household.getId(), realEstate.getDwelling(household.getDwellingId()).getResidentId());
+        }
+        int vacant = 0;
+        for (Dwelling dwelling : realEstate.getDwellings()) {
+            if (dwelling.getResidentId() <= 0) {
+                Assert.assertTrue(realEstate.getVacantDwellingIndex().contains(dwelling.getId()));
+                vacant++;
+            }
+        }
+        Assert.assertEquals(NUMBER_OF_DWELLINGS - NUMBER_OF_HOUSEHOLDS, vacant);
+        Assert.assertEquals(vacant, realEstate.getNumberOfVacantDDinRegion(1) + realEstate.getNumberOfVacantDDinRegion(2));
+        return dwellingByHousehold;
+    }
+
+    private void assertSatisfactionsOfFullEvaluation(MovesModelImpl model) {
+        final double[] sumByZone = new double[NUMBER_OF_ZONES + 1];
+        final int[] householdsByZone = new int[NUMBER_OF_ZONES + 1];
+        for (Household household : dataContainer.getHouseholdDataManager().getHouseholds()) {
+            final Dwelling dwelling = dataContainer.getRealEstateDataManager().getDwelling(household.getDwellingId());
+            sumByZone[dwelling.getZoneId()] += TestHousingStrategy.utility(household, dwelling);
+            householdsByZone[dwelling.getZoneId()]++;
+
+            final CommuteModeChoiceMapping mapping = (CommuteModeChoiceMapping)
+                    household.getAttribute("COMMUTE_MODE_CHOICE_MAPPING").get();
+            for (Person person : household.getPersons().values()) {
+                Assert.assertEquals(TestHousingStrategy.mode(dwelling), mapping.getMode(person).mode);
+                Assert.assertEquals(dwelling.getId(), mapping.getMode(person).utility, 0.);
+            }
+        }
+        for (int zone = 1; zone <= NUMBER_OF_ZONES; zone++) {
+            Assert.assertEquals(householdsByZone[zone], model.getHouseholdsByZone().get(zone));
+            Assert.assertEquals(sumByZone[zone], model.getSumOfSatisfactionsByZone().get(zone), 1e-12);
+        }
+    }
+
+    /**
+     * Two regions with two zones each and three dwellings per zone. Households 1 to 8 live in dwellings 1 to 8,
+     * dwellings 9 to 12 are vacant.
+     */
+    static DataContainer createDataContainer() {
+        final DefaultGeoData geoData = new DefaultGeoData();
+        for (int regionId = 1; regionId <= 2; regionId++) {
+            final RegionImpl region = new RegionImpl(regionId);
+            geoData.addRegion(region);
+            for (int zoneId = 2 * regionId - 1; zoneId <= 2 * regionId; zoneId++) {
+                final ZoneImpl zone = new ZoneImpl(zoneId, 10, region);
+                region.addZone(zone);
+                geoData.addZone(zone);
+            }
+        }
+
+        final TravelTimes travelTimes = new TravelTimes() {
+            @Override
+            public double getTravelTime(Location origin, Location destination, double timeOfDay_s, String mode) {
+                return 10;
+            }
+
+            @Override
+            public double getTravelTimeFromRegion(Region region, Zone zone, double timeOfDay_s, String mode) {
+                return 10;
+            }
+
+            @Override
+            public double getTravelTimeToRegion(Zone zone, Region region, double timeOfDay_s, String mode) {
+                return 10;
+            }
+
+            @Override
+            public IndexedDoubleMatrix2D getPeakSkim(String mode) {
+                return null;
+            }
+
+            @Override
+            public TravelTimes duplicate() {
+                return this;
+            }
+        };
+
+        final Accessibility accessibility = new Accessibility() {
+            @Override
+            public void calculateHansenAccessibilities(int year) {
+            }
+
+            @Override
+            public double getAutoAccessibilityForZone(Zone zone) {
+                return 10 * zone.getZoneId();
+            }
+
+            @Override
+            public double getTransitAccessibilityForZone(Zone zone) {
+                return 5 * zone.getZoneId();
+            }
+
+            @Override
+            public double getRegionalAccessibility(Region region) {
+                return 10 * region.getId();
+            }
+
+            @Override
+            public void setup() {
+            }
+
+            @Override
+            public void prepareYear(int year) {
+            }
+
+            @Override
+            public void endYear(int year) {
+            }
+
+            @Override
+            public void endSimulation() {
+            }
+        };
+
+        final DwellingData dwellingData = new DwellingDataImpl();
+        final HouseholdData householdData = new HouseholdDataImpl();
+        final RealEstateDataManager realEstate = new RealEstateDataManagerImpl(new DefaultDwellingTypes(),
+                dwellingData, householdData, geoData, new DwellingFactoryImpl(), PROPERTIES);
+        final HouseholdDataManager householdDataManager = new HouseholdDataManagerImpl(householdData, dwellingData,
+                new PersonFactoryImpl(), new HouseholdFactoryImpl(), PROPERTIES, realEstate);
+        final JobDataManagerImpl jobDataManager = new JobDataManagerImpl(PROPERTIES, new JobFactoryImpl(),
+                new JobDataImpl(), geoData, travelTimes, null);
+
+        final DwellingFactory dwellingFactory = realEstate.getDwellingFactory();
+        for (int id = 1; id <= NUMBER_OF_DWELLINGS; id++) {
+            final int zone = (id - 1) % NUMBER_OF_ZONES + 1;
+            final int householdId = id <= NUMBER_OF_HOUSEHOLDS ? id : -1;
+            final Dwelling dwelling = dwellingFactory.createDwelling(id, zone, null, householdId,
+                    DefaultDwellingTypes.DefaultDwellingTypeImpl.MF5plus, 1 + id % 3, 1 + id % 4, 500 + 50 * id, 1990);
+            realEstate.addDwelling(dwelling);
+            if (householdId < 0) {
+                realEstate.addDwellingToVacancyList(dwelling);
+            }
+        }
+
+        final PersonFactory personFactory = householdDataManager.getPersonFactory();
+        for (int id = 1; id <= NUMBER_OF_HOUSEHOLDS; id++) {
+            final Household household = householdDataManager.getHouseholdFactory().createHousehold(id, id, id % 2);
+            householdDataManager.addHousehold(household);
+            final Person person = personFactory.createPerson(id, 30 + id, Gender.MALE, Occupation.UNEMPLOYED,
+                    PersonRole.SINGLE, -1, 1000 * id);
+            householdDataManager.addPerson(person);
+            householdDataManager.addPersonToHousehold(person, household);
+        }
+
+        return new DefaultDataContainer(geoData, realEstate, jobDataManager, householdDataManager, travelTimes,
+                accessibility, null, PROPERTIES);
+    }
+
+    /**
+     * Deterministic strategy that chooses a commute mode by the zone of the evaluated dwelling, as strategies
+     * with commute mode choice do.
+     */
+    static final class TestHousingStrategy implements HousingStrategy<Dwelling> {
+
+        private final AtomicInteger evaluations;
+
+        TestHousingStrategy(AtomicInteger evaluations) {
+            this.evaluations = evaluations;
+        }
+
+        static double utility(Household household, Dwelling dwelling) {
+            return 1. / dwelling.getPrice() + 0.1 * dwelling.getQuality() + 0.01 * household.getAutos();
+        }
+
+        static String mode(Dwelling dwelling) {
+            return dwelling.getZoneId() % 2 == 0 ? "pt" : "car";
+        }
+
+        @Override
+        public void setup() {
+        }
+
+        @Override
+        public boolean isHouseholdEligibleToLiveHere(Household household, Dwelling dd) {
+            return true;
+        }
+
+        @Override
+        public double calculateHousingUtility(Household hh, Dwelling dwelling) {
+            evaluations.incrementAndGet();
+            final CommuteModeChoiceMapping mapping = new CommuteModeChoiceMapping(hh.getHhSize());
+            for (Person person : hh.getPersons().values()) {
+                mapping.assignMode(new CommuteModeChoiceMapping.CommuteMode(mode(dwelling), dwelling.getId()), person);
+            }
+            hh.setAttribute("COMMUTE_MODE_CHOICE_MAPPING", mapping);
+            return utility(hh, dwelling);
+        }
+
+        @Override
+        public double calculateSelectDwellingProbability(double util) {
+            return Math.exp(util);
+        }
+
+        @Override
+        public double calculateSelectRegionProbability(double util) {
+            return Math.exp(util);
+        }
+
+        @Override
+        public void prepareYear() {
+        }
+
+        @Override
+        public double calculateRegionalUtility(Household household, Region region) {
+            return 1;
+        }
+
+        @Override
+        public HousingStrategy duplicate() {
+            return new TestHousingStrategy(evaluations);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package de.tum.bgu.msm.simulator;
+
+import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.container.DefaultDataContainer;
+import de.tum.bgu.msm.data.dwelling.*;
+import de.tum.bgu.msm.data.geo.DefaultGeoData;
+import de.tum.bgu.msm.data.geo.RegionImpl;
+import de.tum.bgu.msm.data.geo.ZoneImpl;
+import de.tum.bgu.msm.data.household.*;
+import de.tum.bgu.msm.data.job.Job;
+import de.tum.bgu.msm.data.job.JobDataImpl;
+import de.tum.bgu.msm.data.job.JobDataManager;
+import de.tum.bgu.msm.data.job.JobDataManagerImpl;
+import de.tum.bgu.msm.data.job.JobFactoryImpl;
+import de.tum.bgu.msm.data.person.*;
+import de.tum.bgu.msm.models.demography.death.DeathModelImpl;
+import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.utils.RestorableRandom;
+import de.tum.bgu.msm.utils.SiloUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+public class SimulationCheckpointTest {
+
+    private static final Properties PROPERTIES = Properties.initializeProperties("./test/silo.properties");
+
+    private static final int NUMBER_OF_DWELLINGS = 60;
+    private static final int NUMBER_OF_HOUSEHOLDS = 50;
+    private static final int NUMBER_OF_JOBS = 40;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRestoredStateEqualsWrittenState() {
+        final Random global = SiloUtil.getRandomObject();
+        final Random providedAtSetup = SiloUtil.provideNewRandom();
+        SiloUtil.finishSetupOfRandoms();
+        SiloUtil.provideNewRandom();
+        Assert.assertEquals(Collections.singletonList(providedAtSetup), SiloUtil.getRandomsOfSetup());
+
+        final DataContainer written = createDataContainer();
+        fillDataContainer(written);
+        final Random writtenModelRandom = new RestorableRandom(7);
+        final DeathModelImpl writtenModel = new DeathModelImpl(written, PROPERTIES, person -> 0., writtenModelRandom);
+        for (int i = 0; i < 3; i++) {
+            written.getJobDataManager().getNextJobId();
+            writtenModelRandom.nextDouble();
+        }
+        global.nextGaussian();
+        providedAtSetup.nextInt();
+
+        final String fileName = folder.getRoot().getAbsolutePath() + "/checkpoints/checkpoint_2015.bin";
+        SimulationCheckpoint.write(fileName, 2015, "test", written, Collections.emptyList(),
+                Arrays.asList(written, written.getJobDataManager(), writtenModel));
+
+        final double expectedGlobal = global.nextGaussian();
+        final long expectedProvided = providedAtSetup.nextLong();
+        final double expectedModel = writtenModelRandom.nextDouble();
+        final int expectedJobId = written.getJobDataManager().getNextJobId();
+
+        // the restarted run has a different history of random numbers and sets up its components anew
+        global.nextDouble();
+        providedAtSetup.nextDouble();
+        final DataContainer restored = createDataContainer();
+        final SimulationCheckpoint checkpoint = SimulationCheckpoint.read(fileName, restored, Collections.emptyList());
+        Assert.assertEquals(2015, checkpoint.getYear());
+        final Random restoredModelRandom = new RestorableRandom(99);
+        final DeathModelImpl restoredModel = new DeathModelImpl(restored, PROPERTIES, person -> 0., restoredModelRandom);
+        checkpoint.restoreState(Arrays.asList(restored, restored.getJobDataManager(), restoredModel));
+
+        Assert.assertEquals(expectedGlobal, global.nextGaussian(), 0.);
+        Assert.assertEquals(expectedProvided, providedAtSetup.nextLong());
+        Assert.assertEquals(expectedModel, restoredModelRandom.nextDouble(), 0.);
+        Assert.assertEquals(expectedJobId, restored.getJobDataManager().getNextJobId());
+
+        assertEqualStores(written, restored);
+    }
+
+    private static void assertEqualStores(DataContainer expected, DataContainer actual) {
+        final Iterator<Dwelling> dwellings = actual.getRealEstateDataManager().getDwellings().iterator();
+        for (Dwelling dwelling : expected.getRealEstateDataManager().getDwellings()) {
+            final Dwelling restored = dwellings.next();
+            Assert.assertEquals(dwelling.getId(), restored.getId());
+            Assert.assertEquals(dwelling.getZoneId(), restored.getZoneId());
+            Assert.assertEquals(dwelling.getCoordinate(), restored.getCoordinate());
+            Assert.assertEquals(dwelling.getResidentId(), restored.getResidentId());
+            Assert.assertEquals(dwelling.getType(), restored.getType());
+            Assert.assertEquals(dwelling.getBedrooms(), restored.getBedrooms());
+            Assert.assertEquals(dwelling.getQuality(), restored.getQuality());
+            Assert.assertEquals(dwelling.getPrice(), restored.getPrice());
+            Assert.assertEquals(dwelling.getYearBuilt(), restored.getYearBuilt());
+            Assert.assertEquals(dwelling.getFloorSpace(), restored.getFloorSpace());
+            Assert.assertEquals(dwelling.getUsage(), restored.getUsage());
+        }
+        Assert.assertFalse(dwellings.hasNext());
+
+        final Iterator<Job> jobs = actual.getJobDataManager().getJobs().iterator();
+        for (Job job : expected.getJobDataManager().getJobs()) {
+            final Job restored = jobs.next();
+            Assert.assertEquals(job.getId(), restored.getId());
+            Assert.assertEquals(job.getZoneId(), restored.getZoneId());
+            Assert.assertEquals(job.getCoordinate(), restored.getCoordinate());
+            Assert.assertEquals(job.getWorkerId(), restored.getWorkerId());
+            Assert.assertEquals(job.getType(), restored.getType());
+        }
+        Assert.assertFalse(jobs.hasNext());
+
+        final Iterator<Household> households = actual.getHouseholdDataManager().getHouseholds().iterator();
+        for (Household household : expected.getHouseholdDataManager().getHouseholds()) {
+            final Household restored = households.next();
+            Assert.assertEquals(household.getId(), restored.getId());
+            Assert.assertEquals(household.getDwellingId(), restored.getDwellingId());
+            Assert.assertEquals(household.getAutos(), restored.getAutos());
+            Assert.assertEquals(new ArrayList<>(household.getPersons().keySet()), new ArrayList<>(restored.getPersons().keySet()));
+        }
+        Assert.assertFalse(households.hasNext());
+
+        final Iterator<Person> persons = actual.getHouseholdDataManager().getPersons().iterator();
+        for (Person person : expected.getHouseholdDataManager().getPersons()) {
+            final Person restored = persons.next();
+            Assert.assertEquals(person.getId(), restored.getId());
+            Assert.assertEquals(person.getHousehold().getId(), restored.getHousehold().getId());
+            Assert.assertEquals(person.getAge(), restored.getAge());
+            Assert.assertEquals(person.getGender(), restored.getGender());
+            Assert.assertEquals(person.getOccupation(), restored.getOccupation());
+            Assert.assertEquals(person.getRole(), restored.getRole());
+            Assert.assertEquals(person.getJobId(), restored.getJobId());
+            Assert.assertEquals(person.getAnnualIncome(), restored.getAnnualIncome());
+            Assert.assertEquals(person.hasDriverLicense(), restored.hasDriverLicense());
+        }
+        Assert.assertFalse(persons.hasNext());
+    }
+
+    /**
+     * Adds the micro data in random order and removes some entities, as simulated years do.
+     */
+    private static void fillDataContainer(DataContainer dataContainer) {
+        final Random random = new Random(42);
+        final RealEstateDataManager realEstate = dataContainer.getRealEstateDataManager();
+        final List<Integer> dwellingIds = shuffledIds(NUMBER_OF_DWELLINGS, random);
+        for (int id : dwellingIds) {
+            final Dwelling dwelling = realEstate.getDwellingFactory().createDwelling(id, 1 + id % 2, new Coordinate(id, 2 * id),
+                    id <= NUMBER_OF_HOUSEHOLDS ? id : -1, id % 3 == 0 ? DefaultDwellingTypes.DefaultDwellingTypeImpl.SFD :
+                            DefaultDwellingTypes.DefaultDwellingTypeImpl.MF5plus, 1 + id % 4, 1 + id % 3, 400 + 10 * id, 1950 + id);
+            dwelling.setFloorSpace(50 + id);
+            realEstate.addDwelling(dwelling);
+        }
+        realEstate.removeDwelling(55);
+
+        final JobDataManager jobDataManager = dataContainer.getJobDataManager();
+        for (int id : shuffledIds(NUMBER_OF_JOBS, random)) {
+            jobDataManager.addJob(jobDataManager.getFactory().createJob(id, 1 + id % 2, new Coordinate(-id, id),
+                    2 * id - 1, id % 2 == 0 ? "RET" : "OFF"));
+        }
+        jobDataManager.removeJob(13);
+
+        final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
+        for (int id : shuffledIds(NUMBER_OF_HOUSEHOLDS, random)) {
+            final Household household = householdDataManager.getHouseholdFactory().createHousehold(id, id, id % 3);
+            householdDataManager.addHousehold(household);
+            for (int personId = 2 * id; personId >= 2 * id - 1; personId--) {
+                final boolean worker = personId % 2 == 1 && id <= NUMBER_OF_JOBS && id != 13;
+                final Person person = householdDataManager.getPersonFactory().createPerson(personId, 20 + personId % 50,
+                        personId % 2 == 0 ? Gender.FEMALE : Gender.MALE, worker ? Occupation.EMPLOYED : Occupation.UNEMPLOYED,
+                        PersonRole.MARRIED, worker ? id : -1, 1000 * id);
+                person.setDriverLicense(personId % 3 != 0);
+                householdDataManager.addPerson(person);
+                householdDataManager.addPersonToHousehold(person, household);
+            }
+        }
+    }
+
+    private static List<Integer> shuffledIds(int count, Random random) {
+        final List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids, random);
+        return ids;
+    }
+
+    private static DataContainer createDataContainer() {
+        final DefaultGeoData geoData = new DefaultGeoData();
+        final RegionImpl region = new RegionImpl(1);
+        geoData.addRegion(region);
+        for (int zoneId = 1; zoneId <= 2; zoneId++) {
+            final ZoneImpl zone = new ZoneImpl(zoneId, 10, region);
+            region.addZone(zone);
+            geoData.addZone(zone);
+        }
+        final DwellingData dwellingData = new DwellingDataImpl();
+        final HouseholdData householdData = new HouseholdDataImpl();
+        final RealEstateDataManager realEstate = new RealEstateDataManagerImpl(new DefaultDwellingTypes(),
+                dwellingData, householdData, geoData, new DwellingFactoryImpl(), PROPERTIES);
+        final HouseholdDataManager householdDataManager = new HouseholdDataManagerImpl(householdData, dwellingData,
+                new PersonFactoryImpl(), new HouseholdFactoryImpl(), PROPERTIES, realEstate);
+        final JobDataManager jobDataManager = new JobDataManagerImpl(PROPERTIES, new JobFactoryImpl(),
+                new JobDataImpl(), geoData, null, null);
+        return new DefaultDataContainer(geoData, realEstate, jobDataManager, householdDataManager, null,
+                null, null, PROPERTIES);
+    }
+}
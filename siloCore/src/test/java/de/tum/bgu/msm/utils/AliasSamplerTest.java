@@ -0,0 +1,47 @@
+package de.tum.bgu.msm.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class AliasSamplerTest {
+
+    @Test
+    public void testFrequenciesFollowWeights() {
+        final String[] objects = {"a", "b", "c", "d", "e"};
+        final double[] weights = {1, 0, 3, 6, 10};
+        final AliasSampler<String> sampler = new AliasSampler<>(objects, weights);
+        Assert.assertEquals(20, sampler.getTotalWeight(), 0.);
+
+        final Random random = new Random(42);
+        final int draws = 200000;
+        final int[] counts = new int[objects.length];
+        for (int i = 0; i < draws; i++) {
+            counts[sampler.sampleIndex(random)]++;
+        }
+        Assert.assertEquals(0, counts[1]);
+        for (int i = 0; i < objects.length; i++) {
+            Assert.assertEquals(weights[i] / 20, counts[i] / (double) draws, 0.005);
+        }
+    }
+
+    @Test
+    public void testSingleObject() {
+        final AliasSampler<String> sampler = new AliasSampler<>(new String[]{"a"}, new double[]{0.3});
+        final Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("a", sampler.sampleObject(random));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsZeroWeights() {
+        new AliasSampler<>(new String[]{"a", "b"}, new double[]{0, 0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNegativeWeights() {
+        new AliasSampler<>(new String[]{"a", "b"}, new double[]{1, -1});
+    }
+}
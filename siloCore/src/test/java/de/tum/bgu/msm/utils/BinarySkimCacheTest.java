@@ -0,0 +1,120 @@
+package de.tum.bgu.msm.utils;
+
+import de.tum.bgu.msm.data.Id;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class BinarySkimCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<Id> zones = Arrays.asList(() -> 3, () -> 7, () -> 11);
+
+    @Test
+    public void testSkimIsReadFromOmxOnlyOnce() throws IOException {
+        final Path omx = folder.newFile("skim.omx").toPath();
+        Files.write(omx, new byte[]{1, 2, 3});
+        final BinarySkimCache cache = new BinarySkimCache(folder.newFolder("cache").toString());
+        final AtomicInteger reads = new AtomicInteger();
+
+        final IndexedDoubleMatrix2D first = cache.getSkim(omx.toString(), "time", 2, () -> {
+            reads.incrementAndGet();
+            return createSkim(0.5);
+        });
+        final IndexedDoubleMatrix2D second = cache.getSkim(omx.toString(), "time", 2, () -> {
+            reads.incrementAndGet();
+            return createSkim(0.5);
+        });
+
+        Assert.assertEquals(1, reads.get());
+        for (Id origin : zones) {
+            for (Id destination : zones) {
+                Assert.assertEquals(first.getIndexed(origin.getId(), destination.getId()),
+                        second.getIndexed(origin.getId(), destination.getId()), 0.);
+            }
+        }
+        Assert.assertEquals((3 * 100 + 11 + 0.5) * 2, second.getIndexed(3, 11), 0.);
+    }
+
+    @Test
+    public void testSkimIsReadAgainIfOmxChanges() throws IOException {
+        final Path omx = folder.newFile("skim.omx").toPath();
+        Files.write(omx, new byte[]{1, 2, 3});
+        final BinarySkimCache cache = new BinarySkimCache(folder.newFolder("cache").toString());
+        cache.getSkim(omx.toString(), "time", 1, () -> createSkim(0));
+
+        Files.write(omx, new byte[]{1, 2, 3, 4});
+        final IndexedDoubleMatrix2D changed = cache.getSkim(omx.toString(), "time", 1, () -> createSkim(1));
+        Assert.assertEquals(3 * 100 + 7 + 1, changed.getIndexed(3, 7), 0.);
+
+        final IndexedDoubleMatrix2D cached = cache.getSkim(omx.toString(), "time", 1, () -> {
+            throw new AssertionError("Skim should be cached");
+        });
+        Assert.assertEquals(3 * 100 + 7 + 1, cached.getIndexed(3, 7), 0.);
+    }
+
+    @Test
+    public void testUnchangedContentIsConfirmedWithoutModifyingCacheFile() throws IOException {
+        final Path omx = folder.newFile("skim.omx").toPath();
+        Files.write(omx, new byte[]{1, 2, 3});
+        final Path directory = folder.newFolder("cache").toPath();
+        final BinarySkimCache cache = new BinarySkimCache(directory.toString());
+        cache.getSkim(omx.toString(), "time", 1, () -> createSkim(0));
+        final Path cacheFile;
+        try (Stream<Path> files = Files.list(directory)) {
+            cacheFile = files.filter(file -> file.toString().endsWith(".skim")).findFirst().get();
+        }
+        final byte[] content = Files.readAllBytes(cacheFile);
+
+        final FileTime touched = FileTime.fromMillis(Files.getLastModifiedTime(omx).toMillis() + 60_000);
+        Files.setLastModifiedTime(omx, touched);
+        final IndexedDoubleMatrix2D cached = cache.getSkim(omx.toString(), "time", 1, () -> {
+            throw new AssertionError("Skim should be cached");
+        });
+        Assert.assertEquals(3 * 100 + 7, cached.getIndexed(3, 7), 0.);
+        Assert.assertArrayEquals(content, Files.readAllBytes(cacheFile));
+        Assert.assertTrue(Files.exists(cacheFile.resolveSibling(cacheFile.getFileName() + ".source")));
+
+        final BinarySkimCache.SourceState state = BinarySkimCache.SourceState.of(omx);
+        Assert.assertNotNull(BinarySkimCache.read(cacheFile, "time", state, folder.getRoot().toPath().resolve("missing"), 1));
+
+        Files.write(omx, new byte[]{3, 2, 1});
+        Assert.assertNull(BinarySkimCache.read(cacheFile, "time", BinarySkimCache.SourceState.of(omx), omx, 1));
+    }
+
+    @Test
+    public void testDoubleValuesAreKeptExactly() throws IOException {
+        final Path omx = folder.newFile("skim.omx").toPath();
+        Files.write(omx, new byte[]{1});
+        final BinarySkimCache cache = new BinarySkimCache(folder.newFolder("cache").toString());
+        cache.getSkim(omx.toString(), "time", 1, () -> createSkim(0.1));
+
+        final IndexedDoubleMatrix2D cached = cache.getSkim(omx.toString(), "time", 1, () -> {
+            throw new AssertionError("Skim should be cached");
+        });
+        Assert.assertEquals(7 * 100 + 3 + 0.1, cached.getIndexed(7, 3), 0.);
+    }
+
+    private IndexedDoubleMatrix2D createSkim(double offset) {
+        final IndexedDoubleMatrix2D skim = new IndexedDoubleMatrix2D(zones, zones);
+        for (Id origin : zones) {
+            for (Id destination : zones) {
+                skim.setIndexed(origin.getId(), destination.getId(), origin.getId() * 100 + destination.getId() + offset);
+            }
+        }
+        return skim;
+    }
+}
@@ -0,0 +1,60 @@
+package de.tum.bgu.msm.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class CumulativeDistributionTest {
+
+    private final double[] weights = {0.5, 0, 1.5, 0, 0, 2, 1};
+
+    @Test
+    public void testIndexAtMatchesLinearScan() {
+        final CumulativeDistribution distribution = new CumulativeDistribution(weights);
+        Assert.assertEquals(5, distribution.getTotalWeight(), 0.);
+        for (double position = 0; position < 5.5; position += 0.125) {
+            Assert.assertEquals(CumulativeDistribution.indexAt(weights, weights.length, position),
+                    distribution.indexAt(position));
+        }
+        Assert.assertEquals(6, distribution.indexAt(5));
+    }
+
+    @Test
+    public void testFloatWeightsCumulateInFloatPrecision() {
+        final float[] floatWeights = {16777216f, 1f, 1f};
+        Assert.assertEquals(2, CumulativeDistribution.indexAt(floatWeights, floatWeights.length, 16777216f));
+        Assert.assertEquals(1, CumulativeDistribution.indexAt(floatWeights, floatWeights.length, 16777216.));
+    }
+
+    @Test
+    public void testBatchDrawsFollowWeights() {
+        final CumulativeDistribution distribution = new CumulativeDistribution(weights);
+        final int draws = 100000;
+        final int[] counts = new int[weights.length];
+        for (int index : distribution.sample(new Random(42), draws)) {
+            counts[index]++;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            Assert.assertEquals(weights[i] / 5, counts[i] / (double) draws, 0.005);
+        }
+    }
+
+    @Test
+    public void testSampleWithoutReplacement() {
+        final CumulativeDistribution distribution = new CumulativeDistribution(weights);
+        final int[] indices = distribution.sampleWithoutReplacement(new Random(42), 4);
+        final Set<Integer> distinct = new HashSet<>();
+        for (int index : indices) {
+            Assert.assertTrue(weights[index] > 0);
+            Assert.assertTrue(distinct.add(index));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCannotDrawMoreDistinctIndicesThanWeighted() {
+        new CumulativeDistribution(weights).sampleWithoutReplacement(new Random(42), 5);
+    }
+}
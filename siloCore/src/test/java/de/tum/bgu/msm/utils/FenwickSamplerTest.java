@@ -0,0 +1,77 @@
+package de.tum.bgu.msm.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class FenwickSamplerTest {
+
+    @Test
+    public void testFrequenciesFollowUpdatedWeights() {
+        final Integer[] objects = {0, 1, 2, 3, 4, 5, 6};
+        final double[] weights = {1, 2, 0, 4, 5, 6, 7};
+        final FenwickSampler<Integer> sampler = new FenwickSampler<>(objects, weights);
+        Assert.assertEquals(25, sampler.getTotalWeight(), 1e-12);
+
+        sampler.setWeight(6, 0);
+        sampler.setWeight(2, 7);
+        weights[6] = 0;
+        weights[2] = 7;
+        Assert.assertEquals(25, sampler.getTotalWeight(), 1e-12);
+
+        final Random random = new Random(42);
+        final int draws = 200000;
+        final int[] counts = new int[objects.length];
+        for (int i = 0; i < draws; i++) {
+            counts[sampler.sampleObject(random)]++;
+        }
+        Assert.assertEquals(0, counts[6]);
+        for (int i = 0; i < objects.length; i++) {
+            Assert.assertEquals(weights[i] / 25, counts[i] / (double) draws, 0.005);
+        }
+    }
+
+    @Test
+    public void testSampleAndRemoveDrawsEveryObjectWithWeightOnce() {
+        final int size = 37;
+        final Integer[] objects = new Integer[size];
+        final double[] weights = new double[size];
+        for (int i = 0; i < size; i++) {
+            objects[i] = i;
+            weights[i] = i % 5 == 0 ? 0 : 0.1 * i;
+        }
+        final FenwickSampler<Integer> sampler = new FenwickSampler<>(objects, weights);
+        final Random random = new Random(42);
+        final Set<Integer> drawn = new HashSet<>();
+        while (sampler.getTotalWeight() > 0) {
+            final int object = sampler.sampleAndRemove(random);
+            Assert.assertNotEquals(0, object % 5);
+            Assert.assertTrue(drawn.add(object));
+        }
+        Assert.assertEquals(size - 8, drawn.size());
+    }
+
+    @Test
+    public void testTotalWeightIsZeroOnceAllWeightsAreRemoved() {
+        final Double[] objects = {0.1, 0.2, 0.7};
+        final double[] weights = {0.1, 0.2, 0.7};
+        final FenwickSampler<Double> sampler = new FenwickSampler<>(objects, weights);
+        Assert.assertEquals(2, sampler.indexAt(0.31));
+        Assert.assertEquals(2, sampler.indexAt(5.));
+        sampler.setWeight(2, 0);
+        sampler.setWeight(0, 0);
+        Assert.assertEquals(1, sampler.indexAt(0.));
+        sampler.setWeight(1, 0);
+        Assert.assertEquals(0., sampler.getTotalWeight(), 0.);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCannotSampleWithoutWeights() {
+        final FenwickSampler<String> sampler = new FenwickSampler<>(new String[]{"a", "b"}, new double[]{0, 1});
+        sampler.setWeight(1, 0);
+        sampler.sampleObject(new Random(42));
+    }
+}
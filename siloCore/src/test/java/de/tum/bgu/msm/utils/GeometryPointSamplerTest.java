@@ -0,0 +1,48 @@
+package de.tum.bgu.msm.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import java.util.Random;
+
+public class GeometryPointSamplerTest {
+
+    private final GeometryFactory factory = new GeometryFactory();
+
+    @Test
+    public void testPointsAreUniformWithinConcavePolygonWithHole() throws ParseException {
+        // L-shape of 3 x 3 minus 2 x 2, with a 0.5 x 0.5 hole in the lower left square
+        final Geometry geometry = new WKTReader(factory).read("POLYGON ((0 0, 3 0, 3 1, 1 1, 1 3, 0 3, 0 0), " +
+                "(0.25 0.25, 0.75 0.25, 0.75 0.75, 0.25 0.75, 0.25 0.25))");
+        final GeometryPointSampler sampler = new GeometryPointSampler(geometry);
+
+        final Random random = new Random(42);
+        final int draws = 50000;
+        int inLowerLeftSquare = 0;
+        for (int i = 0; i < draws; i++) {
+            final Coordinate coordinate = sampler.getRandomCoordinate(random);
+            Assert.assertTrue(geometry.covers(factory.createPoint(coordinate)));
+            if (coordinate.x < 1 && coordinate.y < 1) {
+                inLowerLeftSquare++;
+            }
+        }
+        Assert.assertEquals(0.75 / 4.75, inLowerLeftSquare / (double) draws, 0.01);
+    }
+
+    @Test
+    public void testInvalidGeometryFallsBackToRejection() throws ParseException {
+        // self-intersecting bow tie
+        final Geometry geometry = new WKTReader(factory).read("POLYGON ((0 0, 2 2, 2 0, 0 2, 0 0))");
+        final GeometryPointSampler sampler = new GeometryPointSampler(geometry);
+        final Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            final Coordinate coordinate = sampler.getRandomCoordinate(random);
+            Assert.assertTrue(coordinate.x >= 0 && coordinate.x <= 2 && coordinate.y >= 0 && coordinate.y <= 2);
+        }
+    }
+}
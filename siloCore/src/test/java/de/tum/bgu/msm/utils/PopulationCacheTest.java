@@ -0,0 +1,156 @@
+package de.tum.bgu.msm.utils;
+
+import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.container.DefaultDataContainer;
+import de.tum.bgu.msm.data.dwelling.*;
+import de.tum.bgu.msm.data.geo.DefaultGeoData;
+import de.tum.bgu.msm.data.geo.RegionImpl;
+import de.tum.bgu.msm.data.geo.ZoneImpl;
+import de.tum.bgu.msm.data.household.*;
+import de.tum.bgu.msm.data.job.Job;
+import de.tum.bgu.msm.data.job.JobDataImpl;
+import de.tum.bgu.msm.data.job.JobDataManager;
+import de.tum.bgu.msm.data.job.JobDataManagerImpl;
+import de.tum.bgu.msm.data.job.JobFactoryImpl;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonFactoryImpl;
+import de.tum.bgu.msm.io.input.DefaultDwellingReader;
+import de.tum.bgu.msm.io.input.DefaultHouseholdReader;
+import de.tum.bgu.msm.io.input.DefaultJobReader;
+import de.tum.bgu.msm.io.input.DefaultPersonReader;
+import de.tum.bgu.msm.properties.Properties;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class PopulationCacheTest {
+
+    private static final Properties PROPERTIES = Properties.initializeProperties("./test/silo.properties");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCachedPopulationEqualsPopulationOfInputFiles() throws IOException {
+        final File directory = folder.newFolder();
+        final String dwellings = write(directory, "dd.csv",
+                "id,zone,hhID,type,bedrooms,quality,monthlyCost,yearBuilt,coordX,coordY",
+                "7,2,3,SFD,3,2,900,1985,10.5,20.5",
+                "2,1,1,MF5plus,1,4,500,1960,11.5,21.5",
+                "12,1,-1,MF5plus,2,3,650,2001,12.5,22.5",
+                "5,2,2,SFA,2,1,720,1978,13.5,23.5");
+        final String jobs = write(directory, "jj.csv",
+                "id,zone,personId,type,coordX,coordY",
+                "30,2,5,OFF,1.0,2.0",
+                "4,1,-1,RET,3.0,4.0",
+                "11,1,1,OFF,5.0,6.0");
+        final String households = write(directory, "hh.csv",
+                "id,dwelling,autos",
+                "3,7,2",
+                "1,2,0",
+                "2,5,1");
+        final String persons = write(directory, "pp.csv",
+                "id,hhID,age,gender,relationShip,occupation,workplace,income,driversLicense",
+                "5,3,44,1,married,1,30,30000,true",
+                "1,1,35,2,single,1,11,25000,true",
+                "6,3,42,2,married,2,-1,0,false",
+                "3,2,70,1,single,2,-1,12000,true",
+                "8,3,12,2,child,3,-1,0,false");
+        final List<String> inputFiles = Arrays.asList(dwellings, jobs, households, persons);
+
+        final DataContainer fromFiles = createDataContainer();
+        new DefaultDwellingReader(fromFiles.getRealEstateDataManager()).readData(dwellings);
+        new DefaultJobReader(fromFiles.getJobDataManager()).readData(jobs);
+        new DefaultHouseholdReader(fromFiles.getHouseholdDataManager(), new HouseholdFactoryImpl()).readData(households);
+        new DefaultPersonReader(fromFiles.getHouseholdDataManager()).readData(persons);
+        new PopulationCache(directory.getPath(), inputFiles, "test").save(fromFiles);
+
+        final DataContainer fromCache = createDataContainer();
+        Assert.assertTrue(new PopulationCache(directory.getPath(), inputFiles, "test").load(fromCache));
+
+        Assert.assertEquals(describeDwellings(fromFiles), describeDwellings(fromCache));
+        Assert.assertEquals(describeJobs(fromFiles), describeJobs(fromCache));
+        Assert.assertEquals(describeHouseholds(fromFiles), describeHouseholds(fromCache));
+        Assert.assertEquals(describePersons(fromFiles), describePersons(fromCache));
+        Assert.assertEquals(Arrays.asList("2", "5", "7", "12"), ids(fromCache.getRealEstateDataManager().getDwellings()));
+    }
+
+    private static List<String> describeDwellings(DataContainer dataContainer) {
+        final List<String> descriptions = new ArrayList<>();
+        for (Dwelling dd : dataContainer.getRealEstateDataManager().getDwellings()) {
+            descriptions.add(dd.getId() + "," + dd.getZoneId() + "," + dd.getCoordinate() + "," + dd.getResidentId() + ","
+                    + dd.getType() + "," + dd.getBedrooms() + "," + dd.getQuality() + "," + dd.getPrice() + "," + dd.getYearBuilt());
+        }
+        return descriptions;
+    }
+
+    private static List<String> describeJobs(DataContainer dataContainer) {
+        final List<String> descriptions = new ArrayList<>();
+        for (Job jj : dataContainer.getJobDataManager().getJobs()) {
+            descriptions.add(jj.getId() + "," + jj.getZoneId() + "," + jj.getCoordinate() + "," + jj.getWorkerId() + "," + jj.getType());
+        }
+        return descriptions;
+    }
+
+    private static List<String> describeHouseholds(DataContainer dataContainer) {
+        final List<String> descriptions = new ArrayList<>();
+        for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
+            descriptions.add(hh.getId() + "," + hh.getDwellingId() + "," + hh.getAutos() + "," + hh.getPersons().keySet());
+        }
+        return descriptions;
+    }
+
+    private static List<String> describePersons(DataContainer dataContainer) {
+        final List<String> descriptions = new ArrayList<>();
+        for (Person pp : dataContainer.getHouseholdDataManager().getPersons()) {
+            descriptions.add(pp.getId() + "," + pp.getHousehold().getId() + "," + pp.getAge() + "," + pp.getGender() + ","
+                    + pp.getRole() + "," + pp.getOccupation() + "," + pp.getJobId() + "," + pp.getAnnualIncome() + ","
+                    + pp.hasDriverLicense());
+        }
+        return descriptions;
+    }
+
+    private static List<String> ids(Iterable<Dwelling> dwellings) {
+        final List<String> ids = new ArrayList<>();
+        for (Dwelling dd : dwellings) {
+            ids.add(String.valueOf(dd.getId()));
+        }
+        return ids;
+    }
+
+    private static String write(File directory, String name, String... lines) throws IOException {
+        final File file = new File(directory, name);
+        Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+        return file.getPath();
+    }
+
+    private static DataContainer createDataContainer() {
+        final DefaultGeoData geoData = new DefaultGeoData();
+        final RegionImpl region = new RegionImpl(1);
+        geoData.addRegion(region);
+        for (int zoneId = 1; zoneId <= 2; zoneId++) {
+            final ZoneImpl zone = new ZoneImpl(zoneId, 10, region);
+            region.addZone(zone);
+            geoData.addZone(zone);
+        }
+        final DwellingData dwellingData = new DwellingDataImpl();
+        final HouseholdData householdData = new HouseholdDataImpl();
+        final RealEstateDataManager realEstate = new RealEstateDataManagerImpl(new DefaultDwellingTypes(),
+                dwellingData, householdData, geoData, new DwellingFactoryImpl(), PROPERTIES);
+        final HouseholdDataManager householdDataManager = new HouseholdDataManagerImpl(householdData, dwellingData,
+                new PersonFactoryImpl(), new HouseholdFactoryImpl(), PROPERTIES, realEstate);
+        final JobDataManager jobDataManager = new JobDataManagerImpl(PROPERTIES, new JobFactoryImpl(),
+                new JobDataImpl(), geoData, null, null);
+        return new DefaultDataContainer(geoData, realEstate, jobDataManager, householdDataManager, null,
+                null, null, PROPERTIES);
+    }
+}
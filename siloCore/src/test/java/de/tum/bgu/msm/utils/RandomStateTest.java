@@ -0,0 +1,56 @@
+package de.tum.bgu.msm.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+public class RandomStateTest {
+
+    @Test
+    public void testRestorableRandomMatchesRandom() {
+        Random random = new Random(42);
+        Random restorable = new RestorableRandom(42);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(random.nextDouble(), restorable.nextDouble(), 0.);
+            Assert.assertEquals(random.nextInt(17), restorable.nextInt(17));
+            Assert.assertEquals(random.nextLong(), restorable.nextLong());
+            Assert.assertEquals(random.nextGaussian(), restorable.nextGaussian(), 0.);
+        }
+        random.setSeed(7);
+        restorable.setSeed(7);
+        Assert.assertEquals(random.nextFloat(), restorable.nextFloat(), 0.f);
+    }
+
+    @Test
+    public void testRestoredRandomContinuesSequence() throws IOException {
+        Random random = new RestorableRandom(42);
+        for (int i = 0; i < 1000; i++) {
+            random.nextDouble();
+        }
+        // leaves a pending Gaussian value
+        random.nextGaussian();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RandomState.write(random, new DataOutputStream(bytes));
+
+        Random restored = new RestorableRandom(7);
+        restored.nextInt();
+        RandomState.read(restored, new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        Assert.assertEquals(random.nextGaussian(), restored.nextGaussian(), 0.);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(random.nextLong(), restored.nextLong());
+            Assert.assertEquals(random.nextFloat(), restored.nextFloat(), 0.f);
+            Assert.assertEquals(random.nextInt(17), restored.nextInt(17));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStateOfOtherRandomsIsNotSaved() throws IOException {
+        RandomState.write(new Random(42), new DataOutputStream(new ByteArrayOutputStream()));
+    }
+}
@@ -94,21 +94,20 @@ public class DataBuilderBangkok {
         String householdFile = properties.main.baseDirectory + properties.householdData.householdFileName;
         householdFile += "_" + year + ".csv";
         HouseholdReader hhReader = new DefaultHouseholdReader(dataContainer.getHouseholdDataManager(), dataContainer.getHouseholdDataManager().getHouseholdFactory());
-        hhReader.readData(householdFile);
 
         String personFile = properties.main.baseDirectory + properties.householdData.personFileName;
         personFile += "_" + year + ".csv";
         PersonReader personReader = new DefaultPersonReader(dataContainer.getHouseholdDataManager());
-        personReader.readData(personFile);
 
         DwellingReader ddReader = new DefaultDwellingReader(dataContainer.getRealEstateDataManager());
         String dwellingsFile = properties.main.baseDirectory + properties.realEstate.dwellingsFileName + "_" + year + ".csv";
-        ddReader.readData(dwellingsFile);
 
         new JobType(properties.jobData.jobTypes);
         JobReader jjReader = new DefaultJobReader(dataContainer.getJobDataManager());
         String jobsFile = properties.main.baseDirectory + properties.jobData.jobsFileName + "_" + year + ".csv";
-        jjReader.readData(jobsFile);
+
+        SyntheticPopulationReader.read(hhReader, householdFile, ddReader, dwellingsFile, jjReader, jobsFile,
+                personReader, personFile);
 
         MicroDataScaler microDataScaler = new MicroDataScaler(dataContainer, properties);
         microDataScaler.scale();
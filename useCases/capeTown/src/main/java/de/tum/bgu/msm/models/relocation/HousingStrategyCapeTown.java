@@ -17,6 +17,7 @@ import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.data.person.PersonCapeTown;
 import de.tum.bgu.msm.data.person.RaceCapeTown;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.models.relocation.moves.CommuteFactorCache;
 import de.tum.bgu.msm.models.relocation.moves.DwellingProbabilityStrategy;
 import de.tum.bgu.msm.models.relocation.moves.HousingStrategy;
 import de.tum.bgu.msm.models.relocation.moves.RegionProbabilityStrategy;
@@ -75,6 +76,11 @@ public class HousingStrategyCapeTown implements HousingStrategy {
     private IndexedDoubleMatrix1D ppByRegion;
     private IndexedDoubleMatrix1D ppByZone;
 
+    /**
+     * Shared with all duplicates of this strategy, cleared every year.
+     */
+    private CommuteFactorCache commuteFactors;
+
     public HousingStrategyCapeTown(DataContainer dataContainer, Properties properties, TravelTimes travelTimes, DwellingUtilityStrategyCapeTown ddUtilityStrategy, RegionUtilityStrategy regionUtilityStrategy, DwellingProbabilityStrategy ddProbabilityStrategy, RegionProbabilityStrategy regionProbabilityStrategy) {
         this.dataContainer = dataContainer;
         this.geoData = dataContainer.getGeoData();
@@ -92,6 +98,7 @@ public class HousingStrategyCapeTown implements HousingStrategy {
     public void setup() {
         ppByRegion = new IndexedDoubleMatrix1D(geoData.getRegions().values());
         ppByZone = new IndexedDoubleMatrix1D(geoData.getZones().values());
+        commuteFactors = new CommuteFactorCache(geoData, dataContainer.getCommutingTimeProbability(), properties.transportModel.peakHour_s);
         calculateRegionalUtilities();
     }
 
@@ -120,8 +127,7 @@ public class HousingStrategyCapeTown implements HousingStrategy {
         for (Person pp : hh.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
                 Job workLocation = Objects.requireNonNull(jobDataManager.getJobFromId(pp.getJobId()));
-                double travelTime_min = travelTimes.getTravelTime(dwelling, workLocation, properties.transportModel.peakHour_s, TransportMode.car);
-                double factorForThisZone = dataContainer.getCommutingTimeProbability().getCommutingTimeProbability(Math.max(1, (int) travelTime_min), TransportMode.car);
+                double factorForThisZone = commuteFactors.getCommuteFactor(travelTimes, dwelling, workLocation, TransportMode.car);
                 workDistanceUtility *= factorForThisZone;
             }
         }
@@ -154,6 +160,7 @@ public class HousingStrategyCapeTown implements HousingStrategy {
 
     @Override
     public void prepareYear() {
+        commuteFactors.clear();
         calculateRegionalUtilities();
     }
 
@@ -196,6 +203,14 @@ public class HousingStrategyCapeTown implements HousingStrategy {
         return normalize(region, genericUtil*thisRegionFactor);
     }
 
+    /**
+     * Housing utilities depend on the racial composition of zones, which changes with every move.
+     */
+    @Override
+    public boolean supportsIncrementalSatisfaction() {
+        return false;
+    }
+
     @Override
     public HousingStrategy duplicate() {
         TravelTimes ttCopy = travelTimes.duplicate();
@@ -205,6 +220,7 @@ public class HousingStrategyCapeTown implements HousingStrategy {
         strategy.utilityByRegionByRaceByIncome = utilityByRegionByRaceByIncome;
         strategy.personShareByRaceByRegion = personShareByRaceByRegion;
         strategy.personShareByRaceByZone = personShareByRaceByZone;
+        strategy.commuteFactors = commuteFactors;
 
         return strategy;
     }
@@ -307,14 +323,10 @@ public class HousingStrategyCapeTown implements HousingStrategy {
 
     private double convertPriceToUtility(int price, IncomeCategory incCategory) {
 
-        Map<Integer, Float> shares = dataContainer.getRealEstateDataManager().getRentPaymentsForIncomeGroup(incCategory);
         // 25 rent categories are defined as <rent/200>, see RealEstateDataManager
         int priceCategory = (int) (price / 200f);
         priceCategory = Math.min(priceCategory, RENT_CATEGORIES);
-        double util = 0;
-        for (int i = 0; i <= priceCategory; i++) {
-            util += shares.get(i);
-        }
+        double util = dataContainer.getRealEstateDataManager().getCumulativeRentShare(incCategory, priceCategory);
         // invert utility, as lower price has higher utility
         return Math.max(0, 1.f - util);
     }
@@ -30,9 +30,39 @@ public class DataBuilderFabiland {
 
         GeoData geoData = new DefaultGeoData();
 
-        DwellingData dwellingData = new DwellingDataImpl();
-        HouseholdData householdData = new HouseholdDataImpl();
-        JobData jobData = new JobDataImpl();
+        final DwellingData dwellingData;
+        final DwellingFactory dwellingFactory;
+        if (properties.realEstate.columnarStore) {
+            ColumnarDwellingData columnarData = new ColumnarDwellingData();
+            dwellingData = columnarData;
+            dwellingFactory = columnarData.getDwellingFactory();
+        } else {
+            dwellingData = new DwellingDataImpl();
+            dwellingFactory = new DwellingFactoryImpl();
+        }
+        final HouseholdData householdData;
+        final HouseholdFactory hhFactory;
+        final PersonFactory ppFactory;
+        if (properties.householdData.columnarStore) {
+            ColumnarHouseholdData columnarData = new ColumnarHouseholdData();
+            householdData = columnarData;
+            hhFactory = columnarData.getHouseholdFactory();
+            ppFactory = columnarData.getPersonFactory();
+        } else {
+            householdData = new HouseholdDataImpl();
+            hhFactory = new HouseholdFactoryImpl();
+            ppFactory = new PersonFactoryImpl();
+        }
+        final JobData jobData;
+        final JobFactory jobFactory;
+        if (properties.jobData.columnarStore) {
+            ColumnarJobData columnarData = new ColumnarJobData();
+            jobData = columnarData;
+            jobFactory = columnarData.getJobFactory();
+        } else {
+            jobData = new JobDataImpl();
+            jobFactory = new JobFactoryImpl();
+        }
 
         TravelTimes travelTimes = null;
         Accessibility accessibility = null;
@@ -60,17 +90,14 @@ public class DataBuilderFabiland {
                 new SandboxDwellingTypes(),
                 dwellingData,
                 householdData, geoData,
-                new DwellingFactoryImpl(),
+                dwellingFactory,
                 properties);
 
         JobDataManager jobManager = new JobDataManagerImpl(
-                properties, new JobFactoryImpl(),
+                properties, jobFactory,
                 jobData, geoData,
                 travelTimes, commutingTimeProbability);
 
-        final HouseholdFactory hhFactory = new HouseholdFactoryImpl();
-        final PersonFactory ppFactory = new PersonFactoryImpl();
-
         HouseholdDataManager householdManager = new HouseholdDataManagerImpl(
                 householdData, dwellingData,
                 ppFactory, hhFactory,
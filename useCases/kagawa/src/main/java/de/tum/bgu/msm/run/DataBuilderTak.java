@@ -26,9 +26,39 @@ public class DataBuilderTak {
 
     public static DataContainer getTakModelData(Properties properties, Config config) {
 
-        HouseholdData householdData = new HouseholdDataImpl();
-        JobData jobData = new JobDataImpl();
-        DwellingData dwellingData = new DwellingDataImpl();
+        HouseholdData householdData;
+        HouseholdFactory hhFactory;
+        PersonFactory ppFactory;
+        if (properties.householdData.columnarStore) {
+            ColumnarHouseholdData columnarData = new ColumnarHouseholdData();
+            householdData = columnarData;
+            hhFactory = columnarData.getHouseholdFactory();
+            ppFactory = columnarData.getPersonFactory();
+        } else {
+            householdData = new HouseholdDataImpl();
+            hhFactory = new HouseholdFactoryImpl();
+            ppFactory = new PersonFactoryImpl();
+        }
+        JobData jobData;
+        JobFactory jobFactory;
+        if (properties.jobData.columnarStore) {
+            ColumnarJobData columnarData = new ColumnarJobData();
+            jobData = columnarData;
+            jobFactory = columnarData.getJobFactory();
+        } else {
+            jobData = new JobDataImpl();
+            jobFactory = new JobFactoryImpl();
+        }
+        DwellingData dwellingData;
+        DwellingFactory dwellingFactory;
+        if (properties.realEstate.columnarStore) {
+            ColumnarDwellingData columnarData = new ColumnarDwellingData();
+            dwellingData = columnarData;
+            dwellingFactory = columnarData.getDwellingFactory();
+        } else {
+            dwellingData = new DwellingDataImpl();
+            dwellingFactory = new DwellingFactoryImpl();
+        }
 
         GeoData geoData = new DefaultGeoData();
 
@@ -53,16 +83,12 @@ public class DataBuilderTak {
         //TODO: revise this!
         new JobType(properties.jobData.jobTypes);
 
-        JobFactory jobFactory = new JobFactoryImpl();
-
         RealEstateDataManager realEstateDataManager = new RealEstateDataManagerImpl(
-                new DefaultDwellingTypes(), dwellingData, householdData, geoData, new DwellingFactoryImpl(), properties);
+                new DefaultDwellingTypes(), dwellingData, householdData, geoData, dwellingFactory, properties);
 
         JobDataManager jobDataManager = new JobDataManagerImpl(
                 properties, jobFactory, jobData, geoData, travelTimes, commutingTimeProbability);
 
-        HouseholdFactory hhFactory = new HouseholdFactoryImpl();
-        PersonFactory ppFactory = new PersonFactoryImpl();
         HouseholdDataManager householdDataManager = new HouseholdDataManagerImpl(
                 householdData, dwellingData, ppFactory,
                 hhFactory, properties, realEstateDataManager);
@@ -87,21 +113,20 @@ public class DataBuilderTak {
         householdFile += "_" + year + ".csv";
         HouseholdReader hhReader = new DefaultHouseholdReader(dataContainer.getHouseholdDataManager(),
                 dataContainer.getHouseholdDataManager().getHouseholdFactory());
-        hhReader.readData(householdFile);
 
         String personFile = properties.main.baseDirectory + properties.householdData.personFileName;
         personFile += "_" + year + ".csv";
         PersonReader personReader = new DefaultPersonReader(dataContainer.getHouseholdDataManager());
-        personReader.readData(personFile);
 
         DwellingReader ddReader = new DefaultDwellingReader(dataContainer.getRealEstateDataManager());
         String dwellingsFile = properties.main.baseDirectory + properties.realEstate.dwellingsFileName + "_" + year + ".csv";
-        ddReader.readData(dwellingsFile);
 
         new JobType(properties.jobData.jobTypes);
         JobReader jjReader = new DefaultJobReader(dataContainer.getJobDataManager());
         String jobsFile = properties.main.baseDirectory + properties.jobData.jobsFileName + "_" + year + ".csv";
-        jjReader.readData(jobsFile);
+
+        SyntheticPopulationReader.read(hhReader, householdFile, ddReader, dwellingsFile, jjReader, jobsFile,
+                personReader, personFile);
 
     }
 }
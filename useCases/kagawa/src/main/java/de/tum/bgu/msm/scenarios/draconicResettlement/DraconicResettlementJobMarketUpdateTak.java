@@ -8,8 +8,7 @@ import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.models.jobmography.JobMarketUpdate;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.util.concurrent.ConcurrentExecutor;
-import de.tum.bgu.msm.utils.SampleException;
-import de.tum.bgu.msm.utils.Sampler;
+import de.tum.bgu.msm.utils.AliasSampler;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 import org.locationtech.jts.geom.Coordinate;
@@ -79,7 +78,7 @@ public class DraconicResettlementJobMarketUpdateTak extends AbstractModel implem
             }
         }
 
-        Sampler<Zone> zoneSampler = new Sampler<>(dataContainer.getGeoData().getZones().size(), Zone.class);
+        final List<Zone> urbanZones = new ArrayList<>();
         for (Zone zone : dataContainer.getGeoData().getZones().values()) {
             boolean isRural = true;
             for (DefaultDwellingTypes.DefaultDwellingTypeImpl dTp : DefaultDwellingTypes.DefaultDwellingTypeImpl.values()) {
@@ -87,9 +86,19 @@ public class DraconicResettlementJobMarketUpdateTak extends AbstractModel implem
 
             }
             if (!isRural) {
-                zoneSampler.incrementalAdd(zone, jobDataManager.getJobDensityInZone(zone.getZoneId()));
+                urbanZones.add(zone);
             }
         }
+        final double[] jobDensities = new double[urbanZones.size()];
+        for (int i = 0; i < jobDensities.length; i++) {
+            jobDensities[i] = jobDataManager.getJobDensityInZone(urbanZones.get(i).getZoneId());
+        }
+        AliasSampler<Zone> zoneSampler = null;
+        try {
+            zoneSampler = new AliasSampler<>(urbanZones, jobDensities);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Could not sample urban zones by job density. No jobs are relocated or created: " + e.getMessage());
+        }
 
         for (Job job : jobDataManager.getJobs()) {
             if (random.nextDouble() < 0.1) {
@@ -100,14 +109,10 @@ public class DraconicResettlementJobMarketUpdateTak extends AbstractModel implem
                     if (zone.getDevelopment().isThisDwellingTypeAllowed(dTp)) isRural = false;
 
                 }
-                if (isRural) {
-                    try {
-                        Zone urbanZone = zoneSampler.sampleObject();
-                        Coordinate urbanCoord = urbanZone.getRandomCoordinate(random);
-                        job.relocateJob(urbanZone, urbanCoord);
-                    } catch (SampleException e) {
-                        LOGGER.warn(e);
-                    }
+                if (isRural && zoneSampler != null) {
+                    Zone urbanZone = zoneSampler.sampleObject(random);
+                    Coordinate urbanCoord = urbanZone.getRandomCoordinate(random);
+                    jobDataManager.relocateJob(job.getId(), urbanZone, urbanCoord);
                 }
             }
         }
@@ -118,19 +123,18 @@ public class DraconicResettlementJobMarketUpdateTak extends AbstractModel implem
 
         for (String jt : jobsByType.keySet()) {
             int newJobs = (int) (jobsByType.get(jt).size() * properties.jobData.growthRateInPercentByJobType.get(jt)) / 100;
+            if (zoneSampler == null) {
+                continue;
+            }
             for (int i = 0; i < newJobs; i++) {
-                try {
-                    Zone zone = zoneSampler.sampleObject();
-                    int id = jobDataManager.getNextJobId();
-                    Coordinate coordinate = zone.getRandomCoordinate(random);
-                    final Job job = factory.createJob(id, zone.getZoneId(), coordinate, -1, jt);
-                    jobDataManager.addJob(job);
-                    if (id == SiloUtil.trackJj) {
-                        SiloUtil.trackWriter.println("Job " + id + " of type " + jt +
-                                " was newly created in zone " + zone + " based on exogenous forecast.");
-                    }
-                } catch (SampleException e) {
-                    LOGGER.warn(e);
+                Zone zone = zoneSampler.sampleObject(random);
+                int id = jobDataManager.getNextJobId();
+                Coordinate coordinate = zone.getRandomCoordinate(random);
+                final Job job = factory.createJob(id, zone.getZoneId(), coordinate, -1, jt);
+                jobDataManager.addJob(job);
+                if (id == SiloUtil.trackJj) {
+                    SiloUtil.trackWriter.println("Job " + id + " of type " + jt +
+                            " was newly created in zone " + zone + " based on exogenous forecast.");
                 }
             }
         }
@@ -14,12 +14,16 @@ import de.tum.bgu.msm.data.household.HouseholdUtil;
 import de.tum.bgu.msm.data.job.JobDataManager;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.Checkpointable;
 import de.tum.bgu.msm.utils.SiloUtil;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Arrays;
 
-public class DataContainerMstm implements DataContainer {
+public class DataContainerMstm implements DataContainer, Checkpointable {
     
     private final DefaultDataContainer delegate;
     private final Properties properties;
@@ -98,6 +102,16 @@ public class DataContainerMstm implements DataContainer {
         }
     }
 
+    @Override
+    public void writeCheckpoint(DataOutputStream out) throws IOException {
+        delegate.writeCheckpoint(out);
+    }
+
+    @Override
+    public void readCheckpoint(DataInputStream in) throws IOException {
+        delegate.readCheckpoint(in);
+    }
+
     private void preparePrestoSummary() {
 
         String prestoZoneFile = properties.main.baseDirectory + properties.main.prestoZoneFile;
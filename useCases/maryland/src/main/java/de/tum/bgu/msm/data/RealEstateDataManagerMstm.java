@@ -75,6 +75,11 @@ public class RealEstateDataManagerMstm implements RealEstateDataManager {
         return delegate.getRentPaymentsForIncomeGroup(incomeCategory);
     }
 
+    @Override
+    public double getCumulativeRentShare(IncomeCategory incomeCategory, int rentCategory) {
+        return delegate.getCumulativeRentShare(incomeCategory, rentCategory);
+    }
+
     @Override
     public int getNextDwellingId() {
         return delegate.getNextDwellingId();
@@ -101,6 +106,16 @@ public class RealEstateDataManagerMstm implements RealEstateDataManager {
         return delegate.getNumberOfVacantDDinRegion(region);
     }
 
+    @Override
+    public int sampleVacantDwellingsInRegion(int region, Random random, Dwelling[] target) {
+        return delegate.sampleVacantDwellingsInRegion(region, random, target);
+    }
+
+    @Override
+    public VacantDwellingIndex getVacantDwellingIndex() {
+        return delegate.getVacantDwellingIndex();
+    }
+
     @Override
     public DwellingTypes getDwellingTypes() {
         return delegate.getDwellingTypes();
@@ -6,12 +6,14 @@ import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.data.person.PersonMstm;
 import de.tum.bgu.msm.data.person.Race;
 import de.tum.bgu.msm.events.MicroEvent;
+import de.tum.bgu.msm.io.output.Accumulator;
 import de.tum.bgu.msm.io.output.MultiFileResultsMonitor;
+import de.tum.bgu.msm.io.output.SinglePassAggregation;
 import de.tum.bgu.msm.properties.Properties;
 import org.apache.log4j.Logger;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.List;
 
@@ -19,6 +21,7 @@ public class MultiFileResultsMonitorMstm extends MultiFileResultsMonitor {
     private DataContainer dataContainer;
     private Properties properties;
     private PrintWriter popByRace;
+    private final SinglePassAggregation.Indicator<PersonsByRace> personsByRace;
     private final Logger logger = Logger.getLogger(MultiFileResultsMonitorMstm.class);
 
 
@@ -26,6 +29,7 @@ public class MultiFileResultsMonitorMstm extends MultiFileResultsMonitor {
         super(dataContainer, properties);
         this.dataContainer = dataContainer;
         this.properties = properties;
+        personsByRace = registerPersonIndicator(PersonsByRace::new);
     }
 
     @Override
@@ -34,8 +38,8 @@ public class MultiFileResultsMonitorMstm extends MultiFileResultsMonitor {
 
         String pathname = properties.main.baseDirectory + "scenOutput/" + properties.main.scenarioName + "/siloResults/";
         try {
-            popByRace = new PrintWriter(new File(pathname + "persByRace.csv"));
-        } catch (FileNotFoundException e) {
+            popByRace = new PrintWriter(new FileWriter(pathname + "persByRace.csv", properties.main.isRestartedFromCheckpoint()));
+        } catch (IOException e) {
             logger.error("Cannot write the result file: " + pathname, e);
         }
 
@@ -62,10 +66,7 @@ public class MultiFileResultsMonitorMstm extends MultiFileResultsMonitor {
         }
 
 
-        int ppRace[] = new int[Race.values().length];
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
-            ppRace[((PersonMstm) per).getRace().ordinal()]++;
-        }
+        int ppRace[] = getPersonIndicator(personsByRace).persons;
         popByRace.println("white," + ppRace[0]);
         popByRace.println("black," + ppRace[1]);
         popByRace.println("hispanic," + ppRace[2]);
@@ -73,5 +74,20 @@ public class MultiFileResultsMonitorMstm extends MultiFileResultsMonitor {
 
     }
 
+    private static final class PersonsByRace implements Accumulator<Person, PersonsByRace> {
+
+        private final int[] persons = new int[Race.values().length];
+
+        @Override
+        public void add(Person person) {
+            persons[((PersonMstm) person).getRace().ordinal()]++;
+        }
 
+        @Override
+        public void merge(PersonsByRace other) {
+            for (int i = 0; i < persons.length; i++) {
+                persons[i] += other.persons[i];
+            }
+        }
+    }
 }
@@ -20,6 +20,7 @@ import de.tum.bgu.msm.data.person.Occupation;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.data.person.Race;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.models.relocation.moves.CommuteFactorCache;
 import de.tum.bgu.msm.models.relocation.moves.DwellingProbabilityStrategy;
 import de.tum.bgu.msm.models.relocation.moves.HousingStrategy;
 import de.tum.bgu.msm.models.relocation.moves.RegionProbabilityStrategy;
@@ -79,6 +80,11 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
     private double selectDwellingRaceRelevance;
     private boolean provideRentSubsidyToLowIncomeHh;
 
+    /**
+     * Shared with all duplicates of this strategy, cleared every year.
+     */
+    private CommuteFactorCache commuteFactors;
+
     public HousingStrategyMstm(Properties properties,
                                DataContainer dataContainer,
                                TravelTimes travelTimes,
@@ -103,6 +109,7 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
     public void setup() {
         selectDwellingRaceRelevance = properties.moves.racialRelevanceInZone;
         provideRentSubsidyToLowIncomeHh = properties.moves.provideLowIncomeSubsidy;
+        commuteFactors = new CommuteFactorCache(geoData, commutingTimeProbability, 0);
         calculateRacialCompositionByZoneAndRegion();
     }
 
@@ -158,8 +165,7 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
                 Job workLocation = Objects.requireNonNull(jobData.getJobFromId(pp.getJobId()));
                 Zone workZone = geoData.getZones().get(workLocation.getZoneId());
-                int expectedCommuteTime = (int) travelTimes.getTravelTime(originZone, workZone, 0, TransportMode.car);
-                double factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, expectedCommuteTime), TransportMode.car);
+                double factorForThisZone = commuteFactors.getCommuteFactor(travelTimes, originZone, workZone, TransportMode.car);
                 workDistanceUtility *= factorForThisZone;
             }
         }
@@ -194,6 +200,7 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
 
     @Override
     public void prepareYear() {
+        commuteFactors.clear();
         totalVacantDd.reset();
         if (NORMALIZER == Normalizer.SHARE_VAC_DD) {
             for (int region : geoData.getRegions().keySet()) {
@@ -237,6 +244,14 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
     }
 
 
+    /**
+     * Housing utilities depend on the racial composition of zones, which changes with every move.
+     */
+    @Override
+    public boolean supportsIncrementalSatisfaction() {
+        return false;
+    }
+
     @Override
     public HousingStrategy duplicate() {
         TravelTimes travelTimes = this.travelTimes.duplicate();
@@ -245,6 +260,7 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
         housingStrategyMstm.regionalRacialComposition = this.regionalRacialComposition;
         housingStrategyMstm.zonalRacialComposition = this.zonalRacialComposition;
         housingStrategyMstm.utilityByIncomeRaceRegion = this.utilityByIncomeRaceRegion;
+        housingStrategyMstm.commuteFactors = this.commuteFactors;
         return housingStrategyMstm;
     }
 
@@ -401,14 +417,10 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
 
     private double convertPriceToUtility(int price, IncomeCategory incCategory) {
 
-        Map<Integer, Float> shares = dataContainer.getRealEstateDataManager().getRentPaymentsForIncomeGroup(incCategory);
         // 25 rent categories are defined as <rent/200>, see RealEstateDataManager
         int priceCategory = (int) (price / 200f);
         priceCategory = Math.min(priceCategory, RENT_CATEGORIES);
-        double util = 0;
-        for (int i = 0; i <= priceCategory; i++) {
-            util += shares.get(i);
-        }
+        double util = dataContainer.getRealEstateDataManager().getCumulativeRentShare(incCategory, priceCategory);
         // invert utility, as lower price has higher utility
         return Math.max(0, 1.f - util);
     }
@@ -35,6 +35,7 @@ import de.tum.bgu.msm.models.demography.marriage.MarriageStrategy;
 import de.tum.bgu.msm.models.relocation.migration.InOutMigrationImpl;
 import de.tum.bgu.msm.models.relocation.moves.MovesModelImpl;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.utils.FenwickSampler;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 
@@ -176,32 +177,14 @@ public class MarriageModelMstm extends AbstractModel implements MarriageModel {
     private Person findPartner(MarriageMarket market, Person person) {
 
         final MarriagePreference preference = defineMarriagePreference(person, market);
-        final List<Person> possiblePartners = market.getFittingPartners(preference);
-
-        if (preference == null || possiblePartners.isEmpty()) {
+        if (preference == null) {
             return null;
         }
-
-        final Map<Person, Float> probabilities = new HashMap<>();
-
-        Race personRace = ((PersonMstm) person).getRace();
-        float sum = 0;
-        for (Person pp : possiblePartners) {
-            float prob;
-            PersonMstm p = ((PersonMstm) pp);
-            if ((preference.sameRace && personRace == p.getRace())
-                    || (!preference.sameRace && personRace != p.getRace())) {
-                prob = 10000f;
-            } else {
-                prob = 0.001f;
-            }
-            sum += prob;
-            probabilities.put(p, prob);
+        final PartnerPool possiblePartners = market.getFittingPartners(preference);
+        if (possiblePartners == null || possiblePartners.isEmpty()) {
+            return null;
         }
-
-        final Person selectedPartner = SiloUtil.select(probabilities, sum, random);
-        possiblePartners.remove(selectedPartner);
-        return selectedPartner;
+        return possiblePartners.drawPartner(((PersonMstm) person).getRace(), preference.sameRace, random);
     }
 
     private MarriagePreference defineMarriagePreference(Person person, MarriageMarket market) {
@@ -215,7 +198,7 @@ public class MarriageModelMstm extends AbstractModel implements MarriageModel {
         for (int ageDiff : AGE_DIFF_RANGE) {
             final int resultingAge = person.getAge() + ageDiff;
             double probability = ageDiffProbabilityByGender.get(ageDiff, person.getGender());
-            probability *= market.getFittingPartners(resultingAge, partnerGender).size();
+            probability *= market.getNumberOfFittingPartners(resultingAge, partnerGender);
             sum += probability;
             probabilityByAge.put(resultingAge, probability);
         }
@@ -435,28 +418,73 @@ public class MarriageModelMstm extends AbstractModel implements MarriageModel {
 
     private final static class MarriageMarket {
         final List<Person> activePartners;
-        final Table<Integer, Gender, List<Person>> partnersByAgeAndGender;
+        final Table<Integer, Gender, PartnerPool> partnersByAgeAndGender = HashBasedTable.create();
 
         private MarriageMarket(List<Person> activePartners,
                                Table<Integer, Gender, List<Person>> passivePartnersByAgeAndGender) {
             this.activePartners = activePartners;
-            this.partnersByAgeAndGender = passivePartnersByAgeAndGender;
+            for (Table.Cell<Integer, Gender, List<Person>> cell : passivePartnersByAgeAndGender.cellSet()) {
+                if (cell.getValue() != null) {
+                    partnersByAgeAndGender.put(cell.getRowKey(), cell.getColumnKey(), new PartnerPool(cell.getValue()));
+                }
+            }
         }
 
-        private List<Person> getFittingPartners(MarriagePreference preference) {
-            if (preference != null) {
-                return getFittingPartners(preference.age, preference.gender);
-            } else {
-                return null;
-            }
+        private PartnerPool getFittingPartners(MarriagePreference preference) {
+            return partnersByAgeAndGender.get(preference.age, preference.gender);
         }
 
-        private List<Person> getFittingPartners(int age, Gender gender) {
-            final List<Person> entry = partnersByAgeAndGender.get(age, gender);
+        private int getNumberOfFittingPartners(int age, Gender gender) {
+            final PartnerPool entry = partnersByAgeAndGender.get(age, gender);
             if (entry == null) {
-                return Collections.emptyList();
+                return 0;
+            }
+            return entry.numberOfAvailablePartners;
+        }
+    }
+
+    /**
+     * Passive partners of one age and gender. A partner fitting the race preference of the searching person
+     * gets a weight of 10000, any other partner a weight of 0.001. As these weights only depend on the race of the
+     * searching person and its preference, the pool prepares one sampler per combination for the whole year instead
+     * of weighting all partners for every searching person. Drawn partners are removed from all samplers.
+     */
+    private final static class PartnerPool {
+        private final List<Person> partners;
+        private final Table<Race, Boolean, FenwickSampler<Person>> samplers = HashBasedTable.create();
+        private final BitSet drawnPartners;
+        private int numberOfAvailablePartners;
+
+        private PartnerPool(List<Person> partners) {
+            this.partners = partners;
+            this.drawnPartners = new BitSet(partners.size());
+            this.numberOfAvailablePartners = partners.size();
+        }
+
+        private boolean isEmpty() {
+            return numberOfAvailablePartners == 0;
+        }
+
+        private Person drawPartner(Race race, boolean sameRace, Random random) {
+            FenwickSampler<Person> sampler = samplers.get(race, sameRace);
+            if (sampler == null) {
+                final double[] weights = new double[partners.size()];
+                for (int i = 0; i < weights.length; i++) {
+                    if (!drawnPartners.get(i)) {
+                        final boolean fitsRace = ((PersonMstm) partners.get(i)).getRace() == race;
+                        weights[i] = fitsRace == sameRace ? 10000f : 0.001f;
+                    }
+                }
+                sampler = new FenwickSampler<>(partners, weights);
+                samplers.put(race, sameRace, sampler);
+            }
+            final int index = sampler.sampleIndex(random);
+            drawnPartners.set(index);
+            numberOfAvailablePartners--;
+            for (FenwickSampler<Person> otherSampler : samplers.values()) {
+                otherSampler.setWeight(index, 0);
             }
-            return entry;
+            return partners.get(index);
         }
     }
 }
\ No newline at end of file
@@ -15,9 +15,12 @@ import de.tum.bgu.msm.matsim.MatsimTravelTimesAndCosts;
 import de.tum.bgu.msm.models.modeChoice.SimpleCommuteModeChoice;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.schools.*;
+import de.tum.bgu.msm.utils.PopulationCache;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.matsim.core.config.Config;
 
+import java.util.Arrays;
+
 public class DataBuilder {
 
     private DataBuilder() {
@@ -88,29 +91,46 @@ public class DataBuilder {
         reader.readZoneCsv(fileName);
         reader.readZoneShapefile(pathShp);
 
+        if (properties.main.isRestartedFromCheckpoint()) {
+            // micro data and schools are restored from the checkpoint by the SiloModel, see PopulationCacheExtensionMuc
+            new JobType(properties.jobData.jobTypes);
+            return;
+        }
+
         int year = properties.main.startYear;
-        String householdFile = properties.main.baseDirectory + properties.householdData.householdFileName;
-        householdFile += "_" + year + ".csv";
-        HouseholdReader hhReader = new HouseholdReaderMuc(dataContainer.getHouseholdDataManager(), (HouseholdFactoryMuc) dataContainer.getHouseholdDataManager().getHouseholdFactory());
-        hhReader.readData(householdFile);
+        String householdFile = properties.main.baseDirectory + properties.householdData.householdFileName + "_" + year + ".csv";
+        String personFile = properties.main.baseDirectory + properties.householdData.personFileName + "_" + year + ".csv";
+        String dwellingsFile = properties.main.baseDirectory + properties.realEstate.dwellingsFileName + "_" + year + ".csv";
+        String jobsFile = properties.main.baseDirectory + properties.jobData.jobsFileName + "_" + year + ".csv";
+        String schoolsFile = properties.main.baseDirectory + properties.schoolData.schoolsFileName + "_" + year + ".csv";
+        new JobType(properties.jobData.jobTypes);
 
-        String personFile = properties.main.baseDirectory + properties.householdData.personFileName;
-        personFile += "_" + year + ".csv";
-        PersonReader personReader = new PersonReaderMuc(dataContainer.getHouseholdDataManager());
-        personReader.readData(personFile);
+        PopulationCache cache = null;
+        PopulationCacheExtensionMuc cacheExtension = new PopulationCacheExtensionMuc(dataContainer);
+        if (!properties.main.populationCacheDirectory.isEmpty()) {
+            // job times are drawn from the distributions when reading jobs
+            cache = new PopulationCache(properties.main.populationCacheDirectory,
+                    Arrays.asList(householdFile, personFile, dwellingsFile, jobsFile, schoolsFile,
+                            properties.main.baseDirectory + properties.jobData.jobStartTimeDistributionFile,
+                            properties.main.baseDirectory + properties.jobData.jobDurationDistributionFile),
+                    String.join(",", properties.jobData.jobTypes));
+        }
 
-        DwellingReader ddReader = new DwellingReaderMuc(dataContainer.getRealEstateDataManager());
-        String dwellingsFile = properties.main.baseDirectory + properties.realEstate.dwellingsFileName + "_" + year + ".csv";
-        ddReader.readData(dwellingsFile);
+        if (cache == null || !cache.load(dataContainer, cacheExtension)) {
+            HouseholdReader hhReader = new HouseholdReaderMuc(dataContainer.getHouseholdDataManager(), (HouseholdFactoryMuc) dataContainer.getHouseholdDataManager().getHouseholdFactory());
+            PersonReader personReader = new PersonReaderMuc(dataContainer.getHouseholdDataManager());
+            DwellingReader ddReader = new DwellingReaderMuc(dataContainer.getRealEstateDataManager());
+            JobReader jjReader = new JobReaderMuc(dataContainer.getJobDataManager(), (JobFactoryMuc) dataContainer.getJobDataManager().getFactory());
 
-        new JobType(properties.jobData.jobTypes);
-        JobReader jjReader = new JobReaderMuc(dataContainer.getJobDataManager(), (JobFactoryMuc) dataContainer.getJobDataManager().getFactory());
-        String jobsFile = properties.main.baseDirectory + properties.jobData.jobsFileName + "_" + year + ".csv";
-        jjReader.readData(jobsFile);
+            SyntheticPopulationReader.read(hhReader, householdFile, ddReader, dwellingsFile, jjReader, jobsFile,
+                    personReader, personFile);
 
-        SchoolReader ssReader = new SchoolReaderImpl(dataContainer.getSchoolData());
-        String schoolsFile = properties.main.baseDirectory + properties.schoolData.schoolsFileName + "_" + year + ".csv";
-        ssReader.readData(schoolsFile);
+            new SchoolReaderImpl(dataContainer.getSchoolData()).readData(schoolsFile);
+
+            if (cache != null) {
+                cache.save(dataContainer, cacheExtension);
+            }
+        }
 
         MicroDataScaler microDataScaler = new MicroDataScaler(dataContainer, properties);
         microDataScaler.scale();
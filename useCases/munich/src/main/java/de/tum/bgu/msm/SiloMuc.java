@@ -2,6 +2,7 @@ package de.tum.bgu.msm;
 
 import de.tum.bgu.msm.container.ModelContainer;
 import de.tum.bgu.msm.io.MultiFileResultsMonitorMuc;
+import de.tum.bgu.msm.io.PopulationCacheExtensionMuc;
 import de.tum.bgu.msm.io.output.HouseholdSatisfactionMonitor;
 import de.tum.bgu.msm.io.output.ModalSharesResultMonitor;
 import de.tum.bgu.msm.io.output.MultiFileResultsMonitor;
@@ -37,6 +38,7 @@ public class SiloMuc {
         ModelContainer modelContainer = ModelBuilderMuc.getModelContainerForMuc(dataContainer, properties, config);
 
         SiloModel model = new SiloModel(properties, dataContainer, modelContainer);
+        model.addCheckpointExtension(new PopulationCacheExtensionMuc(dataContainer));
         model.addResultMonitor(new MultiFileResultsMonitorMuc(dataContainer, properties));
         model.addResultMonitor(new ModalSharesResultMonitor(dataContainer, properties));
         model.addResultMonitor(new HouseholdSatisfactionMonitor(dataContainer, properties, modelContainer));
@@ -7,6 +7,7 @@ import de.tum.bgu.msm.io.output.DefaultDwellingWriter;
 import de.tum.bgu.msm.io.output.DwellingWriter;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
+import org.locationtech.jts.geom.Coordinate;
 
 import java.io.PrintWriter;
 
@@ -55,9 +56,10 @@ public class DwellingWriterMuc implements DwellingWriter {
             pwd.print(",");
             pwd.print(dd.getUsage());
             pwd.print(",");
-            pwd.print(dd.getCoordinate().x);
+            final Coordinate coordinate = dd.getCoordinate();
+            pwd.print(coordinate.x);
             pwd.print(",");
-            pwd.print(dd.getCoordinate().y);
+            pwd.print(coordinate.y);
             pwd.println();
             if (dd.getId() == SiloUtil.trackDd) {
                 SiloUtil.trackingFile("Writing dd " + dd.getId() + " to micro data file.");
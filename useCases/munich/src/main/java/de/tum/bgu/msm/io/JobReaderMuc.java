@@ -3,14 +3,14 @@ package de.tum.bgu.msm.io;
 import de.tum.bgu.msm.data.job.JobDataManager;
 import de.tum.bgu.msm.data.job.JobFactoryMuc;
 import de.tum.bgu.msm.data.job.JobMuc;
+import de.tum.bgu.msm.io.input.DelimitedRecordReader;
 import de.tum.bgu.msm.io.input.JobReader;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 import org.locationtech.jts.geom.Coordinate;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.util.List;
 
 public class JobReaderMuc implements JobReader {
 
@@ -27,50 +27,58 @@ public class JobReaderMuc implements JobReader {
     public void readData(String fileName) {
 
         logger.info("Reading job micro data from ascii file");
-        String recString = "";
         int recCount = 0;
-        try {
-            BufferedReader in = new BufferedReader(new FileReader(fileName));
-            recString = in.readLine();
+        try (DelimitedRecordReader in = DelimitedRecordReader.open(fileName)) {
+            final int posId = in.getColumn("id");
+            final int posZone = in.getColumn("zone");
+            final int posWorker = in.getColumn("personId");
+            final int posType = in.getColumn("type");
+            final int posCoordX = in.getColumn("CoordX");
+            final int posCoordY = in.getColumn("CoordY");
+            final int posStartTime = in.getColumn("startTime");
+            final int posDuration = in.getColumn("duration");
 
-            // read header
-            String[] header = recString.split(",");
-            int posId = SiloUtil.findPositionInArray("id", header);
-            int posZone = SiloUtil.findPositionInArray("zone", header);
-            int posWorker = SiloUtil.findPositionInArray("personId", header);
-            int posType = SiloUtil.findPositionInArray("type", header);
+            final List<JobRecord> records = in.parseAll(record -> new JobRecord(
+                    record.getInt(posId), record.getInt(posZone), record.getInt(posWorker), record.getPooledString(posType),
+                    new Coordinate(record.getDouble(posCoordX), record.getDouble(posCoordY)),
+                    record.getInt(posStartTime), record.getInt(posDuration)));
 
-            int posCoordX = SiloUtil.findPositionInArray("CoordX", header);
-            int posCoordY = SiloUtil.findPositionInArray("CoordY", header);
-            int posStartTime = SiloUtil.findPositionInArray("startTime", header);
-            int posDuration = SiloUtil.findPositionInArray("duration", header);
-
-            // read line
-            while ((recString = in.readLine()) != null) {
+            // the factory draws random working times, so jobs are created in the order of the file
+            for (JobRecord record : records) {
                 recCount++;
-                String[] lineElements = recString.split(",");
-                int id = Integer.parseInt(lineElements[posId]);
-                int zoneId = Integer.parseInt(lineElements[posZone]);
-                int worker = Integer.parseInt(lineElements[posWorker]);
-                String type = lineElements[posType].replace("\"", "");
-
-                Coordinate coordinate = new Coordinate(Double.parseDouble(lineElements[posCoordX]), Double.parseDouble(lineElements[posCoordY]));
-
-                JobMuc jj = jobFactory.createJob(id, zoneId, coordinate, worker, type);
-                int startTime = Integer.parseInt(lineElements[posStartTime]);
-                int duration = Integer.parseInt(lineElements[posDuration]);
-                jj.setJobWorkingTime(startTime, duration);
+                JobMuc jj = jobFactory.createJob(record.id, record.zoneId, record.coordinate, record.worker, record.type);
+                jj.setJobWorkingTime(record.startTime, record.duration);
 
                 jobDataManager.addJob(jj);
-                if (id == SiloUtil.trackJj) {
+                if (record.id == SiloUtil.trackJj) {
                     SiloUtil.trackWriter.println("Read job with following attributes from " + fileName);
                     SiloUtil.trackWriter.println(jj.toString());
                 }
             }
         } catch (IOException e) {
             logger.fatal("IO Exception caught reading synpop job file: " + fileName);
-            logger.fatal("recCount = " + recCount + ", recString = <" + recString + ">");
+            logger.fatal("recCount = " + recCount);
         }
         logger.info("Finished reading " + recCount + " jobs.");
     }
+
+    private static final class JobRecord {
+        private final int id;
+        private final int zoneId;
+        private final int worker;
+        private final String type;
+        private final Coordinate coordinate;
+        private final int startTime;
+        private final int duration;
+
+        private JobRecord(int id, int zoneId, int worker, String type, Coordinate coordinate, int startTime, int duration) {
+            this.id = id;
+            this.zoneId = zoneId;
+            this.worker = worker;
+            this.type = type;
+            this.coordinate = coordinate;
+            this.startTime = startTime;
+            this.duration = duration;
+        }
+    }
 }
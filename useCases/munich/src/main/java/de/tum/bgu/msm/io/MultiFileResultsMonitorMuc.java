@@ -2,15 +2,13 @@ package de.tum.bgu.msm.io;
 
 import com.google.common.collect.Multiset;
 import de.tum.bgu.msm.container.DataContainer;
-import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.events.MicroEvent;
-import de.tum.bgu.msm.io.output.DefaultResultsMonitor;
 import de.tum.bgu.msm.io.output.MultiFileResultsMonitor;
 import de.tum.bgu.msm.properties.Properties;
 import org.apache.log4j.Logger;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.List;
 
@@ -35,8 +33,8 @@ public class MultiFileResultsMonitorMuc extends MultiFileResultsMonitor {
 
         String pathname = properties.main.baseDirectory + "scenOutput/" + properties.main.scenarioName + "/siloResults/";
         try {
-            popByRace = new PrintWriter(new File(pathname + "persByRace.csv"));
-        } catch (FileNotFoundException e) {
+            popByRace = new PrintWriter(new FileWriter(pathname + "persByRace.csv", properties.main.isRestartedFromCheckpoint()));
+        } catch (IOException e) {
             logger.error("Cannot write the result file: " + pathname, e);
         }
 
@@ -63,11 +61,7 @@ public class MultiFileResultsMonitorMuc extends MultiFileResultsMonitor {
             popByRace.println("ppByRace,hh");
         }
 
-        int ppRace[] = new int[1];
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
-            ppRace[0]++;
-        }
-        popByRace.println("no_race," + ppRace[0]);
+        popByRace.println("no_race," + dataContainer.getHouseholdDataManager().getPersons().size());
 
 
     }
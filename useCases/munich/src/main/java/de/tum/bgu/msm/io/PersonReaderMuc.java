@@ -8,13 +8,14 @@ import de.tum.bgu.msm.data.person.Gender;
 import de.tum.bgu.msm.data.person.Nationality;
 import de.tum.bgu.msm.data.person.Occupation;
 import de.tum.bgu.msm.data.person.PersonRole;
+import de.tum.bgu.msm.io.input.DelimitedRecordReader;
 import de.tum.bgu.msm.io.input.PersonReader;
+import de.tum.bgu.msm.io.input.SyntheticPopulationReader;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.util.List;
 
 public class PersonReaderMuc implements PersonReader {
 
@@ -30,38 +31,30 @@ public class PersonReaderMuc implements PersonReader {
         logger.info("Reading person micro data from ascii file");
 
         PersonFactoryMuc ppFactory = new PersonFactoryMuc();
-        String recString = "";
         int recCount = 0;
-        try {
-            BufferedReader in = new BufferedReader(new FileReader(path));
-            recString = in.readLine();
+        try (DelimitedRecordReader in = DelimitedRecordReader.open(path)) {
+            final int posId = in.getColumn("id");
+            final int posHhId = in.getColumn("hhID");
+            final int posAge = in.getColumn("age");
+            final int posGender = in.getColumn("gender");
+            final int posRelShp = in.getColumn("relationShip");
+            final int posOccupation = in.getColumn("occupation");
+            final int posWorkplace = in.getColumn("workplace");
+            final int posIncome = in.getColumn("income");
+            final int posDriver = in.getColumn("driversLicense");
+            final int posSchoolId = in.getColumn("schoolId");
 
-            // read header
-            String[] header = recString.split(",");
-            int posId = SiloUtil.findPositionInArray("id", header);
-            int posHhId = SiloUtil.findPositionInArray("hhID", header);
-            int posAge = SiloUtil.findPositionInArray("age", header);
-            int posGender = SiloUtil.findPositionInArray("gender", header);
-            int posRelShp = SiloUtil.findPositionInArray("relationShip", header);
-            int posOccupation = SiloUtil.findPositionInArray("occupation", header);
-            int posWorkplace = SiloUtil.findPositionInArray("workplace", header);
-            int posIncome = SiloUtil.findPositionInArray("income", header);
-            int posDriver = SiloUtil.findPositionInArray("driversLicense", header);
-
-            // read line
-            while ((recString = in.readLine()) != null) {
-                recCount++;
-                String[] lineElements = recString.split(",");
-                int id = Integer.parseInt(lineElements[posId]);
-                int hhid = Integer.parseInt(lineElements[posHhId]);
-                int age = Integer.parseInt(lineElements[posAge]);
-                Gender gender = Gender.valueOf(Integer.parseInt(lineElements[posGender]));
-                String relShp = lineElements[posRelShp].replace("\"", "");
-                PersonRole pr = PersonRole.valueOf(relShp.toUpperCase());
-                Occupation occupation = Occupation.valueOf(Integer.parseInt(lineElements[posOccupation]));
-                int workplace = Integer.parseInt(lineElements[posWorkplace]);
-                int income = Integer.parseInt(lineElements[posIncome]);
-                boolean license = Boolean.parseBoolean(lineElements[posDriver]);
+            // households are complete, so persons are created concurrently and only linked to them afterwards
+            final List<PersonMuc> persons = in.parseAll(record -> {
+                int id = record.getInt(posId);
+                int hhid = record.getInt(posHhId);
+                int age = record.getInt(posAge);
+                Gender gender = Gender.valueOf(record.getInt(posGender));
+                PersonRole pr = record.getEnum(posRelShp, PersonRole.class);
+                Occupation occupation = Occupation.valueOf(record.getInt(posOccupation));
+                int workplace = record.getInt(posWorkplace);
+                int income = record.getInt(posIncome);
+                boolean license = record.getBoolean(posDriver);
                 //todo temporary assign driving license since this is not in the current SP version
                 //boolean license = MicroDataManager.obtainLicense(gender, age);
                 Household household = householdDataManager.getHouseholdFromId(hhid);
@@ -72,28 +65,29 @@ public class PersonReaderMuc implements PersonReader {
 
                 //TODO: fix hardcoded nationality
                 pp.setNationality(Nationality.GERMAN);
-
-                householdDataManager.addPerson(pp);
-                householdDataManager.addPersonToHousehold(pp, household);
                 pp.setDriverLicense(license);
+                pp.setHousehold(household);
 
-                int posSchoolId = SiloUtil.findPositionInArray("schoolId", header);
-                int schoolId = Integer.parseInt(lineElements[posSchoolId]);
+                int schoolId = record.getInt(posSchoolId);
                 if (schoolId == 0) {
                     pp.setSchoolId(-1);
                 } else {
                     pp.setSchoolId(schoolId);
                 }
+                return pp;
+            });
 
-
-                if (id == SiloUtil.trackPp) {
+            SyntheticPopulationReader.addPersons(householdDataManager, persons);
+            for (PersonMuc pp : persons) {
+                recCount++;
+                if (pp.getId() == SiloUtil.trackPp) {
                     SiloUtil.trackWriter.println("Read person with following attributes from " + path);
                     SiloUtil.trackWriter.println(pp.toString());
                 }
             }
         } catch (IOException e) {
             logger.fatal("IO Exception caught reading synpop household file: " + path);
-            logger.fatal("recCount = " + recCount + ", recString = <" + recString + ">");
+            logger.fatal("recCount = " + recCount);
         }
         logger.info("Finished reading " + recCount + " persons.");
     }
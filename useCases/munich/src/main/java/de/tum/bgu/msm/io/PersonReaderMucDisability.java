@@ -4,13 +4,12 @@ import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.data.person.*;
 import de.tum.bgu.msm.events.DisabilityEvent;
+import de.tum.bgu.msm.io.input.DelimitedRecordReader;
 import de.tum.bgu.msm.io.input.PersonReader;
 import de.tum.bgu.msm.models.disability.DefaultDisabilityStrategy;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 
 public class PersonReaderMucDisability implements PersonReader {
@@ -29,39 +28,30 @@ public class PersonReaderMucDisability implements PersonReader {
         logger.info("Reading person micro data from ascii file");
 
         PersonFactoryMucDisability ppFactory = new PersonFactoryMucDisability();
-        String recString = "";
         int recCount = 0;
-        try {
-            BufferedReader in = new BufferedReader(new FileReader(path));
-            recString = in.readLine();
-
-            // read header
-            String[] header = recString.split(",");
-            int posId = SiloUtil.findPositionInArray("id", header);
-            int posHhId = SiloUtil.findPositionInArray("hhID", header);
-            int posAge = SiloUtil.findPositionInArray("age", header);
-            int posGender = SiloUtil.findPositionInArray("gender", header);
-            int posRelShp = SiloUtil.findPositionInArray("relationShip", header);
-            int posOccupation = SiloUtil.findPositionInArray("occupation", header);
-            int posWorkplace = SiloUtil.findPositionInArray("workplace", header);
-            int posIncome = SiloUtil.findPositionInArray("income", header);
-            int posDriver = SiloUtil.findPositionInArray("driversLicense", header);
-            int posDisability = SiloUtil.findPositionInArray("disability", header);
-
-            // read line
-            while ((recString = in.readLine()) != null) {
+        try (DelimitedRecordReader in = DelimitedRecordReader.open(path)) {
+            int posId = in.getColumn("id");
+            int posHhId = in.getColumn("hhID");
+            int posAge = in.getColumn("age");
+            int posGender = in.getColumn("gender");
+            int posRelShp = in.getColumn("relationShip");
+            int posOccupation = in.getColumn("occupation");
+            int posWorkplace = in.getColumn("workplace");
+            int posIncome = in.getColumn("income");
+            int posDriver = in.getColumn("driversLicense");
+            int posSchoolId = in.getColumn("schoolId");
+            int posDisability = in.getColumn("disability");
+            while (in.next()) {
                 recCount++;
-                String[] lineElements = recString.split(",");
-                int id = Integer.parseInt(lineElements[posId]);
-                int hhid = Integer.parseInt(lineElements[posHhId]);
-                int age = Integer.parseInt(lineElements[posAge]);
-                Gender gender = Gender.valueOf(Integer.parseInt(lineElements[posGender]));
-                String relShp = lineElements[posRelShp].replace("\"", "");
-                PersonRole pr = PersonRole.valueOf(relShp.toUpperCase());
-                Occupation occupation = Occupation.valueOf(Integer.parseInt(lineElements[posOccupation]));
-                int workplace = Integer.parseInt(lineElements[posWorkplace]);
-                int income = Integer.parseInt(lineElements[posIncome]);
-                boolean license = Boolean.parseBoolean(lineElements[posDriver]);
+                int id = in.getInt(posId);
+                int hhid = in.getInt(posHhId);
+                int age = in.getInt(posAge);
+                Gender gender = Gender.valueOf(in.getInt(posGender));
+                PersonRole pr = in.getEnum(posRelShp, PersonRole.class);
+                Occupation occupation = Occupation.valueOf(in.getInt(posOccupation));
+                int workplace = in.getInt(posWorkplace);
+                int income = in.getInt(posIncome);
+                boolean license = in.getBoolean(posDriver);
 
                 //todo temporary assign driving license since this is not in the current SP version
                 //boolean license = MicroDataManager.obtainLicense(gender, age);
@@ -77,16 +67,15 @@ public class PersonReaderMucDisability implements PersonReader {
                 householdDataManager.addPerson(pp);
                 householdDataManager.addPersonToHousehold(pp, household);
                 pp.setDriverLicense(license);
-               if (Integer.parseInt(lineElements[posDisability]) != 0){
+               if (in.getInt(posDisability) != 0){
                     Disability disability = checkDisability(pp);
                     pp.setDisability(disability);
                 } else {
-                    Disability disability = Disability.valueOf(lineElements[posDisability]);
+                    Disability disability = Disability.valueOf(in.getString(posDisability));
                     pp.setDisability(disability);
                 }
 
-                int posSchoolId = SiloUtil.findPositionInArray("schoolId", header);
-                int schoolId = Integer.parseInt(lineElements[posSchoolId]);
+                int schoolId = in.getInt(posSchoolId);
                 if (schoolId == 0) {
                     pp.setSchoolId(-1);
                 } else {
@@ -101,7 +90,7 @@ public class PersonReaderMucDisability implements PersonReader {
             }
         } catch (IOException e) {
             logger.fatal("IO Exception caught reading synpop household file: " + path);
-            logger.fatal("recCount = " + recCount + ", recString = <" + recString + ">");
+            logger.fatal("recCount = " + recCount);
         }
         logger.info("Finished reading " + recCount + " persons.");
     }
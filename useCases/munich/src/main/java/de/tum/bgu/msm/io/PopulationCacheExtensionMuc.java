@@ -0,0 +1,122 @@
+package de.tum.bgu.msm.io;
+
+import de.tum.bgu.msm.data.MicroLocation;
+import de.tum.bgu.msm.data.household.Household;
+import de.tum.bgu.msm.data.household.HouseholdDataManager;
+import de.tum.bgu.msm.data.household.HouseholdMuc;
+import de.tum.bgu.msm.data.job.Job;
+import de.tum.bgu.msm.data.job.JobDataManager;
+import de.tum.bgu.msm.data.job.JobMuc;
+import de.tum.bgu.msm.data.person.Nationality;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonMuc;
+import de.tum.bgu.msm.schools.DataContainerWithSchools;
+import de.tum.bgu.msm.schools.School;
+import de.tum.bgu.msm.schools.SchoolData;
+import de.tum.bgu.msm.schools.SchoolFactory;
+import de.tum.bgu.msm.schools.SchoolUtils;
+import de.tum.bgu.msm.utils.PopulationCache;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Stores the munich attributes of households, persons and jobs and the schools together with the core micro data,
+ * in the population cache as well as in simulation checkpoints.
+ */
+public class PopulationCacheExtensionMuc implements PopulationCache.Extension {
+
+    private final DataContainerWithSchools dataContainer;
+
+    public PopulationCacheExtensionMuc(DataContainerWithSchools dataContainer) {
+        this.dataContainer = dataContainer;
+    }
+
+    @Override
+    public void write(DataOutputStream out) throws IOException {
+        final Collection<Household> households = dataContainer.getHouseholdDataManager().getHouseholds();
+        out.writeInt(households.size());
+        for (Household household : households) {
+            out.writeInt(household.getId());
+            out.writeInt(((HouseholdMuc) household).getAutonomous());
+        }
+
+        final Collection<Person> persons = dataContainer.getHouseholdDataManager().getPersons();
+        out.writeInt(persons.size());
+        for (Person person : persons) {
+            final PersonMuc pp = (PersonMuc) person;
+            out.writeInt(pp.getId());
+            out.writeByte(pp.getNationality().ordinal());
+            out.writeInt(pp.getSchoolType());
+            out.writeInt(pp.getSchoolPlace());
+            out.writeInt(pp.getSchoolId());
+        }
+
+        final Collection<Job> jobs = dataContainer.getJobDataManager().getJobs();
+        out.writeInt(jobs.size());
+        for (Job jj : jobs) {
+            out.writeInt(jj.getId());
+            out.writeInt(jj.getStartTimeInSeconds().get());
+            out.writeInt(jj.getWorkingTimeInSeconds().get());
+        }
+
+        final Collection<School> schools = dataContainer.getSchoolData().getSchools();
+        out.writeInt(schools.size());
+        for (School ss : schools) {
+            out.writeInt(ss.getId());
+            out.writeInt(ss.getType());
+            out.writeInt(ss.getCapacity());
+            out.writeInt(ss.getOccupancy());
+            final Coordinate coordinate = ((MicroLocation) ss).getCoordinate();
+            out.writeDouble(coordinate.x);
+            out.writeDouble(coordinate.y);
+            out.writeInt(ss.getZoneId());
+            out.writeDouble(ss.getStartTimeInSeconds());
+            out.writeDouble(ss.getStudyTimeInSeconds());
+        }
+    }
+
+    @Override
+    public void read(DataInputStream in) throws IOException {
+        final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
+        final int numberOfHouseholds = in.readInt();
+        for (int i = 0; i < numberOfHouseholds; i++) {
+            final HouseholdMuc household = (HouseholdMuc) householdDataManager.getHouseholdFromId(in.readInt());
+            household.setAutonomous(in.readInt());
+        }
+
+        final int numberOfPersons = in.readInt();
+        for (int i = 0; i < numberOfPersons; i++) {
+            final PersonMuc pp = (PersonMuc) householdDataManager.getPersonFromId(in.readInt());
+            pp.setNationality(Nationality.values()[in.readByte()]);
+            pp.setSchoolType(in.readInt());
+            pp.setSchoolPlace(in.readInt());
+            pp.setSchoolId(in.readInt());
+        }
+
+        // the job factory drew as many random numbers as when reading the input files, but its times are replaced
+        final JobDataManager jobDataManager = dataContainer.getJobDataManager();
+        final int numberOfJobs = in.readInt();
+        for (int i = 0; i < numberOfJobs; i++) {
+            final JobMuc jj = (JobMuc) jobDataManager.getJobFromId(in.readInt());
+            jj.setJobWorkingTime(in.readInt(), in.readInt());
+        }
+
+        final SchoolData schoolData = dataContainer.getSchoolData();
+        final SchoolFactory factory = SchoolUtils.getFactory();
+        final int numberOfSchools = in.readInt();
+        for (int i = 0; i < numberOfSchools; i++) {
+            final int id = in.readInt();
+            final int type = in.readInt();
+            final int capacity = in.readInt();
+            final int occupancy = in.readInt();
+            final Coordinate coordinate = new Coordinate(in.readDouble(), in.readDouble());
+            final School ss = factory.createSchool(id, type, capacity, occupancy, coordinate, in.readInt());
+            ss.setSchoolStudyingTime(in.readDouble(), in.readDouble());
+            schoolData.addSchool(ss);
+        }
+    }
+}
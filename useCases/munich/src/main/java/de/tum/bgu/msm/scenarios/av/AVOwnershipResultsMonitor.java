@@ -19,6 +19,8 @@ import org.matsim.api.core.v01.TransportMode;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.List;
 import java.util.Map;
@@ -49,9 +51,11 @@ public class AVOwnershipResultsMonitor implements ResultsMonitor {
         if (switchToAutonomousVehicleModelMuc != null){
             String pathname = properties.main.baseDirectory + "scenOutput/" + properties.main.scenarioName + "/siloResults/avOwnership.csv";
             try {
-                resultWriter = new PrintWriter(new File(pathname));
-                resultWriter.println("year,hhs,autos,avs,events");
-            } catch (FileNotFoundException e) {
+                resultWriter = new PrintWriter(new FileWriter(pathname, properties.main.isRestartedFromCheckpoint()));
+                if (!properties.main.isRestartedFromCheckpoint()) {
+                    resultWriter.println("year,hhs,autos,avs,events");
+                }
+            } catch (IOException e) {
                 logger.error("Cannot write the result file: " + pathname, e);
             }
         }
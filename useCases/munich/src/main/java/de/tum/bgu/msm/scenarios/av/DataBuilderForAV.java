@@ -88,6 +88,12 @@ public class DataBuilderForAV {
         reader.readZoneCsv(fileName);
         reader.readZoneShapefile(pathShp);
 
+        if (properties.main.isRestartedFromCheckpoint()) {
+            // micro data and schools are restored from the checkpoint by the SiloModel, see PopulationCacheExtensionMuc
+            new JobType(properties.jobData.jobTypes);
+            return;
+        }
+
         int year = properties.main.startYear;
         String householdFile = properties.main.baseDirectory + properties.householdData.householdFileName;
         householdFile += "_" + year + ".csv";
@@ -15,7 +15,8 @@ import de.tum.bgu.msm.properties.Properties;
 import org.matsim.api.core.v01.TransportMode;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.List;
 
@@ -37,36 +38,38 @@ public class ModeChoiceResultsMonitor implements ResultsMonitor {
         try {
             File file = new File(pathname + "modeChoiceMicroData.csv");
             file.getParentFile().mkdirs();
-            pw = new PrintWriter(file);
-            pw.print("year");
-            pw.print(",");
-            pw.print("pp");
-            pw.print(",");
-            pw.print("hh");
-            pw.print(",");
-            pw.print("mode");
-            pw.print(",");
-            pw.print("utility");
-            pw.print(",");
-            pw.print("autos");
-            pw.print(",");
-            pw.print("avs");
-            pw.print(",");
-            pw.print("homeZone");
-            pw.print(",");
-            pw.print("workZone");
-            pw.print(",");
-            pw.print("timeCar");
-            pw.print(",");
-            pw.print("timePt");
-            pw.print(",");
-            pw.print("parkingAtHome");
-            pw.print(",");
-            pw.print("parkingAtWork");
-            pw.println();
-
-
-        } catch (FileNotFoundException e) {
+            pw = new PrintWriter(new FileWriter(file, properties.main.isRestartedFromCheckpoint()));
+            if (!properties.main.isRestartedFromCheckpoint()) {
+                pw.print("year");
+                pw.print(",");
+                pw.print("pp");
+                pw.print(",");
+                pw.print("hh");
+                pw.print(",");
+                pw.print("mode");
+                pw.print(",");
+                pw.print("utility");
+                pw.print(",");
+                pw.print("autos");
+                pw.print(",");
+                pw.print("avs");
+                pw.print(",");
+                pw.print("homeZone");
+                pw.print(",");
+                pw.print("workZone");
+                pw.print(",");
+                pw.print("timeCar");
+                pw.print(",");
+                pw.print("timePt");
+                pw.print(",");
+                pw.print("parkingAtHome");
+                pw.print(",");
+                pw.print("parkingAtWork");
+                pw.println();
+            }
+
+
+        } catch (IOException e) {
             e.printStackTrace();
         }
     }
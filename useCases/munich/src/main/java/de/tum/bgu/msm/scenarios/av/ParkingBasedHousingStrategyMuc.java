@@ -314,6 +314,15 @@ public class ParkingBasedHousingStrategyMuc implements HousingStrategy {
         }
     }
 
+    /**
+     * Housing utilities depend on the parking spaces of dwellings and on the autonomous vehicles of households,
+     * which change every year.
+     */
+    @Override
+    public boolean supportsIncrementalSatisfaction() {
+        return false;
+    }
+
     @Override
     public ParkingBasedHousingStrategyMuc duplicate() {
         TravelTimes travelTimes = this.travelTimes.duplicate();
@@ -326,14 +335,10 @@ public class ParkingBasedHousingStrategyMuc implements HousingStrategy {
 
     private double convertPriceToUtility(int price, IncomeCategory incCategory) {
 
-        Map<Integer, Float> shares = dataContainer.getRealEstateDataManager().getRentPaymentsForIncomeGroup(incCategory);
         // 25 rent categories are defined as <rent/200>, see RealEstateDataManager
         int priceCategory = (int) (price / 200f);
         priceCategory = Math.min(priceCategory, RENT_CATEGORIES);
-        double util = 0;
-        for (int i = 0; i <= priceCategory; i++) {
-            util += shares.get(i);
-        }
+        double util = dataContainer.getRealEstateDataManager().getCumulativeRentShare(incCategory, priceCategory);
         // invert utility, as lower price has higher utility
         return Math.max(0, 1.f - util);
     }
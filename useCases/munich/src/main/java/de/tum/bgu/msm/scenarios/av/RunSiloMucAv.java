@@ -4,6 +4,7 @@ import de.tum.bgu.msm.SiloModel;
 import de.tum.bgu.msm.SiloMuc;
 import de.tum.bgu.msm.container.ModelContainer;
 import de.tum.bgu.msm.io.MultiFileResultsMonitorMuc;
+import de.tum.bgu.msm.io.PopulationCacheExtensionMuc;
 import de.tum.bgu.msm.io.output.HouseholdSatisfactionMonitor;
 import de.tum.bgu.msm.io.output.ModalSharesResultMonitor;
 import de.tum.bgu.msm.io.output.MultiFileResultsMonitor;
@@ -33,6 +34,7 @@ public class RunSiloMucAv {
         ModelContainer modelContainer = ModelBuilderMucAv.getModelContainerAvForMuc(dataContainer, properties, config, useAv, avSwitchCalculator);
 
         SiloModel model = new SiloModel(properties, dataContainer, modelContainer);
+        model.addCheckpointExtension(new PopulationCacheExtensionMuc(dataContainer));
         model.addResultMonitor(new MultiFileResultsMonitorMuc(dataContainer, properties));
         //model.addResultMonitor(new MultiFileResultsMonitor(dataContainer, properties));
         model.addResultMonitor(new HouseholdSatisfactionMonitor(dataContainer, properties, modelContainer));
@@ -9,8 +9,7 @@ import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.models.jobmography.JobMarketUpdate;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.util.concurrent.ConcurrentExecutor;
-import de.tum.bgu.msm.utils.SampleException;
-import de.tum.bgu.msm.utils.Sampler;
+import de.tum.bgu.msm.utils.AliasSampler;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.log4j.Logger;
 import org.locationtech.jts.geom.Coordinate;
@@ -79,27 +78,33 @@ public class DraconicResettlementJobMarketUpdate extends AbstractModel implement
             }
         }
 
-        Sampler<Zone> zoneSampler = new Sampler<>(dataContainer.getGeoData().getZones().size(), Zone.class);
+        final List<Zone> urbanZones = new ArrayList<>();
         for(Zone zone: dataContainer.getGeoData().getZones().values()) {
             AreaTypes.SGType areaTypeSG = ((ZoneMuc) zone).getAreaTypeSG();
             if(areaTypeSG == AreaTypes.SGType.CORE_CITY || areaTypeSG == AreaTypes.SGType.MEDIUM_SIZED_CITY) {
-                zoneSampler.incrementalAdd(zone, jobDataManager.getJobDensityInZone(zone.getZoneId()));
+                urbanZones.add(zone);
             }
         }
+        final double[] jobDensities = new double[urbanZones.size()];
+        for (int i = 0; i < jobDensities.length; i++) {
+            jobDensities[i] = jobDataManager.getJobDensityInZone(urbanZones.get(i).getZoneId());
+        }
+        AliasSampler<Zone> zoneSampler = null;
+        try {
+            zoneSampler = new AliasSampler<>(urbanZones, jobDensities);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Could not sample urban zones by job density. No jobs are relocated or created: " + e.getMessage());
+        }
 
         for(Job job: jobDataManager.getJobs()) {
             if(random.nextDouble() < 0.1) {
                 int zoneId = job.getZoneId();
                 Zone zone = dataContainer.getGeoData().getZones().get(zoneId);
                 AreaTypes.SGType areaTypeSG = ((ZoneMuc) zone).getAreaTypeSG();
-                if(areaTypeSG == AreaTypes.SGType.RURAL || areaTypeSG == AreaTypes.SGType.TOWN) {
-                    try {
-                        Zone urbanZone = zoneSampler.sampleObject();
-                        Coordinate urbanCoord = urbanZone.getRandomCoordinate(random);
-                        job.relocateJob(urbanZone, urbanCoord);
-                    } catch (SampleException e) {
-                        LOGGER.warn(e);
-                    }
+                if(zoneSampler != null && (areaTypeSG == AreaTypes.SGType.RURAL || areaTypeSG == AreaTypes.SGType.TOWN)) {
+                    Zone urbanZone = zoneSampler.sampleObject(random);
+                    Coordinate urbanCoord = urbanZone.getRandomCoordinate(random);
+                    jobDataManager.relocateJob(job.getId(), urbanZone, urbanCoord);
                 }
             }
         }
@@ -110,19 +115,18 @@ public class DraconicResettlementJobMarketUpdate extends AbstractModel implement
 
         for(String jt: JobType.getJobTypes()) {
             int newJobs = (int) (jobsByType.get(jt).size() * properties.jobData.growthRateInPercentByJobType.get(jt)) / 100;
+            if (zoneSampler == null) {
+                continue;
+            }
             for (int i = 0; i < newJobs; i++) {
-                try {
-                    Zone zone = zoneSampler.sampleObject();
-                    int id = jobDataManager.getNextJobId();
-                    Coordinate coordinate = zone.getRandomCoordinate(random);
-                    final Job job = factory.createJob(id, zone.getZoneId(), coordinate, -1, jt);
-                    jobDataManager.addJob(job);
-                    if (id == SiloUtil.trackJj) {
-                        SiloUtil.trackWriter.println("Job " + id + " of type " + jt +
-                                " was newly created in zone " + zone + " based on exogenous forecast.");
-                    }
-                } catch (SampleException e) {
-                    LOGGER.warn(e);
+                Zone zone = zoneSampler.sampleObject(random);
+                int id = jobDataManager.getNextJobId();
+                Coordinate coordinate = zone.getRandomCoordinate(random);
+                final Job job = factory.createJob(id, zone.getZoneId(), coordinate, -1, jt);
+                jobDataManager.addJob(job);
+                if (id == SiloUtil.trackJj) {
+                    SiloUtil.trackWriter.println("Job " + id + " of type " + jt +
+                            " was newly created in zone " + zone + " based on exogenous forecast.");
                 }
             }
         }